@@ -0,0 +1,51 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import pl.edu.icm.cermine.content.LogicalStructureExtractor;
+import pl.edu.icm.cermine.content.SVMLogicalStructureExtractor;
+import pl.edu.icm.cermine.content.model.DocumentContentStructure;
+import pl.edu.icm.cermine.exception.AnalysisException;
+
+/**
+ * Benchmark of the logical structure (body text) extraction.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentBenchmark {
+
+    private LogicalStructureExtractor logicalExtractor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws AnalysisException {
+        logicalExtractor = new SVMLogicalStructureExtractor();
+    }
+
+    @Benchmark
+    public DocumentContentStructure logicalStructureExtraction(DocumentState state) throws AnalysisException {
+        return logicalExtractor.extractStructure(state.classified);
+    }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+import pl.edu.icm.cermine.bibref.KMeansBibReferenceExtractor;
+import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.*;
+import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.structure.transformers.BxDocumentToSnapshotWriter;
+import pl.edu.icm.cermine.structure.transformers.SnapshotToBxDocumentReader;
+
+/**
+ * Benchmark fixture: a test PDF document and the results of the subsequent
+ * pipeline stages, so that every stage can be measured on its actual input.
+ * The stages' results are computed once per trial and every iteration gets
+ * fresh copies of them, as some of the stages (e.g. zone classification)
+ * modify their input documents in place.
+ */
+@State(Scope.Benchmark)
+public class DocumentState {
+
+    /** test document from the engine's test resources */
+    @Param({"test1", "test2"})
+    public String document;
+
+    /** PDF file contents */
+    public byte[] pdf;
+
+    /** document with the extracted characters */
+    public BxDocument characters;
+
+    /** segmented document */
+    public BxDocument segmented;
+
+    /** segmented document in the reading order */
+    public BxDocument ordered;
+
+    /** document with initially classified zones */
+    public BxDocument classified;
+
+    /** document with classified metadata zones */
+    public BxDocument metadataClassified;
+
+    /** extracted reference strings */
+    public String[] references;
+
+    private byte[] charactersSnapshot;
+
+    private byte[] segmentedSnapshot;
+
+    private byte[] orderedSnapshot;
+
+    private byte[] classifiedSnapshot;
+
+    private byte[] metadataClassifiedSnapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws AnalysisException, IOException, TransformationException {
+        BxDocumentToSnapshotWriter writer = new BxDocumentToSnapshotWriter();
+        pdf = readResource("/pl/edu/icm/cermine/" + document + ".pdf");
+        BxDocument doc = new ITextCharacterExtractor().extractCharacters(newPdfStream());
+        charactersSnapshot = writer.write(doc);
+        doc = new DocstrumSegmenter().segmentDocument(doc);
+        segmentedSnapshot = writer.write(doc);
+        doc = new HierarchicalReadingOrderResolver().resolve(doc);
+        orderedSnapshot = writer.write(doc);
+        doc = SVMInitialZoneClassifier.getDefaultInstance().classifyZones(doc);
+        classifiedSnapshot = writer.write(doc);
+        references = new KMeansBibReferenceExtractor().extractBibReferences(doc);
+        doc = SVMMetadataZoneClassifier.getDefaultInstance().classifyZones(doc);
+        metadataClassifiedSnapshot = writer.write(doc);
+        copyDocuments();
+    }
+
+    @Setup(Level.Iteration)
+    public void copyDocuments() throws TransformationException {
+        SnapshotToBxDocumentReader reader = new SnapshotToBxDocumentReader();
+        characters = reader.read(charactersSnapshot);
+        segmented = reader.read(segmentedSnapshot);
+        ordered = reader.read(orderedSnapshot);
+        classified = reader.read(classifiedSnapshot);
+        metadataClassified = reader.read(metadataClassifiedSnapshot);
+    }
+
+    public InputStream newPdfStream() {
+        return new ByteArrayInputStream(pdf);
+    }
+
+    static byte[] readResource(String path) throws IOException {
+        InputStream is = DocumentState.class.getResourceAsStream(path);
+        if (is == null) {
+            throw new IOException("Missing benchmark fixture: " + path);
+        }
+        try {
+            return IOUtils.toByteArray(is);
+        } finally {
+            is.close();
+        }
+    }
+
+}
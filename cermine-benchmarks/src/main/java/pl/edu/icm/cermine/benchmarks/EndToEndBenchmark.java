@@ -0,0 +1,60 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jdom.Element;
+import org.openjdk.jmh.annotations.*;
+import pl.edu.icm.cermine.ExtractionProfile;
+import pl.edu.icm.cermine.PdfNLMContentExtractor;
+import pl.edu.icm.cermine.exception.AnalysisException;
+
+/**
+ * Per-document baseline of the whole extraction pipeline, from PDF file
+ * to NLM content, for every extraction profile. The throughput (documents
+ * per second) of the profiles is reported side by side, the single shot time
+ * shows the cost of the first, cold extraction.
+ *
+ * Usage: java -jar target/benchmarks.jar RESULT_FILE EndToEndBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SingleShotTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    /** name of the extraction profile */
+    @Param({"FULL", "METADATA", "REFERENCES"})
+    public String profile;
+
+    private PdfNLMContentExtractor extractor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws AnalysisException {
+        extractor = new PdfNLMContentExtractor(ExtractionProfile.valueOf(profile));
+    }
+
+    @Benchmark
+    public Element extractContent(DocumentState state) throws AnalysisException {
+        return extractor.extractContent(state.newPdfStream());
+    }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.jdom.Element;
+import org.openjdk.jmh.annotations.*;
+import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.metadata.EnhancerMetadataExtractor;
+import pl.edu.icm.cermine.structure.SVMMetadataZoneClassifier;
+import pl.edu.icm.cermine.structure.ZoneClassifier;
+import pl.edu.icm.cermine.structure.model.BxDocument;
+
+/**
+ * Benchmarks of the metadata extraction stages.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetadataBenchmark {
+
+    private ZoneClassifier metadataClassifier;
+    private EnhancerMetadataExtractor enhancerExtractor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws AnalysisException, IOException {
+        metadataClassifier = SVMMetadataZoneClassifier.getDefaultInstance();
+        enhancerExtractor = new EnhancerMetadataExtractor();
+    }
+
+    @Benchmark
+    public BxDocument metadataClassification(DocumentState state) throws AnalysisException {
+        return metadataClassifier.classifyZones(state.classified);
+    }
+
+    @Benchmark
+    public Element enhancers(DocumentState state) throws AnalysisException {
+        return enhancerExtractor.extractMetadata(state.metadataClassified);
+    }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import pl.edu.icm.cermine.bibref.BibReferenceExtractor;
+import pl.edu.icm.cermine.bibref.BibReferenceParser;
+import pl.edu.icm.cermine.bibref.CRFBibReferenceParser;
+import pl.edu.icm.cermine.bibref.KMeansBibReferenceExtractor;
+import pl.edu.icm.cermine.bibref.model.BibEntry;
+import pl.edu.icm.cermine.exception.AnalysisException;
+
+/**
+ * Benchmarks of the bibliographic references extraction and parsing.
+ * The parser is measured on single references from the test reference list,
+ * taken in turns.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReferencesBenchmark {
+
+    private BibReferenceExtractor referenceExtractor;
+    private BibReferenceParser<BibEntry> parser;
+    private String[] references;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws AnalysisException, IOException {
+        referenceExtractor = new KMeansBibReferenceExtractor();
+        parser = new CRFBibReferenceParser(
+                ReferencesBenchmark.class.getResourceAsStream("/pl/edu/icm/cermine/bibref/acrf.ser.gz"));
+        List<String> lines = new ArrayList<String>();
+        for (String line : new String(DocumentState.readResource("/pl/edu/icm/cermine/bibref/refs.txt"), "UTF-8")
+                .split("\\n")) {
+            if (!line.trim().isEmpty()) {
+                lines.add(line.trim());
+            }
+        }
+        references = lines.toArray(new String[lines.size()]);
+    }
+
+    @Benchmark
+    public String[] referenceExtraction(DocumentState state) throws AnalysisException {
+        return referenceExtractor.extractBibReferences(state.classified);
+    }
+
+    @Benchmark
+    public BibEntry referenceParsing() throws AnalysisException {
+        String reference = references[next];
+        next = (next + 1) % references.length;
+        return parser.parseBibReference(reference);
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.structure.*;
+import pl.edu.icm.cermine.structure.model.BxDocument;
+
+/**
+ * Benchmarks of the geometric structure extraction stages.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StructureBenchmark {
+
+    private ITextCharacterExtractor characterExtractor;
+    private ReadingOrderResolver roResolver;
+    private ZoneClassifier initialClassifier;
+
+    @Setup(Level.Trial)
+    public void setUp() throws AnalysisException, IOException {
+        characterExtractor = new ITextCharacterExtractor();
+        roResolver = new HierarchicalReadingOrderResolver();
+        initialClassifier = SVMInitialZoneClassifier.getDefaultInstance();
+    }
+
+    @Benchmark
+    public BxDocument characterExtraction(DocumentState state) throws AnalysisException {
+        return characterExtractor.extractCharacters(state.newPdfStream());
+    }
+
+    /**
+     * Docstrum segmenter keeps per-document state, so a new instance is used
+     * for every invocation.
+     */
+    @Benchmark
+    public BxDocument docstrumSegmentation(DocumentState state) throws AnalysisException {
+        return new DocstrumSegmenter().segmentDocument(state.characters);
+    }
+
+    @Benchmark
+    public BxDocument parallelDocstrumSegmentation(DocumentState state) throws AnalysisException {
+        return new ParallelDocstrumSegmenter().segmentDocument(state.characters);
+    }
+
+    /**
+     * XY-cut segmenter replaces the zones of its input pages, the input
+     * document is re-extracted in every invocation.
+     */
+    @Benchmark
+    public BxDocument xyCutSegmentation(DocumentState state) throws AnalysisException {
+        return new XYCutSegmenter().segmentDocument(characterExtractor.extractCharacters(state.newPdfStream()));
+    }
+
+    @Benchmark
+    public BxDocument readingOrderResolution(DocumentState state) throws AnalysisException {
+        return roResolver.resolve(state.segmented);
+    }
+
+    @Benchmark
+    public BxDocument initialClassification(DocumentState state) throws AnalysisException {
+        return initialClassifier.classifyZones(state.ordered);
+    }
+
+}
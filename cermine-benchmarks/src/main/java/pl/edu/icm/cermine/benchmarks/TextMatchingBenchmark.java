@@ -0,0 +1,121 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.edu.icm.cermine.structure.SVMInitialZoneClassifier;
+import pl.edu.icm.cermine.structure.SVMMetadataZoneClassifier;
+import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.tools.TextUtils;
+import pl.edu.icm.cermine.tools.classification.features.FeatureVectorBuilder;
+
+/**
+ * Benchmarks of the string matching used by the feature calculators:
+ * the regular expressions compiled on every call compared to the character
+ * class scanners, and the computation of the zone feature vectors of
+ * a whole document. Run with the GC profiler to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextMatchingBenchmark {
+
+    private List<String> lines;
+    private FeatureVectorBuilder<BxZone, BxPage> initialFeatures;
+    private FeatureVectorBuilder<BxZone, BxPage> metadataFeatures;
+
+    @Setup(Level.Trial)
+    public void setUp(DocumentState state) {
+        lines = new ArrayList<String>();
+        for (BxPage page : state.ordered.getPages()) {
+            for (BxZone zone : page.getZones()) {
+                for (BxLine line : zone.getLines()) {
+                    lines.add(line.toText());
+                }
+            }
+        }
+        initialFeatures = SVMInitialZoneClassifier.getFeatureVectorBuilder();
+        metadataFeatures = SVMMetadataZoneClassifier.getFeatureVectorBuilder();
+    }
+
+    @Benchmark
+    public int regexMatching() {
+        int count = 0;
+        for (String line : lines) {
+            if (line.matches("^[A-Z].*$")) {
+                count++;
+            }
+            if (line.matches(".*[0-9].*") && line.matches(".*[a-zA-Z].*")) {
+                count++;
+            }
+            if (line.matches("^.*\\d\\.$")) {
+                count++;
+            }
+            count += line.toLowerCase().replaceAll("[^a-z]", "").length();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int scannerMatching() {
+        int count = 0;
+        for (String line : lines) {
+            boolean singleLine = TextUtils.isSingleLine(line);
+            if (singleLine && TextUtils.startsWithUppercaseLetter(line)) {
+                count++;
+            }
+            if (singleLine && TextUtils.containsDigit(line) && TextUtils.containsLetter(line)) {
+                count++;
+            }
+            if (singleLine && line.length() > 1 && line.endsWith(".")
+                    && TextUtils.isDigit(line.charAt(line.length() - 2))) {
+                count++;
+            }
+            count += TextUtils.retainLowercaseLetters(line.toLowerCase()).length();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public void initialZoneFeatures(DocumentState state, Blackhole blackhole) {
+        computeFeatures(initialFeatures, state.ordered, blackhole);
+    }
+
+    @Benchmark
+    public void metadataZoneFeatures(DocumentState state, Blackhole blackhole) {
+        computeFeatures(metadataFeatures, state.classified, blackhole);
+    }
+
+    private static void computeFeatures(FeatureVectorBuilder<BxZone, BxPage> builder, BxDocument document,
+            Blackhole blackhole) {
+        for (BxPage page : document.getPages()) {
+            for (BxZone zone : page.getZones()) {
+                blackhole.consume(builder.getFeatureVector(zone, page));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.benchmarks;
+
+import java.io.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipInputStream;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.model.BxPage;
+import pl.edu.icm.cermine.structure.transformers.BxDocumentToTrueVizWriter;
+import pl.edu.icm.cermine.structure.transformers.TrueVizToBxDocumentReader;
+
+/**
+ * Benchmarks of reading and writing the TrueViz format.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrueVizBenchmark {
+
+    private String trueViz;
+    private List<BxPage> pages;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, TransformationException {
+        ZipInputStream zis = new ZipInputStream(
+                TrueVizBenchmark.class.getResourceAsStream("/pl/edu/icm/cermine/test1-str.xml.zip"));
+        try {
+            zis.getNextEntry();
+            trueViz = IOUtils.toString(zis, "UTF-8");
+        } finally {
+            zis.close();
+        }
+        pages = new TrueVizToBxDocumentReader().read(trueViz);
+    }
+
+    @Benchmark
+    public List<BxPage> read() throws TransformationException {
+        return new TrueVizToBxDocumentReader().read(new StringReader(trueViz));
+    }
+
+    @Benchmark
+    public Writer write() throws TransformationException {
+        Writer writer = new StringWriter(trueViz.length());
+        new BxDocumentToTrueVizWriter().write(writer, pages);
+        return writer;
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine;
+
+import pl.edu.icm.cermine.structure.ITextCharacterExtractor;
+import pl.edu.icm.cermine.structure.ITextCharacterExtractor.PageSelection;
+
+/**
+ * Named extraction profiles. A profile defines which parts of the content
+ * are extracted and plans which pages are parsed, before the parsing starts.
+ *
+ * The structure of the parsed pages is always fully extracted, including
+ * the initial zone classification, regardless of the profile: both the
+ * metadata and the references extraction start from the initially
+ * classified zones. The profiles save the work by parsing fewer pages
+ * and by skipping the extraction of the parts not included.
+ */
+public enum ExtractionProfile {
+
+    /** metadata, text and references, from the default front and back pages */
+    FULL(true, true, true, PageSelection.FRONT_AND_BACK,
+            ITextCharacterExtractor.DEFAULT_FRONT_PAGES_LIMIT, ITextCharacterExtractor.DEFAULT_BACK_PAGES_LIMIT),
+
+    /** metadata only, from the first two pages */
+    METADATA(true, false, false, PageSelection.FRONT, 2, 0),
+
+    /**
+     * references only, from the references section, which is looked for
+     * in at most the default number of back pages
+     */
+    REFERENCES(false, false, true, PageSelection.REFERENCES, 0, ITextCharacterExtractor.DEFAULT_BACK_PAGES_LIMIT);
+
+    private final boolean extractMetadata;
+
+    private final boolean extractText;
+
+    private final boolean extractReferences;
+
+    private final PageSelection pageSelection;
+
+    private final int frontPagesLimit;
+
+    private final int backPagesLimit;
+
+    private ExtractionProfile(boolean extractMetadata, boolean extractText, boolean extractReferences,
+            PageSelection pageSelection, int frontPagesLimit, int backPagesLimit) {
+        this.extractMetadata = extractMetadata;
+        this.extractText = extractText;
+        this.extractReferences = extractReferences;
+        this.pageSelection = pageSelection;
+        this.frontPagesLimit = frontPagesLimit;
+        this.backPagesLimit = backPagesLimit;
+    }
+
+    public boolean isExtractMetadata() {
+        return extractMetadata;
+    }
+
+    public boolean isExtractText() {
+        return extractText;
+    }
+
+    public boolean isExtractReferences() {
+        return extractReferences;
+    }
+
+    /**
+     * Creates a character extractor parsing the pages planned by the profile.
+     *
+     * @return character extractor
+     */
+    public ITextCharacterExtractor createCharacterExtractor() {
+        ITextCharacterExtractor characterExtractor = new ITextCharacterExtractor();
+        characterExtractor.setPageSelection(pageSelection);
+        characterExtractor.setPagesLimits(frontPagesLimit, backPagesLimit);
+        return characterExtractor;
+    }
+
+}
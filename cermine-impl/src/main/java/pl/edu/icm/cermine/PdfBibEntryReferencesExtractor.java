@@ -24,8 +24,10 @@ import pl.edu.icm.cermine.bibref.BibReferenceParser;
 import pl.edu.icm.cermine.bibref.CRFBibReferenceParser;
 import pl.edu.icm.cermine.bibref.KMeansBibReferenceExtractor;
 import pl.edu.icm.cermine.bibref.model.BibEntry;
+import pl.edu.icm.cermine.bibref.parsing.tools.CitationParseCache;
 import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.tools.profiling.ExtractionMetrics;
 
 
 /**
@@ -86,13 +88,25 @@ public class PdfBibEntryReferencesExtractor implements DocumentReferencesExtract
      */
     @Override
     public BibEntry[] extractReferences(BxDocument document) throws AnalysisException {
-        String[] refs = extractor.extractBibReferences(document);
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("references.extraction");
+        String[] refs;
+        try {
+            refs = extractor.extractBibReferences(document);
+        } finally {
+            stage.stop();
+        }
+        ExtractionMetrics.count("references", refs.length);
         
-        BibEntry[] parsedRefs = new BibEntry[refs.length];
-        for (int i = 0; i < refs.length; i++) {
-            parsedRefs[i] = parser.parseBibReference(refs[i]);
+        stage = ExtractionMetrics.startStage("references.parsing");
+        try {
+            BibEntry[] parsedRefs = new BibEntry[refs.length];
+            for (int i = 0; i < refs.length; i++) {
+                parsedRefs[i] = parser.parseBibReference(refs[i]);
+            }
+            return parsedRefs;
+        } finally {
+            stage.stop();
         }
-        return parsedRefs;
     }
 
     public void setExtractor(BibReferenceExtractor extractor) {
@@ -107,4 +121,32 @@ public class PdfBibEntryReferencesExtractor implements DocumentReferencesExtract
         this.strExtractor = strExtractor;
     }
 
+    /**
+     * Sets the cache of the parsed citations, if the parser supports caching.
+     * 
+     * @param cache citation parse cache, or null if the citations should not be cached
+     * @return true if the parser uses the cache
+     * @throws IllegalArgumentException if the cache was created for a different model
+     */
+    public boolean setCitationParseCache(CitationParseCache cache) {
+        if (parser instanceof CRFBibReferenceParser) {
+            ((CRFBibReferenceParser) parser).setCache(cache);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the identifier of the citation parser's model, which the
+     * citation parse cache has to be created for.
+     * 
+     * @return model identifier, or null if the parser does not support caching
+     */
+    public String getCitationParserModelId() {
+        if (parser instanceof CRFBibReferenceParser) {
+            return ((CRFBibReferenceParser) parser).getModelId();
+        }
+        return null;
+    }
+
 }
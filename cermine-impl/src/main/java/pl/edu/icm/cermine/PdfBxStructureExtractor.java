@@ -18,18 +18,25 @@
 
 package pl.edu.icm.cermine;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.*;
+import org.apache.commons.io.IOUtils;
 import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.exception.TransformationException;
 import pl.edu.icm.cermine.structure.*;
 import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.structure.tools.BxDocumentSnapshotStore;
+import pl.edu.icm.cermine.tools.profiling.ExtractionMetrics;
 
 
 /**
  * Document geometric structure extractor. Extracts the geometric hierarchical structure
  * (pages, zones, lines, words and characters) from a PDF file and stores it as a BxDocument object.
+ * 
+ * Optionally, the extractor uses a snapshot store. The snapshots contain the documents
+ * after the reading order resolution and before the initial classification, so they stay
+ * valid when the classification models change. The snapshot keys include the character
+ * extractor's page selection and limits and the segmenter and resolver classes, other
+ * segmentation and reading order settings should not change while a store is used.
  *
  * @author Dominika Tkaczyk
  */
@@ -46,6 +53,26 @@ public class PdfBxStructureExtractor implements DocumentStructureExtractor {
     
     /** initial zone classifier */
     private ZoneClassifier initialClassifier;
+    
+    /** store of the documents' snapshots, or null if not used */
+    private BxDocumentSnapshotStore snapshotStore;
+    
+    private SnapshotMode snapshotMode = SnapshotMode.READ_WRITE;
+    
+    /**
+     * Modes of using the snapshot store.
+     */
+    public enum SnapshotMode {
+        
+        /** the documents are loaded from the store, if available */
+        READ,
+        
+        /** the documents are always extracted from PDF files and stored */
+        WRITE,
+        
+        /** the documents are loaded from the store, if available, otherwise extracted and stored */
+        READ_WRITE
+    }
 
 
     public PdfBxStructureExtractor() throws AnalysisException {
@@ -92,10 +119,185 @@ public class PdfBxStructureExtractor implements DocumentStructureExtractor {
      */
     @Override
     public BxDocument extractStructure(InputStream stream) throws AnalysisException {
-        BxDocument doc = characterExtractor.extractCharacters(stream);
-        doc = documentSegmenter.segmentDocument(doc);
-        doc = roResolver.resolve(doc);
-        return initialClassifier.classifyZones(doc);
+        BxDocument doc;
+        if (snapshotStore == null) {
+            doc = extractOrderedStructure(extractCharacters(stream));
+        } else {
+            doc = extractOrderedStructureUsingSnapshots(stream);
+        }
+        return classifyStructure(doc);
+    }
+
+    /**
+     * Extracts the geometric structure from a PDF file and stores it as BxDocument.
+     * The file is read directly by the character extractor, if it is
+     * an ITextCharacterExtractor, otherwise it is read as a stream.
+     * 
+     * @param file
+     * @return BxDocument object storing the geometric structure
+     * @throws AnalysisException 
+     */
+    public BxDocument extractStructure(File file) throws AnalysisException {
+        BxDocument doc;
+        if (snapshotStore == null) {
+            doc = extractOrderedStructure(extractCharacters(file));
+        } else {
+            doc = extractOrderedStructureUsingSnapshots(file);
+        }
+        return classifyStructure(doc);
+    }
+
+    private BxDocument classifyStructure(BxDocument doc) throws AnalysisException {
+        checkInterrupted();
+        
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("structure.initialClassification");
+        try {
+            doc = initialClassifier.classifyZones(doc);
+        } finally {
+            stage.stop();
+        }
+        
+        if (ExtractionMetrics.isEnabled()) {
+            ExtractionMetrics.count("pages", doc.asPages().size());
+            ExtractionMetrics.count("zones", doc.asZones().size());
+            ExtractionMetrics.count("lines", doc.asLines().size());
+            ExtractionMetrics.count("words", doc.asWords().size());
+            ExtractionMetrics.count("chunks", doc.asChunks().size());
+        }
+        return doc;
+    }
+
+    private BxDocument extractCharacters(InputStream stream) throws AnalysisException {
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("structure.characters");
+        try {
+            return characterExtractor.extractCharacters(stream);
+        } finally {
+            stage.stop();
+        }
+    }
+
+    private BxDocument extractCharacters(File file) throws AnalysisException {
+        if (!(characterExtractor instanceof ITextCharacterExtractor)) {
+            InputStream stream = null;
+            try {
+                stream = new FileInputStream(file);
+                return extractCharacters(stream);
+            } catch (IOException ex) {
+                throw new AnalysisException("Cannot read PDF file", ex);
+            } finally {
+                IOUtils.closeQuietly(stream);
+            }
+        }
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("structure.characters");
+        try {
+            return ((ITextCharacterExtractor) characterExtractor).extractCharacters(file);
+        } finally {
+            stage.stop();
+        }
+    }
+
+    private BxDocument extractOrderedStructure(BxDocument doc) throws AnalysisException {
+        checkInterrupted();
+        
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("structure.segmentation");
+        try {
+            doc = documentSegmenter.segmentDocument(doc);
+        } finally {
+            stage.stop();
+        }
+        checkInterrupted();
+        
+        stage = ExtractionMetrics.startStage("structure.readingOrder");
+        try {
+            return roResolver.resolve(doc);
+        } finally {
+            stage.stop();
+        }
+    }
+    
+    private BxDocument extractOrderedStructureUsingSnapshots(InputStream stream) throws AnalysisException {
+        try {
+            byte[] pdf = IOUtils.toByteArray(stream);
+            String key = BxDocumentSnapshotStore.getKey(pdf, getSnapshotSettings());
+            BxDocument doc = loadSnapshot(key);
+            if (doc == null) {
+                doc = extractOrderedStructure(extractCharacters(new ByteArrayInputStream(pdf)));
+                storeSnapshot(key, doc);
+            }
+            return doc;
+        } catch (IOException ex) {
+            throw new AnalysisException("Cannot read PDF file", ex);
+        }
+    }
+
+    private BxDocument extractOrderedStructureUsingSnapshots(File file) throws AnalysisException {
+        try {
+            String key = BxDocumentSnapshotStore.getKey(file, getSnapshotSettings());
+            BxDocument doc = loadSnapshot(key);
+            if (doc == null) {
+                doc = extractOrderedStructure(extractCharacters(file));
+                storeSnapshot(key, doc);
+            }
+            return doc;
+        } catch (IOException ex) {
+            throw new AnalysisException("Cannot read PDF file", ex);
+        }
+    }
+
+    /**
+     * Describes the settings the snapshots depend on, so that the documents
+     * extracted with different page selections or limits get different keys.
+     */
+    private String getSnapshotSettings() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(characterExtractor.getClass().getName());
+        if (characterExtractor instanceof ITextCharacterExtractor) {
+            ITextCharacterExtractor extractor = (ITextCharacterExtractor) characterExtractor;
+            sb.append(';').append(extractor.getPageSelection());
+            sb.append(';').append(extractor.getFrontPagesLimit());
+            sb.append(';').append(extractor.getBackPagesLimit());
+        }
+        sb.append(';').append(documentSegmenter.getClass().getName());
+        sb.append(';').append(roResolver.getClass().getName());
+        return sb.toString();
+    }
+
+    private BxDocument loadSnapshot(String key) throws AnalysisException {
+        if (snapshotMode == SnapshotMode.WRITE) {
+            return null;
+        }
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("structure.snapshotLoad");
+        try {
+            return snapshotStore.load(key);
+        } catch (TransformationException ex) {
+            throw new AnalysisException("Cannot use document snapshot", ex);
+        } finally {
+            stage.stop();
+        }
+    }
+
+    private void storeSnapshot(String key, BxDocument doc) throws AnalysisException {
+        if (snapshotMode == SnapshotMode.READ) {
+            return;
+        }
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("structure.snapshotStore");
+        try {
+            snapshotStore.store(key, doc);
+        } catch (TransformationException ex) {
+            throw new AnalysisException("Cannot use document snapshot", ex);
+        } finally {
+            stage.stop();
+        }
+    }
+
+    /**
+     * Allows to cancel the extraction between the stages by interrupting
+     * the extracting thread.
+     */
+    private void checkInterrupted() throws AnalysisException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new AnalysisException("Structure extraction interrupted!");
+        }
     }
 
     public void setGlyphExtractor(CharacterExtractor glyphExtractor) {
@@ -113,5 +315,16 @@ public class PdfBxStructureExtractor implements DocumentStructureExtractor {
     public void setRoResolver(ReadingOrderResolver roResolver) {
         this.roResolver = roResolver;
     }
+
+    /**
+     * Sets the store of the documents' snapshots.
+     * 
+     * @param snapshotStore snapshot store, or null if the snapshots should not be used
+     * @param snapshotMode the mode of using the store
+     */
+    public void setSnapshotStore(BxDocumentSnapshotStore snapshotStore, SnapshotMode snapshotMode) {
+        this.snapshotStore = snapshotStore;
+        this.snapshotMode = snapshotMode;
+    }
     
 }
\ No newline at end of file
@@ -22,15 +22,29 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import javax.xml.xpath.XPathExpressionException;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.jdom.Element;
 import org.jdom.JDOMException;
 import org.jdom.output.Format;
 import org.jdom.output.XMLOutputter;
+import pl.edu.icm.cermine.article.model.Article;
+import pl.edu.icm.cermine.article.model.ArticleFront;
+import pl.edu.icm.cermine.article.model.ArticleReference;
+import pl.edu.icm.cermine.article.model.ArticleSection;
+import pl.edu.icm.cermine.article.transformers.BibEntryToArticleReferenceConverter;
+import pl.edu.icm.cermine.article.transformers.DocContentStructToArticleSectionsConverter;
+import pl.edu.icm.cermine.article.transformers.NLMElementToArticleConverter;
+import pl.edu.icm.cermine.bibref.model.BibEntry;
 import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.exception.TransformationException;
 import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.tools.profiling.ExtractionMetrics;
 
 /**
  * NLM-based content extractor from PDF files.
@@ -65,6 +79,32 @@ public class PdfNLMContentExtractor implements DocumentContentExtractor<Element>
         textExtractor = new PdfNLMTextExtractor();
     }
 
+    /**
+     * Creates an extractor for the given profile. The pages to be parsed are
+     * planned according to the profile and only the extractors of the parts
+     * of the content included in the profile are created.
+     *
+     * @param profile extraction profile
+     * @throws AnalysisException 
+     */
+    public PdfNLMContentExtractor(ExtractionProfile profile) throws AnalysisException {
+        PdfBxStructureExtractor profileStructureExtractor = new PdfBxStructureExtractor();
+        profileStructureExtractor.setGlyphExtractor(profile.createCharacterExtractor());
+        structureExtractor = profileStructureExtractor;
+        extractMetadata = profile.isExtractMetadata();
+        extractText = profile.isExtractText();
+        extractReferences = profile.isExtractReferences();
+        if (extractMetadata) {
+            metadataExtractor = new PdfNLMMetadataExtractor();
+        }
+        if (extractReferences) {
+            referencesExtractor = new PdfNLMReferencesExtractor();
+        }
+        if (extractText) {
+            textExtractor = new PdfNLMTextExtractor();
+        }
+    }
+
     public PdfNLMContentExtractor(DocumentStructureExtractor structureExtractor, DocumentMetadataExtractor<Element> metadataExtractor, 
             DocumentReferencesExtractor<Element> referencesExtractor, DocumentTextExtractor<Element> textExtractor) {
         this.structureExtractor = structureExtractor;
@@ -83,8 +123,49 @@ public class PdfNLMContentExtractor implements DocumentContentExtractor<Element>
      */
     @Override
     public Element extractContent(InputStream stream) throws AnalysisException {
-        BxDocument document = structureExtractor.extractStructure(stream);
-        return extractContent(document);
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("total");
+        try {
+            BxDocument document = structureExtractor.extractStructure(stream);
+            checkInterrupted();
+            return extractContent(document);
+        } finally {
+            stage.stop();
+        }
+    }
+
+    /**
+     * Extracts content from PDF file and stores it in NLM format. The file
+     * is read directly, without loading it into memory as a whole, if the
+     * default structure extractor is used.
+     * 
+     * @param file
+     * @return extracted content in NLM format
+     * @throws AnalysisException 
+     */
+    public Element extractContent(File file) throws AnalysisException {
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("total");
+        try {
+            BxDocument document = extractStructure(file);
+            checkInterrupted();
+            return extractContent(document);
+        } finally {
+            stage.stop();
+        }
+    }
+
+    private BxDocument extractStructure(File file) throws AnalysisException {
+        if (structureExtractor instanceof PdfBxStructureExtractor) {
+            return ((PdfBxStructureExtractor) structureExtractor).extractStructure(file);
+        }
+        InputStream stream = null;
+        try {
+            stream = new FileInputStream(file);
+            return structureExtractor.extractStructure(stream);
+        } catch (IOException ex) {
+            throw new AnalysisException("Cannot read PDF file", ex);
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
     }
 
     /**
@@ -100,20 +181,47 @@ public class PdfNLMContentExtractor implements DocumentContentExtractor<Element>
         
         Element metadata = new Element("front");
         if (extractMetadata) {
-            metadata = (Element) metadataExtractor.extractMetadata(document).getChild("front").clone();
+            if (metadataExtractor == null) {
+                metadataExtractor = new PdfNLMMetadataExtractor();
+            }
+            ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("metadata");
+            try {
+                metadata = metadataExtractor.extractMetadata(document).getChild("front").detach();
+            } finally {
+                stage.stop();
+            }
         }
         content.addContent(metadata);
+        checkInterrupted();
         
         Element text = new Element("body");
         if (extractText) {
-            text = textExtractor.extractText(document);
+            if (textExtractor == null) {
+                textExtractor = new PdfNLMTextExtractor();
+            }
+            ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("text");
+            try {
+                text = textExtractor.extractText(document);
+            } finally {
+                stage.stop();
+            }
         }
         content.addContent(text);
+        checkInterrupted();
         
         Element back = new Element("back");
         Element refList = new Element("ref-list");
         if (extractReferences) {
-            Element[] references = referencesExtractor.extractReferences(document);
+            if (referencesExtractor == null) {
+                referencesExtractor = new PdfNLMReferencesExtractor();
+            }
+            ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("references");
+            Element[] references;
+            try {
+                references = referencesExtractor.extractReferences(document);
+            } finally {
+                stage.stop();
+            }
             for (Element ref : references) {
                 Element r = new Element("ref");
                 r.addContent(ref);
@@ -125,6 +233,131 @@ public class PdfNLMContentExtractor implements DocumentContentExtractor<Element>
 
         return content;
     }
+
+    /**
+     * Extracts content from PDF file and stores it in the article model.
+     * 
+     * @param stream
+     * @return extracted article
+     * @throws AnalysisException 
+     */
+    public Article extractArticle(InputStream stream) throws AnalysisException {
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("total");
+        try {
+            BxDocument document = structureExtractor.extractStructure(stream);
+            checkInterrupted();
+            return extractArticle(document);
+        } finally {
+            stage.stop();
+        }
+    }
+
+    /**
+     * Extracts content from PDF file and stores it in the article model.
+     * The file is read directly, without loading it into memory as a whole,
+     * if the default structure extractor is used.
+     * 
+     * @param file
+     * @return extracted article
+     * @throws AnalysisException 
+     */
+    public Article extractArticle(File file) throws AnalysisException {
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("total");
+        try {
+            BxDocument document = extractStructure(file);
+            checkInterrupted();
+            return extractArticle(document);
+        } finally {
+            stage.stop();
+        }
+    }
+
+    /**
+     * Extracts content from a BxDocument and stores it in the article model.
+     * The text and the references are converted directly from the logical
+     * structure and the parsed references, if the default extractors are used.
+     * 
+     * @param document
+     * @return extracted article
+     * @throws AnalysisException 
+     */
+    public Article extractArticle(BxDocument document) throws AnalysisException {
+        NLMElementToArticleConverter nlmConverter = new NLMElementToArticleConverter();
+        
+        ArticleFront front = null;
+        if (extractMetadata) {
+            if (metadataExtractor == null) {
+                metadataExtractor = new PdfNLMMetadataExtractor();
+            }
+            ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("metadata");
+            try {
+                front = nlmConverter.convertFront(metadataExtractor.extractMetadata(document).getChild("front"));
+            } finally {
+                stage.stop();
+            }
+        }
+        checkInterrupted();
+        
+        List<ArticleSection> sections = new ArrayList<ArticleSection>();
+        if (extractText) {
+            if (textExtractor == null) {
+                textExtractor = new PdfNLMTextExtractor();
+            }
+            ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("text");
+            try {
+                if (textExtractor instanceof PdfNLMTextExtractor) {
+                    sections = new DocContentStructToArticleSectionsConverter().convert(
+                            ((PdfNLMTextExtractor) textExtractor).extractContentStructure(document));
+                } else {
+                    sections = nlmConverter.convertSections(textExtractor.extractText(document));
+                }
+            } catch (TransformationException ex) {
+                throw new AnalysisException("Cannot extract text from document!", ex);
+            } finally {
+                stage.stop();
+            }
+        }
+        checkInterrupted();
+        
+        List<ArticleReference> references = new ArrayList<ArticleReference>();
+        if (extractReferences) {
+            if (referencesExtractor == null) {
+                referencesExtractor = new PdfNLMReferencesExtractor();
+            }
+            ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("references");
+            try {
+                if (referencesExtractor instanceof PdfNLMReferencesExtractor) {
+                    BibEntry[] entries = ((PdfNLMReferencesExtractor) referencesExtractor).extractBibEntries(document);
+                    BibEntryToArticleReferenceConverter converter = new BibEntryToArticleReferenceConverter();
+                    for (BibEntry entry : entries) {
+                        try {
+                            references.add(converter.convert(entry));
+                        } catch (TransformationException ex) {
+                            throw new AnalysisException(ex);
+                        }
+                    }
+                } else {
+                    for (Element ref : referencesExtractor.extractReferences(document)) {
+                        references.add(nlmConverter.convertReference(ref));
+                    }
+                }
+            } finally {
+                stage.stop();
+            }
+        }
+
+        return new Article(front, sections, references);
+    }
+
+    /**
+     * Allows to cancel the extraction between the stages by interrupting
+     * the extracting thread.
+     */
+    private void checkInterrupted() throws AnalysisException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new AnalysisException("Content extraction interrupted!");
+        }
+    }
     
 
     public void buildStructureExtractor(InputStream initialModel, InputStream initialRange) throws AnalysisException {
@@ -211,7 +444,7 @@ public class PdfNLMContentExtractor implements DocumentContentExtractor<Element>
     
     public static void main(String[] args) throws AnalysisException, XPathExpressionException, JDOMException, IOException {
     	if (args.length < 1){
-    		System.err.println("USAGE: program DIR_PATH <EXTENSION>");
+    		System.err.println("USAGE: program DIR_PATH <EXTENSION> <PROFILE>");
     		System.exit(1);
         }
         
@@ -219,6 +452,10 @@ public class PdfNLMContentExtractor implements DocumentContentExtractor<Element>
         if (args.length > 1) {
             extension = args[1];
         }
+        ExtractionProfile profile = ExtractionProfile.FULL;
+        if (args.length > 2) {
+            profile = ExtractionProfile.valueOf(args[2].toUpperCase(Locale.ENGLISH));
+        }
         File dir = new File(args[0]);
         Collection<File> files = FileUtils.listFiles(dir, new String[]{"pdf"}, true);
     
@@ -234,9 +471,8 @@ public class PdfNLMContentExtractor implements DocumentContentExtractor<Element>
             
             System.out.println(file.getName());
  
-            PdfNLMContentExtractor extractor = new PdfNLMContentExtractor();
-            InputStream in = new FileInputStream(file);
-            Element result = extractor.extractContent(in);
+            PdfNLMContentExtractor extractor = new PdfNLMContentExtractor(profile);
+            Element result = extractor.extractContent(file);
 
             long end = System.currentTimeMillis();
             float elapsed = (end - start) / 1000F;
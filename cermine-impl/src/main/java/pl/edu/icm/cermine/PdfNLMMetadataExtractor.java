@@ -29,6 +29,7 @@ import pl.edu.icm.cermine.metadata.MetadataExtractor;
 import pl.edu.icm.cermine.structure.SVMMetadataZoneClassifier;
 import pl.edu.icm.cermine.structure.ZoneClassifier;
 import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.tools.profiling.ExtractionMetrics;
 
 
 /**
@@ -102,8 +103,20 @@ public class PdfNLMMetadataExtractor implements DocumentMetadataExtractor<Elemen
      */
     @Override
     public Element extractMetadata(BxDocument document) throws AnalysisException {
-        BxDocument doc = metadataClassifier.classifyZones(document);
-        return extractor.extractMetadata(doc);
+        ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("metadata.classification");
+        BxDocument doc;
+        try {
+            doc = metadataClassifier.classifyZones(document);
+        } finally {
+            stage.stop();
+        }
+        
+        stage = ExtractionMetrics.startStage("metadata.enhancers");
+        try {
+            return extractor.extractMetadata(doc);
+        } finally {
+            stage.stop();
+        }
     }
 
     public void setExtractor(MetadataExtractor<Element> extractor) {
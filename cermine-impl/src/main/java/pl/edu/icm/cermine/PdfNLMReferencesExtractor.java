@@ -25,6 +25,7 @@ import org.jdom.Element;
 import pl.edu.icm.cermine.bibref.BibReferenceExtractor;
 import pl.edu.icm.cermine.bibref.BibReferenceParser;
 import pl.edu.icm.cermine.bibref.model.BibEntry;
+import pl.edu.icm.cermine.bibref.parsing.tools.CitationParseCache;
 import pl.edu.icm.cermine.bibref.transformers.BibEntryToNLMElementConverter;
 import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.exception.TransformationException;
@@ -77,6 +78,18 @@ public class PdfNLMReferencesExtractor implements DocumentReferencesExtractor<El
         return extractReferences(extractor.extractReferences(document));
     }
     
+    /**
+     * Extracts parsed bibliographic references from a PDF file, without
+     * converting them to NLM format.
+     * 
+     * @param document
+     * @return parsed bibliographic references
+     * @throws AnalysisException 
+     */
+    public BibEntry[] extractBibEntries(BxDocument document) throws AnalysisException {
+        return extractor.extractReferences(document);
+    }
+    
     private Element[] extractReferences(BibEntry[] entries) throws AnalysisException {
         List<Element> elements = new ArrayList<Element>(entries.length);
         BibEntryToNLMElementConverter converter = new BibEntryToNLMElementConverter();
@@ -94,4 +107,31 @@ public class PdfNLMReferencesExtractor implements DocumentReferencesExtractor<El
         this.extractor = extractor;
     }
 
+    /**
+     * Sets the cache of the parsed citations, if the underlying extractor supports caching.
+     * 
+     * @param cache citation parse cache, or null if the citations should not be cached
+     * @return true if the cache is used
+     * @throws IllegalArgumentException if the cache was created for a different model
+     */
+    public boolean setCitationParseCache(CitationParseCache cache) {
+        if (extractor instanceof PdfBibEntryReferencesExtractor) {
+            return ((PdfBibEntryReferencesExtractor) extractor).setCitationParseCache(cache);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the identifier of the citation parser's model, which the
+     * citation parse cache has to be created for.
+     * 
+     * @return model identifier, or null if the underlying extractor does not support caching
+     */
+    public String getCitationParserModelId() {
+        if (extractor instanceof PdfBibEntryReferencesExtractor) {
+            return ((PdfBibEntryReferencesExtractor) extractor).getCitationParserModelId();
+        }
+        return null;
+    }
+
 }
@@ -93,11 +93,22 @@ public class PdfNLMTextExtractor implements DocumentTextExtractor<Element> {
     @Override
     public Element extractText(BxDocument document) throws AnalysisException {
         try {
-            DocumentContentStructure struct = logicalExtractor.extractStructure(document);
-            return converter.convert(struct);
+            return converter.convert(extractContentStructure(document));
         } catch (TransformationException ex) {
             throw new AnalysisException("Cannot extract text from document!", ex);
         }
     }
+
+    /**
+     * Extracts the logical structure of the document's text, without
+     * converting it to NLM format.
+     * 
+     * @param document
+     * @return document's content structure
+     * @throws AnalysisException 
+     */
+    public DocumentContentStructure extractContentStructure(BxDocument document) throws AnalysisException {
+        return logicalExtractor.extractStructure(document);
+    }
     
 }
@@ -0,0 +1,63 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Extracted article: front matter, sections of the body and parsed
+ * bibliographic references. The article is immutable and is produced once
+ * per extraction, the output formats are written from it by the article
+ * writers.
+ */
+public final class Article implements Serializable {
+
+    private static final long serialVersionUID = -4815796326374187401L;
+
+    private final ArticleFront front;
+    private final List<ArticleSection> sections;
+    private final List<ArticleReference> references;
+
+    /**
+     * @param front front matter, or null if the metadata were not extracted
+     * @param sections top-level sections of the body
+     * @param references bibliographic references
+     */
+    public Article(ArticleFront front, List<ArticleSection> sections, List<ArticleReference> references) {
+        this.front = front == null ? new ArticleFront.Builder().build() : front;
+        this.sections = Collections.unmodifiableList(new ArrayList<ArticleSection>(sections));
+        this.references = Collections.unmodifiableList(new ArrayList<ArticleReference>(references));
+    }
+
+    public ArticleFront getFront() {
+        return front;
+    }
+
+    public List<ArticleSection> getSections() {
+        return sections;
+    }
+
+    public List<ArticleReference> getReferences() {
+        return references;
+    }
+
+}
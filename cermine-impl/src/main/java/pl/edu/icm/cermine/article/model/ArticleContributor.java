@@ -0,0 +1,89 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Author or editor of the article. The name is given either as a single
+ * string or as the surname and the given names.
+ */
+public final class ArticleContributor implements Serializable {
+
+    private static final long serialVersionUID = 3875017203312860791L;
+
+    public static final String TYPE_AUTHOR = "author";
+    public static final String TYPE_EDITOR = "editor";
+
+    private final String type;
+    private final String name;
+    private final String surname;
+    private final String givenNames;
+    private final List<String> affiliations;
+    private final List<String> emails;
+
+    /**
+     * @param type contributor type
+     * @param name full name, or null if the name is given in parts
+     * @param surname surname, or null
+     * @param givenNames given names, or null
+     * @param affiliations affiliations
+     * @param emails email addresses
+     */
+    public ArticleContributor(String type, String name, String surname, String givenNames,
+            List<String> affiliations, List<String> emails) {
+        this.type = type;
+        this.name = name;
+        this.surname = surname;
+        this.givenNames = givenNames;
+        this.affiliations = Collections.unmodifiableList(new ArrayList<String>(affiliations));
+        this.emails = Collections.unmodifiableList(new ArrayList<String>(emails));
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return full name, or null if the name is given in parts
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getSurname() {
+        return surname;
+    }
+
+    public String getGivenNames() {
+        return givenNames;
+    }
+
+    public List<String> getAffiliations() {
+        return affiliations;
+    }
+
+    public List<String> getEmails() {
+        return emails;
+    }
+
+}
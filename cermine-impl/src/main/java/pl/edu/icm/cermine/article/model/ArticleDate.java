@@ -0,0 +1,69 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.model;
+
+import java.io.Serializable;
+
+/**
+ * Publication or history date of the article. The parts of the date are
+ * kept as they were extracted and any of them can be null.
+ */
+public final class ArticleDate implements Serializable {
+
+    private static final long serialVersionUID = -1429873640157742329L;
+
+    public static final String TYPE_RECEIVED = "received";
+    public static final String TYPE_REVISED = "revised";
+    public static final String TYPE_ACCEPTED = "accepted";
+
+    private final String type;
+    private final String day;
+    private final String month;
+    private final String year;
+
+    /**
+     * @param type date type, or null for the publication date
+     * @param day day
+     * @param month month
+     * @param year year
+     */
+    public ArticleDate(String type, String day, String month, String year) {
+        this.type = type;
+        this.day = day;
+        this.month = month;
+        this.year = year;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getDay() {
+        return day;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public String getYear() {
+        return year;
+    }
+
+}
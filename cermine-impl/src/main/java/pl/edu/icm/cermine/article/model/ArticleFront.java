@@ -0,0 +1,259 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Front matter of the article: journal and article metadata. Absent values
+ * are null.
+ */
+public final class ArticleFront implements Serializable {
+
+    private static final long serialVersionUID = 8536420387411962714L;
+
+    private final String journalTitle;
+    private final String journalIssn;
+    private final String publisher;
+    private final List<ArticleId> articleIds;
+    private final String title;
+    private final List<ArticleContributor> contributors;
+    private final ArticleDate publicationDate;
+    private final String volume;
+    private final String issue;
+    private final String firstPage;
+    private final String lastPage;
+    private final List<ArticleDate> historyDates;
+    private final String abstractText;
+    private final List<String> keywords;
+
+    private ArticleFront(Builder builder) {
+        journalTitle = builder.journalTitle;
+        journalIssn = builder.journalIssn;
+        publisher = builder.publisher;
+        articleIds = Collections.unmodifiableList(new ArrayList<ArticleId>(builder.articleIds));
+        title = builder.title;
+        contributors = Collections.unmodifiableList(new ArrayList<ArticleContributor>(builder.contributors));
+        publicationDate = builder.publicationDate;
+        volume = builder.volume;
+        issue = builder.issue;
+        firstPage = builder.firstPage;
+        lastPage = builder.lastPage;
+        historyDates = Collections.unmodifiableList(new ArrayList<ArticleDate>(builder.historyDates));
+        abstractText = builder.abstractText;
+        keywords = Collections.unmodifiableList(new ArrayList<String>(builder.keywords));
+    }
+
+    public String getJournalTitle() {
+        return journalTitle;
+    }
+
+    /**
+     * @return ISSN of the print version of the journal
+     */
+    public String getJournalIssn() {
+        return journalIssn;
+    }
+
+    public String getPublisher() {
+        return publisher;
+    }
+
+    public List<ArticleId> getArticleIds() {
+        return articleIds;
+    }
+
+    /**
+     * Returns the first identifier of the given type.
+     *
+     * @param type identifier type
+     * @return identifier or null
+     */
+    public String getArticleId(String type) {
+        for (ArticleId id : articleIds) {
+            if (type.equals(id.getType())) {
+                return id.getValue();
+            }
+        }
+        return null;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<ArticleContributor> getContributors() {
+        return contributors;
+    }
+
+    /**
+     * Returns the contributors of the given type.
+     *
+     * @param type contributor type
+     * @return contributors in the order of the article
+     */
+    public List<ArticleContributor> getContributors(String type) {
+        List<ArticleContributor> list = new ArrayList<ArticleContributor>();
+        for (ArticleContributor contributor : contributors) {
+            if (type.equals(contributor.getType())) {
+                list.add(contributor);
+            }
+        }
+        return list;
+    }
+
+    public ArticleDate getPublicationDate() {
+        return publicationDate;
+    }
+
+    public String getVolume() {
+        return volume;
+    }
+
+    public String getIssue() {
+        return issue;
+    }
+
+    public String getFirstPage() {
+        return firstPage;
+    }
+
+    public String getLastPage() {
+        return lastPage;
+    }
+
+    public List<ArticleDate> getHistoryDates() {
+        return historyDates;
+    }
+
+    /**
+     * Returns the first history date of the given type.
+     *
+     * @param type date type
+     * @return date or null
+     */
+    public ArticleDate getHistoryDate(String type) {
+        for (ArticleDate date : historyDates) {
+            if (type.equals(date.getType())) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    public String getAbstractText() {
+        return abstractText;
+    }
+
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    public static class Builder {
+
+        private String journalTitle;
+        private String journalIssn;
+        private String publisher;
+        private final List<ArticleId> articleIds = new ArrayList<ArticleId>();
+        private String title;
+        private final List<ArticleContributor> contributors = new ArrayList<ArticleContributor>();
+        private ArticleDate publicationDate;
+        private String volume;
+        private String issue;
+        private String firstPage;
+        private String lastPage;
+        private final List<ArticleDate> historyDates = new ArrayList<ArticleDate>();
+        private String abstractText;
+        private final List<String> keywords = new ArrayList<String>();
+
+        public Builder setJournalTitle(String journalTitle) {
+            this.journalTitle = journalTitle;
+            return this;
+        }
+
+        public Builder setJournalIssn(String journalIssn) {
+            this.journalIssn = journalIssn;
+            return this;
+        }
+
+        public Builder setPublisher(String publisher) {
+            this.publisher = publisher;
+            return this;
+        }
+
+        public Builder addArticleId(ArticleId articleId) {
+            articleIds.add(articleId);
+            return this;
+        }
+
+        public Builder setTitle(String title) {
+            this.title = title;
+            return this;
+        }
+
+        public Builder addContributor(ArticleContributor contributor) {
+            contributors.add(contributor);
+            return this;
+        }
+
+        public Builder setPublicationDate(ArticleDate publicationDate) {
+            this.publicationDate = publicationDate;
+            return this;
+        }
+
+        public Builder setVolume(String volume) {
+            this.volume = volume;
+            return this;
+        }
+
+        public Builder setIssue(String issue) {
+            this.issue = issue;
+            return this;
+        }
+
+        public Builder setPages(String firstPage, String lastPage) {
+            this.firstPage = firstPage;
+            this.lastPage = lastPage;
+            return this;
+        }
+
+        public Builder addHistoryDate(ArticleDate date) {
+            historyDates.add(date);
+            return this;
+        }
+
+        public Builder setAbstractText(String abstractText) {
+            this.abstractText = abstractText;
+            return this;
+        }
+
+        public Builder addKeyword(String keyword) {
+            keywords.add(keyword);
+            return this;
+        }
+
+        public ArticleFront build() {
+            return new ArticleFront(this);
+        }
+    }
+
+}
@@ -0,0 +1,210 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bibliographic reference of the article. The reference consists of its
+ * text and the fields marked in the text. The fields do not overlap and
+ * are ordered by their position in the text. The parts of a field (such
+ * as the surname of an author) are kept in the same manner inside the field.
+ */
+public final class ArticleReference implements Serializable {
+
+    private static final long serialVersionUID = -7745269185526012243L;
+
+    public enum FieldType {
+        AUTHOR,
+        SURNAME,
+        GIVEN_NAMES,
+        TITLE,
+        SOURCE,
+        CONTENTS,
+        EDITION,
+        SERIES,
+        PUBLISHER,
+        LOCATION,
+        VOLUME,
+        ISSUE,
+        YEAR,
+        FIRST_PAGE,
+        LAST_PAGE,
+        URI
+    }
+
+    private final String text;
+    private final List<Field> fields;
+
+    /**
+     * @param text reference text
+     * @param fields fields ordered by their position in the text
+     * @throws IllegalArgumentException if the fields overlap, are not ordered
+     * or exceed the text
+     */
+    public ArticleReference(String text, List<Field> fields) {
+        this.text = text;
+        this.fields = Collections.unmodifiableList(new ArrayList<Field>(fields));
+        checkFields(this.fields, 0, text.length());
+    }
+
+    private static void checkFields(List<Field> fields, int start, int end) {
+        int lastIndex = start;
+        for (Field field : fields) {
+            if (field.getStartIndex() < lastIndex || field.getEndIndex() > end) {
+                throw new IllegalArgumentException("Reference field " + field.getType() + " is out of place: "
+                        + field.getStartIndex() + "-" + field.getEndIndex());
+            }
+            checkFields(field.getParts(), field.getStartIndex(), field.getEndIndex());
+            lastIndex = field.getEndIndex();
+        }
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the fields of the given type.
+     *
+     * @param type field type
+     * @return fields ordered by their position
+     */
+    public List<Field> getFields(FieldType type) {
+        return getFields(fields, type);
+    }
+
+    /**
+     * Returns the value of the first field of the given type.
+     *
+     * @param type field type
+     * @return field value or null
+     */
+    public String getFirstFieldValue(FieldType type) {
+        return getFirstValue(fields, type);
+    }
+
+    private static List<Field> getFields(List<Field> fields, FieldType type) {
+        List<Field> list = new ArrayList<Field>();
+        for (Field field : fields) {
+            if (field.getType() == type) {
+                list.add(field);
+            }
+        }
+        return list;
+    }
+
+    private static String getFirstValue(List<Field> fields, FieldType type) {
+        for (Field field : fields) {
+            if (field.getType() == type) {
+                return field.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Field of the reference, marking the reference text between the start
+     * (inclusive) and the end index (exclusive). The field keeps the whole
+     * reference text, shared with the reference and the other fields, and
+     * its value is cut from the text when requested.
+     */
+    public static final class Field implements Serializable {
+
+        private static final long serialVersionUID = -1866349230475516872L;
+
+        private final FieldType type;
+        private final int startIndex;
+        private final int endIndex;
+        private final String text;
+        private final List<Field> parts;
+
+        /**
+         * @param type field type
+         * @param text reference text
+         * @param startIndex start index in the reference text
+         * @param endIndex end index in the reference text
+         */
+        public Field(FieldType type, String text, int startIndex, int endIndex) {
+            this(type, text, startIndex, endIndex, Collections.<Field>emptyList());
+        }
+
+        /**
+         * @param type field type
+         * @param text reference text
+         * @param startIndex start index in the reference text
+         * @param endIndex end index in the reference text
+         * @param parts parts of the field, indexed in the reference text
+         * @throws IndexOutOfBoundsException if the indexes do not mark a part of the text
+         */
+        public Field(FieldType type, String text, int startIndex, int endIndex, List<Field> parts) {
+            if (startIndex < 0 || endIndex > text.length() || startIndex > endIndex) {
+                throw new IndexOutOfBoundsException("Reference field " + type + " exceeds the text: "
+                        + startIndex + "-" + endIndex);
+            }
+            this.type = type;
+            this.startIndex = startIndex;
+            this.endIndex = endIndex;
+            this.text = text;
+            this.parts = parts.isEmpty() ? Collections.<Field>emptyList()
+                    : Collections.unmodifiableList(new ArrayList<Field>(parts));
+        }
+
+        public FieldType getType() {
+            return type;
+        }
+
+        public int getStartIndex() {
+            return startIndex;
+        }
+
+        public int getEndIndex() {
+            return endIndex;
+        }
+
+        /**
+         * @return marked text
+         */
+        public String getValue() {
+            return text.substring(startIndex, endIndex);
+        }
+
+        public List<Field> getParts() {
+            return parts;
+        }
+
+        /**
+         * Returns the value of the first part of the given type.
+         *
+         * @param type part type
+         * @return part value or null
+         */
+        public String getFirstPartValue(FieldType type) {
+            return getFirstValue(parts, type);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Section of the article's body.
+ */
+public final class ArticleSection implements Serializable {
+
+    private static final long serialVersionUID = 2217389163829125746L;
+
+    private final String title;
+    private final List<String> paragraphs;
+    private final List<ArticleSection> sections;
+
+    public ArticleSection(String title, List<String> paragraphs, List<ArticleSection> sections) {
+        this.title = title;
+        this.paragraphs = Collections.unmodifiableList(new ArrayList<String>(paragraphs));
+        this.sections = Collections.unmodifiableList(new ArrayList<ArticleSection>(sections));
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<String> getParagraphs() {
+        return paragraphs;
+    }
+
+    /**
+     * @return subsections
+     */
+    public List<ArticleSection> getSections() {
+        return sections;
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.io.*;
+import java.util.List;
+import pl.edu.icm.cermine.article.model.Article;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.tools.transformers.ModelToFormatWriter;
+
+/**
+ * Base class of the article writers. The article is written directly to
+ * the writer or the output stream, without building an intermediate
+ * document.
+ */
+public abstract class AbstractArticleWriter implements ModelToFormatWriter<Article> {
+
+    /**
+     * Writes the article to the stream in UTF-8 encoding. The stream is
+     * flushed, but not closed.
+     *
+     * @param stream output stream
+     * @param article article
+     * @throws TransformationException 
+     */
+    public void write(OutputStream stream, Article article) throws TransformationException {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(stream, "UTF-8"));
+            write(writer, article);
+            writer.flush();
+        } catch (IOException ex) {
+            throw new TransformationException("Cannot write article!", ex);
+        }
+    }
+
+    @Override
+    public String write(Article object, Object... hints) throws TransformationException {
+        StringWriter sw = new StringWriter();
+        write(sw, object, hints);
+        return sw.toString();
+    }
+
+    @Override
+    public void write(Writer writer, Article object, Object... hints) throws TransformationException {
+        try {
+            writeArticle(writer, object);
+        } catch (IOException ex) {
+            throw new TransformationException("Cannot write article!", ex);
+        }
+    }
+
+    protected abstract void writeArticle(Writer writer, Article article) throws IOException;
+
+    @Override
+    public String writeAll(List<Article> objects, Object... hints) throws TransformationException {
+        StringWriter sw = new StringWriter();
+        writeAll(sw, objects, hints);
+        return sw.toString();
+    }
+
+    /**
+     * Writes the articles one after another, each followed by a line break.
+     */
+    @Override
+    public void writeAll(Writer writer, List<Article> objects, Object... hints) throws TransformationException {
+        try {
+            for (Article article : objects) {
+                writeArticle(writer, article);
+                writer.write('\n');
+            }
+        } catch (IOException ex) {
+            throw new TransformationException("Cannot write article!", ex);
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import pl.edu.icm.cermine.article.model.Article;
+import pl.edu.icm.cermine.article.model.ArticleSection;
+
+/**
+ * Writes the body of the article in HTML format. The section titles are
+ * written as headers of the level of the section.
+ */
+public class ArticleToHTMLWriter extends AbstractArticleWriter {
+
+    @Override
+    protected void writeArticle(Writer writer, Article article) throws IOException {
+        XMLOutput output = new XMLOutput(writer);
+        output.start("html");
+        writeSections(output, article.getSections(), 1);
+        output.end();
+    }
+
+    private void writeSections(XMLOutput output, List<ArticleSection> sections, int level) throws IOException {
+        for (ArticleSection section : sections) {
+            output.element("H" + level, section.getTitle());
+            for (String paragraph : section.getParagraphs()) {
+                output.element("p", paragraph);
+            }
+            writeSections(output, section.getSections(), level + 1);
+        }
+    }
+
+}
@@ -0,0 +1,261 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import pl.edu.icm.cermine.article.model.*;
+import pl.edu.icm.cermine.article.model.ArticleReference.Field;
+
+/**
+ * Writes the article as a single-line JSON object with "front", "sections"
+ * and "references" members. Absent values are left out, the reference fields
+ * are written with their positions in the reference text.
+ */
+public class ArticleToJSONWriter extends AbstractArticleWriter {
+
+    @Override
+    protected void writeArticle(Writer writer, Article article) throws IOException {
+        JSONOutput output = new JSONOutput(writer);
+        output.beginObject();
+        output.name("front");
+        writeFront(output, article.getFront());
+        output.name("sections");
+        writeSections(output, article.getSections());
+        output.name("references");
+        output.beginArray();
+        for (ArticleReference reference : article.getReferences()) {
+            output.beginObject();
+            output.member("text", reference.getText());
+            output.name("fields");
+            writeFields(output, reference.getFields());
+            output.endObject();
+        }
+        output.endArray();
+        output.endObject();
+    }
+
+    private void writeFront(JSONOutput output, ArticleFront front) throws IOException {
+        output.beginObject();
+        output.member("journalTitle", front.getJournalTitle());
+        output.member("journalIssn", front.getJournalIssn());
+        output.member("publisher", front.getPublisher());
+        output.name("articleIds");
+        output.beginArray();
+        for (ArticleId id : front.getArticleIds()) {
+            output.beginObject();
+            output.member("type", id.getType());
+            output.member("value", id.getValue());
+            output.endObject();
+        }
+        output.endArray();
+        output.member("title", front.getTitle());
+        output.name("contributors");
+        output.beginArray();
+        for (ArticleContributor contributor : front.getContributors()) {
+            output.beginObject();
+            output.member("type", contributor.getType());
+            output.member("name", contributor.getName());
+            output.member("surname", contributor.getSurname());
+            output.member("givenNames", contributor.getGivenNames());
+            output.name("affiliations");
+            writeStrings(output, contributor.getAffiliations());
+            output.name("emails");
+            writeStrings(output, contributor.getEmails());
+            output.endObject();
+        }
+        output.endArray();
+        if (front.getPublicationDate() != null) {
+            output.name("publicationDate");
+            writeDate(output, front.getPublicationDate());
+        }
+        output.member("volume", front.getVolume());
+        output.member("issue", front.getIssue());
+        output.member("firstPage", front.getFirstPage());
+        output.member("lastPage", front.getLastPage());
+        output.name("historyDates");
+        output.beginArray();
+        for (ArticleDate date : front.getHistoryDates()) {
+            writeDate(output, date);
+        }
+        output.endArray();
+        output.member("abstract", front.getAbstractText());
+        output.name("keywords");
+        writeStrings(output, front.getKeywords());
+        output.endObject();
+    }
+
+    private void writeDate(JSONOutput output, ArticleDate date) throws IOException {
+        output.beginObject();
+        output.member("type", date.getType());
+        output.member("day", date.getDay());
+        output.member("month", date.getMonth());
+        output.member("year", date.getYear());
+        output.endObject();
+    }
+
+    private void writeSections(JSONOutput output, List<ArticleSection> sections) throws IOException {
+        output.beginArray();
+        for (ArticleSection section : sections) {
+            output.beginObject();
+            output.member("title", section.getTitle());
+            output.name("paragraphs");
+            writeStrings(output, section.getParagraphs());
+            output.name("sections");
+            writeSections(output, section.getSections());
+            output.endObject();
+        }
+        output.endArray();
+    }
+
+    private void writeFields(JSONOutput output, List<Field> fields) throws IOException {
+        output.beginArray();
+        for (Field field : fields) {
+            output.beginObject();
+            output.member("type", field.getType().name());
+            output.name("start");
+            output.value(field.getStartIndex());
+            output.name("end");
+            output.value(field.getEndIndex());
+            output.member("value", field.getValue());
+            if (!field.getParts().isEmpty()) {
+                output.name("parts");
+                writeFields(output, field.getParts());
+            }
+            output.endObject();
+        }
+        output.endArray();
+    }
+
+    private void writeStrings(JSONOutput output, List<String> strings) throws IOException {
+        output.beginArray();
+        for (String string : strings) {
+            output.value(string);
+        }
+        output.endArray();
+    }
+
+    /**
+     * Minimal streaming JSON output, keeping track of the separators.
+     */
+    private static class JSONOutput {
+
+        private final Writer writer;
+
+        /** whether the next value or member is the first in its container */
+        private boolean first = true;
+
+        public JSONOutput(Writer writer) {
+            this.writer = writer;
+        }
+
+        public void beginObject() throws IOException {
+            separate();
+            writer.write('{');
+            first = true;
+        }
+
+        public void endObject() throws IOException {
+            writer.write('}');
+            first = false;
+        }
+
+        public void beginArray() throws IOException {
+            separate();
+            writer.write('[');
+            first = true;
+        }
+
+        public void endArray() throws IOException {
+            writer.write(']');
+            first = false;
+        }
+
+        public void name(String name) throws IOException {
+            separate();
+            string(name);
+            writer.write(':');
+            first = true;
+        }
+
+        /**
+         * Writes an object member, if the value is not null.
+         */
+        public void member(String name, String value) throws IOException {
+            if (value != null) {
+                name(name);
+                value(value);
+            }
+        }
+
+        public void value(String value) throws IOException {
+            separate();
+            if (value == null) {
+                writer.write("null");
+            } else {
+                string(value);
+            }
+            first = false;
+        }
+
+        public void value(int value) throws IOException {
+            separate();
+            writer.write(Integer.toString(value));
+            first = false;
+        }
+
+        private void separate() throws IOException {
+            if (!first) {
+                writer.write(',');
+            }
+        }
+
+        private void string(String value) throws IOException {
+            writer.write('"');
+            int start = 0;
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                String replacement;
+                if (c == '"') {
+                    replacement = "\\\"";
+                } else if (c == '\\') {
+                    replacement = "\\\\";
+                } else if (c == '\n') {
+                    replacement = "\\n";
+                } else if (c == '\r') {
+                    replacement = "\\r";
+                } else if (c == '\t') {
+                    replacement = "\\t";
+                } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                    replacement = String.format("\\u%04x", (int) c);
+                } else {
+                    continue;
+                }
+                writer.write(value, start, i - start);
+                writer.write(replacement);
+                start = i + 1;
+            }
+            writer.write(value, start, length - start);
+            writer.write('"');
+        }
+    }
+
+}
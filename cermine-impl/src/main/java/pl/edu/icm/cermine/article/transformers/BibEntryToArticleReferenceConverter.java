@@ -0,0 +1,186 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.util.*;
+import pl.edu.icm.cermine.article.model.ArticleReference;
+import pl.edu.icm.cermine.article.model.ArticleReference.Field;
+import pl.edu.icm.cermine.article.model.ArticleReference.FieldType;
+import pl.edu.icm.cermine.bibref.model.BibEntry;
+import pl.edu.icm.cermine.bibref.model.BibEntryField;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.tools.transformers.ModelToModelConverter;
+
+/**
+ * Converts parsed bibliographic references to article references. The fields
+ * are marked in the same way as in NLM citations produced by
+ * BibEntryToNLMElementConverter. Fields without a position in the text and
+ * fields overlapping the preceding ones are left out.
+ */
+public class BibEntryToArticleReferenceConverter implements ModelToModelConverter<BibEntry, ArticleReference> {
+
+    private static final Map<String, FieldType> BIBENTRY_TO_FIELD = new HashMap<String, FieldType>();
+
+    static {
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_TITLE,     FieldType.TITLE);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_CONTENTS,  FieldType.CONTENTS);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_EDITION,   FieldType.EDITION);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_PUBLISHER, FieldType.PUBLISHER);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_LOCATION,  FieldType.LOCATION);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_SERIES,    FieldType.SERIES);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_JOURNAL,   FieldType.SOURCE);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_URL,       FieldType.URI);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_VOLUME,    FieldType.VOLUME);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_YEAR,      FieldType.YEAR);
+        BIBENTRY_TO_FIELD.put(BibEntry.FIELD_NUMBER,    FieldType.ISSUE);
+    }
+
+    @Override
+    public ArticleReference convert(BibEntry entry, Object... hints) throws TransformationException {
+        String text = entry.getText();
+        if (text == null) {
+            throw new TransformationException("Bibliographic entry without text!");
+        }
+
+        final Map<BibEntryField, String> fieldKeys = new IdentityHashMap<BibEntryField, String>();
+        List<BibEntryField> bibFields = new ArrayList<BibEntryField>();
+        for (String key : entry.getFieldKeys()) {
+            for (BibEntryField field : entry.getAllFields(key)) {
+                bibFields.add(field);
+                fieldKeys.put(field, key);
+            }
+        }
+        Collections.sort(bibFields, new Comparator<BibEntryField>() {
+
+            @Override
+            public int compare(BibEntryField t1, BibEntryField t2) {
+                return Integer.valueOf(t1.getStartIndex()).compareTo(Integer.valueOf(t2.getStartIndex()));
+            }
+        });
+
+        List<Field> fields = new ArrayList<Field>();
+        int lastIndex = 0;
+        for (BibEntryField bibField : bibFields) {
+            int start = bibField.getStartIndex();
+            int end = bibField.getEndIndex();
+            if (start < lastIndex || end < start || end > text.length()) {
+                continue;
+            }
+            String key = fieldKeys.get(bibField);
+            boolean added;
+            if (BIBENTRY_TO_FIELD.containsKey(key)) {
+                fields.add(new Field(BIBENTRY_TO_FIELD.get(key), text, start, end));
+                added = true;
+            } else if (BibEntry.FIELD_PAGES.equals(key)) {
+                added = addPages(fields, text, bibField);
+            } else if (BibEntry.FIELD_AUTHOR.equals(key)) {
+                fields.add(toAuthor(text, bibField));
+                added = true;
+            } else {
+                added = false;
+            }
+            if (added) {
+                lastIndex = end;
+            }
+        }
+        return new ArticleReference(text, fields);
+    }
+
+    private boolean addPages(List<Field> fields, String text, BibEntryField field) {
+        int start = field.getStartIndex();
+        String fieldText = text.substring(start, field.getEndIndex());
+        if (!field.getText().contains("--")) {
+            int index = fieldText.indexOf(field.getText());
+            if (index < 0) {
+                fields.add(new Field(FieldType.FIRST_PAGE, text, start, field.getEndIndex()));
+            } else {
+                fields.add(new Field(FieldType.FIRST_PAGE, text, start + index, start + index + field.getText().length()));
+            }
+            return true;
+        }
+
+        String firstPage = field.getText().replaceAll("--.*", "");
+        String lastPage = field.getText().replaceAll(".*--", "");
+        int firstPageIndex = fieldText.indexOf(firstPage);
+        if (firstPageIndex < 0) {
+            return false;
+        }
+        int lastPageIndex = fieldText.indexOf(lastPage, firstPageIndex + firstPage.length());
+        if (lastPageIndex < 0) {
+            return false;
+        }
+        fields.add(new Field(FieldType.FIRST_PAGE, text,
+                start + firstPageIndex, start + firstPageIndex + firstPage.length()));
+        fields.add(new Field(FieldType.LAST_PAGE, text,
+                start + lastPageIndex, start + lastPageIndex + lastPage.length()));
+        return true;
+    }
+
+    private Field toAuthor(String text, BibEntryField field) {
+        int start = field.getStartIndex();
+        int end = field.getEndIndex();
+        String fieldText = text.substring(start, end);
+        List<Field> parts = new ArrayList<Field>();
+
+        if (!field.getText().contains(", ")) {
+            int index = fieldText.indexOf(field.getText());
+            if (index < 0) {
+                parts.add(new Field(FieldType.SURNAME, text, start, end));
+            } else {
+                parts.add(new Field(FieldType.SURNAME, text, start + index, start + index + field.getText().length()));
+            }
+            return new Field(FieldType.AUTHOR, text, start, end, parts);
+        }
+
+        String surname = field.getText().replaceAll(", .*", "");
+        String givenNames = field.getText().replaceAll(".*, ", "");
+        int surnameIndex = fieldText.indexOf(surname);
+        int givenNamesIndex = fieldText.indexOf(givenNames, surnameIndex + surname.length());
+        if (surnameIndex < 0 || givenNamesIndex < 0) {
+            givenNamesIndex = fieldText.indexOf(givenNames);
+            surnameIndex = fieldText.indexOf(surname, givenNamesIndex + givenNames.length());
+        }
+        if (surnameIndex < 0 || givenNamesIndex < 0) {
+            return new Field(FieldType.AUTHOR, text, start, end);
+        }
+
+        Field surnamePart = new Field(FieldType.SURNAME, text,
+                start + surnameIndex, start + surnameIndex + surname.length());
+        Field givenNamesPart = new Field(FieldType.GIVEN_NAMES, text,
+                start + givenNamesIndex, start + givenNamesIndex + givenNames.length());
+        if (surnameIndex < givenNamesIndex) {
+            parts.add(surnamePart);
+            parts.add(givenNamesPart);
+        } else {
+            parts.add(givenNamesPart);
+            parts.add(surnamePart);
+        }
+        return new Field(FieldType.AUTHOR, text, start, end, parts);
+    }
+
+    @Override
+    public List<ArticleReference> convertAll(List<BibEntry> source, Object... hints) throws TransformationException {
+        List<ArticleReference> references = new ArrayList<ArticleReference>(source.size());
+        for (BibEntry entry : source) {
+            references.add(convert(entry, hints));
+        }
+        return references;
+    }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.util.ArrayList;
+import java.util.List;
+import pl.edu.icm.cermine.article.model.ArticleSection;
+import pl.edu.icm.cermine.content.model.DocumentContentStructure;
+import pl.edu.icm.cermine.content.model.DocumentParagraph;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.tools.transformers.ModelToModelConverter;
+
+/**
+ * Converts the logical structure of the document to the sections of
+ * the article's body. As in DocContentStructToNLMElementConverter, the parts
+ * without a header are not sections themselves, only their subparts are
+ * converted.
+ */
+public class DocContentStructToArticleSectionsConverter
+        implements ModelToModelConverter<DocumentContentStructure, List<ArticleSection>> {
+
+    @Override
+    public List<ArticleSection> convert(DocumentContentStructure source, Object... hints) throws TransformationException {
+        List<ArticleSection> sections = new ArrayList<ArticleSection>();
+        addSections(sections, source);
+        return sections;
+    }
+
+    private void addSections(List<ArticleSection> sections, DocumentContentStructure dcs) {
+        if (dcs.getHeader() == null) {
+            for (DocumentContentStructure part : dcs.getParts()) {
+                addSections(sections, part);
+            }
+            return;
+        }
+        List<String> paragraphs = new ArrayList<String>(dcs.getParagraphs().size());
+        for (DocumentParagraph paragraph : dcs.getParagraphs()) {
+            paragraphs.add(paragraph.getText().trim());
+        }
+        List<ArticleSection> subsections = new ArrayList<ArticleSection>();
+        for (DocumentContentStructure part : dcs.getParts()) {
+            addSections(subsections, part);
+        }
+        sections.add(new ArticleSection(dcs.getHeader().getText().trim(), paragraphs, subsections));
+    }
+
+    @Override
+    public List<List<ArticleSection>> convertAll(List<DocumentContentStructure> source, Object... hints)
+            throws TransformationException {
+        List<List<ArticleSection>> sections = new ArrayList<List<ArticleSection>>(source.size());
+        for (DocumentContentStructure dcs : source) {
+            sections.add(convert(dcs, hints));
+        }
+        return sections;
+    }
+
+}
@@ -0,0 +1,272 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jdom.Element;
+import org.jdom.Text;
+import pl.edu.icm.cermine.article.model.*;
+import pl.edu.icm.cermine.article.model.ArticleReference.Field;
+import pl.edu.icm.cermine.article.model.ArticleReference.FieldType;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.tools.transformers.ModelToModelConverter;
+
+/**
+ * Reads an article from an NLM element. The single values of the front
+ * matter are taken from the first matching element in the document order,
+ * the body sections from the "sec" elements and the references from
+ * the mixed citations of the reference list.
+ */
+public class NLMElementToArticleConverter implements ModelToModelConverter<Element, Article> {
+
+    @Override
+    public Article convert(Element source, Object... hints) throws TransformationException {
+        List<ArticleReference> references = new ArrayList<ArticleReference>();
+        Element back = source.getChild(NLMTags.BACK);
+        Element refList = back == null ? null : back.getChild(NLMTags.REF_LIST);
+        if (refList != null) {
+            for (Object ref : refList.getChildren(NLMTags.REF)) {
+                Element citation = ((Element) ref).getChild(NLMTags.MIXED_CITATION);
+                if (citation != null) {
+                    references.add(convertReference(citation));
+                }
+            }
+        }
+        return new Article(convertFront(source.getChild(NLMTags.FRONT)),
+                convertSections(source.getChild(NLMTags.BODY)), references);
+    }
+
+    /**
+     * Reads the front matter.
+     *
+     * @param front "front" element, or null
+     * @return front matter
+     */
+    public ArticleFront convertFront(Element front) {
+        ArticleFront.Builder builder = new ArticleFront.Builder();
+        if (front == null) {
+            return builder.build();
+        }
+
+        builder.setJournalTitle(getFirstValue(front, NLMTags.JOURNAL_TITLE));
+        Element journalMeta = front.getChild(NLMTags.JOURNAL_META);
+        if (journalMeta != null) {
+            for (Object issn : journalMeta.getChildren(NLMTags.ISSN)) {
+                if (NLMTags.PPUB.equals(((Element) issn).getAttributeValue(NLMTags.PUB_TYPE))) {
+                    builder.setJournalIssn(((Element) issn).getTextTrim());
+                    break;
+                }
+            }
+        }
+        builder.setPublisher(getFirstValue(front, NLMTags.PUBLISHER_NAME));
+
+        for (Element id : getElements(front, NLMTags.ARTICLE_ID)) {
+            builder.addArticleId(new ArticleId(id.getAttributeValue(NLMTags.PUB_ID_TYPE), id.getTextTrim()));
+        }
+        builder.setTitle(getFirstValue(front, NLMTags.ARTICLE_TITLE));
+        for (Element contrib : getElements(front, NLMTags.CONTRIB)) {
+            builder.addContributor(convertContributor(contrib));
+        }
+
+        Element pubDate = getFirstElement(front, NLMTags.PUB_DATE);
+        if (pubDate != null) {
+            builder.setPublicationDate(convertDate(null, pubDate));
+        }
+        Element articleMeta = front.getChild(NLMTags.ARTICLE_META);
+        if (articleMeta != null) {
+            builder.setVolume(articleMeta.getChildTextTrim(NLMTags.VOLUME));
+            builder.setIssue(articleMeta.getChildTextTrim(NLMTags.ISSUE));
+            builder.setPages(articleMeta.getChildTextTrim(NLMTags.FPAGE), articleMeta.getChildTextTrim(NLMTags.LPAGE));
+        }
+        for (Element history : getElements(front, NLMTags.HISTORY)) {
+            for (Object date : history.getChildren(NLMTags.DATE)) {
+                builder.addHistoryDate(convertDate(((Element) date).getAttributeValue(NLMTags.DATE_TYPE), (Element) date));
+            }
+        }
+
+        Element abstractElement = getFirstElement(front, NLMTags.ABSTRACT);
+        if (abstractElement != null) {
+            builder.setAbstractText(abstractElement.getValue().trim());
+        }
+        for (Element keyword : getElements(front, NLMTags.KWD)) {
+            builder.addKeyword(keyword.getTextTrim());
+        }
+        return builder.build();
+    }
+
+    private ArticleContributor convertContributor(Element contrib) {
+        String name = null;
+        String surname = null;
+        String givenNames = null;
+        Element nameElement = contrib.getChild(NLMTags.NAME);
+        if (nameElement != null) {
+            surname = nameElement.getChildTextTrim(NLMTags.SURNAME);
+            givenNames = nameElement.getChildTextTrim(NLMTags.GIVEN_NAMES);
+        } else {
+            name = contrib.getChildTextTrim(NLMTags.STRING_NAME);
+        }
+        List<String> affiliations = new ArrayList<String>();
+        for (Object aff : contrib.getChildren(NLMTags.AFF)) {
+            affiliations.add(((Element) aff).getTextTrim());
+        }
+        List<String> emails = new ArrayList<String>();
+        for (Object email : contrib.getChildren(NLMTags.EMAIL)) {
+            emails.add(((Element) email).getTextTrim());
+        }
+        return new ArticleContributor(contrib.getAttributeValue(NLMTags.CONTRIB_TYPE), name, surname, givenNames,
+                affiliations, emails);
+    }
+
+    private ArticleDate convertDate(String type, Element date) {
+        return new ArticleDate(type, date.getChildTextTrim(NLMTags.DAY), date.getChildTextTrim(NLMTags.MONTH),
+                date.getChildTextTrim(NLMTags.YEAR));
+    }
+
+    /**
+     * Reads the sections of the body.
+     *
+     * @param body "body" element, or null
+     * @return top-level sections
+     */
+    public List<ArticleSection> convertSections(Element body) {
+        List<ArticleSection> sections = new ArrayList<ArticleSection>();
+        if (body != null) {
+            for (Object sec : body.getChildren(NLMTags.SEC)) {
+                sections.add(convertSection((Element) sec));
+            }
+        }
+        return sections;
+    }
+
+    private ArticleSection convertSection(Element sec) {
+        List<String> paragraphs = new ArrayList<String>();
+        for (Object p : sec.getChildren(NLMTags.P)) {
+            paragraphs.add(((Element) p).getTextTrim());
+        }
+        return new ArticleSection(sec.getChildTextTrim(NLMTags.TITLE), paragraphs,
+                convertSections(sec));
+    }
+
+    /**
+     * Reads a reference from its mixed citation. The text of the elements,
+     * which are not reference fields, is kept as a plain text.
+     *
+     * @param citation "mixed-citation" element
+     * @return reference
+     */
+    public ArticleReference convertReference(Element citation) {
+        StringBuilder text = new StringBuilder();
+        List<Span> spans = readSpans(citation, text, false);
+        String referenceText = text.toString();
+        return new ArticleReference(referenceText, toFields(spans, referenceText));
+    }
+
+    private List<Span> readSpans(Element element, StringBuilder text, boolean nameParts) {
+        List<Span> spans = new ArrayList<Span>();
+        for (Object content : element.getContent()) {
+            if (content instanceof Text) {
+                text.append(((Text) content).getText());
+            } else if (content instanceof Element) {
+                Element child = (Element) content;
+                FieldType type = NLMTags.getFieldType(child.getName());
+                boolean namePart = type == FieldType.SURNAME || type == FieldType.GIVEN_NAMES;
+                if (type == null || namePart != nameParts) {
+                    text.append(child.getValue());
+                    continue;
+                }
+                Span span = new Span(type, text.length());
+                if (type == FieldType.AUTHOR) {
+                    span.parts = readSpans(child, text, true);
+                } else {
+                    text.append(child.getValue());
+                }
+                span.end = text.length();
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    private List<Field> toFields(List<Span> spans, String text) {
+        List<Field> fields = new ArrayList<Field>(spans.size());
+        for (Span span : spans) {
+            fields.add(new Field(span.type, text, span.start, span.end, toFields(span.parts, text)));
+        }
+        return fields;
+    }
+
+    private static String getFirstValue(Element element, String name) {
+        Element first = getFirstElement(element, name);
+        return first == null ? null : first.getValue().trim();
+    }
+
+    private static Element getFirstElement(Element element, String name) {
+        for (Object child : element.getChildren()) {
+            Element childElement = (Element) child;
+            if (name.equals(childElement.getName())) {
+                return childElement;
+            }
+            Element first = getFirstElement(childElement, name);
+            if (first != null) {
+                return first;
+            }
+        }
+        return null;
+    }
+
+    private static List<Element> getElements(Element element, String name) {
+        List<Element> elements = new ArrayList<Element>();
+        addElements(elements, element, name);
+        return elements;
+    }
+
+    private static void addElements(List<Element> elements, Element element, String name) {
+        for (Object child : element.getChildren()) {
+            Element childElement = (Element) child;
+            if (name.equals(childElement.getName())) {
+                elements.add(childElement);
+            }
+            addElements(elements, childElement, name);
+        }
+    }
+
+    @Override
+    public List<Article> convertAll(List<Element> source, Object... hints) throws TransformationException {
+        List<Article> articles = new ArrayList<Article>(source.size());
+        for (Element element : source) {
+            articles.add(convert(element, hints));
+        }
+        return articles;
+    }
+
+    private static class Span {
+
+        private final FieldType type;
+        private final int start;
+        private int end;
+        private List<Span> parts = new ArrayList<Span>();
+
+        public Span(FieldType type, int start) {
+            this.type = type;
+            this.start = start;
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.util.HashMap;
+import java.util.Map;
+import pl.edu.icm.cermine.article.model.ArticleReference.FieldType;
+
+/**
+ * NLM tags of the article model, used by the NLM reader.
+ */
+final class NLMTags {
+
+    static final String ABSTRACT            = "abstract";
+    static final String AFF                 = "aff";
+    static final String ARTICLE_ID          = "article-id";
+    static final String ARTICLE_META        = "article-meta";
+    static final String ARTICLE_TITLE       = "article-title";
+    static final String BACK                = "back";
+    static final String BODY                = "body";
+    static final String CONTRIB             = "contrib";
+    static final String CONTRIB_TYPE        = "contrib-type";
+    static final String DATE                = "date";
+    static final String DATE_TYPE           = "date-type";
+    static final String DAY                 = "day";
+    static final String EMAIL               = "email";
+    static final String FPAGE               = "fpage";
+    static final String FRONT               = "front";
+    static final String GIVEN_NAMES         = "given-names";
+    static final String HISTORY             = "history";
+    static final String ISSN                = "issn";
+    static final String ISSUE               = "issue";
+    static final String JOURNAL_META        = "journal-meta";
+    static final String JOURNAL_TITLE       = "journal-title";
+    static final String KWD                 = "kwd";
+    static final String LPAGE               = "lpage";
+    static final String MIXED_CITATION      = "mixed-citation";
+    static final String MONTH               = "month";
+    static final String NAME                = "name";
+    static final String P                   = "p";
+    static final String PPUB                = "ppub";
+    static final String PUB_DATE            = "pub-date";
+    static final String PUB_ID_TYPE         = "pub-id-type";
+    static final String PUB_TYPE            = "pub-type";
+    static final String PUBLISHER_NAME      = "publisher-name";
+    static final String REF                 = "ref";
+    static final String REF_LIST            = "ref-list";
+    static final String SEC                 = "sec";
+    static final String STRING_NAME         = "string-name";
+    static final String SURNAME             = "surname";
+    static final String TITLE               = "title";
+    static final String VOLUME              = "volume";
+    static final String YEAR                = "year";
+
+    private static final Map<String, FieldType> TAG_FIELDS = new HashMap<String, FieldType>();
+
+    static {
+        TAG_FIELDS.put(STRING_NAME, FieldType.AUTHOR);
+        TAG_FIELDS.put(SURNAME, FieldType.SURNAME);
+        TAG_FIELDS.put(GIVEN_NAMES, FieldType.GIVEN_NAMES);
+        TAG_FIELDS.put(ARTICLE_TITLE, FieldType.TITLE);
+        TAG_FIELDS.put("source", FieldType.SOURCE);
+        TAG_FIELDS.put("named-content", FieldType.CONTENTS);
+        TAG_FIELDS.put("edition", FieldType.EDITION);
+        TAG_FIELDS.put("series", FieldType.SERIES);
+        TAG_FIELDS.put(PUBLISHER_NAME, FieldType.PUBLISHER);
+        TAG_FIELDS.put("publisher-loc", FieldType.LOCATION);
+        TAG_FIELDS.put(VOLUME, FieldType.VOLUME);
+        TAG_FIELDS.put(ISSUE, FieldType.ISSUE);
+        TAG_FIELDS.put(YEAR, FieldType.YEAR);
+        TAG_FIELDS.put(FPAGE, FieldType.FIRST_PAGE);
+        TAG_FIELDS.put(LPAGE, FieldType.LAST_PAGE);
+        TAG_FIELDS.put("uri", FieldType.URI);
+    }
+
+    private NLMTags() {
+    }
+
+    /**
+     * @param tag element name
+     * @return reference field type, or null if the element is not a field
+     */
+    static FieldType getFieldType(String tag) {
+        return TAG_FIELDS.get(tag);
+    }
+
+}
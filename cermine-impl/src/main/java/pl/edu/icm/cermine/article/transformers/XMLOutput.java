@@ -0,0 +1,133 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming XML output with indentation. The elements are indented
+ * by two spaces. Characters not allowed in XML are skipped.
+ */
+final class XMLOutput {
+
+    private static final String INDENT = "  ";
+
+    private final Writer writer;
+
+    private final List<String> names = new ArrayList<String>();
+    private final List<Boolean> childElements = new ArrayList<Boolean>();
+
+    /** whether the start tag of the current element is not closed yet */
+    private boolean startTagOpen = false;
+
+    XMLOutput(Writer writer) {
+        this.writer = writer;
+    }
+
+    void start(String name) throws IOException {
+        closeStartTag();
+        int depth = names.size();
+        if (depth > 0) {
+            childElements.set(depth - 1, Boolean.TRUE);
+            newLine(depth);
+        }
+        writer.write('<');
+        writer.write(name);
+        names.add(name);
+        childElements.add(Boolean.FALSE);
+        startTagOpen = true;
+    }
+
+    void text(String text) throws IOException {
+        closeStartTag();
+        escape(text);
+    }
+
+    void end() throws IOException {
+        int depth = names.size();
+        String name = names.remove(depth - 1);
+        boolean hasChildElements = childElements.remove(depth - 1);
+        if (startTagOpen) {
+            writer.write("/>");
+            startTagOpen = false;
+        } else {
+            if (hasChildElements) {
+                newLine(depth - 1);
+            }
+            writer.write("</");
+            writer.write(name);
+            writer.write('>');
+        }
+        if (depth == 1) {
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Writes an element with the text content, if the text is not null.
+     */
+    void element(String name, String text) throws IOException {
+        if (text != null) {
+            start(name);
+            text(text);
+            end();
+        }
+    }
+
+    private void closeStartTag() throws IOException {
+        if (startTagOpen) {
+            writer.write('>');
+            startTagOpen = false;
+        }
+    }
+
+    private void newLine(int depth) throws IOException {
+        writer.write('\n');
+        for (int i = 0; i < depth; i++) {
+            writer.write(INDENT);
+        }
+    }
+
+    private void escape(String text) throws IOException {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement;
+            if (c == '<') {
+                replacement = "&lt;";
+            } else if (c == '>') {
+                replacement = "&gt;";
+            } else if (c == '&') {
+                replacement = "&amp;";
+            } else if ((c < 0x20 && c != '\t' && c != '\n' && c != '\r') || c == '\uFFFE' || c == '\uFFFF') {
+                replacement = "";
+            } else {
+                continue;
+            }
+            writer.write(text, start, i - start);
+            writer.write(replacement);
+            start = i + 1;
+        }
+        writer.write(text, start, text.length() - start);
+    }
+
+}
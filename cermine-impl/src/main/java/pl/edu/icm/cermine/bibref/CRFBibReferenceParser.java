@@ -24,6 +24,7 @@ import edu.umass.cs.mallet.base.types.InstanceList;
 import edu.umass.cs.mallet.base.types.LabelsSequence;
 import edu.umass.cs.mallet.grmm.learning.ACRF;
 import java.io.*;
+import java.security.DigestInputStream;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -33,8 +34,10 @@ import org.apache.commons.lang.StringUtils;
 import pl.edu.icm.cermine.bibref.model.BibEntry;
 import pl.edu.icm.cermine.bibref.parsing.model.Citation;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationTokenLabel;
+import pl.edu.icm.cermine.bibref.parsing.tools.CitationParseCache;
 import pl.edu.icm.cermine.bibref.parsing.tools.CitationUtils;
 import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.tools.DigestUtils;
 
 /**
  * CRF-based bibiliographic reference parser.
@@ -51,46 +54,40 @@ public class CRFBibReferenceParser implements BibReferenceParser<BibEntry> {
     
     private static final String defaultWordsFile = "/pl/edu/icm/cermine/bibref/crf-train-words.txt";
     private Set<String> words;
+    
+    /** digest of the serialized model */
+    private String modelId;
+    
+    /** cache of the parsed citations' labels, or null if not used */
+    private CitationParseCache cache;
 
     public CRFBibReferenceParser(String modelFile) throws AnalysisException {
-        System.setProperty("java.util.logging.config.file",
-            "edu/umass/cs/mallet/base/util/resources/logging.properties");
-        InputStream is;
-        ObjectInputStream ois = null;
         try {
-            is = new FileInputStream(new File(modelFile));
-            ois = new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(is)));
-            model = (ACRF)(ois.readObject());
-        } catch (ClassNotFoundException ex) {
-            throw new AnalysisException("Cannot set model!", ex);
+            readModel(new FileInputStream(new File(modelFile)));
         } catch (IOException ex) {
             throw new AnalysisException("Cannot set model!", ex);
-        } finally {
-            try {
-                if (ois != null) {
-                    ois.close();
-                }
-            } catch (IOException ex) {
-                throw new AnalysisException("Cannot set model!", ex);
-            }
-        }
-        
-        words = new HashSet<String>();
-        InputStream wis = CitationUtils.class.getResourceAsStream(defaultWordsFile);
-        try {
-            words.addAll(IOUtils.readLines(wis));
-        } catch (IOException ex) {
-            throw new AnalysisException("Cannot set words!", ex);
         }
+        readWords();
     }
     
     public CRFBibReferenceParser(InputStream modelInputStream) throws AnalysisException {
+        readModel(modelInputStream);
+        readWords();
+    }
+
+    private void readModel(InputStream modelInputStream) throws AnalysisException {
         System.setProperty("java.util.logging.config.file",
             "edu/umass/cs/mallet/base/util/resources/logging.properties");
+        DigestInputStream dis = new DigestInputStream(modelInputStream, DigestUtils.newDigest("SHA-1"));
         ObjectInputStream ois = null;
         try {
-            ois = new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(modelInputStream)));
+            ois = new ObjectInputStream(new BufferedInputStream(new GZIPInputStream(dis)));
             model = (ACRF)(ois.readObject());
+            // the rest of the stream is read to digest the whole model
+            byte[] buffer = new byte[4096];
+            while (dis.read(buffer) >= 0) {
+            }
+            modelId = DigestUtils.toHex(dis.getMessageDigest().digest());
         } catch (IOException ex) {
             throw new AnalysisException("Cannot set model!", ex);
         } catch (ClassNotFoundException ex) {
@@ -99,11 +96,16 @@ public class CRFBibReferenceParser implements BibReferenceParser<BibEntry> {
             try {
                 if (ois != null) {
                     ois.close();
+                } else {
+                    dis.close();
                 }
             } catch (IOException ex) {
                 throw new AnalysisException("Cannot set model!", ex);
             }
         }
+    }
+
+    private void readWords() throws AnalysisException {
         words = new HashSet<String>();
         InputStream wis = CitationUtils.class.getResourceAsStream(defaultWordsFile);
         try {
@@ -124,6 +126,18 @@ public class CRFBibReferenceParser implements BibReferenceParser<BibEntry> {
         }
         
         Citation citation = CitationUtils.stringToCitation(text);
+        String key = null;
+        if (cache != null) {
+            key = CitationParseCache.normalize(text);
+            CitationTokenLabel[] labels = cache.get(key, citation.getTokens().size());
+            if (labels != null) {
+                for (int i = 0; i < labels.length; i++) {
+                    citation.getTokens().get(i).setLabel(labels[i]);
+                }
+                return CitationUtils.citationToBibref(citation);
+            }
+        }
+        
         String data = StringUtils.join(CitationUtils.citationToMalletInputFormat(citation, words), "\n");
         
         Pipe pipe = model.getInputPipe();
@@ -135,8 +149,45 @@ public class CRFBibReferenceParser implements BibReferenceParser<BibEntry> {
             citation.getTokens().get(i).setLabel(CitationTokenLabel.valueOf(labelSequence.get(i).toString()));
         }
         
+        if (cache != null && labelSequence.size() == citation.getTokens().size()) {
+            CitationTokenLabel[] labels = new CitationTokenLabel[citation.getTokens().size()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = citation.getTokens().get(i).getLabel();
+            }
+            cache.put(key, labels);
+        }
+        
         return CitationUtils.citationToBibref(citation);
     }
+
+    /**
+     * Returns the identifier of the parser's model, which should be used
+     * to create the citation parse cache saved between the runs.
+     * 
+     * @return model identifier, the hex-encoded digest of the serialized model
+     */
+    public String getModelId() {
+        return modelId;
+    }
+
+    public CitationParseCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the cache of the parsed citations. The cache may be shared
+     * by many parsers using the same model, see {@link #getModelId()}.
+     * 
+     * @param cache citation parse cache, or null if the citations should not be cached
+     * @throws IllegalArgumentException if the cache was created for a different model
+     */
+    public void setCache(CitationParseCache cache) {
+        if (cache != null && !cache.getModelId().equals(modelId)) {
+            throw new IllegalArgumentException("Citation parse cache was created for a different model: "
+                    + cache.getModelId());
+        }
+        this.cache = cache;
+    }
   
     public static CRFBibReferenceParser getInstance() throws AnalysisException {
         return new CRFBibReferenceParser(CRFBibReferenceParser.class.getResourceAsStream(defaultModelFile));
@@ -27,12 +27,10 @@ import pl.edu.icm.cermine.bibref.extraction.tools.BibRefExtractionUtils;
 import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.structure.model.BxDocument;
 import pl.edu.icm.cermine.structure.model.BxLine;
-import pl.edu.icm.cermine.tools.classification.clustering.KMeansWithInitialCentroids;
+import pl.edu.icm.cermine.tools.TextUtils;
+import pl.edu.icm.cermine.tools.classification.clustering.KMeans;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
-import pl.edu.icm.cermine.tools.classification.features.FeatureVector;
 import pl.edu.icm.cermine.tools.classification.features.FeatureVectorBuilder;
-import pl.edu.icm.cermine.tools.classification.metrics.FeatureVectorDistanceMetric;
-import pl.edu.icm.cermine.tools.classification.metrics.FeatureVectorEuclideanMetric;
 
 /**
  * Clustering-based bibliographic reference extractor.
@@ -70,59 +68,58 @@ public class KMeansBibReferenceExtractor implements BibReferenceExtractor {
         BxDocumentBibReferences documentReferences = BibRefExtractionUtils.extractBibRefLines(document);
         documentReferences.limit(MAX_REF_LINES_COUNT);
         
-        List<String> lines = new ArrayList<String>();
-        List<FeatureVector> instances = new ArrayList<FeatureVector>();
-        FeatureVectorDistanceMetric metric = new FeatureVectorEuclideanMetric();
-        FeatureVector farthestInstance = null;
+        List<BxLine> refLines = documentReferences.getLines();
+        String[] lines = new String[refLines.size()];
+        double[][] instances = new double[refLines.size()][];
+        int farthestInstance = 0;
         double farthestDistance = 0;
-        for (BxLine line : documentReferences.getLines()) {
-            lines.add(line.toText());
-            FeatureVector featureVector = VECTOR_BUILDER.getFeatureVector(line, documentReferences);
-            instances.add(featureVector);
-            if (farthestInstance == null) {
-                farthestInstance = instances.get(0);
-            }
-            double distance = metric.getDistance(instances.get(0), featureVector);
+        for (int i = 0; i < lines.length; i++) {
+            BxLine line = refLines.get(i);
+            lines[i] = line.toText();
+            instances[i] = VECTOR_BUILDER.getFeatureVector(line, documentReferences).getValues();
+            double distance = Math.sqrt(KMeans.squaredDistance(instances[0], instances[i]));
             if (distance > farthestDistance) {
-                farthestInstance = featureVector;
+                farthestInstance = i;
                 farthestDistance = distance;
             }
         }
 
-        if (lines.size() <= 1 || farthestDistance < 0.001) {
-            return lines.toArray(new String[lines.size()]);
+        if (lines.length <= 1 || farthestDistance < 0.001) {
+            return lines;
         }
         
-        KMeansWithInitialCentroids clusterer = new KMeansWithInitialCentroids(2);
-        FeatureVector[] centroids = new FeatureVector[2];
-        centroids[0] = instances.get(0);
-        centroids[1] = farthestInstance;
-        clusterer.setCentroids(centroids);
-        List<FeatureVector>[] clusters = clusterer.cluster(instances);
+        KMeans clusterer = new KMeans();
+        double[][] centroids = new double[][]{instances[0], instances[farthestInstance]};
+        int[] clusters = clusterer.cluster(instances, centroids);
         
-        int firstInstanceClusterNum = 0;
-        if (clusters[1].contains(instances.get(0))) {
-            firstInstanceClusterNum = 1;
-        }
+        int firstInstanceCluster = clusters[0];
         
         List<String> references = new ArrayList<String>();
-        String actRef = "";
-        for (int i = 0; i < lines.size(); i++) {
-            if (clusters[firstInstanceClusterNum].contains(instances.get(i))) {
-                if (!actRef.isEmpty() && actRef.matches(".*[0-9].*") && actRef.matches(".*[a-zA-Z].*")) {
-                    references.add(actRef);
-                }
-                actRef = lines.get(i);
+        StringBuilder actRef = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            if (clusters[i] == firstInstanceCluster) {
+                addReference(references, actRef);
+                actRef.setLength(0);
+                actRef.append(lines[i]);
             } else {
-                actRef += " ";
-                actRef += lines.get(i);
+                actRef.append(' ').append(lines[i]);
             }
         }
-        if (!actRef.isEmpty() && actRef.matches(".*[0-9].*") && actRef.matches(".*[a-zA-Z].*")) {
-            references.add(actRef);
-        }
+        addReference(references, actRef);
         
         return references.toArray(new String[references.size()]);
     }
 
+    private static void addReference(List<String> references, StringBuilder reference) {
+        String text = reference.toString();
+        if (isReference(text)) {
+            references.add(text);
+        }
+    }
+
+    private static boolean isReference(String text) {
+        return !text.isEmpty() && TextUtils.isSingleLine(text)
+                && TextUtils.containsDigit(text) && TextUtils.containsLetter(text);
+    }
+
 }
@@ -18,9 +18,9 @@
 
 package pl.edu.icm.cermine.bibref.extraction.features;
 
-import java.util.regex.Pattern;
 import pl.edu.icm.cermine.bibref.extraction.model.BxDocumentBibReferences;
 import pl.edu.icm.cermine.structure.model.BxLine;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -32,10 +32,13 @@ public class EndsWithDotFeature extends FeatureCalculator<BxLine, BxDocumentBibR
     @Override
     public double calculateFeatureValue(BxLine refLine, BxDocumentBibReferences refs) {
         String text = refLine.toText();
-        if (Pattern.matches("^.*\\d\\.$", text)) {
+        if (!text.endsWith(".") || !TextUtils.isSingleLine(text)) {
+            return 0;
+        }
+        if (text.length() > 1 && TextUtils.isDigit(text.charAt(text.length() - 2))) {
             return 1;
         }
-        return Pattern.matches("^.*\\.$", text) ? 0.5 : 0;
+        return 0.5;
     }
     
 }
@@ -18,9 +18,9 @@
 
 package pl.edu.icm.cermine.bibref.extraction.features;
 
-import java.util.regex.Pattern;
 import pl.edu.icm.cermine.bibref.extraction.model.BxDocumentBibReferences;
 import pl.edu.icm.cermine.structure.model.BxLine;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -35,10 +35,13 @@ public class PrevEndsWithDotFeature extends FeatureCalculator<BxLine, BxDocument
             return 0.9;
         }
         String text = refs.getLines().get(refs.getLines().indexOf(refLine)-1).toText();
-        if (Pattern.matches("^.*\\d\\.$", text)) {
+        if (!text.endsWith(".") || !TextUtils.isSingleLine(text)) {
+            return 0;
+        }
+        if (text.length() > 1 && TextUtils.isDigit(text.charAt(text.length() - 2))) {
             return 1;
         }
-        return Pattern.matches("^.*\\.$", text) ? 0.8 : 0;
+        return 0.8;
     }
     
 }
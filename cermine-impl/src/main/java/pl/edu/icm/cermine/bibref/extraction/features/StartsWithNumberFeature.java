@@ -30,11 +30,14 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
  */
 public class StartsWithNumberFeature extends FeatureCalculator<BxLine, BxDocumentBibReferences> {
 
+    private static final Pattern[] NUMBER_PATTERNS = {
+        Pattern.compile("^\\[(\\d{1,3})\\] .*"),
+        Pattern.compile("^(\\d{1,3})\\.? .*")
+    };
+
     @Override
     public double calculateFeatureValue(BxLine refLine, BxDocumentBibReferences refs) {
-        String[] patterns = {"^\\[(\\d{1,3})\\] .*", "^(\\d{1,3})\\.? .*"};
-        for (String pText : patterns) {
-            Pattern pattern = Pattern.compile(pText);
+        for (Pattern pattern : NUMBER_PATTERNS) {
             Matcher matcher = pattern.matcher(refLine.toText());
             if (!matcher.matches()) {
                 continue;
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import pl.edu.icm.cermine.structure.model.BxLine;
 import pl.edu.icm.cermine.structure.model.BxZone;
+import pl.edu.icm.cermine.tools.TextUtils;
 
 /**
  * Stores BxDocument's bibliographic references lines with their labels.
@@ -45,7 +46,7 @@ public class BxDocumentBibReferences {
 
     public void addZone(BxZone zone) {
         for (BxLine line : zone.getLines()) {
-            String normalized = line.toText().toLowerCase().replaceAll("[^a-z]", "");
+            String normalized = TextUtils.retainLowercaseLetters(line.toText().toLowerCase());
             if (line.toText().length() < MAX_TITLE_LENGTH && zone.getLines().indexOf(line) == 0 && 
                     (normalized.startsWith("refer") || normalized.startsWith("biblio")
                     || normalized.startsWith("acknowled") || normalized.startsWith("conclus"))) {
@@ -53,7 +54,7 @@ public class BxDocumentBibReferences {
                 lineZones.clear();
                 continue;
             }
-            if (line.toText().replaceAll("[\\s\\u00A0]", "").isEmpty()) {
+            if (isBlank(line.toText())) {
                 continue;
             }
                    
@@ -62,6 +63,16 @@ public class BxDocumentBibReferences {
         }
     }
 
+    private static boolean isBlank(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!TextUtils.isWhitespace(c) && c != '\u00A0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public List<BxLine> getLines() {
         return lines;
     }
@@ -20,6 +20,7 @@ package pl.edu.icm.cermine.bibref.parsing.features;
 
 import pl.edu.icm.cermine.bibref.parsing.model.Citation;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationToken;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -33,7 +34,7 @@ public class InitialsInParenthesesFeature extends FeatureCalculator<CitationToke
         String text = object.getText();
         int index = context.getTokens().indexOf(object);
 
-        if (text.matches("^[A-Z]$")) {
+        if (TextUtils.isUppercaseLetter(text)) {
             if (index - 1 < 0 || index + 2 >= context.getTokens().size()) {
                 return 0;
             }
@@ -48,12 +49,12 @@ public class InitialsInParenthesesFeature extends FeatureCalculator<CitationToke
                 return 0;
             }
             if (context.getTokens().get(index - 2).getText().equals("(")
-                    && context.getTokens().get(index - 1).getText().matches("^[A-Z]$")
+                    && TextUtils.isUppercaseLetter(context.getTokens().get(index - 1).getText())
                     && context.getTokens().get(index + 1).getText().equals(")")) {
                 return 1;
             }
         }
-        if (text.matches("^[A-Z][a-z]+$")) {
+        if (isCapitalizedWord(text)) {
             if (index - 1 < 0 || index + 1 >= context.getTokens().size()) {
                 return 0;
             }
@@ -65,4 +66,16 @@ public class InitialsInParenthesesFeature extends FeatureCalculator<CitationToke
         return 0;
     }
 
+    private static boolean isCapitalizedWord(String text) {
+        if (text.length() < 2 || !TextUtils.isUppercaseLetter(text.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < text.length(); i++) {
+            if (!TextUtils.isLowercaseLetter(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
@@ -21,6 +21,7 @@ package pl.edu.icm.cermine.bibref.parsing.features;
 import java.util.List;
 import pl.edu.icm.cermine.bibref.parsing.model.Citation;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationToken;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -35,22 +36,27 @@ public class IsCommonSurnamePartFeature extends FeatureCalculator<CitationToken,
         if (text.equalsIgnoreCase("van") || text.equalsIgnoreCase("de") || text.equalsIgnoreCase("der")) {
             return 1;
         }
-        if (text.matches("^Mc[A-Z].*$")) {
+        if (text.startsWith("Mc") && text.length() > 2 && TextUtils.isUppercaseLetter(text.charAt(2))
+                && TextUtils.isSingleLine(text)) {
             return 1;
         }
 
         List<CitationToken> tokens = context.getTokens();
         int index = tokens.indexOf(object);
         if (index + 2 < tokens.size() && text.equals("O") && tokens.get(index + 1).getText().equals("'")
-                && tokens.get(index + 2).getText().matches("^[A-Z].*$")) {
+                && startsWithUppercaseLetter(tokens.get(index + 2).getText())) {
             return 1;
         }
         if (index + 1 < tokens.size() && index - 1 >= 0 && text.equals("'")
                 && tokens.get(index - 1).getText().equals("O")
-                && tokens.get(index + 1).getText().matches("^[A-Z].*$")) {
+                && startsWithUppercaseLetter(tokens.get(index + 1).getText())) {
             return 1;
         }
         return 0;
     }
 
+    private static boolean startsWithUppercaseLetter(String text) {
+        return TextUtils.startsWithUppercaseLetter(text) && TextUtils.isSingleLine(text);
+    }
+
 }
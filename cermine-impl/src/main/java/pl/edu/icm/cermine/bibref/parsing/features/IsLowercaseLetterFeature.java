@@ -20,6 +20,7 @@ package pl.edu.icm.cermine.bibref.parsing.features;
 
 import pl.edu.icm.cermine.bibref.parsing.model.Citation;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationToken;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -30,6 +31,6 @@ public class IsLowercaseLetterFeature extends FeatureCalculator<CitationToken, C
 
     @Override
     public double calculateFeatureValue(CitationToken object, Citation context) {
-        return (object.getText().matches("^[a-z]$")) ? 1 : 0;
+        return (TextUtils.isLowercaseLetter(object.getText())) ? 1 : 0;
     }
 }
@@ -21,6 +21,7 @@ package pl.edu.icm.cermine.bibref.parsing.features;
 import java.util.List;
 import pl.edu.icm.cermine.bibref.parsing.model.Citation;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationToken;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -39,10 +40,10 @@ public class IsVolumeTextFeature extends FeatureCalculator<CitationToken, Citati
         List<CitationToken> tokens = context.getTokens();
         int index = tokens.indexOf(object);
         if (index + 2 < tokens.size() && text.equalsIgnoreCase("t")) {
-            if (tokens.get(index + 1).getText().matches("^\\d+$")) {
+            if (TextUtils.isNumber(tokens.get(index + 1).getText())) {
                 return 1;
             }
-            if (tokens.get(index + 1).getText().equals(".") && tokens.get(index + 2).getText().matches("^\\d+$")) {
+            if (tokens.get(index + 1).getText().equals(".") && TextUtils.isNumber(tokens.get(index + 2).getText())) {
                 return 1;
             }
         }
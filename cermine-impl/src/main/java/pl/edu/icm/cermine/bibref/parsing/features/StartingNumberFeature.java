@@ -19,8 +19,10 @@
 package pl.edu.icm.cermine.bibref.parsing.features;
 
 import java.util.List;
+import java.util.regex.Pattern;
 import pl.edu.icm.cermine.bibref.parsing.model.Citation;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationToken;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -29,28 +31,29 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
  */
 public class StartingNumberFeature extends FeatureCalculator<CitationToken, Citation> {
 
+    private static final Pattern TWO_TOKENS_PATTERN = Pattern.compile("^\\d+\\.$");
+    
+    private static final Pattern THREE_TOKENS_PATTERN = Pattern.compile("^\\[\\d+\\]$|^.\\d+\\.$");
+
     @Override
     public double calculateFeatureValue(CitationToken object, Citation context) {
         List<CitationToken> tokens = context.getTokens();
         int index = context.getTokens().indexOf(object);
 
-        if (tokens.size() > 0 && tokens.get(0).getText().matches("^\\d+$") && index == 0) {
+        if (tokens.size() > 0 && TextUtils.isNumber(tokens.get(0).getText()) && index == 0) {
             return 1;
         }
 
         if (tokens.size() > 1) {
             String two = tokens.get(0).getText() + tokens.get(1).getText();
-            if (two.matches("^\\d+\\.$") && index < 2) {
+            if (TWO_TOKENS_PATTERN.matcher(two).matches() && index < 2) {
                 return 1;
             }
         }
 
         if (tokens.size() > 2) {
             String three = tokens.get(0).getText() + tokens.get(1).getText() + tokens.get(2).getText();
-            if (three.matches("^\\[\\d+\\]$") && index < 3) {
-                return 1;
-            }
-            if (three.matches("^.\\d+\\.$") && index < 3) {
+            if (THREE_TOKENS_PATTERN.matcher(three).matches() && index < 3) {
                 return 1;
             }
         }
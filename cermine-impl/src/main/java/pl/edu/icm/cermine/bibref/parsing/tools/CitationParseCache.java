@@ -0,0 +1,370 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.bibref.parsing.tools;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import pl.edu.icm.cermine.bibref.parsing.model.CitationTokenLabel;
+
+/**
+ * Bounded cache of the token labels assigned to the parsed citations,
+ * shared by the citation parsers across the documents.
+ *
+ * The labels are keyed by the normalized citation text, in which whitespace
+ * sequences are replaced by single spaces, ligatures are expanded and dash
+ * variants are replaced by the hyphen-minus. These operations do not change
+ * the number of the citation's tokens, so the cached labels can be assigned
+ * to the tokens of every citation with the same normalized text.
+ *
+ * The cache is divided into independently synchronized segments, each
+ * evicting its least recently used entries, so it can be shared by all
+ * the extracting threads. The cache can be saved to a file and loaded
+ * in the next run. The file stores the identifier of the parsing model,
+ * and the citations are loaded only by a cache created for the same model.
+ */
+public final class CitationParseCache {
+
+    public static final int DEFAULT_MAX_SIZE = 100000;
+
+    /** maximum length of the cached citations */
+    public static final int MAX_KEY_LENGTH = 10000;
+
+    private static final int SEGMENTS = 16;
+
+    /** "CPC" */
+    private static final int MAGIC = 0x00435043;
+
+    private static final int VERSION = 2;
+
+    private static final String DASHES = "\u00AD\u2010\u2011\u2012\u2013\u2014\u2015\u207B\u208B\u2212";
+
+    private static final String[] LIGATURES = {"ff", "fi", "fl", "ffi", "ffl", "st", "st"};
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final int maxSize;
+
+    /** identifier of the model assigning the cached labels */
+    private final String modelId;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public CitationParseCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize maximum number of cached citations
+     */
+    public CitationParseCache(int maxSize) {
+        this(maxSize, "");
+    }
+
+    /**
+     * @param maxSize maximum number of cached citations
+     * @param modelId identifier of the model assigning the cached labels,
+     * e.g. {@link pl.edu.icm.cermine.bibref.CRFBibReferenceParser#getModelId()}
+     */
+    public CitationParseCache(int maxSize, String modelId) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        if (modelId == null) {
+            throw new IllegalArgumentException("Model identifier cannot be null");
+        }
+        this.maxSize = maxSize;
+        this.modelId = modelId;
+        int segmentSize = (maxSize + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Normalizes the citation text.
+     *
+     * @param text citation text
+     * @return normalized text
+     */
+    public static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                space = true;
+                continue;
+            }
+            if (space && sb.length() > 0) {
+                sb.append(' ');
+            }
+            space = false;
+            if (c >= '\uFB00' && c <= '\uFB06') {
+                sb.append(LIGATURES[c - '\uFB00']);
+            } else if (DASHES.indexOf(c) >= 0) {
+                sb.append('-');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the cached labels of the citation's tokens.
+     *
+     * @param key normalized citation text
+     * @param tokenCount number of the citation's tokens
+     * @return token labels, or null if the citation is not cached
+     * or the number of the cached labels is different
+     */
+    public CitationTokenLabel[] get(String key, int tokenCount) {
+        CitationTokenLabel[] labels = getSegment(key).getLabels(key);
+        if (labels == null || labels.length != tokenCount) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return labels.clone();
+    }
+
+    /**
+     * Caches the labels of the citation's tokens. Citations longer than
+     * MAX_KEY_LENGTH are not cached.
+     *
+     * @param key normalized citation text
+     * @param labels token labels
+     */
+    public void put(String key, CitationTokenLabel[] labels) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            return;
+        }
+        getSegment(key).putLabels(key, labels.clone());
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.getSize();
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clearLabels();
+        }
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return the ratio of the lookups that found the citation in the cache,
+     * or 0 if there were no lookups
+     */
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long lookups = hits + missCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Saves the cached citations to the file. The file is written as
+     * a whole to a temporary file first and then renamed.
+     *
+     * @param file file
+     * @throws IOException 
+     */
+    public void save(File file) throws IOException {
+        File tempFile = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(new FileOutputStream(tempFile))));
+            try {
+                output.writeInt(MAGIC);
+                output.writeByte(VERSION);
+                output.writeUTF(modelId);
+                CitationTokenLabel[] labelValues = CitationTokenLabel.values();
+                output.writeShort(labelValues.length);
+                for (CitationTokenLabel label : labelValues) {
+                    output.writeUTF(label.name());
+                }
+                for (Segment segment : segments) {
+                    for (Map.Entry<String, CitationTokenLabel[]> entry : segment.getEntries()) {
+                        output.writeBoolean(true);
+                        output.writeUTF(entry.getKey());
+                        output.writeShort(entry.getValue().length);
+                        for (CitationTokenLabel label : entry.getValue()) {
+                            output.writeShort(label.ordinal());
+                        }
+                    }
+                }
+                output.writeBoolean(false);
+            } finally {
+                output.close();
+            }
+            if (!tempFile.renameTo(file)) {
+                file.delete();
+                if (!tempFile.renameTo(file)) {
+                    throw new IOException("Cannot write citation cache " + file);
+                }
+            }
+        } finally {
+            if (tempFile.exists()) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Loads the citations saved in the file into the cache, if the file
+     * exists. Nothing is loaded if the file was saved by an older version
+     * of the cache or for a different model. The citations containing labels
+     * that are no longer used are skipped.
+     *
+     * @param file file
+     * @return the number of the loaded citations
+     * @throws IOException 
+     */
+    public int load(File file) throws IOException {
+        if (!file.isFile()) {
+            return 0;
+        }
+        DataInputStream input = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))));
+        try {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Unsupported citation cache file " + file);
+            }
+            if (input.readUnsignedByte() != VERSION || !modelId.equals(input.readUTF())) {
+                return 0;
+            }
+            CitationTokenLabel[] labelValues = new CitationTokenLabel[input.readUnsignedShort()];
+            for (int i = 0; i < labelValues.length; i++) {
+                String name = input.readUTF();
+                try {
+                    labelValues[i] = CitationTokenLabel.valueOf(name);
+                } catch (IllegalArgumentException ex) {
+                    labelValues[i] = null;
+                }
+            }
+            int loaded = 0;
+            while (input.readBoolean()) {
+                String key = input.readUTF();
+                CitationTokenLabel[] labels = new CitationTokenLabel[input.readUnsignedShort()];
+                boolean known = true;
+                for (int i = 0; i < labels.length; i++) {
+                    int index = input.readUnsignedShort();
+                    labels[i] = index < labelValues.length ? labelValues[index] : null;
+                    known &= labels[i] != null;
+                }
+                if (known) {
+                    put(key, labels);
+                    loaded++;
+                }
+            }
+            return loaded;
+        } finally {
+            input.close();
+        }
+    }
+
+    private Segment getSegment(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return segments[hash & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Part of the cache, evicting its least recently used entries.
+     */
+    private final class Segment extends LinkedHashMap<String, CitationTokenLabel[]> {
+
+        private static final long serialVersionUID = -2472316651530390154L;
+
+        private final int capacity;
+
+        public Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CitationTokenLabel[]> eldest) {
+            if (size() > capacity) {
+                evictionCount.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public synchronized CitationTokenLabel[] getLabels(String key) {
+            return get(key);
+        }
+
+        public synchronized void putLabels(String key, CitationTokenLabel[] labels) {
+            put(key, labels);
+        }
+
+        public synchronized int getSize() {
+            return size();
+        }
+
+        public synchronized void clearLabels() {
+            clear();
+        }
+
+        public synchronized List<Map.Entry<String, CitationTokenLabel[]>> getEntries() {
+            List<Map.Entry<String, CitationTokenLabel[]>> entries =
+                    new ArrayList<Map.Entry<String, CitationTokenLabel[]>>(size());
+            for (Map.Entry<String, CitationTokenLabel[]> entry : entrySet()) {
+                entries.add(new AbstractMap.SimpleEntry<String, CitationTokenLabel[]>(entry));
+            }
+            return entries;
+        }
+
+    }
+
+}
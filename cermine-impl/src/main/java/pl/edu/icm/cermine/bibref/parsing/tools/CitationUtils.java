@@ -23,6 +23,7 @@ import pl.edu.icm.cermine.bibref.model.BibEntry;
 import pl.edu.icm.cermine.bibref.parsing.model.Citation;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationToken;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationTokenLabel;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureVector;
 import pl.edu.icm.cermine.tools.classification.features.FeatureVectorBuilder;
 
@@ -66,7 +67,7 @@ public final class CitationUtils {
                 }
             }
             String token = text.substring(0, end);
-            if (!token.matches("\\s+")) {
+            if (token.isEmpty() || !TextUtils.isBlank(token)) {
                 tokenList.add(new CitationToken(token, actIndex, actIndex + end));
             }
             text = text.substring(end);
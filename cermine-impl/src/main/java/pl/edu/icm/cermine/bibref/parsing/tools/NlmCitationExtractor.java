@@ -30,6 +30,7 @@ import org.xml.sax.InputSource;
 import pl.edu.icm.cermine.bibref.parsing.model.Citation;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationToken;
 import pl.edu.icm.cermine.bibref.parsing.model.CitationTokenLabel;
+import pl.edu.icm.cermine.tools.TextUtils;
 
 /**
  * Citation extractor from NLM xml-s.
@@ -99,7 +100,7 @@ public final class NlmCitationExtractor {
         for (Object content : element.getContent()) {
             if (content instanceof Text) {
                 String contentText = ((Text) content).getText();
-                if (!contentText.matches("^[\\s]*$")) {
+                if (!TextUtils.isBlank(contentText)) {
                     for (CitationToken token : CitationUtils.stringToCitation(contentText).getTokens()) {
                         token.setStartIndex(token.getStartIndex() + citation.getText().length());
                         token.setEndIndex(token.getEndIndex() + citation.getText().length());
@@ -27,6 +27,7 @@ import pl.edu.icm.cermine.content.transformers.BxContentStructToDocContentStruct
 import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.exception.TransformationException;
 import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.tools.profiling.ExtractionMetrics;
 
 /**
  *
@@ -56,10 +57,29 @@ public abstract class LogicalStructureExtractor {
     
     public DocumentContentStructure extractStructure(BxDocument document) throws AnalysisException {
         try {
-            BxDocument doc = contentFilter.filter(document);
-            BxDocContentStructure tmpContentStructure = headerExtractor.extractHeaders(doc);
-            contentCleaner.cleanupContent(tmpContentStructure);
-            return converter.convert(tmpContentStructure);
+            ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("text.filtering");
+            BxDocument doc;
+            try {
+                doc = contentFilter.filter(document);
+            } finally {
+                stage.stop();
+            }
+            
+            stage = ExtractionMetrics.startStage("text.headers");
+            BxDocContentStructure tmpContentStructure;
+            try {
+                tmpContentStructure = headerExtractor.extractHeaders(doc);
+            } finally {
+                stage.stop();
+            }
+            
+            stage = ExtractionMetrics.startStage("text.cleaning");
+            try {
+                contentCleaner.cleanupContent(tmpContentStructure);
+                return converter.convert(tmpContentStructure);
+            } finally {
+                stage.stop();
+            }
         } catch (TransformationException ex) {
             throw new AnalysisException("Cannot extract logical structure!", ex);
         }
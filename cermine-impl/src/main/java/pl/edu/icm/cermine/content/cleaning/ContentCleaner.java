@@ -23,6 +23,7 @@ import java.util.List;
 import pl.edu.icm.cermine.content.model.BxDocContentStructure;
 import pl.edu.icm.cermine.content.model.BxDocContentStructure.BxDocContentPart;
 import pl.edu.icm.cermine.structure.model.BxLine;
+import pl.edu.icm.cermine.tools.TextUtils;
 
 /**
  *
@@ -84,7 +85,8 @@ public class ContentCleaner {
                 int score = 0;
                 BxLine prev = line.getPrev();
                 BxLine next = line.getNext();
-                if (line.toText().matches("^[A-Z].*$")) {
+                String text = line.toText();
+                if (TextUtils.startsWithUppercaseLetter(text) && TextUtils.isSingleLine(text)) {
                     score++;
                 }
                 if (prev != null) {
@@ -135,13 +137,7 @@ public class ContentCleaner {
     }
     
     private String cleanLigatures(String str) {
-        return str.replaceAll("\uFB00", "ff")
-                  .replaceAll("\uFB01", "fi")
-                  .replaceAll("\uFB02", "fl")
-                  .replaceAll("\uFB03", "ffi")
-                  .replaceAll("\uFB04", "ffl")
-                  .replaceAll("\uFB05", "ft")
-                  .replaceAll("\uFB06", "st");
+        return TextUtils.replaceLigatures(str);
     }
 
     public void setFirstParagraphLineMinScore(double firstParagraphLineMinScore) {
@@ -18,6 +18,7 @@
 
 package pl.edu.icm.cermine.content.filtering.features;
 
+import java.util.regex.Pattern;
 import pl.edu.icm.cermine.structure.model.*;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
@@ -27,13 +28,15 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
  */
 public class FigureTableFeature extends FeatureCalculator<BxZone, BxPage> {
 
+    private static final Pattern CAPTION_PATTERN =
+            Pattern.compile("figure ?[0-9ivx]+[\\.:].*$|table ?[0-9ivx]+[\\.:].*$|figure ?[0-9ivx]+$|table ?[0-9ivx]+$");
+
     @Override
     public double calculateFeatureValue(BxZone zone, BxPage page) {
         int i = 0;
         for (BxLine line : zone.getLines()) {
             String text = line.toText().toLowerCase();
-            if (text.matches("figure ?[0-9ivx]+[\\.:].*$") || text.matches("table ?[0-9ivx]+[\\.:].*$")
-                    || text.matches("figure ?[0-9ivx]+$") || text.matches("table ?[0-9ivx]+$")) {
+            if (CAPTION_PATTERN.matcher(text).matches()) {
                 if (i == 0) {
                     return 1;
                 }
@@ -20,6 +20,7 @@ package pl.edu.icm.cermine.content.filtering.features;
 
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -30,8 +31,12 @@ public class GreekLettersFeature extends FeatureCalculator<BxZone, BxPage> {
 
     @Override
     public double calculateFeatureValue(BxZone zone, BxPage page) {
-        return (zone.toText().matches("^.*[\\u0391-\\u03A9].*$") ||
-                zone.toText().matches("^.*[\\u03B1-\\u03C9].*$")) ? 1: 0;
+        String text = zone.toText();
+        if (!TextUtils.isSingleLine(text)) {
+            return 0;
+        }
+        return (TextUtils.containsCharacterInRange(text, '\u0391', '\u03A9') ||
+                TextUtils.containsCharacterInRange(text, '\u03B1', '\u03C9')) ? 1: 0;
     }
     
 }
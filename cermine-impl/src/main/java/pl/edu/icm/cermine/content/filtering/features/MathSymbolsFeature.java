@@ -20,6 +20,7 @@ package pl.edu.icm.cermine.content.filtering.features;
 
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -30,7 +31,11 @@ public class MathSymbolsFeature extends FeatureCalculator<BxZone, BxPage> {
 
     @Override
     public double calculateFeatureValue(BxZone zone, BxPage page) {
-        return (zone.toText().matches("^.*[=\\u2200-\\u22FF].*$")) ? 1 : 0;
+        String text = zone.toText();
+        if (!TextUtils.isSingleLine(text)) {
+            return 0;
+        }
+        return (text.indexOf('=') >= 0 || TextUtils.containsCharacterInRange(text, '\u2200', '\u22FF')) ? 1 : 0;
     }
     
 }
@@ -0,0 +1,250 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.content.headers;
+
+import java.util.ArrayList;
+import java.util.List;
+import pl.edu.icm.cermine.content.headers.features.HeightFeature;
+import pl.edu.icm.cermine.content.headers.features.IsHigherThanNeighborsFeature;
+import pl.edu.icm.cermine.content.headers.features.WordsUppercaseFeature;
+import pl.edu.icm.cermine.evaluation.tools.EvaluationUtils;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
+
+/**
+ * Cheap first stage of the header lines classification cascade. The prefilter
+ * recognizes the lines that are certainly not headers: lines that are not
+ * numbered, are not higher than the mean line on the page or their neighbours,
+ * are not shorter than a typical line and do not consist mostly
+ * of capitalized words. Only the remaining lines are passed to the SVM
+ * classifier.
+ *
+ * The thresholds can be calibrated on the header classifier's training data
+ * so that the prefilter keeps a given recall of the header lines.
+ */
+public class HeaderLinesPrefilter {
+
+    public static final double DEFAULT_MAX_HEIGHT_RATIO = 1.1;
+
+    public static final double DEFAULT_MIN_WIDTH_RATIO = 0.8;
+
+    public static final double DEFAULT_MAX_UPPERCASE_WORDS = 0.5;
+
+    public static final double DEFAULT_MIN_RECALL = 0.99;
+
+    private static final double[] HEIGHT_RATIOS = {1.0, 1.02, 1.05, 1.1, 1.15, 1.2, 1.3, 1.5};
+
+    private static final double[] WIDTH_RATIOS = {0.3, 0.4, 0.5, 0.6, 0.7, 0.75, 0.8, 0.85, 0.9, 0.95, 1.0};
+
+    private static final double[] UPPERCASE_WORDS = {0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 1.0};
+
+    private static final FeatureCalculator<BxLine, BxPage> NEIGHBOURS_FEATURE = new IsHigherThanNeighborsFeature();
+
+    private static final FeatureCalculator<BxLine, BxPage> UPPERCASE_FEATURE = new WordsUppercaseFeature();
+
+    private double maxHeightRatio = DEFAULT_MAX_HEIGHT_RATIO;
+
+    private double minWidthRatio = DEFAULT_MIN_WIDTH_RATIO;
+
+    private double maxUppercaseWords = DEFAULT_MAX_UPPERCASE_WORDS;
+
+    public HeaderLinesPrefilter() {
+    }
+
+    public HeaderLinesPrefilter(double maxHeightRatio, double minWidthRatio, double maxUppercaseWords) {
+        this.maxHeightRatio = maxHeightRatio;
+        this.minWidthRatio = minWidthRatio;
+        this.maxUppercaseWords = maxUppercaseWords;
+    }
+
+    /**
+     * Checks whether the line is certainly not a header.
+     *
+     * @param line line
+     * @param page line's page
+     * @param meanWidth mean line width on the page (see {@link #getMeanLineWidth(BxPage)})
+     * @return true if the line is not a header, false if it has to be
+     * classified by the SVM
+     */
+    public boolean isContentLine(BxLine line, BxPage page, double meanWidth) {
+        double meanHeight = HeightFeature.getMeanLineHeight(page);
+        if (getRatio(line.getHeight(), meanHeight) > maxHeightRatio) {
+            return false;
+        }
+        if (getRatio(line.getWidth(), meanWidth) < minWidthRatio) {
+            return false;
+        }
+        if (NEIGHBOURS_FEATURE.calculateFeatureValue(line, page) > 0) {
+            return false;
+        }
+        if (UPPERCASE_FEATURE.calculateFeatureValue(line, page) >= maxUppercaseWords) {
+            return false;
+        }
+        return !isNumbered(line, page);
+    }
+
+    private static double getRatio(double value, double mean) {
+        return mean == 0 ? 0 : value / mean;
+    }
+
+    private static boolean isNumbered(BxLine line, BxPage page) {
+        for (FeatureCalculator<BxLine, BxPage> calculator : HeaderExtractingTools.CLUSTERING_VB.getFeatureCalculators()) {
+            if (calculator.calculateFeatureValue(line, page) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the mean width of the page's lines.
+     *
+     * @param page page
+     * @return mean line width, or 0 if the page has no lines
+     */
+    public static double getMeanLineWidth(BxPage page) {
+        double meanWidth = 0;
+        int lineCount = 0;
+        for (BxZone zone : page.getZones()) {
+            for (BxLine line : zone.getLines()) {
+                meanWidth += line.getWidth();
+                lineCount++;
+            }
+        }
+        return lineCount == 0 ? 0 : meanWidth / lineCount;
+    }
+
+    /**
+     * Chooses the thresholds that let through the fewest content lines,
+     * keeping at least the given recall of the header lines.
+     *
+     * @param documents documents with labelled zones
+     * @param minRecall minimum fraction of the header lines not filtered
+     * @return fraction of the content lines filtered with the chosen
+     * thresholds, or -1 if no thresholds keep the recall
+     */
+    public double calibrate(List<BxDocument> documents, double minRecall) {
+        List<LineValues> headers = new ArrayList<LineValues>();
+        List<LineValues> content = new ArrayList<LineValues>();
+        for (BxDocument document : documents) {
+            for (BxPage page : document.getPages()) {
+                double meanWidth = getMeanLineWidth(page);
+                for (BxZone zone : page.getZones()) {
+                    if (zone.getLabel() == null || !zone.getLabel().isOfCategoryOrGeneral(BxZoneLabelCategory.CAT_BODY)) {
+                        continue;
+                    }
+                    for (BxLine line : zone.getLines()) {
+                        LineValues values = new LineValues(line, page, meanWidth);
+                        if (zone.getLabel() == BxZoneLabel.BODY_HEADING) {
+                            headers.add(values);
+                        } else {
+                            content.add(values);
+                        }
+                    }
+                }
+            }
+        }
+
+        double bestFiltered = -1;
+        for (double height : HEIGHT_RATIOS) {
+            for (double width : WIDTH_RATIOS) {
+                for (double uppercase : UPPERCASE_WORDS) {
+                    int kept = 0;
+                    for (LineValues values : headers) {
+                        if (!values.isContent(height, width, uppercase)) {
+                            kept++;
+                        }
+                    }
+                    if (!headers.isEmpty() && (double) kept / headers.size() < minRecall) {
+                        continue;
+                    }
+                    int filtered = 0;
+                    for (LineValues values : content) {
+                        if (values.isContent(height, width, uppercase)) {
+                            filtered++;
+                        }
+                    }
+                    double filteredRatio = content.isEmpty() ? 0 : (double) filtered / content.size();
+                    if (filteredRatio > bestFiltered) {
+                        bestFiltered = filteredRatio;
+                        maxHeightRatio = height;
+                        minWidthRatio = width;
+                        maxUppercaseWords = uppercase;
+                    }
+                }
+            }
+        }
+        return bestFiltered;
+    }
+
+    public double getMaxHeightRatio() {
+        return maxHeightRatio;
+    }
+
+    public double getMinWidthRatio() {
+        return minWidthRatio;
+    }
+
+    public double getMaxUppercaseWords() {
+        return maxUppercaseWords;
+    }
+
+    private static class LineValues {
+
+        private final boolean numbered;
+        private final double heightRatio;
+        private final boolean higherThanNeighbours;
+        private final double widthRatio;
+        private final double uppercaseWords;
+
+        LineValues(BxLine line, BxPage page, double meanWidth) {
+            heightRatio = getRatio(line.getHeight(), HeightFeature.getMeanLineHeight(page));
+            widthRatio = getRatio(line.getWidth(), meanWidth);
+            higherThanNeighbours = NEIGHBOURS_FEATURE.calculateFeatureValue(line, page) > 0;
+            uppercaseWords = UPPERCASE_FEATURE.calculateFeatureValue(line, page);
+            numbered = isNumbered(line, page);
+        }
+
+        boolean isContent(double maxHeightRatio, double minWidthRatio, double maxUppercaseWords) {
+            return !numbered && !higherThanNeighbours && heightRatio <= maxHeightRatio
+                    && widthRatio >= minWidthRatio && uppercaseWords < maxUppercaseWords;
+        }
+    }
+
+    public static void main(String[] args) throws TransformationException {
+        if (args.length < 1) {
+            System.out.println("Usage: HeaderLinesPrefilter <input dir> [<min recall>]");
+            return;
+        }
+        double minRecall = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_MIN_RECALL;
+        List<BxDocument> documents = EvaluationUtils.getDocumentsFromPath(args[0]);
+        HeaderLinesPrefilter prefilter = new HeaderLinesPrefilter();
+        double filtered = prefilter.calibrate(documents, minRecall);
+        if (filtered < 0) {
+            System.out.println("No thresholds keep the header recall of " + minRecall);
+            return;
+        }
+        System.out.println("Max height ratio: " + prefilter.getMaxHeightRatio());
+        System.out.println("Min width ratio: " + prefilter.getMinWidthRatio());
+        System.out.println("Max uppercase words: " + prefilter.getMaxUppercaseWords());
+        System.out.println("Filtered content lines: " + filtered);
+    }
+
+}
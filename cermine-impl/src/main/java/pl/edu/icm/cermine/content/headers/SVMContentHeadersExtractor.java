@@ -34,6 +34,8 @@ public class SVMContentHeadersExtractor implements ContentHeadersExtractor {
     private HeadersClusterizer headersClusterizer;
     
     private HeaderLinesCompletener headerLinesCompletener;
+    
+    private HeaderLinesPrefilter prefilter;
 
     public SVMContentHeadersExtractor(SVMHeaderLinesClassifier contentHeaderClassifier) {
         this.contentHeaderClassifier = contentHeaderClassifier;
@@ -54,7 +56,28 @@ public class SVMContentHeadersExtractor implements ContentHeadersExtractor {
 	}
     
    
-    private boolean isHeader(BxLine line, BxPage page) {
+    public HeaderLinesPrefilter getPrefilter() {
+        return prefilter;
+    }
+
+    /**
+     * Sets the prefilter deciding the lines that are certainly not headers
+     * before the SVM classifier is used. By default no prefilter is used
+     * and all the lines are classified by the SVM. The prefilter's thresholds
+     * should be calibrated on the documents the classifier was trained on
+     * before it is set.
+     * 
+     * @param prefilter prefilter, null if all the lines should be classified
+     * by the SVM
+     */
+    public void setPrefilter(HeaderLinesPrefilter prefilter) {
+        this.prefilter = prefilter;
+    }
+    
+    private boolean isHeader(BxLine line, BxPage page, double meanWidth) {
+        if (prefilter != null && prefilter.isContentLine(line, page, meanWidth)) {
+            return false;
+        }
         BxZoneLabel label = contentHeaderClassifier.predictLabel(line, page);
         return label.equals(BxZoneLabel.BODY_HEADING);
     }
@@ -65,10 +88,11 @@ public class SVMContentHeadersExtractor implements ContentHeadersExtractor {
         BxDocContentStructure contentStructure = new BxDocContentStructure();
         BxLine lastHeaderLine = null;
         for (BxPage page : document.getPages()) {
+            double meanWidth = prefilter == null ? 0 : HeaderLinesPrefilter.getMeanLineWidth(page);
             for (BxZone zone : page.getZones()) {
                 if (zone.getLabel().isOfCategoryOrGeneral(BxZoneLabelCategory.CAT_BODY)) {
                     for (BxLine line : zone.getLines()) {
-                        if (isHeader(line, page)) {
+                        if (isHeader(line, page, meanWidth)) {
                             contentStructure.addFirstHeaderLine(page, line);
                             lastHeaderLine = line;
                         } else if (zone.getLabel().equals(BxZoneLabel.BODY_CONTENT) || zone.getLabel().equals(BxZoneLabel.GEN_BODY)) {
@@ -18,6 +18,7 @@
 
 package pl.edu.icm.cermine.content.headers.features;
 
+import java.lang.ref.WeakReference;
 import pl.edu.icm.cermine.structure.model.BxLine;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
@@ -29,8 +30,36 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
  */
 public class HeightFeature extends FeatureCalculator<BxLine, BxPage> {
 
+    /** mean line height of the most recently processed page, per thread */
+    private static final ThreadLocal<PageHeight> CACHE = new ThreadLocal<PageHeight>() {
+        @Override
+        protected PageHeight initialValue() {
+            return new PageHeight();
+        }
+    };
+
     @Override
     public double calculateFeatureValue(BxLine line, BxPage page) {
+        double meanHeight = getMeanLineHeight(page);
+        if (meanHeight == 0) {
+            return 0;
+        }
+        return line.getBounds().getHeight() / meanHeight;
+    }
+
+    /**
+     * Returns the mean height of the page's lines. The value of the most
+     * recently processed page is cached, the page itself is referenced
+     * weakly, so that the cache does not keep it alive.
+     *
+     * @param page page
+     * @return mean line height, or 0 if the page has no lines
+     */
+    public static double getMeanLineHeight(BxPage page) {
+        PageHeight cache = CACHE.get();
+        if (cache.page.get() == page && cache.zoneCount == page.getZones().size()) {
+            return cache.meanHeight;
+        }
         double meanHeight = 0;
         int lineCount = 0;
         for (BxZone z : page.getZones()) {
@@ -40,10 +69,21 @@ public class HeightFeature extends FeatureCalculator<BxLine, BxPage> {
             }
         }
         if (lineCount == 0 || meanHeight == 0) {
-            return 0;
+            meanHeight = 0;
+        } else {
+            meanHeight /= lineCount;
         }
-        meanHeight /= lineCount;
-        return line.getBounds().getHeight() / meanHeight;
+        cache.page = new WeakReference<BxPage>(page);
+        cache.zoneCount = page.getZones().size();
+        cache.meanHeight = meanHeight;
+        return meanHeight;
+    }
+
+    private static class PageHeight {
+
+        private WeakReference<BxPage> page = new WeakReference<BxPage>(null);
+        private int zoneCount;
+        private double meanHeight;
     }
     
 }
@@ -20,6 +20,7 @@ package pl.edu.icm.cermine.content.headers.features;
 
 import pl.edu.icm.cermine.structure.model.BxLine;
 import pl.edu.icm.cermine.structure.model.BxPage;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -33,7 +34,8 @@ public class NextStartsWithUppercaseFeature extends FeatureCalculator<BxLine, Bx
         if (!line.hasNext()) {
             return 0;
         }
-        return (line.getNext().toText().matches("^[A-Z].*$")) ? 1 : 0;
+        String text = line.getNext().toText();
+        return (TextUtils.startsWithUppercaseLetter(text) && TextUtils.isSingleLine(text)) ? 1 : 0;
     }
     
 }
@@ -18,6 +18,7 @@
 
 package pl.edu.icm.cermine.content.headers.features;
 
+import java.util.regex.Pattern;
 import pl.edu.icm.cermine.structure.model.BxLine;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
@@ -28,9 +29,11 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
  */
 public class RomanDigitsSchemaFeature extends FeatureCalculator<BxLine, BxPage> {
 
+    private static final Pattern SCHEMA_PATTERN = Pattern.compile("^[IVX]+\\.? [A-Z].*$");
+
     @Override
     public double calculateFeatureValue(BxLine line, BxPage page) {
-        return (line.toText().matches("^[IVX]+\\.? [A-Z].*$")) ? 1 : 0;
+        return (SCHEMA_PATTERN.matcher(line.toText()).matches()) ? 1 : 0;
     }
     
 }
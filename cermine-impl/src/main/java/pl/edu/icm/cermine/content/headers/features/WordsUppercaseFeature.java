@@ -18,8 +18,10 @@
 
 package pl.edu.icm.cermine.content.headers.features;
 
+import java.util.regex.Pattern;
 import pl.edu.icm.cermine.structure.model.BxLine;
 import pl.edu.icm.cermine.structure.model.BxPage;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -28,13 +30,15 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
  */
 public class WordsUppercaseFeature extends FeatureCalculator<BxLine, BxPage> {
 
+    private static final Pattern WORD_PATTERN = Pattern.compile("^[A-Z][-'a-z]+$");
+
     @Override
     public double calculateFeatureValue(BxLine line, BxPage page) {
         String text = line.toText();
-        String[] words = text.split("\\s");
+        String[] words = TextUtils.WHITESPACE.split(text);
         int upperWordsCount = 0;
         for (String word : words) {
-            if (word.matches("^[A-Z][-'a-z]+$")) {
+            if (WORD_PATTERN.matcher(word).matches()) {
                 upperWordsCount++;
             }
         }
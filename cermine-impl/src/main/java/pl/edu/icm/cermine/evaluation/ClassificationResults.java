@@ -77,6 +77,14 @@ public class ClassificationResults implements AbstractEvaluator.Results<Classifi
         badRecognitions += results.badRecognitions;
     }
 
+    public double getAccuracy() {
+        int allRecognitions = goodRecognitions + badRecognitions;
+        if (allRecognitions == 0) {
+            return 0.0;
+        }
+        return (double) goodRecognitions / allRecognitions;
+    }
+
     public double sum(Collection<Double> collection) {
     	double sum = 0.0;
         for (Iterator<Double> it = collection.iterator(); it.hasNext();) {
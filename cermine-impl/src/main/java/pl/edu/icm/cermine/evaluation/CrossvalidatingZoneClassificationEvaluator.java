@@ -21,9 +21,12 @@ package pl.edu.icm.cermine.evaluation;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
+import libsvm.svm_parameter;
 import org.apache.commons.cli.*;
 import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.exception.TransformationException;
@@ -53,6 +56,7 @@ public abstract class CrossvalidatingZoneClassificationEvaluator {
     }
 
     protected int foldness;
+    protected int threadsNumber = 1;
     private final Map<BxZoneLabel, BxZoneLabel> labelMap = DEFAULT_LABEL_MAP.clone();
     private TrueVizToBxDocumentReader reader = new TrueVizToBxDocumentReader();
     private BxDocumentToTrueVizWriter writer = new BxDocumentToTrueVizWriter();
@@ -66,6 +70,7 @@ public abstract class CrossvalidatingZoneClassificationEvaluator {
         options.addOption("help", false, "print this help message");
         options.addOption("minimal", false, "print only final summary");
         options.addOption("full", false, "print all possible messages");
+        options.addOption("threads", true, "number of folds evaluated concurrently");
 
         CommandLineParser parser = new GnuParser();
         CommandLine line = parser.parse(options, args);
@@ -86,6 +91,9 @@ public abstract class CrossvalidatingZoneClassificationEvaluator {
             } else {
                 evaluator.foldness = Integer.valueOf(line.getOptionValue("fold"));
             }
+            if (line.hasOption("threads")) {
+                evaluator.threadsNumber = Integer.valueOf(line.getOptionValue("threads"));
+            }
             String inputFile = remaining[0];
 
             evaluator.setLabelMap(BxZoneLabel.getLabelToGeneralMap());
@@ -102,30 +110,64 @@ public abstract class CrossvalidatingZoneClassificationEvaluator {
         List<TrainingSample<BxZoneLabel>> samples = getSamples(inputFile);
         List<DividedEvaluationSet> sampleSets = DividedEvaluationSet.build(samples, foldness);
         System.out.println("All training elements: " +  samples.size());
-        for (int fold = 0; fold < foldness; ++fold) {
-        	List<TrainingSample<BxZoneLabel>> trainingSamples = sampleSets.get(fold).getTrainingDocuments();
-        	List<TrainingSample<BxZoneLabel>> testSamples = sampleSets.get(fold).getTestDocuments();
-            System.out.println("Fold number " + fold);
-        	System.out.println("Training elements " + trainingSamples.size());
-            System.out.println("Test elements  " + testSamples.size());
-
-            ClassificationResults iterationResults = newResults();
-
-            SVMZoneClassifier zoneClassifier = getZoneClassifier(trainingSamples);
-
-            for (TrainingSample<BxZoneLabel> testSample : testSamples) {
-            	BxZoneLabel expectedClass = testSample.getLabel();
-                BxZoneLabel inferedClass = zoneClassifier.predictLabel(testSample);
-                ClassificationResults documentResults = compareItems(expectedClass, inferedClass);
-                iterationResults.add(documentResults);
+        
+        List<Callable<ClassificationResults>> tasks = new ArrayList<Callable<ClassificationResults>>(foldness);
+        for (final DividedEvaluationSet sampleSet : sampleSets) {
+            tasks.add(new Callable<ClassificationResults>() {
+
+                @Override
+                public ClassificationResults call() throws AnalysisException, IOException, CloneNotSupportedException {
+                    SVMZoneClassifier zoneClassifier = getZoneClassifier(copySamples(sampleSet.getTrainingDocuments()));
+                    return evaluate(zoneClassifier, sampleSet.getTestDocuments());
+                }
+            });
+        }
+        
+        ExecutorService exec = Executors.newFixedThreadPool(threadsNumber);
+        try {
+            List<Future<ClassificationResults>> results = exec.invokeAll(tasks);
+            for (int fold = 0; fold < foldness; ++fold) {
+                System.out.println("Fold number " + fold);
+                System.out.println("Training elements " + sampleSets.get(fold).getTrainingDocuments().size());
+                System.out.println("Test elements  " + sampleSets.get(fold).getTestDocuments().size());
+
+                ClassificationResults iterationResults = results.get(fold).get();
+                summary.add(iterationResults);
+                System.out.println("=== Single iteration summary (" + (fold + 1) + "/" + this.foldness + ")");
+                printFinalResults(iterationResults);
             }
-            summary.add(iterationResults);
-            System.out.println("=== Single iteration summary (" + (fold + 1) + "/" + this.foldness + ")");
-            printFinalResults(iterationResults);
+        } catch (ExecutionException ex) {
+            throw new AnalysisException("Cannot evaluate classifier!", ex);
+        } catch (InterruptedException ex) {
+            throw new AnalysisException("Cannot evaluate classifier!", ex);
+        } finally {
+            exec.shutdown();
         }
         System.out.println("=== General summary (" + this.foldness + " iterations)");
         printFinalResults(summary);
     }
+    
+    protected ClassificationResults evaluate(SVMZoneClassifier zoneClassifier, List<TrainingSample<BxZoneLabel>> testSamples) {
+        ClassificationResults results = newResults();
+        for (TrainingSample<BxZoneLabel> testSample : testSamples) {
+            BxZoneLabel expectedClass = testSample.getLabel();
+            BxZoneLabel inferedClass = zoneClassifier.predictLabel(testSample);
+            results.add(compareItems(expectedClass, inferedClass));
+        }
+        return results;
+    }
+    
+    /**
+     * Creates shallow copies of the samples, so that their labels can be
+     * changed without affecting other folds. Feature vectors are shared.
+     */
+    protected static List<TrainingSample<BxZoneLabel>> copySamples(List<TrainingSample<BxZoneLabel>> samples) {
+        List<TrainingSample<BxZoneLabel>> copies = new ArrayList<TrainingSample<BxZoneLabel>>(samples.size());
+        for (TrainingSample<BxZoneLabel> sample : samples) {
+            copies.add(new TrainingSample<BxZoneLabel>(sample.getFeatureVector(), sample.getLabel()));
+        }
+        return copies;
+    }
 
     protected ClassificationResults newResults() {
         return new ClassificationResults();
@@ -174,6 +216,35 @@ public abstract class CrossvalidatingZoneClassificationEvaluator {
         results.printQualityMeasures();
     }
 
-    protected abstract SVMZoneClassifier getZoneClassifier(List<TrainingSample<BxZoneLabel>> trainingSamples) throws AnalysisException, IOException, CloneNotSupportedException;
+    protected SVMZoneClassifier getZoneClassifier(List<TrainingSample<BxZoneLabel>> trainingSamples) 
+            throws AnalysisException, IOException, CloneNotSupportedException {
+        trainingSamples = prepareTrainingSamples(trainingSamples);
+        SVMZoneClassifier zoneClassifier = new SVMZoneClassifier(getFeatureVectorBuilder());
+        zoneClassifier.setParameter(getParameter(trainingSamples));
+        zoneClassifier.buildClassifier(trainingSamples);
+        return zoneClassifier;
+    }
+    
+    /**
+     * Prepares the samples of a single fold for training, e.g. maps their
+     * labels or resamples them.
+     * 
+     * @param trainingSamples training samples of a fold
+     * @return samples used for training
+     */
+    protected List<TrainingSample<BxZoneLabel>> prepareTrainingSamples(List<TrainingSample<BxZoneLabel>> trainingSamples) {
+        return trainingSamples;
+    }
+    
+    /**
+     * Returns SVM parameters used for training.
+     * 
+     * @param trainingSamples prepared training samples
+     * @return SVM parameters
+     */
+    protected svm_parameter getParameter(List<TrainingSample<BxZoneLabel>> trainingSamples) {
+        return SVMZoneClassifier.getDefaultParam();
+    }
+    
     protected abstract FeatureVectorBuilder<BxZone, BxPage> getFeatureVectorBuilder();
 }
@@ -38,11 +38,15 @@ import pl.edu.icm.cermine.tools.classification.svm.SVMZoneClassifier;
 public class SVMInitialZoneClassificationEvaluator extends CrossvalidatingZoneClassificationEvaluator {
 
     @Override
-    protected SVMZoneClassifier getZoneClassifier(List<TrainingSample<BxZoneLabel>> trainingSamples) throws IOException, AnalysisException, CloneNotSupportedException {
+    protected List<TrainingSample<BxZoneLabel>> prepareTrainingSamples(List<TrainingSample<BxZoneLabel>> trainingSamples) {
         for (TrainingSample<BxZoneLabel> trainingSample : trainingSamples) {
             trainingSample.setLabel(trainingSample.getLabel().getGeneralLabel());
         }
+        return trainingSamples;
+    }
 
+    @Override
+    protected svm_parameter getParameter(List<TrainingSample<BxZoneLabel>> trainingSamples) {
         PenaltyCalculator pc = new PenaltyCalculator(trainingSamples);
         int[] intClasses = new int[pc.getClasses().size()];
         double[] classesWeights = new double[pc.getClasses().size()];
@@ -54,7 +58,6 @@ public class SVMInitialZoneClassificationEvaluator extends CrossvalidatingZoneCl
         	++labelIdx;
         }
         
-        SVMZoneClassifier zoneClassifier = new SVMZoneClassifier(SVMInitialZoneClassifier.getFeatureVectorBuilder());
         svm_parameter param = SVMZoneClassifier.getDefaultParam();
         param.svm_type = svm_parameter.C_SVC;
         param.gamma = 0.03125;
@@ -63,10 +66,7 @@ public class SVMInitialZoneClassificationEvaluator extends CrossvalidatingZoneCl
         param.degree = 4;
         param.weight_label = intClasses;
         param.weight = classesWeights;
-
-        zoneClassifier.buildClassifier(trainingSamples);
-
-        return zoneClassifier;
+        return param;
     }
 
 	public static void main(String[] args) 
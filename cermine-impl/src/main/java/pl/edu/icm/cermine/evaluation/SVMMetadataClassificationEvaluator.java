@@ -42,8 +42,7 @@ import pl.edu.icm.cermine.tools.classification.svm.SVMZoneClassifier;
 public class SVMMetadataClassificationEvaluator extends CrossvalidatingZoneClassificationEvaluator {
     
     @Override
-    protected SVMZoneClassifier getZoneClassifier(List<TrainingSample<BxZoneLabel>> trainingSamples) throws IOException, AnalysisException, CloneNotSupportedException {
-
+    protected List<TrainingSample<BxZoneLabel>> prepareTrainingSamples(List<TrainingSample<BxZoneLabel>> trainingSamples) {
         Map<BxZoneLabel, BxZoneLabel> labelMapper = BxZoneLabel.getLabelToGeneralMap();
         for (TrainingSample<BxZoneLabel> sample : trainingSamples) {
         	if (sample.getLabel().getCategory() != BxZoneLabelCategory.CAT_METADATA) {
@@ -52,19 +51,18 @@ public class SVMMetadataClassificationEvaluator extends CrossvalidatingZoneClass
         }
 
         SampleSelector<BxZoneLabel> selector = new OversamplingSelector<BxZoneLabel>(1.0);
-        List<TrainingSample<BxZoneLabel>> trainingSamplesOversampled = selector.pickElements(trainingSamples);
+        return selector.pickElements(trainingSamples);
+    }
 
-        SVMZoneClassifier zoneClassifier = new SVMZoneClassifier(SVMMetadataZoneClassifier.getFeatureVectorBuilder());
+    @Override
+    protected svm_parameter getParameter(List<TrainingSample<BxZoneLabel>> trainingSamples) {
         svm_parameter param = SVMZoneClassifier.getDefaultParam();
         param.svm_type = svm_parameter.C_SVC;
         param.gamma = 0.25;
         param.C = 32.0;
         param.kernel_type = svm_parameter.POLY;
         param.degree = 4;
-        zoneClassifier.setParameter(param);
-        zoneClassifier.buildClassifier(trainingSamplesOversampled);
-
-        return zoneClassifier;
+        return param;
     }
 
     public static void main(String[] args)
@@ -0,0 +1,338 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.evaluation;
+
+import java.util.*;
+import java.util.concurrent.*;
+import libsvm.svm_parameter;
+import org.apache.commons.cli.*;
+import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.structure.model.BxZoneLabel;
+import pl.edu.icm.cermine.tools.classification.general.TrainingSample;
+import pl.edu.icm.cermine.tools.classification.svm.SVMZoneClassifier;
+
+/**
+ * Cross-validating grid (or random) search of SVM parameters for zone classifiers.
+ *
+ * All (fold, parameters) combinations are evaluated concurrently. For every
+ * fold the training samples are prepared and scaled only once and the resulting
+ * problem is shared by all the classifiers trained on this fold. Parameter sets
+ * whose mean accuracy falls clearly below the best one are pruned and their
+ * remaining folds are skipped.
+ */
+public class SVMParameterSearch {
+
+    private static final double DEFAULT_PRUNE_MARGIN = 0.1;
+
+    private CrossvalidatingZoneClassificationEvaluator evaluator;
+
+    private int foldness;
+
+    private int threadsNumber = Runtime.getRuntime().availableProcessors();
+
+    private double pruneMargin = DEFAULT_PRUNE_MARGIN;
+
+    public SVMParameterSearch(CrossvalidatingZoneClassificationEvaluator evaluator, int foldness) {
+        this.evaluator = evaluator;
+        this.foldness = foldness;
+    }
+
+    /**
+     * Evaluates the parameter sets.
+     *
+     * @param samples all samples
+     * @param parameters candidate parameter sets (kernel type, gamma, C and degree are used)
+     * @return evaluated candidates, sorted by descending mean accuracy
+     * @throws AnalysisException
+     */
+    public List<Candidate> search(List<TrainingSample<BxZoneLabel>> samples, List<svm_parameter> parameters)
+            throws AnalysisException {
+        List<DividedEvaluationSet> sampleSets = DividedEvaluationSet.build(samples, foldness);
+
+        final List<Candidate> candidates = new ArrayList<Candidate>(parameters.size());
+        for (svm_parameter param : parameters) {
+            candidates.add(new Candidate(param));
+        }
+
+        ExecutorService exec = Executors.newFixedThreadPool(threadsNumber);
+        try {
+            List<Future<?>> results = new ArrayList<Future<?>>();
+            for (final DividedEvaluationSet sampleSet : sampleSets) {
+                List<TrainingSample<BxZoneLabel>> trainingSamples =
+                        evaluator.prepareTrainingSamples(
+                            CrossvalidatingZoneClassificationEvaluator.copySamples(sampleSet.getTrainingDocuments()));
+                final svm_parameter foldParam = evaluator.getParameter(trainingSamples);
+                final SVMZoneClassifier problemHolder = new SVMZoneClassifier(evaluator.getFeatureVectorBuilder());
+                problemHolder.buildProblem(trainingSamples);
+
+                for (final Candidate candidate : candidates) {
+                    results.add(exec.submit(new Callable<Void>() {
+
+                        @Override
+                        public Void call() {
+                            if (isPruned(candidate, candidates)) {
+                                return null;
+                            }
+                            svm_parameter param = SVMZoneClassifier.clone(foldParam);
+                            param.kernel_type = candidate.getParameter().kernel_type;
+                            param.gamma = candidate.getParameter().gamma;
+                            param.C = candidate.getParameter().C;
+                            param.degree = candidate.getParameter().degree;
+                            param.cache_size = Math.max(1, foldParam.cache_size / threadsNumber);
+
+                            SVMZoneClassifier classifier = new SVMZoneClassifier(evaluator.getFeatureVectorBuilder());
+                            classifier.setParameter(param);
+                            classifier.shareProblem(problemHolder);
+                            classifier.train();
+                            ClassificationResults foldResults = evaluator.evaluate(classifier, sampleSet.getTestDocuments());
+                            addFoldResults(candidate, foldResults, candidates);
+                            return null;
+                        }
+                    }));
+                }
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new AnalysisException("Cannot evaluate parameters!", ex);
+        } catch (InterruptedException ex) {
+            throw new AnalysisException("Cannot evaluate parameters!", ex);
+        } finally {
+            exec.shutdown();
+        }
+
+        List<Candidate> ranking = new ArrayList<Candidate>(candidates);
+        Collections.sort(ranking, new Comparator<Candidate>() {
+
+            @Override
+            public int compare(Candidate c1, Candidate c2) {
+                if (c1.isPruned() != c2.isPruned()) {
+                    return c1.isPruned() ? 1 : -1;
+                }
+                return Double.compare(c2.getMeanAccuracy(), c1.getMeanAccuracy());
+            }
+        });
+        return ranking;
+    }
+
+    private synchronized void addFoldResults(Candidate candidate, ClassificationResults results, List<Candidate> candidates) {
+        candidate.addFold(results);
+        isPruned(candidate, candidates);
+    }
+
+    private synchronized boolean isPruned(Candidate candidate, List<Candidate> candidates) {
+        if (candidate.isPruned()) {
+            return true;
+        }
+        if (candidate.getFoldsNumber() == 0) {
+            return false;
+        }
+        double best = 0;
+        for (Candidate other : candidates) {
+            if (other.getFoldsNumber() > 0 && other.getMeanAccuracy() > best) {
+                best = other.getMeanAccuracy();
+            }
+        }
+        if (candidate.getMeanAccuracy() < best - pruneMargin) {
+            candidate.setPruned(true);
+        }
+        return candidate.isPruned();
+    }
+
+    public void printReport(List<Candidate> ranking) {
+        Formatter formatter = new Formatter(System.out, Locale.US);
+        formatter.format("%4s %8s %10s %10s %6s %8s %6s%n", "rank", "kernel", "gamma", "C", "degree", "accuracy", "folds");
+        int rank = 1;
+        for (Candidate candidate : ranking) {
+            svm_parameter param = candidate.getParameter();
+            formatter.format("%4d %8d %10.5f %10.3f %6d %8.2f %6s%n", rank++, param.kernel_type, param.gamma,
+                    param.C, param.degree, candidate.getMeanAccuracy() * 100,
+                    candidate.isPruned() ? candidate.getFoldsNumber() + "*" : String.valueOf(candidate.getFoldsNumber()));
+        }
+        formatter.format("(* - pruned)%n");
+        formatter.flush();
+    }
+
+    /**
+     * Creates parameter sets for all the combinations of given values.
+     */
+    public static List<svm_parameter> getGrid(int kernelType, double[] gammas, double[] Cs, int[] degrees) {
+        List<svm_parameter> grid = new ArrayList<svm_parameter>();
+        for (double gamma : gammas) {
+            for (double C : Cs) {
+                for (int degree : degrees) {
+                    svm_parameter param = SVMZoneClassifier.getDefaultParam();
+                    param.kernel_type = kernelType;
+                    param.gamma = gamma;
+                    param.C = C;
+                    param.degree = degree;
+                    grid.add(param);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Picks random parameter sets from the grid.
+     */
+    public static List<svm_parameter> getRandomSubset(List<svm_parameter> grid, int size, Random random) {
+        List<svm_parameter> shuffled = new ArrayList<svm_parameter>(grid);
+        Collections.shuffle(shuffled, random);
+        return shuffled.subList(0, Math.min(size, shuffled.size()));
+    }
+
+    public void setThreadsNumber(int threadsNumber) {
+        this.threadsNumber = threadsNumber;
+    }
+
+    public void setPruneMargin(double pruneMargin) {
+        this.pruneMargin = pruneMargin;
+    }
+
+    public static class Candidate {
+
+        private svm_parameter parameter;
+
+        private List<ClassificationResults> foldResults = new ArrayList<ClassificationResults>();
+
+        private boolean pruned = false;
+
+        public Candidate(svm_parameter parameter) {
+            this.parameter = parameter;
+        }
+
+        public svm_parameter getParameter() {
+            return parameter;
+        }
+
+        public List<ClassificationResults> getFoldResults() {
+            return foldResults;
+        }
+
+        public int getFoldsNumber() {
+            return foldResults.size();
+        }
+
+        public double getMeanAccuracy() {
+            if (foldResults.isEmpty()) {
+                return 0.0;
+            }
+            double sum = 0;
+            for (ClassificationResults results : foldResults) {
+                sum += results.getAccuracy();
+            }
+            return sum / foldResults.size();
+        }
+
+        public boolean isPruned() {
+            return pruned;
+        }
+
+        private void addFold(ClassificationResults results) {
+            foldResults.add(results);
+        }
+
+        private void setPruned(boolean pruned) {
+            this.pruned = pruned;
+        }
+    }
+
+    private static double[] parseDoubles(String values) {
+        String[] parts = values.split(",");
+        double[] ret = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ret[i] = Double.parseDouble(parts[i].trim());
+        }
+        return ret;
+    }
+
+    private static int[] parseInts(String values) {
+        String[] parts = values.split(",");
+        int[] ret = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ret[i] = Integer.parseInt(parts[i].trim());
+        }
+        return ret;
+    }
+
+    //sample launch: -type metadata -fold 5 -kernel 1 -g 0.125,0.25 -C 16,32,64 -degree 3,4 /path/to/your/xml/catalog
+    public static void main(String[] args) throws ParseException, AnalysisException {
+        Options options = new Options();
+        options.addOption("type", true, "classifier type: initial or metadata");
+        options.addOption("fold", true, "foldness of cross-validation");
+        options.addOption("kernel", true, "kernel type");
+        options.addOption("g", true, "comma-separated gamma values");
+        options.addOption("C", true, "comma-separated C values");
+        options.addOption("degree", true, "comma-separated degree values");
+        options.addOption("random", true, "number of random parameter sets picked from the grid");
+        options.addOption("threads", true, "number of threads");
+        options.addOption("prune", true, "accuracy margin below the best mean accuracy for pruning");
+
+        CommandLineParser parser = new GnuParser();
+        CommandLine line = parser.parse(options, args);
+        String[] remaining = line.getArgs();
+        if (remaining.length != 1 || !line.hasOption("type") || !line.hasOption("fold")
+                || !line.hasOption("kernel") || !line.hasOption("g") || !line.hasOption("C")) {
+            System.err.println("Usage: SVMParameterSearch -type initial|metadata -fold f -kernel K -g g1,g2,... -C c1,c2,... "
+                    + "[-degree d1,d2,...] [-random n] [-threads t] [-prune margin] input_directory");
+            System.exit(1);
+        }
+
+        CrossvalidatingZoneClassificationEvaluator evaluator;
+        if ("initial".equals(line.getOptionValue("type"))) {
+            evaluator = new SVMInitialZoneClassificationEvaluator();
+        } else if ("metadata".equals(line.getOptionValue("type"))) {
+            evaluator = new SVMMetadataClassificationEvaluator();
+        } else {
+            throw new ParseException("Unknown classifier type: " + line.getOptionValue("type"));
+        }
+
+        int kernelType;
+        switch (Integer.valueOf(line.getOptionValue("kernel"))) {
+            case 0: kernelType = svm_parameter.LINEAR; break;
+            case 1: kernelType = svm_parameter.POLY; break;
+            case 2: kernelType = svm_parameter.RBF; break;
+            case 3: kernelType = svm_parameter.SIGMOID; break;
+            default:
+                throw new IllegalArgumentException("Invalid kernel value provided");
+        }
+        int[] degrees = line.hasOption("degree") ? parseInts(line.getOptionValue("degree")) : new int[]{3};
+        List<svm_parameter> parameters = getGrid(kernelType, parseDoubles(line.getOptionValue("g")),
+                parseDoubles(line.getOptionValue("C")), degrees);
+        if (line.hasOption("random")) {
+            parameters = getRandomSubset(parameters, Integer.parseInt(line.getOptionValue("random")), new Random());
+        }
+
+        SVMParameterSearch search = new SVMParameterSearch(evaluator, Integer.parseInt(line.getOptionValue("fold")));
+        if (line.hasOption("threads")) {
+            search.setThreadsNumber(Integer.parseInt(line.getOptionValue("threads")));
+        }
+        if (line.hasOption("prune")) {
+            search.setPruneMargin(Double.parseDouble(line.getOptionValue("prune")));
+        }
+
+        List<TrainingSample<BxZoneLabel>> samples = evaluator.getSamples(remaining[0]);
+        System.out.println("All training elements: " +  samples.size());
+        System.out.println("Parameter sets: " +  parameters.size());
+        search.printReport(search.search(samples, parameters));
+    }
+
+}
@@ -108,8 +108,12 @@ public class EnhancerMetadataExtractor implements MetadataExtractor<Element> {
         Element refList = new Element("ref-list");
         back.addContent(refList);
         
-        for (Enhancer enhancer : enhancers) {
-            enhancer.enhanceMetadata(document, metadata, enhancedFields);
+        try {
+            for (Enhancer enhancer : enhancers) {
+                enhancer.enhanceMetadata(document, metadata, enhancedFields);
+            }
+        } finally {
+            ZoneKeywords.clearCache();
         }
         return metadata;
     }
@@ -50,9 +50,13 @@ public abstract class AbstractDateEnhancer extends AbstractSimpleEnhancer {
     private EnhancedField field;
     private Pattern simplePattern;
     private Pattern anotherPattern;
+    private long keywords = 0;
 
     public AbstractDateEnhancer(EnhancedField field, String nameRegex) {
         createPatterns(nameRegex);
+        if (ZoneKeywords.isKeyword(nameRegex)) {
+            keywords = ZoneKeywords.getMask(nameRegex);
+        }
         setSearchedZoneLabels(BxZoneLabel.MET_DATES);
         this.field = field;
     }
@@ -64,6 +68,9 @@ public abstract class AbstractDateEnhancer extends AbstractSimpleEnhancer {
 
     @Override
     protected boolean enhanceMetadata(BxZone zone, Element metadata) {
+        if (!ZoneKeywords.containsAny(zone, keywords)) {
+            return false;
+        }
         Matcher simpleMatcher = simplePattern.matcher(zone.toText());
         if (simpleMatcher.find()) {
             MatchResult result = simpleMatcher.toMatchResult();
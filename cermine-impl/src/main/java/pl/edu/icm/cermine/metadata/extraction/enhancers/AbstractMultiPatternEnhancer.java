@@ -36,6 +36,7 @@ import pl.edu.icm.cermine.structure.model.BxZoneLabel;
 public abstract class AbstractMultiPatternEnhancer extends AbstractSimpleEnhancer {
 
     private List<Pattern> patterns;
+    private long keywords = 0;
 
     protected AbstractMultiPatternEnhancer(List<Pattern> patterns, Collection<BxZoneLabel> zoneLabels) {
         super(zoneLabels);
@@ -50,6 +51,17 @@ public abstract class AbstractMultiPatternEnhancer extends AbstractSimpleEnhance
         this.patterns = patterns;
     }
 
+    /**
+     * Sets the keywords, at least one of which occurs in every text
+     * matched by any of the patterns. The zones containing none of them are skipped.
+     *
+     * @param keywords mask of the keywords (see {@link ZoneKeywords}),
+     * 0 disables the filtering
+     */
+    protected void setKeywords(long keywords) {
+        this.keywords = keywords;
+    }
+
     protected abstract boolean enhanceMetadata(MatchResult result, Element metadata);
 
     @Override
@@ -67,6 +79,9 @@ public abstract class AbstractMultiPatternEnhancer extends AbstractSimpleEnhance
     }
   
     protected boolean enhanceMetadata(BxZone zone, Pattern pattern, Element metadata) {
+        if (!ZoneKeywords.containsAny(zone, keywords)) {
+            return false;
+        }
         Matcher matcher = pattern.matcher(zone.toText());
         while (matcher.find()) {
             if (enhanceMetadata(matcher.toMatchResult(), metadata)) {
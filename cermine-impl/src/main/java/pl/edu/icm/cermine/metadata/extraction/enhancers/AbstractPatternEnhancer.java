@@ -33,6 +33,7 @@ import pl.edu.icm.cermine.structure.model.BxZoneLabel;
 public abstract class AbstractPatternEnhancer extends AbstractSimpleEnhancer {
 
     private Pattern pattern;
+    private long keywords = 0;
 
     protected AbstractPatternEnhancer(Pattern pattern, Collection<BxZoneLabel> zoneLabels) {
         super(zoneLabels);
@@ -47,10 +48,24 @@ public abstract class AbstractPatternEnhancer extends AbstractSimpleEnhancer {
         this.pattern = pattern;
     }
 
+    /**
+     * Sets the keywords, at least one of which occurs in every text
+     * matched by the pattern. The zones containing none of them are skipped.
+     *
+     * @param keywords mask of the keywords (see {@link ZoneKeywords}),
+     * 0 disables the filtering
+     */
+    protected void setKeywords(long keywords) {
+        this.keywords = keywords;
+    }
+
     protected abstract boolean enhanceMetadata(MatchResult result, Element metadata);
 
     @Override
     protected boolean enhanceMetadata(BxZone zone, Element metadata) {
+        if (!ZoneKeywords.containsAny(zone, keywords)) {
+            return false;
+        }
         Matcher matcher = pattern.matcher(zone.toText());
         while (matcher.find()) {
             if(enhanceMetadata(matcher.toMatchResult(), metadata)) {
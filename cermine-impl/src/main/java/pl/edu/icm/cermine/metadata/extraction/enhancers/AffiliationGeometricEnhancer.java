@@ -23,6 +23,7 @@ import java.util.*;
 import java.util.regex.Pattern;
 import org.jdom.Element;
 import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.tools.TextUtils;
 
 /**
  *
@@ -66,7 +67,7 @@ public class AffiliationGeometricEnhancer extends AbstractSimpleEnhancer {
                 for (BxLine line : zone.getLines()) {
                     if (firstLine) {
                         firstLine = false;
-                        if (headers.contains(line.toText().toLowerCase().replaceAll("[^0-9a-zA-Z]", ""))) {
+                        if (headers.contains(TextUtils.retainLettersAndDigits(line.toText().toLowerCase()))) {
                             continue;
                         }
                     }
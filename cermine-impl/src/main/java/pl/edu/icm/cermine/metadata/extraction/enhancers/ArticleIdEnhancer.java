@@ -35,6 +35,7 @@ public class ArticleIdEnhancer extends AbstractPatternEnhancer {
     
     public ArticleIdEnhancer() {
         super(PATTERN, EnumSet.of(BxZoneLabel.MET_BIB_INFO));
+        setKeywords(ZoneKeywords.getMask("article id"));
     }
 
     @Override
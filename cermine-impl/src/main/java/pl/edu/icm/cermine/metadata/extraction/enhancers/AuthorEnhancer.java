@@ -38,6 +38,20 @@ import pl.edu.icm.cermine.structure.model.*;
  */
 public class AuthorEnhancer extends AbstractSimpleEnhancer {
 
+    private static final Pattern WHITE_PATTERN = Pattern.compile("(\\s+)(.*)");
+
+    private static final Pattern SIMPLE_REF_PATTERN = Pattern.compile("(\\d+|\\*|∗|⁎|†|‡|§|\\(..?\\)|\\{|¶|\\[..?\\]|\\+|\\||⊥|\\^|#|α|β|λ|ξ|ψ)(.*)");
+
+    private static final Pattern TITLE_PATTERN = Pattern.compile("(MD|Prof.|MS|PhD|Phd|MPH|RD|LD|MB|BCh|BAO|PharmD|BSc|FRCP|PA-C|RAC|MBA|DrPH|MBChB|BM|RGN|BA|FCCP)([^a-zA-Z].*)");
+
+    private static final Pattern TITLE_END_PATTERN = Pattern.compile("(MD|Prof.|MS|PhD|Phd|MPH|RD|LD|MB|BCh|BAO|PharmD|BSc|FRCP|PA-C|RAC|MBA|DrPH|MBChB|BM|RGN|BA|FCCP)");
+
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile("(,|;|&|•|·|Æ)(.*)");
+
+    private static final Pattern AND_SEPARATOR_PATTERN = Pattern.compile("(and|AND)\\b(.*)");
+
+    private static final Pattern AND_END_SEPARATOR_PATTERN = Pattern.compile("(and|AND)");
+
     public AuthorEnhancer() {
         setSearchedZoneLabels(EnumSet.of(BxZoneLabel.MET_AUTHOR));
     }
@@ -57,29 +71,21 @@ public class AuthorEnhancer extends AbstractSimpleEnhancer {
                     }
                 }
                 
-                Pattern white = Pattern.compile("(\\s+)(.*)");
-                Pattern simpleRef = Pattern.compile("(\\d+|\\*|∗|⁎|†|‡|§|\\(..?\\)|\\{|¶|\\[..?\\]|\\+|\\||⊥|\\^|#|α|β|λ|ξ|ψ)(.*)");
-                Pattern title = Pattern.compile("(MD|Prof.|MS|PhD|Phd|MPH|RD|LD|MB|BCh|BAO|PharmD|BSc|FRCP|PA-C|RAC|MBA|DrPH|MBChB|BM|RGN|BA|FCCP)([^a-zA-Z].*)");
-                Pattern titleEnd = Pattern.compile("(MD|Prof.|MS|PhD|Phd|MPH|RD|LD|MB|BCh|BAO|PharmD|BSc|FRCP|PA-C|RAC|MBA|DrPH|MBChB|BM|RGN|BA|FCCP)");
-                Pattern separator = Pattern.compile("(,|;|&|•|·|Æ)(.*)");
-                Pattern andSeparator = Pattern.compile("(and|AND)\\b(.*)");
-                Pattern andEndSeparator = Pattern.compile("(and|AND)");
-                
                 boolean afterSep = true;
                 int index = 0;
-                String text = zone.toText().replaceAll("\n", " ");
+                String text = zone.toText().replace('\n', ' ');
                 String author = "";
                 List<String> refs = new ArrayList<String>();
                 boolean auth = false;
                 
                 while (!text.isEmpty()) {
-                    Matcher whiteMatcher = white.matcher(text);
-                    Matcher simpleRefMatcher = simpleRef.matcher(text);
-                    Matcher titleMatcher = title.matcher(text);
-                    Matcher titleEndMatcher = titleEnd.matcher(text);
-                    Matcher separatorMatcher = separator.matcher(text);
-                    Matcher andSeparatorMatcher = andSeparator.matcher(text);
-                    Matcher andEndSeparatorMatcher = andEndSeparator.matcher(text);
+                    Matcher whiteMatcher = WHITE_PATTERN.matcher(text);
+                    Matcher simpleRefMatcher = SIMPLE_REF_PATTERN.matcher(text);
+                    Matcher titleMatcher = TITLE_PATTERN.matcher(text);
+                    Matcher titleEndMatcher = TITLE_END_PATTERN.matcher(text);
+                    Matcher separatorMatcher = SEPARATOR_PATTERN.matcher(text);
+                    Matcher andSeparatorMatcher = AND_SEPARATOR_PATTERN.matcher(text);
+                    Matcher andEndSeparatorMatcher = AND_END_SEPARATOR_PATTERN.matcher(text);
                     if (whiteMatcher.matches()) {
                         index += whiteMatcher.group(1).length();
                         text = whiteMatcher.group(2);
@@ -126,7 +132,7 @@ public class AuthorEnhancer extends AbstractSimpleEnhancer {
                         meanY /= total;
                         meanH /= total;
         
-                        if (chunks.get(index).toText().matches("[a-f]") && Math.abs(chunkY-meanY)+ Math.abs(meanH-chunkH) > 2) {
+                        if (isIndexLetter(chunks.get(index).toText()) && Math.abs(chunkY-meanY)+ Math.abs(meanH-chunkH) > 2) {
                             index += 1;
                             afterSep = true;
                             refs.add(text.substring(0, 1));
@@ -166,4 +172,8 @@ public class AuthorEnhancer extends AbstractSimpleEnhancer {
         return EnumSet.of(EnhancedField.AUTHORS);
     }
 
+    private static boolean isIndexLetter(String text) {
+        return text.length() == 1 && text.charAt(0) >= 'a' && text.charAt(0) <= 'f';
+    }
+
 }
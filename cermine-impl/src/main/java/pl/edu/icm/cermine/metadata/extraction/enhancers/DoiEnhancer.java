@@ -41,6 +41,7 @@ public class DoiEnhancer extends AbstractMultiPatternEnhancer {
 
     public DoiEnhancer() {
         super(PATTERNS, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.getMask("doi"));
     }
     
     @Override
@@ -50,7 +51,7 @@ public class DoiEnhancer extends AbstractMultiPatternEnhancer {
 
     @Override
     protected boolean enhanceMetadata(MatchResult result, Element metadata) {
-        Enhancers.addArticleId(metadata, "doi", result.group(1).replaceAll(",$", ""));
+        Enhancers.addArticleId(metadata, "doi", Enhancers.removeTrailingComma(result.group(1)));
         return true;
     }
 }
@@ -23,8 +23,10 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.apache.commons.lang.StringUtils;
 import org.jdom.Element;
 import org.jdom.filter.Filter;
+import pl.edu.icm.cermine.tools.TextUtils;
 
 /**
  *
@@ -35,6 +37,13 @@ public class Enhancers {
     
     private static final int MAX_JUNK_AFF_LENGTH = 5;
     
+    private static final String HYPHEN_LIST = "\u002D\u00AD\u2010\u2011\u2012\u2013\u2014\u2015\u207B\u208B\u2212-";
+    
+    private static final Pattern HYPHENATION_PATTERN =
+            Pattern.compile("([^" + HYPHEN_LIST + "]*\\S+)[" + HYPHEN_LIST + "]\n", Pattern.DOTALL);
+    
+    private static final Pattern TRAILING_COMMA_PATTERN = Pattern.compile(",$");
+    
     //getters
     
     //author names
@@ -326,33 +335,39 @@ public class Enhancers {
     }
 
     private static String cleanOther(String str) {
-        return str.replaceAll("[’‘]", "'")
-                  .replaceAll("[–]", "-");
+        return str.replace('’', '\'')
+                  .replace('‘', '\'')
+                  .replace('–', '-');
     }
     
     private static String cleanLigatures(String str) {
-        return str.replaceAll("\uFB00", "ff")
-                  .replaceAll("\uFB01", "fi")
-                  .replaceAll("\uFB02", "fl")
-                  .replaceAll("\uFB03", "ffi")
-                  .replaceAll("\uFB04", "ffl")
-                  .replaceAll("\uFB05", "ft")
-                  .replaceAll("\uFB06", "st")
-                  .replaceAll("\u00E6", "ae");
+        return StringUtils.replace(TextUtils.replaceLigatures(str), "\u00E6", "ae");
     }
     
     private static String cleanHyphenation(String str) {
         str = str.replace("$", "\\$");
-        
-        String hyphenList = "\u002D\u00AD\u2010\u2011\u2012\u2013\u2014\u2015\u207B\u208B\u2212-";
-        Pattern p = Pattern.compile("([^" + hyphenList + "]*\\S+)[" + hyphenList + "]\n", Pattern.DOTALL);
-        Matcher m = p.matcher(str);
+        Matcher m = HYPHENATION_PATTERN.matcher(str);
         StringBuffer sb = new StringBuffer();
         while (m.find()) {
             m.appendReplacement(sb, m.group(1));
         }
         m.appendTail(sb);
-        return sb.toString().replaceAll("\n", " ").replace("\\$", "$");
+        return sb.toString().replace('\n', ' ').replace("\\$", "$");
+    }
+    
+    /**
+     * Removes the "Published as: " phrase and the trailing comma from
+     * the journal name.
+     * 
+     * @param journal journal name
+     * @return cleaned journal name
+     */
+    public static String cleanJournal(String journal) {
+        return removeTrailingComma(StringUtils.remove(journal, "Published as: "));
+    }
+    
+    public static String removeTrailingComma(String str) {
+        return TRAILING_COMMA_PATTERN.matcher(str).replaceAll("");
     }
     
     private static String clean(String str) {
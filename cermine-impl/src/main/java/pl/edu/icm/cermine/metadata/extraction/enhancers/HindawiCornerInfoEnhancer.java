@@ -38,6 +38,7 @@ public class HindawiCornerInfoEnhancer extends AbstractPatternEnhancer {
         super(PATTERN);
         setSearchedZoneLabels(BxZoneLabel.MET_BIB_INFO);
         setSearchedFirstPageOnly(true);
+        setKeywords(ZoneKeywords.getMask("article id"));
     }
 
     @Override
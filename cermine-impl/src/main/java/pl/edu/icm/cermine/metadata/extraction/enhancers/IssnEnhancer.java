@@ -38,6 +38,7 @@ public class IssnEnhancer extends AbstractPatternEnhancer {
 
     public IssnEnhancer() {
         super(PATTERN, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.getMask("issn"));
     }
 
     @Override
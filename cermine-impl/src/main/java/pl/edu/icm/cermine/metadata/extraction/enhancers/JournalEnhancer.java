@@ -36,6 +36,7 @@ public class JournalEnhancer extends AbstractPatternEnhancer {
 
     public JournalEnhancer() {
         super(PATTERN, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.getMask("journal"));
     }
     
     @Override
@@ -45,8 +46,7 @@ public class JournalEnhancer extends AbstractPatternEnhancer {
 
     @Override
     protected boolean enhanceMetadata(MatchResult result, Element metadata) {
-        Enhancers.setJournal(metadata, result.group().trim()
-                .replaceAll("Published as: ", "").replaceAll(",$", ""));
+        Enhancers.setJournal(metadata, Enhancers.cleanJournal(result.group().trim()));
         return true;
     }
 }
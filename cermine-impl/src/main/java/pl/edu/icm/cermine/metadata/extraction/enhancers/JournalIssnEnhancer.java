@@ -37,6 +37,7 @@ public class JournalIssnEnhancer extends AbstractPatternEnhancer {
 
     public JournalIssnEnhancer() {
         super(PATTERN, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.getMask("issn"));
     }
 
     @Override
@@ -46,8 +47,7 @@ public class JournalIssnEnhancer extends AbstractPatternEnhancer {
 
     @Override
     protected boolean enhanceMetadata(MatchResult result, Element metadata) {
-        Enhancers.setJournal(metadata, result.group(1).trim()
-                .replaceAll("Published as: ", "").replaceAll(",$", ""));
+        Enhancers.setJournal(metadata, Enhancers.cleanJournal(result.group(1).trim()));
         Enhancers.setJournalIssn(metadata, result.group(2));
         return true;
     }
@@ -46,8 +46,7 @@ public class JournalVolumeIssueExtendedEnhancer extends AbstractPatternEnhancer
 
     @Override
     protected boolean enhanceMetadata(MatchResult result, Element metadata) {
-        Enhancers.setJournal(metadata, result.group(1).trim()
-                .replaceAll("Published as: ", "").replaceAll(",$", ""));
+        Enhancers.setJournal(metadata, Enhancers.cleanJournal(result.group(1).trim()));
         Enhancers.setVolume(metadata, result.group(3));
         Enhancers.setIssue(metadata, result.group(5));
        
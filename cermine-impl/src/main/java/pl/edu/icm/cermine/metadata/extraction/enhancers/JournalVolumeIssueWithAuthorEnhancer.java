@@ -37,6 +37,7 @@ public class JournalVolumeIssueWithAuthorEnhancer extends AbstractPatternEnhance
 
     public JournalVolumeIssueWithAuthorEnhancer() {
         super(PATTERN, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.DIGIT);
     }
     
     @Override
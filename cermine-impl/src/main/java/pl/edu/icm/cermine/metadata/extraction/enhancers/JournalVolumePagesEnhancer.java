@@ -39,6 +39,7 @@ public class JournalVolumePagesEnhancer extends AbstractPatternEnhancer {
 
     public JournalVolumePagesEnhancer() {
         super(PATTERN, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.HYPHEN);
     }
     
     @Override
@@ -57,8 +58,7 @@ public class JournalVolumePagesEnhancer extends AbstractPatternEnhancer {
         int first = Integer.parseInt(result.group(3));
         int last = Integer.parseInt(result.group(4));
         if (first <= last && last - first < pages * 2) {
-            Enhancers.setJournal(metadata, result.group(1).trim()
-                .replaceAll("Published as: ", "").replaceAll(",$", ""));
+            Enhancers.setJournal(metadata, Enhancers.cleanJournal(result.group(1).trim()));
             Enhancers.setVolume(metadata, result.group(2));
             Enhancers.setPages(metadata, result.group(3), result.group(4));
             return true;
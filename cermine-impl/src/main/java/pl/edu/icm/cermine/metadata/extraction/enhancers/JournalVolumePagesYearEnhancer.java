@@ -39,6 +39,7 @@ public class JournalVolumePagesYearEnhancer extends AbstractPatternEnhancer {
 
     public JournalVolumePagesYearEnhancer() {
         super(PATTERN, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.HYPHEN);
     }
     
     @Override
@@ -57,8 +58,7 @@ public class JournalVolumePagesYearEnhancer extends AbstractPatternEnhancer {
         int first = Integer.parseInt(result.group(4));
         int last = Integer.parseInt(result.group(5));
         if (first <= last && last - first < pages * 2) {
-            Enhancers.setJournal(metadata, result.group(1).trim()
-                .replaceAll("Published as: ", "").replaceAll(",$", ""));
+            Enhancers.setJournal(metadata, Enhancers.cleanJournal(result.group(1).trim()));
             Enhancers.setYear(metadata, result.group(2));
             Enhancers.setVolume(metadata, result.group(3));
             Enhancers.setPages(metadata, result.group(4), result.group(5));
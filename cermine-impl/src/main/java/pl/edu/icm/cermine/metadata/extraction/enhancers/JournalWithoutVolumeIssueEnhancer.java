@@ -42,6 +42,7 @@ public class JournalWithoutVolumeIssueEnhancer extends AbstractMultiPatternEnhan
 
     public JournalWithoutVolumeIssueEnhancer() {
         super(PATTERNS, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.DIGIT);
     }
     
     @Override
@@ -51,8 +52,7 @@ public class JournalWithoutVolumeIssueEnhancer extends AbstractMultiPatternEnhan
 
     @Override
     protected boolean enhanceMetadata(MatchResult result, Element metadata) {
-        Enhancers.setJournal(metadata, result.group(1).trim()
-                .replaceAll("Published as: ", "").replaceAll(",$", ""));
+        Enhancers.setJournal(metadata, Enhancers.cleanJournal(result.group(1).trim()));
         Enhancers.setVolume(metadata, result.group(2));
         Enhancers.setIssue(metadata, result.group(3));
        
@@ -37,6 +37,7 @@ public class JournalYearVolumeEnhancer extends AbstractPatternEnhancer {
 
     public JournalYearVolumeEnhancer() {
         super(PATTERN, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.DIGIT);
     }
     
     @Override
@@ -46,8 +47,7 @@ public class JournalYearVolumeEnhancer extends AbstractPatternEnhancer {
 
     @Override
     protected boolean enhanceMetadata(MatchResult result, Element metadata) {
-        Enhancers.setJournal(metadata, result.group(1).trim()
-                .replaceAll("Published as: ", "").replaceAll(",$", ""));
+        Enhancers.setJournal(metadata, Enhancers.cleanJournal(result.group(1).trim()));
         Enhancers.setYear(metadata, result.group(2));
         Enhancers.setVolume(metadata, result.group(3));
        
@@ -23,8 +23,10 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
+import org.apache.commons.lang.StringUtils;
 import org.jdom.Element;
 import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.tools.TextUtils;
 
 /**
  *
@@ -34,6 +36,12 @@ public class KeywordsEnhancer extends AbstractSimpleEnhancer {
 
     private static final Pattern PREFIX = Pattern.compile("^key\\s?words[:-]?", Pattern.CASE_INSENSITIVE);
 
+    private static final String SEPARATORS = ":;,.·—";
+    
+    private static final Pattern SEPARATOR = Pattern.compile("[" + SEPARATORS + "]");
+
+    private static final Pattern TRAILING_DOT = Pattern.compile("\\.$");
+
     public KeywordsEnhancer() {
         setSearchedZoneLabels(EnumSet.of(BxZoneLabel.MET_KEYWORDS));
         setSearchedFirstPageOnly(true);
@@ -51,10 +59,9 @@ public class KeywordsEnhancer extends AbstractSimpleEnhancer {
                 String text = zone.toText().replace("\n", "<eol>");
                 text = PREFIX.matcher(text).replaceFirst("");
                 
-                if (text.matches(".*[:;,.·—].*")) {
-                    String separator = "[:;,.·—]";
-                    for (String keyword : text.split(separator)) {
-                        Enhancers.addKeyword(metadata, keyword.trim().replaceFirst("\\.$", "").replace("-<eol>", "").replace("<eol>", " "));
+                if (TextUtils.isSingleLine(text) && StringUtils.containsAny(text, SEPARATORS)) {
+                    for (String keyword : SEPARATOR.split(text)) {
+                        Enhancers.addKeyword(metadata, TRAILING_DOT.matcher(keyword.trim()).replaceFirst("").replace("-<eol>", "").replace("<eol>", " "));
                     }
                 
                     return true;
@@ -40,6 +40,7 @@ public class PagesEnhancer extends AbstractPatternEnhancer {
     public PagesEnhancer() {
         super(PATTERN);
         setSearchedZoneLabels(BxZoneLabel.MET_BIB_INFO);
+        setKeywords(ZoneKeywords.getMask("pp"));
     }
 
     @Override
@@ -39,6 +39,7 @@ public class PagesLastEnhancer extends AbstractPatternEnhancer {
     public PagesLastEnhancer() {
         super(PATTERN);
         setSearchedZoneLabels(BxZoneLabel.MET_BIB_INFO);
+        setKeywords(ZoneKeywords.HYPHEN);
     }
 
     @Override
@@ -26,6 +26,7 @@ import pl.edu.icm.cermine.structure.model.BxDocument;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
 import pl.edu.icm.cermine.structure.model.BxZoneLabel;
+import pl.edu.icm.cermine.tools.TextUtils;
 
 /**
  *
@@ -33,6 +34,10 @@ import pl.edu.icm.cermine.structure.model.BxZoneLabel;
  */
 public class PagesNumbersEnhancer extends AbstractFilterEnhancer {
 
+    private static final Pattern FIRST_NUMBER_PATTERN = Pattern.compile("^(\\d+).*$");
+    
+    private static final Pattern LAST_NUMBER_PATTERN = Pattern.compile("^.*(\\d+)$");
+
     public PagesNumbersEnhancer() {
         setSearchedZoneLabels(BxZoneLabel.GEN_OTHER, BxZoneLabel.MET_BIB_INFO);
         setSearchedFirstPageOnly(false);
@@ -51,14 +56,12 @@ public class PagesNumbersEnhancer extends AbstractFilterEnhancer {
             Iterator<BxZone> pageZones = this.filterZones(pages.get(i)).iterator();
             while (pageZones.hasNext()) {
                 BxZone zone = pageZones.next();
-                if (zone.toText().matches("^\\d+$")) {
+                if (TextUtils.isNumber(zone.toText())) {
                     int pageNumber = Integer.parseInt(zone.toText());
                     candidates.get(i).add(pageNumber);
                 } else if (zone.getLines().size() == 1) {
-                    Pattern p1 = Pattern.compile("^(\\d+).*$");
-                    Matcher m1 = p1.matcher(zone.toText());
-                    Pattern p2 = Pattern.compile("^.*(\\d+)$");
-                    Matcher m2 = p2.matcher(zone.toText());
+                    Matcher m1 = FIRST_NUMBER_PATTERN.matcher(zone.toText());
+                    Matcher m2 = LAST_NUMBER_PATTERN.matcher(zone.toText());
                     if (m1.matches()) {
                         int pageNumber = Integer.parseInt(m1.group(1));
                         candidates.get(i).add(pageNumber);
@@ -40,6 +40,7 @@ public class PagesPartialEnhancer extends AbstractPatternEnhancer {
     public PagesPartialEnhancer() {
         super(PATTERN);
         setSearchedZoneLabels(BxZoneLabel.MET_BIB_INFO);
+        setKeywords(ZoneKeywords.HYPHEN);
     }
     
     @Override
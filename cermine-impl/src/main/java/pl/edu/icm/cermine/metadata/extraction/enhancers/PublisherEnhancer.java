@@ -38,6 +38,7 @@ public class PublisherEnhancer extends AbstractPatternEnhancer {
 
     public PublisherEnhancer() {
         super(PATTERN, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.getMask("publisher"));
     }
 
     @Override
@@ -76,7 +76,7 @@ public class TitleEnhancer extends AbstractSimpleEnhancer {
             }
 
             if (!titleSB.toString().isEmpty()) {
-                Enhancers.setTitle(metadata, titleSB.toString().trim().replaceAll("\n", " "));
+                Enhancers.setTitle(metadata, titleSB.toString().trim().replace('\n', ' '));
                 return true;
             }
         }
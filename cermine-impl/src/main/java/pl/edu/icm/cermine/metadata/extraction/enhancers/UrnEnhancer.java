@@ -36,6 +36,7 @@ public class UrnEnhancer extends AbstractPatternEnhancer {
 
     public UrnEnhancer() {
         super(PATTERN, EnumSet.of(BxZoneLabel.MET_BIB_INFO));
+        setKeywords(ZoneKeywords.getMask("urn"));
     }
 
     @Override
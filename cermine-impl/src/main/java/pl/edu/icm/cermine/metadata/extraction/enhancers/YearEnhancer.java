@@ -45,6 +45,7 @@ public class YearEnhancer extends AbstractMultiPatternEnhancer {
     
     public YearEnhancer() {
         super(PATTERNS, SEARCHED_ZONE_LABELS);
+        setKeywords(ZoneKeywords.DIGIT);
     }
     
     @Override
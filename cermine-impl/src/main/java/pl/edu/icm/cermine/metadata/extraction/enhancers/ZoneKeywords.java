@@ -0,0 +1,171 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.metadata.extraction.enhancers;
+
+import java.util.*;
+import pl.edu.icm.cermine.structure.model.BxZone;
+import pl.edu.icm.cermine.tools.KeywordMatcher;
+
+/**
+ * Literal keywords used by the pattern enhancers to skip the zones their
+ * patterns cannot match. All the keywords are found in a single
+ * case-insensitive scan of a zone's text and the result is shared by all
+ * the enhancers. The keywords of the zones of the currently processed
+ * document are cached per thread.
+ *
+ * A pattern enhancer declares a mask of keywords, at least one of which must
+ * occur in the text matched by its pattern. Mask 0 means that the enhancer
+ * does not filter the zones.
+ */
+public final class ZoneKeywords {
+
+    private static final String HYPHENS = "-\u00AD\u2010\u2011\u2012\u2013\u2014\u2015\u207B\u208B\u2212";
+
+    private static final String DIGITS = "0123456789";
+
+    private static final List<String> KEYWORDS = new ArrayList<String>(Arrays.asList(
+            "doi", "issn", "journal", "article id", "publisher", "urn", "pp",
+            "received", "accepted", "published", "revised", "revised form"));
+
+    static {
+        for (char c : (DIGITS + HYPHENS).toCharArray()) {
+            KEYWORDS.add(String.valueOf(c));
+        }
+    }
+
+    private static final KeywordMatcher MATCHER = new KeywordMatcher(KEYWORDS, true);
+
+    /** Any digit */
+    public static final long DIGIT = getCharactersMask(DIGITS);
+
+    /** Any of the hyphen characters used by the pages and journal patterns */
+    public static final long HYPHEN = getCharactersMask(HYPHENS);
+
+    private static final int MAX_CACHED_ZONES = 1024;
+
+    private static final ThreadLocal<Map<BxZone, Entry>> CACHE = new ThreadLocal<Map<BxZone, Entry>>() {
+        @Override
+        protected Map<BxZone, Entry> initialValue() {
+            return new IdentityHashMap<BxZone, Entry>();
+        }
+    };
+
+    private static volatile boolean filtering = true;
+
+    private ZoneKeywords() {}
+
+    /**
+     * Enables or disables the filtering. When disabled, every zone is treated
+     * as containing all the keywords, so the enhancers run their patterns
+     * on all the zones. Used to check that the filtering does not change
+     * the extracted metadata.
+     *
+     * @param enabled whether the zones are filtered
+     */
+    static void setFiltering(boolean enabled) {
+        filtering = enabled;
+    }
+
+    /**
+     * Checks whether the keyword is known.
+     *
+     * @param keyword keyword
+     * @return true if the keyword can be used in the masks
+     */
+    public static boolean isKeyword(String keyword) {
+        return KEYWORDS.contains(keyword.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Returns the mask of the given keywords.
+     *
+     * @param keywords keywords
+     * @return the keywords' mask
+     * @throws IllegalArgumentException if any of the keywords is not known
+     */
+    public static long getMask(String... keywords) {
+        long mask = 0;
+        for (String keyword : keywords) {
+            int index = KEYWORDS.indexOf(keyword.toLowerCase(Locale.ENGLISH));
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown zone keyword: " + keyword);
+            }
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+
+    private static long getCharactersMask(String characters) {
+        long mask = 0;
+        for (char c : characters.toCharArray()) {
+            mask |= getMask(String.valueOf(c));
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the mask of the keywords occurring in the zone's text.
+     *
+     * @param zone zone
+     * @return the keywords' mask
+     */
+    public static long get(BxZone zone) {
+        Map<BxZone, Entry> cache = CACHE.get();
+        String text = zone.toText();
+        Entry entry = cache.get(zone);
+        if (entry == null || entry.text != text) {
+            if (cache.size() >= MAX_CACHED_ZONES) {
+                cache.clear();
+            }
+            entry = new Entry(text, MATCHER.match(text));
+            cache.put(zone, entry);
+        }
+        return entry.keywords;
+    }
+
+    /**
+     * Checks whether the zone's text contains any of the keywords.
+     *
+     * @param zone zone
+     * @param mask keywords' mask, 0 matches every zone
+     * @return true if the zone contains any of the keywords
+     */
+    public static boolean containsAny(BxZone zone, long mask) {
+        return mask == 0 || !filtering || (get(zone) & mask) != 0;
+    }
+
+    /**
+     * Clears the cache of the current thread.
+     */
+    public static void clearCache() {
+        CACHE.get().clear();
+    }
+
+    private static class Entry {
+
+        private final String text;
+        private final long keywords;
+
+        Entry(String text, long keywords) {
+            this.text = text;
+            this.keywords = keywords;
+        }
+    }
+
+}
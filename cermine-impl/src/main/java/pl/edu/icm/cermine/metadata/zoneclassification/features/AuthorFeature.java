@@ -19,6 +19,7 @@
 package pl.edu.icm.cermine.metadata.zoneclassification.features;
 
 import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -44,7 +45,7 @@ public class AuthorFeature extends FeatureCalculator<BxZone, BxPage> {
                     BxBounds chb = chunk.getBounds();
                     BxBounds lb = line.getBounds();
                     String cht = chunk.toText();
-                    if ((cht.matches("\\d") || cht.equals("*")) 
+                    if ((TextUtils.isDigit(cht) || cht.equals("*")) 
                             && word.getChunks().indexOf(chunk) > word.getChunks().size() - 3
                             && chb.getHeight() < 3 * lb.getHeight() / 4
                             && chb.getY() + chb.getHeight() < lb.getY() + lb.getHeight()) {
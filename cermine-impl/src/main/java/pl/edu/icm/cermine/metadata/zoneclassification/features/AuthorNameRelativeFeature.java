@@ -18,15 +18,19 @@
 
 package pl.edu.icm.cermine.metadata.zoneclassification.features;
 
+import java.util.regex.Pattern;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
+import pl.edu.icm.cermine.tools.TextUtils;
 
 public class AuthorNameRelativeFeature extends AbstractFeatureCalculator<BxZone, BxPage> {
 
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile(",|and");
+
     @Override
     public double calculateFeatureValue(BxZone object, BxPage context) {
         String text = object.toText();
-        String[] parts = text.split(",|and");
+        String[] parts = SEPARATOR_PATTERN.split(text);
         int numberOfNames = 0;
         if (parts.length == 0) {
             return 0;
@@ -36,20 +40,20 @@ public class AuthorNameRelativeFeature extends AbstractFeatureCalculator<BxZone,
                 ++numberOfNames;
                 continue;
             }
-            String[] words = part.split("\\s");
+            String[] words = TextUtils.WHITESPACE.split(part);
 
             boolean isName = true;
             for (String word : words) {
-                if (word.length() == 1 && word.matches("\\*|")) {
+                if (word.equals("*")) {
                     continue;
                 }
-                if (word.length() == 2 && word.matches("\\w\\.")) {
+                if (word.length() == 2 && TextUtils.isWordCharacter(word.charAt(0)) && word.charAt(1) == '.') {
                     continue;
                 }
-                if (word.matches("\\d+")) {
+                if (TextUtils.isNumber(word)) {
                     continue;
                 }
-                if (word.matches("\\p{Upper}.*")) {
+                if (TextUtils.startsWithUppercaseLetter(word) && TextUtils.isSingleLine(word)) {
                     continue;
                 } else if (word.equals("van") || word.equals("von")) {
                     continue;
@@ -18,6 +18,7 @@
 
 package pl.edu.icm.cermine.metadata.zoneclassification.features;
 
+import pl.edu.icm.cermine.metadata.zoneclassification.tools.ZoneTextStatistics;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
@@ -26,12 +27,8 @@ public class BracketCountFeature extends FeatureCalculator<BxZone, BxPage> {
 
     @Override
     public double calculateFeatureValue(BxZone zone, BxPage page) {
-        int bracketCount = 0;
-        for (char c : zone.toText().toCharArray()) {
-            if (c == '[' || c == ']') {
-                ++bracketCount;
-            }
-        }
-        return bracketCount;
+        ZoneTextStatistics stats = ZoneTextStatistics.get(zone, page);
+        return (double) stats.getBracketCount();
     }
+
 }
@@ -29,12 +29,14 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
  */
 public class ContainsPageNumberFeature extends FeatureCalculator<BxZone, BxPage> {
 
+    private static final Pattern PAGE_NUMBER_PATTERN = Pattern.compile("^\\d+$|^Page\\s+.*$|^page\\s+.*$");
+
     @Override
     public double calculateFeatureValue(BxZone zone, BxPage page) {
         if (zone.getLines().size() > 1) {
             return 0;
         }
-        if (Pattern.matches("^\\d+$|^Page\\s+.*$|^page\\s+.*$", zone.toText())) {
+        if (PAGE_NUMBER_PATTERN.matcher(zone.toText()).matches()) {
             return 1;
         }
         return 0;
@@ -45,19 +45,22 @@ public class DateFeature extends AbstractFeatureCalculator<BxZone, BxPage> {
 		}
 	}
 	
-	@Override
-	public double calculateFeatureValue(BxZone zone, BxPage page) {
-		String text = zone.toText().toLowerCase();
+	private static final Pattern[] PATTERNS = new Pattern[MONTH_REGEXPS.length + DIGIT_REGEXPS.length];
+	
+	static {
+		int idx=0;
 		for(String regex: MONTH_REGEXPS) {
-			Pattern pattern = Pattern.compile(regex);
-			Matcher matcher = pattern.matcher(text);
-			if (matcher.find()) {
-				return 1.0;
-            }
+			PATTERNS[idx++] = Pattern.compile(regex);
 		}
-
 		for(String regex: DIGIT_REGEXPS) {
-			Pattern pattern = Pattern.compile(regex);
+			PATTERNS[idx++] = Pattern.compile(regex);
+		}
+	}
+	
+	@Override
+	public double calculateFeatureValue(BxZone zone, BxPage page) {
+		String text = zone.toText().toLowerCase();
+		for(Pattern pattern: PATTERNS) {
 			Matcher matcher = pattern.matcher(text);
 			if (matcher.find()) {
 				return 1.0;
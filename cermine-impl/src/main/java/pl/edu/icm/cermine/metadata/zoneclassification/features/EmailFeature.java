@@ -18,16 +18,20 @@
 
 package pl.edu.icm.cermine.metadata.zoneclassification.features;
 
+import java.util.regex.Pattern;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
 
 public class EmailFeature extends AbstractFeatureCalculator<BxZone, BxPage> {
 
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile(".*[_a-z0-9-]+(\\.[_a-z0-9-]+)*@[a-z0-9-]+(\\.[a-z0-9-]+)*(\\.[a-z]{2,4}).*");
+
 	@Override
 	public double calculateFeatureValue(BxZone object, BxPage context) {
 		String text = object.toText();
 		text = text.toLowerCase();
-		if(text.matches(".*[_a-z0-9-]+(\\.[_a-z0-9-]+)*@[a-z0-9-]+(\\.[a-z0-9-]+)*(\\.[a-z]{2,4}).*")) {
+		if(text.indexOf('@') >= 0 && EMAIL_PATTERN.matcher(text).matches()) {
 			return 1.0;
 		} else {
 			return 0.0;
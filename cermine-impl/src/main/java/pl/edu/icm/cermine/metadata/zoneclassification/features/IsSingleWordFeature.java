@@ -18,11 +18,14 @@
 
 package pl.edu.icm.cermine.metadata.zoneclassification.features;
 
+import java.util.regex.Pattern;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
 
 public class IsSingleWordFeature extends AbstractFeatureCalculator<BxZone, BxPage> {
 
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile(" \\n\\t");
+
     @Override
     public double calculateFeatureValue(BxZone object, BxPage context) {
         String text = object.toText();
@@ -30,7 +33,7 @@ public class IsSingleWordFeature extends AbstractFeatureCalculator<BxZone, BxPag
         {
             return 0.0;
         }
-        String[] parts = text.split(" \\n\\t");
+        String[] parts = SEPARATOR_PATTERN.split(text);
         if (parts.length == 1) { //white characters were not found
             return 1.0;
         }
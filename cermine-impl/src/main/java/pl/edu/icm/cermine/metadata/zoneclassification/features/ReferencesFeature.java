@@ -30,12 +30,14 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
  */
 public class ReferencesFeature extends FeatureCalculator<BxZone, BxPage> {
 
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("^\\[\\d+\\].*|^\\d+\\..*");
+
     @Override
     public double calculateFeatureValue(BxZone zone, BxPage page) {
         int refDigits = 0;
         int refIndents = 0;
         for (BxLine line : zone.getLines()) {
-            if (Pattern.matches("^\\[\\d+\\].*", line.toText()) || Pattern.matches("^\\d+\\..*", line.toText())) {
+            if (REFERENCE_PATTERN.matcher(line.toText()).matches()) {
                 refDigits++;
             }
             if (zone.getBounds().getX() + 8 < line.getBounds().getX()) {
@@ -18,6 +18,7 @@
 
 package pl.edu.icm.cermine.metadata.zoneclassification.features;
 
+import pl.edu.icm.cermine.metadata.zoneclassification.tools.ZoneTextStatistics;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
@@ -28,14 +29,10 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 public class WhitespaceCountFeature extends FeatureCalculator<BxZone, BxPage> {
 
-	@Override
-	public double calculateFeatureValue(BxZone zone, BxPage page) {
-		int spaceCount = 0;
-		for(Character c: zone.toText().toCharArray()) {
-			if (Character.isWhitespace(c)) {
-				++spaceCount;
-			}
-		}
-		return spaceCount;
-	}
+    @Override
+    public double calculateFeatureValue(BxZone zone, BxPage page) {
+        ZoneTextStatistics stats = ZoneTextStatistics.get(zone, page);
+        return (double) stats.getWhitespaceCount();
+    }
+
 }
@@ -18,6 +18,7 @@
 
 package pl.edu.icm.cermine.metadata.zoneclassification.features;
 
+import pl.edu.icm.cermine.metadata.zoneclassification.tools.ZoneTextStatistics;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
@@ -26,7 +27,8 @@ public class WhitespaceRelativeCountLogFeature extends FeatureCalculator<BxZone,
 
     @Override
     public double calculateFeatureValue(BxZone zone, BxPage page) {
-    	double spaceCount = new WhitespaceCountFeature().calculateFeatureValue(zone, page);
-        return -Math.log(spaceCount / (zone.toText().length()) + Double.MIN_VALUE);
+        ZoneTextStatistics stats = ZoneTextStatistics.get(zone, page);
+        return -Math.log((double) stats.getWhitespaceCount() / stats.getTextLength() + Double.MIN_VALUE);
     }
+
 }
@@ -18,7 +18,9 @@
 
 package pl.edu.icm.cermine.metadata.zoneclassification.features;
 
-import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.metadata.zoneclassification.tools.ZoneTextStatistics;
+import pl.edu.icm.cermine.structure.model.BxPage;
+import pl.edu.icm.cermine.structure.model.BxZone;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /** 
@@ -27,21 +29,10 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 public class WordLengthMeanFeature extends FeatureCalculator<BxZone, BxPage> {
 
-	@Override
-	public double calculateFeatureValue(BxZone object, BxPage context) {
-		int wordsLengthsSum = 0;
-		int numberOfWords = 0;
-		for(BxLine line: object.getLines()) {
-			for(BxWord word: line.getWords()) {
-				int curLength = 0;
-				for(BxChunk chunk: word.getChunks()) {
-					curLength += chunk.toText().length();
-				}
-				wordsLengthsSum += curLength;
-				++numberOfWords;
-			}
-		}
-		return (double)wordsLengthsSum / (double)numberOfWords;
-	}
+    @Override
+    public double calculateFeatureValue(BxZone zone, BxPage page) {
+        ZoneTextStatistics stats = ZoneTextStatistics.get(zone, page);
+        return (double) stats.getCharCount() / (double) stats.getWordCount();
+    }
 
 }
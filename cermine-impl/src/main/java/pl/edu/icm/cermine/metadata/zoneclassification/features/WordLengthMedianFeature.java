@@ -18,9 +18,7 @@
 
 package pl.edu.icm.cermine.metadata.zoneclassification.features;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import pl.edu.icm.cermine.metadata.zoneclassification.tools.ZoneTextStatistics;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
@@ -31,16 +29,10 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 public class WordLengthMedianFeature extends FeatureCalculator<BxZone, BxPage> {
 
-	@Override
-	public double calculateFeatureValue(BxZone object, BxPage context) {
-		String text = object.toText();
-		String[] words = text.split("\\s");
-		List<Integer> wordLengths = new ArrayList<Integer>(words.length);
-		for(String word: words) {
-			wordLengths.add(word.length());
-		}
-		Collections.sort(wordLengths);
-		return wordLengths.get(wordLengths.size()/2);
-	}
+    @Override
+    public double calculateFeatureValue(BxZone zone, BxPage page) {
+        ZoneTextStatistics stats = ZoneTextStatistics.get(zone, page);
+        return (double) stats.getSplitWordLengthMedian();
+    }
 
-}
\ No newline at end of file
+}
@@ -23,6 +23,7 @@ import java.util.regex.Pattern;
 import pl.edu.icm.cermine.structure.model.BxLine;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
+import pl.edu.icm.cermine.tools.TextUtils;
 import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
 
 /**
@@ -34,6 +35,8 @@ public class YearFeature extends FeatureCalculator<BxZone, BxPage> {
     private static final int MIN_YEAR = 1800;
     private static final int MAX_YEAR = 2100;
     
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("^\\D*(\\d+)(.*)$");
+    
     @Override
     public double calculateFeatureValue(BxZone zone, BxPage page) {
  
@@ -41,9 +44,8 @@ public class YearFeature extends FeatureCalculator<BxZone, BxPage> {
         for (BxLine line : zone.getLines()) {
             
             String toMatch = line.toText();
-            Pattern pattern = Pattern.compile("^\\D*(\\d+)(.*)$");
-            while (Pattern.matches("^.*\\d.*", toMatch)) {
-                Matcher matcher = pattern.matcher(toMatch);
+            while (TextUtils.isSingleLine(toMatch) && TextUtils.containsDigit(toMatch)) {
+                Matcher matcher = NUMBER_PATTERN.matcher(toMatch);
                 if (!matcher.matches()) {
                     break;
                 }
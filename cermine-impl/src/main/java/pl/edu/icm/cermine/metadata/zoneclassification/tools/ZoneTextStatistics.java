@@ -0,0 +1,360 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.metadata.zoneclassification.tools;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import pl.edu.icm.cermine.structure.model.*;
+
+/**
+ * Character and word statistics of a zone's text, shared by the zone
+ * classification features. The statistics are computed in a single pass
+ * over the zone's chunks and a single pass over the zone's text.
+ *
+ * The chunk statistics cover the characters of the zone's words (without
+ * separators), the text statistics cover the text returned by
+ * BxZone.toText(), in which the words are separated by spaces
+ * and the lines by newlines.
+ *
+ * The statistics of the zones of the most recently classified page are
+ * cached per thread, until the cache is cleared after the document is
+ * classified.
+ */
+public final class ZoneTextStatistics {
+
+    private static final int MAX_CACHED_ZONES = 1024;
+
+    private static final ThreadLocal<PageCache> CACHE = new ThreadLocal<PageCache>() {
+        @Override
+        protected PageCache initialValue() {
+            return new PageCache();
+        }
+    };
+
+    /** zone's text the statistics were computed for */
+    private final String text;
+
+    private int charCount;
+    private int digitCount;
+    private int letterCount;
+    private int lowercaseCount;
+    private int uppercaseCount;
+    private int commaCount;
+    private int dotCount;
+    private int atCount;
+
+    private int wordCount;
+    private int uppercaseWordCount;
+    private int uppercaseFirstChunkWordCount;
+
+    private int whitespaceCount;
+    private int bracketCount;
+    private int punctuationCount;
+
+    private int splitWordCount;
+    private int splitFullWordCount;
+    private int splitWordLengthMedian;
+
+    private ZoneTextStatistics(BxZone zone) {
+        text = zone.toText();
+        scanChunks(zone);
+        scanText();
+    }
+
+    /**
+     * Returns the statistics of the zone, computing them if they are not
+     * cached or the zone's text has changed.
+     *
+     * @param zone zone
+     * @param page zone's page
+     * @return zone's text statistics
+     */
+    public static ZoneTextStatistics get(BxZone zone, BxPage page) {
+        PageCache cache = CACHE.get();
+        if (cache.page != page || cache.zones.size() >= MAX_CACHED_ZONES) {
+            cache.page = page;
+            cache.zones.clear();
+        }
+        ZoneTextStatistics statistics = cache.zones.get(zone);
+        if (statistics == null || statistics.text != zone.toText()) {
+            statistics = new ZoneTextStatistics(zone);
+            cache.zones.put(zone, statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * Clears the current thread's cache, so that it does not keep
+     * the classified page and its zones.
+     */
+    public static void clearCache() {
+        PageCache cache = CACHE.get();
+        cache.page = null;
+        cache.zones.clear();
+    }
+
+    /**
+     * Returns the number of characters of all the words on the page.
+     *
+     * @param page page
+     * @return number of characters
+     */
+    public static int getPageCharCount(BxPage page) {
+        int count = 0;
+        for (BxZone zone : page.getZones()) {
+            count += get(zone, page).getCharCount();
+        }
+        return count;
+    }
+
+    private void scanChunks(BxZone zone) {
+        for (BxLine line : zone.getLines()) {
+            for (BxWord word : line.getWords()) {
+                wordCount++;
+                boolean firstChunk = true;
+                boolean firstChar = true;
+                for (BxChunk chunk : word.getChunks()) {
+                    String chunkText = chunk.toText();
+                    int length = chunkText.length();
+                    charCount += length;
+                    if (firstChunk && length > 0 && Character.isUpperCase(chunkText.charAt(0))) {
+                        uppercaseFirstChunkWordCount++;
+                    }
+                    firstChunk = false;
+                    for (int i = 0; i < length; i++) {
+                        char c = chunkText.charAt(i);
+                        if (Character.isLetter(c)) {
+                            letterCount++;
+                        }
+                        if (Character.isDigit(c)) {
+                            digitCount++;
+                        }
+                        if (Character.isLowerCase(c)) {
+                            lowercaseCount++;
+                        }
+                        if (Character.isUpperCase(c)) {
+                            uppercaseCount++;
+                            if (firstChar) {
+                                uppercaseWordCount++;
+                            }
+                        }
+                        if (c == ',') {
+                            commaCount++;
+                        } else if (c == '.') {
+                            dotCount++;
+                        } else if (c == '@') {
+                            atCount++;
+                        }
+                        firstChar = false;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans the zone's text. The words are determined in the same way
+     * as by text.split("\\s"): the text is split at every whitespace
+     * character matched by \s and the trailing empty words are omitted.
+     */
+    private void scanText() {
+        int length = text.length();
+        int[] wordLengths = new int[8];
+        int words = 0;
+        int wordStart = 0;
+        boolean split = false;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : 0;
+            if (i < length) {
+                if (Character.isWhitespace(c)) {
+                    whitespaceCount++;
+                }
+                if (c == '[' || c == ']') {
+                    bracketCount++;
+                }
+                if (c == '.' || c == ',' || c == '[' || c == ']' || c == ':' || c == '-') {
+                    punctuationCount++;
+                }
+            }
+            if (i == length || isRegexWhitespace(c)) {
+                if (i < length) {
+                    split = true;
+                }
+                if (words == wordLengths.length) {
+                    wordLengths = Arrays.copyOf(wordLengths, 2 * words);
+                }
+                wordLengths[words++] = i - wordStart;
+                wordStart = i + 1;
+            }
+        }
+        if (split) {
+            while (words > 0 && wordLengths[words - 1] == 0) {
+                words--;
+            }
+        }
+
+        splitWordCount = words;
+        wordStart = 0;
+        for (int i = 0; i < words; i++) {
+            if (isFullWord(wordStart, wordStart + wordLengths[i])) {
+                splitFullWordCount++;
+            }
+            wordStart += wordLengths[i] + 1;
+        }
+        if (words > 0) {
+            Arrays.sort(wordLengths, 0, words);
+            splitWordLengthMedian = wordLengths[words / 2];
+        }
+    }
+
+    /**
+     * Checks whether the word is a conjunction or it is longer than two
+     * characters and consists of ASCII letters only.
+     */
+    private boolean isFullWord(int start, int end) {
+        if (end - start == 0) {
+            return false;
+        }
+        if (ZoneClassificationUtils.isConjunction(text.substring(start, end))) {
+            return true;
+        }
+        if (end - start <= 2) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the character is matched by the regular expression \s.
+     */
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @return number of characters of the zone's words
+     */
+    public int getCharCount() {
+        return charCount;
+    }
+
+    public int getDigitCount() {
+        return digitCount;
+    }
+
+    public int getLetterCount() {
+        return letterCount;
+    }
+
+    public int getLowercaseCount() {
+        return lowercaseCount;
+    }
+
+    public int getUppercaseCount() {
+        return uppercaseCount;
+    }
+
+    public int getCommaCount() {
+        return commaCount;
+    }
+
+    public int getDotCount() {
+        return dotCount;
+    }
+
+    public int getAtCount() {
+        return atCount;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * @return number of words starting with an uppercase character
+     */
+    public int getUppercaseWordCount() {
+        return uppercaseWordCount;
+    }
+
+    /**
+     * @return number of words, whose first chunk starts with an uppercase
+     * character
+     */
+    public int getUppercaseFirstChunkWordCount() {
+        return uppercaseFirstChunkWordCount;
+    }
+
+    /**
+     * @return length of the zone's text
+     */
+    public int getTextLength() {
+        return text.length();
+    }
+
+    public int getWhitespaceCount() {
+        return whitespaceCount;
+    }
+
+    public int getBracketCount() {
+        return bracketCount;
+    }
+
+    public int getPunctuationCount() {
+        return punctuationCount;
+    }
+
+    /**
+     * @return number of words of the zone's text split at whitespaces
+     */
+    public int getSplitWordCount() {
+        return splitWordCount;
+    }
+
+    /**
+     * @return number of full words (conjunctions and words longer than two
+     * characters, consisting of letters only) of the zone's text split
+     * at whitespaces
+     */
+    public int getSplitFullWordCount() {
+        return splitFullWordCount;
+    }
+
+    /**
+     * @return median of the lengths of the words of the zone's text split
+     * at whitespaces, or 0 if there are no words
+     */
+    public int getSplitWordLengthMedian() {
+        return splitWordLengthMedian;
+    }
+
+    private static class PageCache {
+
+        private BxPage page;
+        private final Map<BxZone, ZoneTextStatistics> zones = new IdentityHashMap<BxZone, ZoneTextStatistics>();
+    }
+
+}
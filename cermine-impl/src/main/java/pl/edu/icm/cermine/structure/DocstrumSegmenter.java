@@ -23,7 +23,7 @@ import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.structure.model.*;
 import pl.edu.icm.cermine.structure.tools.BxBoundsBuilder;
 import pl.edu.icm.cermine.structure.tools.BxModelUtils;
-import pl.edu.icm.cermine.structure.tools.DisjointSets;
+import pl.edu.icm.cermine.structure.tools.IntDisjointSets;
 import pl.edu.icm.cermine.structure.tools.Histogram;
 
 /**
@@ -123,6 +123,9 @@ public class DocstrumSegmenter implements DocumentSegmenter {
             }
         }
         Arrays.sort(components, ComponentXComparator.getInstance());
+        for (int i = 0; i < components.length; i++) {
+            components[i].index = i;
+        }
         findNeighbors(components);
         return Arrays.asList(components);
     }
@@ -258,22 +261,25 @@ public class DocstrumSegmenter implements DocumentSegmenter {
      */
     private List<ComponentLine> determineLines(List<Component> components, double orientation,
             double maxHorizontalDistance, double maxVerticalDistance) {
-        DisjointSets<Component> sets = new DisjointSets<Component>(components);
+        IntDisjointSets sets = new IntDisjointSets(components.size());
         AngleFilter filter = AngleFilter.newInstance(orientation - angleTolerance, orientation + angleTolerance);
         for (Component component : components) {
             for (Neighbor neighbor : component.getNeighbors()) {
                 double x = neighbor.getHorizontalDistance(orientation) / maxHorizontalDistance;
                 double y = neighbor.getVerticalDistance(orientation) / maxVerticalDistance;
                 if (filter.matches(neighbor) && x * x + y * y <= 1) {
-                    sets.union(component, neighbor.getComponent());
+                    sets.union(component.index, neighbor.getComponent().index);
                 }
             }
         }
         List<ComponentLine> lines = new ArrayList<ComponentLine>();
-        for (Set<Component> group : sets) {
-          List<Component> lineComponents = new ArrayList<Component>(group);
-          Collections.sort(lineComponents, ComponentXComparator.getInstance());
-          lines.add(new ComponentLine(lineComponents, orientation));
+        // Components are indexed in the x order, so are the elements of the groups
+        for (int[] group : sets.getSets()) {
+            List<Component> lineComponents = new ArrayList<Component>(group.length);
+            for (int index : group) {
+                lineComponents.add(components.get(index));
+            }
+            lines.add(new ComponentLine(lineComponents, orientation));
         }
         return lines;
     }
@@ -309,7 +315,7 @@ public class DocstrumSegmenter implements DocumentSegmenter {
             double minVerticalDistance, double maxVerticalDistance,
             double minHorizontalMergeDistance, double maxHorizontalMergeDistance,
             double minVerticalMergeDistance, double maxVerticalMergeDistance) {
-        DisjointSets<ComponentLine> sets = new DisjointSets<ComponentLine>(lines);
+        IntDisjointSets sets = new IntDisjointSets(lines.size());
         // Mean height is computed so that all distances can be scaled
         // relative to the line height
         double meanHeight = 0.0, weights = 0.0;
@@ -328,25 +334,29 @@ public class DocstrumSegmenter implements DocumentSegmenter {
                 scale = Math.max(minLineSizeScale, Math.min(scale, maxLineSizeScale));
                 // "<=" is used instead of "<" for consistency and to allow setting minVertical(Merge)Distance
                 // to 0.0 with meaning "no minimal distance required"
-                if (!sets.areTogether(li, lj) && li.angularDifference(lj) <= angleTolerance) {
+                if (!sets.areTogether(i, j) && li.angularDifference(lj) <= angleTolerance) {
                     double hDist = li.horizontalDistance(lj, orientation) / scale;
                     double vDist = li.verticalDistance(lj, orientation) / scale;
                     // Line over or above
                     if (minHorizontalDistance <= hDist && hDist <= maxHorizontalDistance
                             && minVerticalDistance <= vDist && vDist <= maxVerticalDistance) {
-                        sets.union(li, lj);
+                        sets.union(i, j);
                     }
                     // Split line that needs later merging
                     else if (minHorizontalMergeDistance <= hDist && hDist <= maxHorizontalMergeDistance
                             && minVerticalMergeDistance <= vDist && vDist <= maxVerticalMergeDistance) {
-                        sets.union(li, lj);
+                        sets.union(i, j);
                     }
                 }
             }
         }
         List<List<ComponentLine>> zones = new ArrayList<List<ComponentLine>>();
-        for (Set<ComponentLine> group : sets) {
-            zones.add(new ArrayList<ComponentLine>(group));
+        for (int[] group : sets.getSets()) {
+            List<ComponentLine> zone = new ArrayList<ComponentLine>(group.length);
+            for (int index : group) {
+                zone.add(lines.get(index));
+            }
+            zones.add(zone);
         }
         return zones;
     }
@@ -395,7 +405,7 @@ public class DocstrumSegmenter implements DocumentSegmenter {
     private List<ComponentLine> mergeLinesInZone(List<ComponentLine> lines, double orientation,
             double minHorizontalDistance, double maxHorizontalDistance,
             double minVerticalDistance, double maxVerticalDistance) {
-        DisjointSets<ComponentLine> sets = new DisjointSets<ComponentLine>(lines);
+        IntDisjointSets sets = new IntDisjointSets(lines.size());
         for (int i = 0; i < lines.size(); i++) {
             ComponentLine li = lines.get(i);
             for (int j = i + 1; j < lines.size(); j++) {
@@ -404,15 +414,15 @@ public class DocstrumSegmenter implements DocumentSegmenter {
                 double vDist = li.verticalDistance(lj, orientation);
                 if (minHorizontalDistance <= hDist && hDist <= maxHorizontalDistance
                         && minVerticalDistance <= vDist && vDist <= maxVerticalDistance) {
-                    sets.union(li, lj);
+                    sets.union(i, j);
                 }
             }
         }
         List<ComponentLine> outputZone = new ArrayList<ComponentLine>();
-        for (Set<ComponentLine> group : sets) {
+        for (int[] group : sets.getSets()) {
             List<Component> components = new ArrayList<Component>();
-            for (ComponentLine line : group) {
-                components.addAll(line.getComponents());
+            for (int index : group) {
+                components.addAll(lines.get(index).getComponents());
             }
             Collections.sort(components, ComponentXComparator.getInstance());
             outputZone.add(new ComponentLine(components, orientation));
@@ -478,6 +488,9 @@ public class DocstrumSegmenter implements DocumentSegmenter {
         private final double y;
         private final BxChunk chunk;
 
+        /** position of the component in the page's components sorted by x */
+        private int index;
+
         private List<Neighbor> neighbors;
 
         public Component(BxChunk chunk) {
@@ -20,12 +20,16 @@ package pl.edu.icm.cermine.structure;
 
 import com.itextpdf.text.Rectangle;
 import com.itextpdf.text.exceptions.InvalidPdfException;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.DocumentFont;
 import com.itextpdf.text.pdf.PRIndirectReference;
 import com.itextpdf.text.pdf.PdfDictionary;
 import com.itextpdf.text.pdf.PdfName;
+import com.itextpdf.text.pdf.PdfObject;
 import com.itextpdf.text.pdf.PdfReader;
 import com.itextpdf.text.pdf.parser.*;
 import com.itextpdf.text.pdf.parser.Vector;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
@@ -33,8 +37,11 @@ import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.structure.model.BxBounds;
 import pl.edu.icm.cermine.structure.model.BxChunk;
 import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.structure.model.BxFont;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.tools.BxBoundsBuilder;
+import pl.edu.icm.cermine.structure.tools.BxChunkSpatialIndex;
+import pl.edu.icm.cermine.structure.tools.GlyphStrings;
 
 
 /**
@@ -53,6 +60,34 @@ public class ITextCharacterExtractor implements CharacterExtractor {
     
     private int backPagesLimit = DEFAULT_BACK_PAGES_LIMIT;
     
+    private PageSelection pageSelection = PageSelection.FRONT_AND_BACK;
+    
+    /**
+     * Strategies of selecting the pages to be extracted.
+     */
+    public enum PageSelection {
+        
+        /** the front and back pages, as limited by the front and back pages limits */
+        FRONT_AND_BACK,
+        
+        /** the front pages only, as limited by the front pages limit */
+        FRONT,
+        
+        /**
+         * the pages from the beginning of the references section to the end
+         * of the document; the section's heading is looked for by scanning
+         * the pages backwards, at most back pages limit pages are scanned
+         */
+        REFERENCES
+    }
+    
+    /** letters of the lines recognized as the references section's heading */
+    private static final Set<String> REFERENCES_HEADINGS = new HashSet<String>(Arrays.asList(
+            "references", "referencescited", "referencesandnotes", "notesandreferences",
+            "bibliography", "literature", "literaturecited", "citedliterature", "workscited"));
+    
+    private static final int MAX_HEADING_LENGTH = 20;
+    
     protected static final Map<String, PdfName> ALT_TO_STANDART_FONTS = new HashMap<String, PdfName>();
 
     static {
@@ -74,7 +109,7 @@ public class ITextCharacterExtractor implements CharacterExtractor {
      * Extracts text chunks from PDF using iText and stores them in BxDocument object.
      * Depending on parsed PDF, extracted text chunks may or may not be individual glyphs,
      * they correspond to single string operands of PDF's text-showing operators
-     * (Tj, TJ, ' and ").
+     * (Tj, TJ, ' and "). The chunks store also their font and font size.
      * @param stream PDF's stream
      * @return BxDocument containing pages with extracted chunks stored as BxChunk lists
      * @throws AnalysisException
@@ -82,32 +117,85 @@ public class ITextCharacterExtractor implements CharacterExtractor {
     @Override
     public BxDocument extractCharacters(InputStream stream) throws AnalysisException {
         try {
-            BxDocumentCreator documentCreator = new BxDocumentCreator();
-
-            PdfReader reader = new PdfReader(stream);
-            PdfContentStreamProcessor processor = new PdfContentStreamProcessor(documentCreator);
-            
-            for (int pageNumber = 1; pageNumber <= reader.getNumberOfPages(); pageNumber++) {
-                if (frontPagesLimit > 0 && backPagesLimit > 0 && pageNumber > frontPagesLimit 
-                        && pageNumber < reader.getNumberOfPages() - 1 - backPagesLimit) {
-                    continue;
-                }
-                documentCreator.processNewBxPage(reader.getPageSize(pageNumber));
-
-                PdfDictionary resources = reader.getPageN(pageNumber).getAsDict(PdfName.RESOURCES);
-                processAlternativeFontNames(resources);
-
-                processor.reset();
-                processor.processContent(ContentByteUtils.getContentBytesForPage(reader, pageNumber), resources);
-            }
+            return extractCharacters(new PdfReader(stream));
+        } catch (InvalidPdfException ex) {
+            throw new AnalysisException("Invalid PDF file", ex);
+        } catch (IOException ex) {
+            throw new AnalysisException("Cannot extract characters from PDF file", ex);
+        }
+    }
 
-            return removeDuplicateChunks(documentCreator.document);
+    /**
+     * Extracts text chunks from PDF file. The file is memory-mapped, so it is
+     * never copied into memory as a whole. The reader is not opened in partial
+     * mode, as in that mode the objects are not kept by the reader and the
+     * changes made to the font dictionaries would be lost.
+     * @param file PDF file
+     * @return BxDocument containing pages with extracted chunks stored as BxChunk lists
+     * @throws AnalysisException
+     */
+    public BxDocument extractCharacters(File file) throws AnalysisException {
+        PdfReader reader = null;
+        try {
+            reader = new PdfReader(file.getPath());
+            return extractCharacters(reader);
         } catch (InvalidPdfException ex) {
             throw new AnalysisException("Invalid PDF file", ex);
         } catch (IOException ex) {
             throw new AnalysisException("Cannot extract characters from PDF file", ex);
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
         }
     }
+
+    private BxDocument extractCharacters(PdfReader reader) throws IOException {
+        BxDocumentCreator documentCreator = new BxDocumentCreator();
+
+        PdfContentStreamProcessor processor = new PdfContentStreamProcessor(documentCreator);
+        Set<Integer> processedFonts = new HashSet<Integer>();
+        int pageCount = reader.getNumberOfPages();
+        
+        if (pageSelection == PageSelection.REFERENCES) {
+            documentCreator.detectReferencesHeading = true;
+            int firstPage = backPagesLimit > 0 ? Math.max(1, pageCount - backPagesLimit + 1) : 1;
+            for (int pageNumber = pageCount; pageNumber >= firstPage; pageNumber--) {
+                processPage(reader, processor, documentCreator, pageNumber, processedFonts);
+                if (documentCreator.isReferencesHeadingFound()) {
+                    break;
+                }
+            }
+            List<BxPage> pages = new ArrayList<BxPage>(documentCreator.document.getPages());
+            Collections.reverse(pages);
+            documentCreator.document.setPages(pages);
+            return documentCreator.document;
+        }
+        
+        for (int pageNumber = 1; pageNumber <= pageCount; pageNumber++) {
+            if (pageSelection == PageSelection.FRONT && frontPagesLimit > 0 && pageNumber > frontPagesLimit) {
+                break;
+            }
+            if (pageSelection == PageSelection.FRONT_AND_BACK && frontPagesLimit > 0 && backPagesLimit > 0
+                    && pageNumber > frontPagesLimit && pageNumber < pageCount - 1 - backPagesLimit) {
+                continue;
+            }
+            processPage(reader, processor, documentCreator, pageNumber, processedFonts);
+        }
+
+        return documentCreator.document;
+    }
+    
+    private void processPage(PdfReader reader, PdfContentStreamProcessor processor, BxDocumentCreator documentCreator,
+            int pageNumber, Set<Integer> processedFonts) throws IOException {
+        documentCreator.processNewBxPage(reader.getPageSize(pageNumber));
+
+        PdfDictionary resources = reader.getPageN(pageNumber).getAsDict(PdfName.RESOURCES);
+        processAlternativeFontNames(resources, processedFonts);
+
+        processor.reset();
+        processor.processContent(ContentByteUtils.getContentBytesForPage(reader, pageNumber), resources);
+    }
     
     /**
      * Processes PDF's fonts dictionary. During the process alternative names
@@ -119,17 +207,34 @@ public class ITextCharacterExtractor implements CharacterExtractor {
      * are kept by iText itself. Unfortunately, if the font uses alternative name instead of
      * standard one (see PDF Reference 1.7, table H.3), iText doesn't recognize the font as
      * one of the Standard 14 Fonts, and is unable to determine glyphs widths. In such cases
-     * this method will change alternative names to standard ones before PDF's parsing process
+     * this method will change alternative names to standard ones before PDF's parsing process.
+     *
+     * Pages usually share the same font objects, so every indirect font object
+     * is processed only once per document.
+     *
+     * @param resources page's resources
+     * @param processedFonts numbers of already processed indirect font objects
      */
-    private void processAlternativeFontNames(PdfDictionary resources) {
+    private void processAlternativeFontNames(PdfDictionary resources, Set<Integer> processedFonts) {
+        if (resources == null) {
+            return;
+        }
         PdfDictionary fontsDictionary = resources.getAsDict(PdfName.FONT);
 
         if (fontsDictionary == null) {
             return;
         }
         for (PdfName pdfFontName : fontsDictionary.getKeys()) {
-            PRIndirectReference indRef = (PRIndirectReference) fontsDictionary.get(pdfFontName);
-            PdfDictionary fontDictionary = (PdfDictionary) PdfReader.getPdfObjectRelease(indRef);
+            PdfObject fontObject = fontsDictionary.get(pdfFontName);
+            if (fontObject instanceof PRIndirectReference
+                    && !processedFonts.add(((PRIndirectReference) fontObject).getNumber())) {
+                continue;
+            }
+            PdfObject directObject = PdfReader.getPdfObject(fontObject);
+            if (!(directObject instanceof PdfDictionary)) {
+                continue;
+            }
+            PdfDictionary fontDictionary = (PdfDictionary) directObject;
 
             PdfName baseFont = fontDictionary.getAsName(PdfName.BASEFONT);
             if (baseFont != null) {
@@ -141,61 +246,46 @@ public class ITextCharacterExtractor implements CharacterExtractor {
         }
     }
 
-    private BxDocument removeDuplicateChunks(BxDocument document) {
-        for (BxPage page : document.getPages()) {
-            List<BxChunk> chunks = page.getChunks();
-            List<BxChunk> filteredChunks = new ArrayList<BxChunk>();
-            Map<Integer, Map<Integer, Set<BxChunk>>> chunkMap = new HashMap<Integer, Map<Integer, Set<BxChunk>>>();
-            for (BxChunk chunk : chunks) {
-                int x = (int) chunk.getX();
-                int y = (int) chunk.getY();
-                boolean duplicate = false;
-                duplicateSearch:
-                for (int i = x-1; i <= x+1; i++) {
-                    for (int j = y-1; j <= y+1; j++) {
-                        if (chunkMap.get(i) == null || chunkMap.get(i).get(j) == null) {
-                            continue;
-                        }
-                        for (BxChunk ch : chunkMap.get(i).get(j)) {
-                            if (chunk.toText().equals(ch.toText()) && chunk.getBounds().isSimilarTo(ch.getBounds(), 1)) {
-                                duplicate = true;
-                                break duplicateSearch;
-                            }
-                        }
-                    }
-                }
-                if (!duplicate) {
-                    filteredChunks.add(chunk);
-                    x = (int) chunk.getX();
-                    y = (int) chunk.getY();
-                    if (chunkMap.get(x) == null) {
-                        chunkMap.put(x, new HashMap<Integer, Set<BxChunk>>());
-                    }
-                    if (chunkMap.get(x).get(y) == null) {
-                        chunkMap.get(x).put(y, new HashSet<BxChunk>());
-                    }
-                    chunkMap.get(x).get(y).add(chunk);
-                }
-            }
-            page.setChunks(filteredChunks);
-        }
-        return document;
-    }
-
     /**
      * Listener class receives information of text chunks and their render info
      * from PDF content processor. Listener uses this to construct a BxDocument object
-     * containing lists of BxChunk elements.
+     * containing lists of BxChunk elements. Duplicate glyphs (the same glyph drawn
+     * more than once in almost the same place, e.g. to imitate bold font) are
+     * dropped as they are rendered.
+     *
+     * The font properties are resolved once per iText's font object, which is
+     * shared by all the pages referencing the same indirect font object.
+     *
+     * Optionally, the listener looks for the references section's heading,
+     * which is a line, whose letters form one of the known headings.
+     * The lines are approximated by the sequences of subsequently rendered
+     * chunks of similar vertical position.
      */
     static class BxDocumentCreator implements RenderListener {
 
+        private static final int MAX_CACHED_FONTS = 1024;
+
         private BxDocument document = new BxDocument();
         private BxPage actPage;
 
         private BxBoundsBuilder boundsBuilder = new BxBoundsBuilder();
 
+        private BxChunkSpatialIndex chunkIndex = new BxChunkSpatialIndex();
+
+        private Map<DocumentFont, FontInfo> fonts = new IdentityHashMap<DocumentFont, FontInfo>();
+
         private Rectangle pageRectangle;
 
+        private boolean detectReferencesHeading = false;
+
+        private boolean referencesHeadingFound;
+
+        private StringBuilder lineLetters = new StringBuilder();
+
+        private double lineBottom;
+
+        private double lineHeight;
+
         private void processNewBxPage(Rectangle pageRectangle) {
             if (actPage != null) {
                 actPage.setBounds(boundsBuilder.getBounds());
@@ -203,22 +293,53 @@ public class ITextCharacterExtractor implements CharacterExtractor {
             }
             actPage = new BxPage();
             document.addPage(actPage);
+            chunkIndex.clear();
+            referencesHeadingFound = false;
+            lineLetters.setLength(0);
 
             this.pageRectangle = pageRectangle;
         }
 
+        private boolean isReferencesHeadingFound() {
+            checkReferencesHeading();
+            return referencesHeadingFound;
+        }
+
+        private void checkReferencesHeading() {
+            if (REFERENCES_HEADINGS.contains(lineLetters.toString())) {
+                referencesHeadingFound = true;
+            }
+            lineLetters.setLength(0);
+        }
+
+        private void detectReferencesHeading(BxChunk chunk) {
+            double bottom = chunk.getY() + chunk.getHeight();
+            if (Math.abs(bottom - lineBottom) > Math.max(lineHeight, chunk.getHeight()) / 2) {
+                checkReferencesHeading();
+            }
+            String text = chunk.toText();
+            for (int i = 0; i < text.length() && lineLetters.length() <= MAX_HEADING_LENGTH; i++) {
+                if (Character.isLetter(text.charAt(i))) {
+                    lineLetters.append(Character.toLowerCase(text.charAt(i)));
+                }
+            }
+            lineBottom = bottom;
+            lineHeight = chunk.getHeight();
+        }
+
         @Override
         public void beginTextBlock() {
         }
 
         @Override
         public void renderText(TextRenderInfo tri) {
+            FontInfo fontInfo = getFontInfo(tri.getFont());
             for (TextRenderInfo charTri : tri.getCharacterRenderInfos()) {
                 String text = charTri.getText();
-                char ch = charTri.getText().charAt(0);
-                if (ch <= ' ' || text.matches("^[\uD800-\uD8FF]$")
-                        || text.matches("^[\uDC00-\uDFFF]$")
-                        || text.matches("^[\uFFF0-\uFFFF]$")) {
+                char ch = text.charAt(0);
+                if (ch <= ' ' || text.length() == 1 && (ch >= '\uD800' && ch <= '\uD8FF'
+                        || ch >= '\uDC00' && ch <= '\uDFFF'
+                        || ch >= '\uFFF0')) {
                     continue;
                 }
                 
@@ -257,11 +378,30 @@ public class ITextCharacterExtractor implements CharacterExtractor {
                     continue;
                 }
                 
-                actPage.addChunk(new BxChunk(bounds, text));
+                BxChunk chunk = new BxChunk(bounds, GlyphStrings.get(text), fontInfo.font,
+                                            fontInfo.getFontSize(charHeight));
+                if (chunkIndex.add(chunk)) {
+                    actPage.addChunk(chunk);
+                    if (detectReferencesHeading && !referencesHeadingFound) {
+                        detectReferencesHeading(chunk);
+                    }
+                }
                 boundsBuilder.expand(bounds);
             }
         }
 
+        private FontInfo getFontInfo(DocumentFont font) {
+            FontInfo fontInfo = fonts.get(font);
+            if (fontInfo == null) {
+                if (fonts.size() >= MAX_CACHED_FONTS) {
+                    fonts.clear();
+                }
+                fontInfo = new FontInfo(font);
+                fonts.put(font, fontInfo);
+            }
+            return fontInfo;
+        }
+
         @Override
         public void endTextBlock() {
         }
@@ -272,6 +412,101 @@ public class ITextCharacterExtractor implements CharacterExtractor {
 
     }
 
+    /**
+     * Font properties derived from iText's font object.
+     */
+    private static class FontInfo {
+
+        private final BxFont font;
+
+        private final float ascent;
+
+        private final float descent;
+
+        public FontInfo(DocumentFont documentFont) {
+            if (documentFont == null) {
+                font = null;
+                ascent = 0;
+                descent = 0;
+                return;
+            }
+            font = createFont(documentFont.getPostscriptFontName(),
+                    documentFont.getFontDescriptor(BaseFont.ITALICANGLE, 1000));
+            ascent = documentFont.getFontDescriptor(BaseFont.ASCENT, 1000);
+            descent = documentFont.getFontDescriptor(BaseFont.DESCENT, 1000);
+        }
+
+        public double getFontSize(float charHeight) {
+            return ITextCharacterExtractor.getFontSize(charHeight, ascent, descent);
+        }
+
+    }
+
+    /**
+     * Creates the font object from the font's PostScript name and italic angle.
+     * Boldness and italics are guessed from the name, the font is also
+     * considered italic if its italic angle is non-zero.
+     *
+     * @param postscriptName font's PostScript name, possibly with the subset tag
+     * @param italicAngle font's italic angle
+     * @return font
+     */
+    static BxFont createFont(String postscriptName, float italicAngle) {
+        String name = getFontName(postscriptName);
+        String lowerName = name == null ? "" : name.toLowerCase(Locale.ENGLISH);
+        boolean bold = lowerName.contains("bold") || lowerName.contains("black")
+                || lowerName.contains("heavy") || lowerName.contains("demi")
+                || lowerName.startsWith("cmb");
+        boolean italic = lowerName.contains("italic") || lowerName.contains("oblique")
+                || lowerName.endsWith("-it") || lowerName.endsWith("boldit")
+                || lowerName.startsWith("cmti") || lowerName.startsWith("cmmi")
+                || lowerName.startsWith("cmsl")
+                || italicAngle != 0;
+        return new BxFont(name, bold, italic);
+    }
+
+    /**
+     * Estimates the font size from the height of a glyph, which is the distance
+     * between its ascent and descent lines in the page space.
+     *
+     * @param charHeight glyph's height
+     * @param ascent font's ascent for the font size of 1000
+     * @param descent font's descent for the font size of 1000
+     * @return font size, or 0 if unknown
+     */
+    static double getFontSize(float charHeight, float ascent, float descent) {
+        float unitHeight = ascent - descent;
+        if (unitHeight <= 0) {
+            return 0;
+        }
+        return charHeight * 1000 / unitHeight;
+    }
+
+    /**
+     * Removes the subset tag (six uppercase letters followed by a plus sign)
+     * from the font's name.
+     *
+     * @param name font's name
+     * @return font's name without the subset tag
+     */
+    static String getFontName(String name) {
+        if (name == null) {
+            return null;
+        }
+        if (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+        if (name.length() > 7 && name.charAt(6) == '+') {
+            for (int i = 0; i < 6; i++) {
+                if (name.charAt(i) < 'A' || name.charAt(i) > 'Z') {
+                    return name;
+                }
+            }
+            return name.substring(7);
+        }
+        return name;
+    }
+
     public int getBackPagesLimit() {
         return backPagesLimit;
     }
@@ -280,10 +515,20 @@ public class ITextCharacterExtractor implements CharacterExtractor {
         return frontPagesLimit;
     }
 
+    public PageSelection getPageSelection() {
+        return pageSelection;
+    }
+
+    public void setPageSelection(PageSelection pageSelection) {
+        this.pageSelection = pageSelection;
+    }
+
     /**
      * Sets the number of front and back pages to be processed and returned.
      * If any of the values is set to 0 or less, the whole document is processed.
      * This may cause long processing time for large documents.
+     * When only the front pages or the references section are selected,
+     * only the front or the back pages limit is used, respectively.
      */
     public void setPagesLimits(int frontPagesLimit, int backPagesLimit) {
         this.frontPagesLimit = frontPagesLimit;
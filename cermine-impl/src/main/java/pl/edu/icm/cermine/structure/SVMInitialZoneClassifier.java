@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.metadata.zoneclassification.features.*;
+import pl.edu.icm.cermine.metadata.zoneclassification.tools.ZoneTextStatistics;
 import pl.edu.icm.cermine.structure.model.BxDocument;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
@@ -100,6 +101,7 @@ public class SVMInitialZoneClassifier extends SVMZoneClassifier {
         		new IsLeftFeature(),
         		new IsLongestOnThePageFeature(),
         		new IsLowestOnThePageFeature(),
+        		// registered twice in the trained model, calculated once
         		new IsItemizeFeature(),
         		new IsOnSurroundingPagesFeature(),
         		new IsPageNumberFeature(),
@@ -156,11 +158,15 @@ public class SVMInitialZoneClassifier extends SVMZoneClassifier {
     
     @Override
 	public BxDocument classifyZones(BxDocument document) throws AnalysisException {
-        for (BxZone zone : document.asZones()) {
-            if (zone.getLabel() == null) {
-                BxZoneLabel predicted = predictLabel(zone, zone.getParent());
-                zone.setLabel(predicted);
+        try {
+            for (BxZone zone : document.asZones()) {
+                if (zone.getLabel() == null) {
+                    BxZoneLabel predicted = predictLabel(zone, zone.getParent());
+                    zone.setLabel(predicted);
+                }
             }
+        } finally {
+            ZoneTextStatistics.clearCache();
         }
         return document;
 	}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.metadata.zoneclassification.features.*;
+import pl.edu.icm.cermine.metadata.zoneclassification.tools.ZoneTextStatistics;
 import pl.edu.icm.cermine.structure.model.BxDocument;
 import pl.edu.icm.cermine.structure.model.BxPage;
 import pl.edu.icm.cermine.structure.model.BxZone;
@@ -150,11 +151,15 @@ public class SVMMetadataZoneClassifier extends SVMZoneClassifier {
                 zone.setParent(page);
             }
         }
-        for (BxZone zone: document.asZones()) {
-            if (zone.getLabel().isOfCategoryOrGeneral(BxZoneLabelCategory.CAT_METADATA)) {
-                zone.setLabel(predictLabel(zone, zone.getParent()));
+        try {
+            for (BxZone zone: document.asZones()) {
+                if (zone.getLabel().isOfCategoryOrGeneral(BxZoneLabelCategory.CAT_METADATA)) {
+                    zone.setLabel(predictLabel(zone, zone.getParent()));
+                }
             }
-		}
+        } finally {
+            ZoneTextStatistics.clearCache();
+        }
         return document;
     }
 
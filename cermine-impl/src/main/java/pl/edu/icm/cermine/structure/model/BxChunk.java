@@ -30,17 +30,37 @@ public final class BxChunk extends BxObject<BxChunk, BxWord> implements Serializ
 
     private static final long serialVersionUID = -6911268485662874663L;
 
+    /** chunk's font, or null if unknown */
+    private final BxFont font;
+
+    /** chunk's font size, or 0 if unknown */
+    private final double fontSize;
+
     public BxChunk(BxBounds bounds, String text) {
+        this(bounds, text, null, 0);
+    }
+
+    public BxChunk(BxBounds bounds, String text, BxFont font, double fontSize) {
         this.setBounds(bounds);
         this.setText(text);
+        this.font = font;
+        this.fontSize = fontSize;
     }
  
     public BxChunk withBounds(BxBounds bounds) {
-        return new BxChunk(bounds, this.getText());
+        return new BxChunk(bounds, this.getText(), font, fontSize);
     }
 
     public BxChunk withText(String text) {
-        return new BxChunk(getBounds(), text);
+        return new BxChunk(getBounds(), text, font, fontSize);
+    }
+
+    public BxFont getFont() {
+        return font;
+    }
+
+    public double getFontSize() {
+        return fontSize;
     }
 
     public String toText() {
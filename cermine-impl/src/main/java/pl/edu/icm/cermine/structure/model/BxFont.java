@@ -0,0 +1,80 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.model;
+
+import java.io.Serializable;
+
+/**
+ * Font of a chunk of glyphs. Immutable.
+ */
+public final class BxFont implements Serializable {
+
+    private static final long serialVersionUID = 3311489017236625518L;
+
+    /** font's name, without the subset prefix */
+    private final String name;
+
+    private final boolean bold;
+
+    private final boolean italic;
+
+    public BxFont(String name, boolean bold, boolean italic) {
+        this.name = name;
+        this.bold = bold;
+        this.italic = italic;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isBold() {
+        return bold;
+    }
+
+    public boolean isItalic() {
+        return italic;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BxFont)) {
+            return false;
+        }
+        BxFont other = (BxFont) obj;
+        return bold == other.bold && italic == other.italic
+                && (name == null ? other.name == null : name.equals(other.name));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = name == null ? 0 : name.hashCode();
+        hash = 31 * hash + (bold ? 1 : 0);
+        return 31 * hash + (italic ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return name + (bold ? ",Bold" : "") + (italic ? ",Italic" : "");
+    }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.tools;
+
+import java.util.Arrays;
+import pl.edu.icm.cermine.structure.model.BxChunk;
+
+/**
+ * Spatial hash of chunks used for removing duplicate glyphs, e.g. glyphs
+ * drawn two or three times in order to imitate bold font. The chunks are
+ * hashed by their coordinates truncated to integers. A chunk is a duplicate
+ * if a chunk with the same text and bounds similar within 1 unit has been
+ * already added.
+ *
+ * The hash uses open addressing over packed (x, y) keys, each cell points
+ * to a list of the chunks stored in parallel arrays.
+ */
+public class BxChunkSpatialIndex {
+
+    private static final double TOLERANCE = 1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** packed cell coordinates */
+    private long[] keys;
+    /** index of the last chunk of the cell plus 1, 0 means an empty slot */
+    private int[] heads;
+    private int cellCount;
+
+    private BxChunk[] chunks = new BxChunk[INITIAL_CAPACITY];
+    /** index of the previous chunk of the same cell, -1 ends the list */
+    private int[] previous = new int[INITIAL_CAPACITY];
+    private int chunkCount;
+
+    public BxChunkSpatialIndex() {
+        keys = new long[2 * INITIAL_CAPACITY];
+        heads = new int[2 * INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the chunk to the index, unless it is a duplicate of an already
+     * added chunk.
+     *
+     * @param chunk chunk
+     * @return true if the chunk was added, false if it is a duplicate
+     */
+    public boolean add(BxChunk chunk) {
+        int x = (int) chunk.getX();
+        int y = (int) chunk.getY();
+        for (int i = x - 1; i <= x + 1; i++) {
+            for (int j = y - 1; j <= y + 1; j++) {
+                int slot = find(i, j);
+                if (heads[slot] == 0) {
+                    continue;
+                }
+                for (int c = heads[slot] - 1; c >= 0; c = previous[c]) {
+                    if (chunk.toText().equals(chunks[c].toText())
+                            && chunk.getBounds().isSimilarTo(chunks[c].getBounds(), TOLERANCE)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        put(x, y, chunk);
+        return true;
+    }
+
+    /**
+     * Removes all the chunks from the index.
+     */
+    public void clear() {
+        Arrays.fill(heads, 0);
+        Arrays.fill(chunks, 0, chunkCount, null);
+        cellCount = 0;
+        chunkCount = 0;
+    }
+
+    public int size() {
+        return chunkCount;
+    }
+
+    private void put(int x, int y, BxChunk chunk) {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, 2 * chunkCount);
+            previous = Arrays.copyOf(previous, 2 * chunkCount);
+        }
+        if (2 * (cellCount + 1) > keys.length) {
+            rehash();
+        }
+        int slot = find(x, y);
+        if (heads[slot] == 0) {
+            keys[slot] = pack(x, y);
+            cellCount++;
+        }
+        chunks[chunkCount] = chunk;
+        previous[chunkCount] = heads[slot] - 1;
+        heads[slot] = chunkCount + 1;
+        chunkCount++;
+    }
+
+    /**
+     * Finds the slot of the cell, or the empty slot the cell should be put in.
+     */
+    private int find(int x, int y) {
+        long key = pack(x, y);
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (heads[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        keys = new long[2 * oldKeys.length];
+        heads = new int[2 * oldHeads.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldHeads[i] != 0) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (heads[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                heads[slot] = oldHeads[i];
+            }
+        }
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
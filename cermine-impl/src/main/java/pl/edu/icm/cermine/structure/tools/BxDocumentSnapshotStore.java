@@ -0,0 +1,171 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.tools;
+
+import java.io.*;
+import java.security.MessageDigest;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.structure.transformers.BxDocumentToSnapshotWriter;
+import pl.edu.icm.cermine.structure.transformers.SnapshotToBxDocumentReader;
+import pl.edu.icm.cermine.tools.DigestUtils;
+
+/**
+ * Directory-based store of binary document snapshots. The snapshots are
+ * identified by the SHA-1 digests of the algorithm version, the extraction
+ * settings and the PDF files' contents and kept in subdirectories named after
+ * the first two digits of the digest.
+ *
+ * Snapshots are written to temporary files first and then renamed, so that
+ * concurrent readers never see partially written snapshots.
+ */
+public class BxDocumentSnapshotStore {
+
+    public static final String SNAPSHOT_EXTENSION = ".bxs";
+
+    /**
+     * Version of the algorithms the stored structure depends on, i.e. the
+     * character extraction, the page segmentation and the reading order
+     * resolving. It is a part of the key, so it has to be changed together
+     * with any change of the structure extracted by these algorithms.
+     */
+    public static final String ALGORITHM_VERSION = "1";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File directory;
+
+    private final BxDocumentToSnapshotWriter writer = new BxDocumentToSnapshotWriter();
+
+    private final SnapshotToBxDocumentReader reader = new SnapshotToBxDocumentReader();
+
+    public BxDocumentSnapshotStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Computes the key of a PDF file.
+     *
+     * @param pdf PDF file's contents
+     * @param settings description of the extraction settings the snapshot
+     * depends on, such as the character extractor's page selection
+     * @return the key (hexadecimal SHA-1 digest)
+     */
+    public static String getKey(byte[] pdf, String settings) {
+        MessageDigest digest = newDigest(settings);
+        digest.update(pdf);
+        return DigestUtils.toHex(digest.digest());
+    }
+
+    /**
+     * Computes the key of a PDF file, reading the file in blocks.
+     *
+     * @param pdf PDF file
+     * @param settings description of the extraction settings the snapshot
+     * depends on, such as the character extractor's page selection
+     * @return the key (hexadecimal SHA-1 digest)
+     * @throws IOException if the file cannot be read
+     */
+    public static String getKey(File pdf, String settings) throws IOException {
+        MessageDigest digest = newDigest(settings);
+        DigestUtils.update(digest, pdf);
+        return DigestUtils.toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest(String settings) {
+        MessageDigest digest = DigestUtils.newDigest("SHA-1");
+        String version = BxDocumentSnapshotStore.class.getPackage().getImplementationVersion();
+        DigestUtils.update(digest, ALGORITHM_VERSION + ";" + version + ";" 
+                + BxDocumentToSnapshotWriter.VERSION + ";" + settings);
+        return digest;
+    }
+
+    /**
+     * Loads a document from the store.
+     *
+     * @param key document's key
+     * @return the document, or null if there is no snapshot with the given key
+     * @throws TransformationException if the snapshot cannot be read
+     */
+    public BxDocument load(String key) throws TransformationException {
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            InputStream stream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+            try {
+                return reader.read(stream);
+            } finally {
+                stream.close();
+            }
+        } catch (FileNotFoundException ex) {
+            return null;
+        } catch (IOException ex) {
+            throw new TransformationException("Cannot read snapshot " + file, ex);
+        }
+    }
+
+    /**
+     * Stores the document, replacing the snapshot with the same key, if any.
+     *
+     * @param key document's key
+     * @param document document
+     * @throws TransformationException 
+     */
+    public void store(String key, BxDocument document) throws TransformationException {
+        File file = getFile(key);
+        File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+            throw new TransformationException("Cannot create directory " + parent);
+        }
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(key, ".tmp", parent);
+            OutputStream stream = new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE);
+            try {
+                writer.write(stream, document);
+            } finally {
+                stream.close();
+            }
+            if (!tempFile.renameTo(file)) {
+                file.delete();
+                if (!tempFile.renameTo(file)) {
+                    throw new TransformationException("Cannot write snapshot " + file);
+                }
+            }
+            tempFile = null;
+        } catch (IOException ex) {
+            throw new TransformationException("Cannot write snapshot " + file, ex);
+        } finally {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private File getFile(String key) {
+        return new File(new File(directory, key.substring(0, Math.min(2, key.length()))), key + SNAPSHOT_EXTENSION);
+    }
+
+}
@@ -186,7 +186,7 @@ public final class BxModelUtils {
     }
 
     public static BxChunk deepClone(BxChunk chunk) {
-    	return new BxChunk(chunk.getBounds(), chunk.toText());
+    	return new BxChunk(chunk.getBounds(), chunk.toText(), chunk.getFont(), chunk.getFontSize());
     }
     
     /**
@@ -21,13 +21,18 @@ package pl.edu.icm.cermine.structure.tools;
 import java.util.*;
 
 /**
- * A disjoint-set data structure.
+ * A disjoint-set data structure. The elements are numbered and the subsets
+ * are maintained by IntDisjointSets.
  *
  * @author krusek
  */
 public class DisjointSets<E> implements Iterable<Set<E>> {
 
-    private Map<E, Entry<E>> map = new HashMap<E, Entry<E>>();
+    private final List<E> elements = new ArrayList<E>();
+
+    private final Map<E, Integer> indices = new HashMap<E, Integer>();
+
+    private final IntDisjointSets sets;
 
     /**
      * Constructs a new set of singletons.
@@ -36,8 +41,12 @@ public class DisjointSets<E> implements Iterable<Set<E>> {
      */
     public DisjointSets(Collection<? extends E> c) {
         for (E element : c) {
-            map.put(element, new Entry<E>(element));
+            if (!indices.containsKey(element)) {
+                indices.put(element, elements.size());
+                elements.add(element);
+            }
         }
+        sets = new IntDisjointSets(elements.size());
     }
 
     /**
@@ -48,7 +57,7 @@ public class DisjointSets<E> implements Iterable<Set<E>> {
      * @return true if elements are in the same subset; false otherwise
      */
     public boolean areTogether(E e1, E e2) {
-        return map.get(e1).findRepresentative() == map.get(e2).findRepresentative();
+        return sets.areTogether(indices.get(e1), indices.get(e2));
     }
 
     /**
@@ -58,52 +67,34 @@ public class DisjointSets<E> implements Iterable<Set<E>> {
      * @param e2 element from a subset
      */
     public void union(E e1, E e2) {
-        Entry<E> r1 = map.get(e1).findRepresentative();
-        Entry<E> r2 = map.get(e2).findRepresentative();
-        if (r1 != r2) {
-            if (r1.size <= r2.size) {
-                r2.mergeWith(r1);
-            } else {
-                r1.mergeWith(r2);
-            }
-        }
+        sets.union(indices.get(e1), indices.get(e2));
     }
 
+    /**
+     * Returns the iterator over the subsets. The subsets are ordered by their
+     * first elements in the order of the constructor's collection. The iterated
+     * subsets are snapshots taken when the iterator is created.
+     *
+     * @return the iterator over the subsets
+     */
     @Override
     public Iterator<Set<E>> iterator() {
+        final int[][] groups = sets.getSets();
         return new Iterator<Set<E>>() {
 
-            private Iterator<Entry<E>> iterator = map.values().iterator();
-            private Entry<E> nextRepresentative;
-
-            {
-                findNextRepresentative();
-            }
+            private int next = 0;
 
             @Override
             public boolean hasNext() {
-                return nextRepresentative != null;
+                return next < groups.length;
             }
 
             @Override
             public Set<E> next() {
-                if (nextRepresentative == null) {
+                if (next >= groups.length) {
                     throw new NoSuchElementException();
                 }
-                Set<E> result = nextRepresentative.asSet();
-                findNextRepresentative();
-                return result;
-            }
-
-            private void findNextRepresentative() {
-                while(iterator.hasNext()) {
-                    Entry<E> candidate = iterator.next();
-                    if (candidate.isRepresentative()) {
-                        nextRepresentative = candidate;
-                        return;
-                    }
-                }
-                nextRepresentative = null;
+                return new GroupSet(groups[next++]);
             }
 
             @Override
@@ -118,78 +109,44 @@ public class DisjointSets<E> implements Iterable<Set<E>> {
         return new DisjointSets(Arrays.asList(elementType.getEnumConstants()));
     }
 
-    private static class Entry<E> {
-        private int size = 1;
-        private E value;
-        private Entry<E> parent = this;
-        private Entry<E> next = null;
-        private Entry<E> last = this;
+    private class GroupSet extends AbstractSet<E> {
 
-        Entry(E value) {
-            this.value = value;
-        }
+        private final int[] group;
 
-        void mergeWith(Entry<E> otherRepresentative) {
-            size += otherRepresentative.size;
-            last.next = otherRepresentative;
-            last = otherRepresentative.last;
-            otherRepresentative.parent = this;
+        GroupSet(int[] group) {
+            this.group = group;
         }
 
-        Entry<E> findRepresentative() {
-            Entry<E> representative = parent;
-            while (representative.parent != representative) {
-                representative = representative.parent;
-            }
-            for (Entry<E> entry = this; entry != representative; ) {
-                Entry<E> nextEntry = entry.parent;
-                entry.parent = representative;
-                entry = nextEntry;
-            }
-            return representative;
-        }
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
 
-        boolean isRepresentative() {
-            return parent == this;
-        }
+                private int next = 0;
 
-        Set<E> asSet() {
-            return new AbstractSet<E>() {
+                @Override
+                public boolean hasNext() {
+                    return next < group.length;
+                }
 
                 @Override
-                public Iterator<E> iterator() {
-                    return new Iterator<E>() {
-
-                        private Entry<E> nextEntry = findRepresentative();
-
-                        @Override
-                        public boolean hasNext() {
-                            return nextEntry != null;
-                        }
-
-                        @Override
-                        public E next() {
-                            if (nextEntry == null) {
-                                throw new NoSuchElementException();
-                            }
-                            E result = nextEntry.value;
-                            nextEntry = nextEntry.next;
-                            return result;
-                        }
-
-                        @Override
-                        public void remove() {
-                            throw new UnsupportedOperationException();
-                        }
-
-                    };
+                public E next() {
+                    if (next >= group.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return elements.get(group[next++]);
                 }
 
                 @Override
-                public int size() {
-                    return findRepresentative().size;
+                public void remove() {
+                    throw new UnsupportedOperationException();
                 }
+
             };
         }
+
+        @Override
+        public int size() {
+            return group.length;
+        }
     }
 }
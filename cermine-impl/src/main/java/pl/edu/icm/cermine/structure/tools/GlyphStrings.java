@@ -0,0 +1,71 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.tools;
+
+/**
+ * Shared pool of the strings of single glyphs. The text of most extracted
+ * chunks is a single character, so the chunks of the same characters can
+ * share the same string instance instead of keeping separate copies.
+ */
+public final class GlyphStrings {
+
+    /** pooled characters are below the surrogates range */
+    private static final int POOL_SIZE = 0xD800;
+
+    /**
+     * Strings are immutable and safely published, so the racy lazy
+     * initialization of the pool entries is benign.
+     */
+    private static final String[] POOL = new String[POOL_SIZE];
+
+    private GlyphStrings() {}
+
+    /**
+     * Returns the shared instance of the single-character string equal
+     * to the text, or the text itself if it is not a pooled character.
+     *
+     * @param text glyph's text
+     * @return string equal to the text
+     */
+    public static String get(String text) {
+        if (text.length() != 1 || text.charAt(0) >= POOL_SIZE) {
+            return text;
+        }
+        return get(text.charAt(0));
+    }
+
+    /**
+     * Returns the shared instance of the single-character string.
+     *
+     * @param c character
+     * @return string consisting of the character
+     */
+    public static String get(char c) {
+        if (c >= POOL_SIZE) {
+            return String.valueOf(c);
+        }
+        String pooled = POOL[c];
+        if (pooled == null) {
+            pooled = String.valueOf(c);
+            POOL[c] = pooled;
+        }
+        return pooled;
+    }
+
+}
@@ -0,0 +1,146 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.tools;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint-set data structure over the integers 0..size-1, using union
+ * by rank and path halving.
+ */
+public class IntDisjointSets {
+
+    private final int[] parent;
+
+    private final byte[] rank;
+
+    private int setCount;
+
+    /**
+     * Constructs a new set of singletons.
+     *
+     * @param size number of elements
+     */
+    public IntDisjointSets(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+        setCount = size;
+    }
+
+    /**
+     * Finds the representative of the subset the element belongs to.
+     *
+     * @param element element
+     * @return subset's representative
+     */
+    public int find(int element) {
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * Checks if elements are in the same subsets.
+     *
+     * @param e1 element from a subset
+     * @param e2 element from a subset
+     * @return true if elements are in the same subset; false otherwise
+     */
+    public boolean areTogether(int e1, int e2) {
+        return find(e1) == find(e2);
+    }
+
+    /**
+     * Merges subsets which elements e1 and e2 belong to.
+     *
+     * @param e1 element from a subset
+     * @param e2 element from a subset
+     * @return true if the subsets were merged; false if the elements were
+     * already in the same subset
+     */
+    public boolean union(int e1, int e2) {
+        int r1 = find(e1);
+        int r2 = find(e2);
+        if (r1 == r2) {
+            return false;
+        }
+        if (rank[r1] < rank[r2]) {
+            parent[r1] = r2;
+        } else if (rank[r1] > rank[r2]) {
+            parent[r2] = r1;
+        } else {
+            parent[r2] = r1;
+            rank[r1]++;
+        }
+        setCount--;
+        return true;
+    }
+
+    /**
+     * @return number of elements
+     */
+    public int size() {
+        return parent.length;
+    }
+
+    /**
+     * @return number of subsets
+     */
+    public int getSetCount() {
+        return setCount;
+    }
+
+    /**
+     * Returns the subsets. The subsets are ordered by their smallest elements
+     * and the elements of every subset are sorted.
+     *
+     * @return subsets as arrays of elements
+     */
+    public int[][] getSets() {
+        int[] setIndices = new int[parent.length];
+        int[] setSizes = new int[setCount];
+        int[] rootSets = new int[parent.length];
+        Arrays.fill(rootSets, -1);
+        int sets = 0;
+        for (int i = 0; i < parent.length; i++) {
+            int root = find(i);
+            if (rootSets[root] < 0) {
+                rootSets[root] = sets++;
+            }
+            setIndices[i] = rootSets[root];
+            setSizes[setIndices[i]]++;
+        }
+        int[][] result = new int[sets][];
+        for (int i = 0; i < sets; i++) {
+            result[i] = new int[setSizes[i]];
+            setSizes[i] = 0;
+        }
+        for (int i = 0; i < parent.length; i++) {
+            int set = setIndices[i];
+            result[set][setSizes[set]++] = i;
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.transformers;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.model.*;
+
+/**
+ * Writes BxDocument to the binary snapshot format.
+ *
+ * A snapshot starts with a magic number and a format version, followed by
+ * the gzip-compressed document: pages, zones, lines, words and chunks
+ * together with their bounds, ids, labels and fonts, in the order of
+ * the model's lists. Strings (chunk texts, labels, ids), fonts and chunks
+ * are written once and then referred to by their indices, so a chunk present
+ * in the lists of a page, a zone and a word is read back as a single object.
+ * The next/previous links are not written, the reader rebuilds them from
+ * the ids.
+ *
+ * The document is streamed element by element, no intermediate
+ * representation is built.
+ */
+public class BxDocumentToSnapshotWriter {
+
+    /** "BxDS" */
+    public static final int MAGIC = 0x42784453;
+
+    public static final int VERSION = 2;
+
+    /** reference code of a null string or font */
+    static final int NULL_CODE = 0;
+
+    /** reference code of a string, font or chunk written for the first time */
+    static final int NEW_CODE = 1;
+
+    /** reference code of the first string, font or chunk from the table */
+    static final int FIRST_INDEX_CODE = 2;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes the document to the stream. The stream is not closed.
+     *
+     * @param stream output stream
+     * @param document document
+     * @throws TransformationException 
+     */
+    public void write(OutputStream stream, BxDocument document) throws TransformationException {
+        try {
+            DataOutputStream header = new DataOutputStream(stream);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+            header.flush();
+
+            GZIPOutputStream gzipStream = new GZIPOutputStream(stream, BUFFER_SIZE);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(gzipStream, BUFFER_SIZE));
+            new DocumentWriter(output).writeDocument(document);
+            output.flush();
+            gzipStream.finish();
+        } catch (IOException ex) {
+            throw new TransformationException("Cannot write document snapshot", ex);
+        }
+    }
+
+    /**
+     * Writes the document to a byte array.
+     *
+     * @param document document
+     * @return document's snapshot
+     * @throws TransformationException 
+     */
+    public byte[] write(BxDocument document) throws TransformationException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        write(stream, document);
+        return stream.toByteArray();
+    }
+
+    private static class DocumentWriter {
+
+        private final DataOutputStream output;
+
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+        private final Map<BxFont, Integer> fonts = new HashMap<BxFont, Integer>();
+
+        private final Map<BxChunk, Integer> chunks = new IdentityHashMap<BxChunk, Integer>();
+
+        public DocumentWriter(DataOutputStream output) {
+            this.output = output;
+        }
+
+        public void writeDocument(BxDocument document) throws IOException {
+            writeString(document.getFilename());
+            writeVarInt(document.getPages().size());
+            for (BxPage page : document.getPages()) {
+                writeObject(page);
+                writeChunks(page.getChunks());
+                writeVarInt(page.getZones().size());
+                for (BxZone zone : page.getZones()) {
+                    writeZone(zone);
+                }
+            }
+        }
+
+        private void writeZone(BxZone zone) throws IOException {
+            writeObject(zone);
+            writeString(zone.getLabel() == null ? null : zone.getLabel().name());
+            writeChunks(zone.getChunks());
+            writeVarInt(zone.getLines().size());
+            for (BxLine line : zone.getLines()) {
+                writeObject(line);
+                writeVarInt(line.getWords().size());
+                for (BxWord word : line.getWords()) {
+                    writeObject(word);
+                    writeChunks(word.getChunks());
+                }
+            }
+        }
+
+        private void writeChunks(List<BxChunk> chunkList) throws IOException {
+            writeVarInt(chunkList.size());
+            for (BxChunk chunk : chunkList) {
+                Integer index = chunks.get(chunk);
+                if (index != null) {
+                    writeVarInt(FIRST_INDEX_CODE + index);
+                    continue;
+                }
+                chunks.put(chunk, chunks.size());
+                writeVarInt(NEW_CODE);
+                writeObject(chunk);
+                writeString(chunk.toText());
+                writeFont(chunk.getFont());
+                output.writeDouble(chunk.getFontSize());
+            }
+        }
+
+        private void writeObject(BxObject<?, ?> object) throws IOException {
+            BxBounds bounds = object.getBounds();
+            if (bounds == null) {
+                output.writeBoolean(false);
+            } else {
+                output.writeBoolean(true);
+                output.writeDouble(bounds.getX());
+                output.writeDouble(bounds.getY());
+                output.writeDouble(bounds.getWidth());
+                output.writeDouble(bounds.getHeight());
+            }
+            writeString(object.getId());
+            writeString(object.getNextId());
+        }
+
+        private void writeString(String string) throws IOException {
+            if (string == null) {
+                writeVarInt(NULL_CODE);
+                return;
+            }
+            Integer index = strings.get(string);
+            if (index != null) {
+                writeVarInt(FIRST_INDEX_CODE + index);
+                return;
+            }
+            strings.put(string, strings.size());
+            writeVarInt(NEW_CODE);
+            byte[] bytes = string.getBytes("UTF-8");
+            writeVarInt(bytes.length);
+            output.write(bytes);
+        }
+
+        private void writeFont(BxFont font) throws IOException {
+            if (font == null) {
+                writeVarInt(NULL_CODE);
+                return;
+            }
+            Integer index = fonts.get(font);
+            if (index != null) {
+                writeVarInt(FIRST_INDEX_CODE + index);
+                return;
+            }
+            fonts.put(font, fonts.size());
+            writeVarInt(NEW_CODE);
+            writeString(font.getName());
+            output.writeBoolean(font.isBold());
+            output.writeBoolean(font.isItalic());
+        }
+
+        /**
+         * Writes a non-negative integer using 7 bits per byte, the highest bit
+         * marks the bytes followed by another one.
+         */
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                output.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.writeByte(value);
+        }
+
+    }
+
+}
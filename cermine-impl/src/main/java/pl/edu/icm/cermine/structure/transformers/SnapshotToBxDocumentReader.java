@@ -0,0 +1,267 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.transformers;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.model.*;
+
+/**
+ * Reads BxDocument from the binary snapshot format written by
+ * BxDocumentToSnapshotWriter. The next/previous links of pages, zones, lines,
+ * words and chunks are rebuilt from their ids.
+ */
+public class SnapshotToBxDocumentReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Limit of the string lengths and element counts read from the snapshot.
+     * The lengths are checked before anything is allocated, so that
+     * a corrupted snapshot cannot exhaust the memory.
+     */
+    private static final int MAX_LENGTH = 1 << 24;
+
+    /**
+     * Reads the document from the stream. The stream is not closed.
+     *
+     * @param stream input stream
+     * @return document
+     * @throws TransformationException if the stream does not contain
+     * a snapshot of a supported version
+     */
+    public BxDocument read(InputStream stream) throws TransformationException {
+        try {
+            DataInputStream header = new DataInputStream(stream);
+            if (header.readInt() != BxDocumentToSnapshotWriter.MAGIC) {
+                throw new TransformationException("Not a document snapshot");
+            }
+            int version = header.readUnsignedByte();
+            if (version != BxDocumentToSnapshotWriter.VERSION) {
+                throw new TransformationException("Unsupported document snapshot version: " + version);
+            }
+            DataInputStream input = new DataInputStream(new GZIPInputStream(stream, BUFFER_SIZE));
+            return new DocumentReader(input).readDocument();
+        } catch (EOFException ex) {
+            throw new TransformationException("Truncated document snapshot", ex);
+        } catch (IOException ex) {
+            throw new TransformationException("Cannot read document snapshot", ex);
+        } catch (IllegalArgumentException ex) {
+            throw new TransformationException("Corrupted document snapshot", ex);
+        } catch (IndexOutOfBoundsException ex) {
+            throw new TransformationException("Corrupted document snapshot", ex);
+        }
+    }
+
+    /**
+     * Reads the document from a byte array.
+     *
+     * @param snapshot document's snapshot
+     * @return document
+     * @throws TransformationException 
+     */
+    public BxDocument read(byte[] snapshot) throws TransformationException {
+        return read(new ByteArrayInputStream(snapshot));
+    }
+
+    private static class DocumentReader {
+
+        private final DataInputStream input;
+
+        private final List<String> strings = new ArrayList<String>();
+
+        private final List<BxFont> fonts = new ArrayList<BxFont>();
+
+        private final List<BxChunk> chunks = new ArrayList<BxChunk>();
+
+        public DocumentReader(DataInputStream input) {
+            this.input = input;
+        }
+
+        public BxDocument readDocument() throws IOException {
+            BxDocument document = new BxDocument();
+            document.setFilename(readString());
+            int pageCount = readLength();
+            for (int i = 0; i < pageCount; i++) {
+                BxPage page = new BxPage();
+                readObject(page);
+                String id = page.getId();
+                document.addPage(page);
+                page.setId(id);
+                for (BxChunk chunk : readChunks()) {
+                    page.addChunk(chunk);
+                }
+                int zoneCount = readLength();
+                for (int j = 0; j < zoneCount; j++) {
+                    page.addZone(readZone());
+                }
+            }
+            linkGenericImpl(document.asPages());
+            linkGenericImpl(document.asZones());
+            linkGenericImpl(document.asLines());
+            linkGenericImpl(document.asWords());
+            linkGenericImpl(document.asChunks());
+            return document;
+        }
+
+        private <A extends Indexable<A>> void linkGenericImpl(List<A> list) {
+            Map<String, A> indicesMap = new HashMap<String, A>();
+            for (A elem : list) {
+                if (elem.getId() != null) {
+                    indicesMap.put(elem.getId(), elem);
+                }
+            }
+            for (A elem : list) {
+                String nextId = elem.getNextId();
+                if (nextId == null || nextId.equals("-1")) {
+                    continue;
+                }
+                A next = indicesMap.get(nextId);
+                if (next == null) {
+                    throw new IllegalArgumentException("No matching element found for \"" + nextId + "\"");
+                }
+                elem.setNext(next);
+                next.setPrev(elem);
+            }
+        }
+
+        private BxZone readZone() throws IOException {
+            BxZone zone = new BxZone();
+            readObject(zone);
+            String label = readString();
+            if (label != null) {
+                zone.setLabel(BxZoneLabel.valueOf(label));
+            }
+            for (BxChunk chunk : readChunks()) {
+                zone.addChunk(chunk);
+            }
+            int lineCount = readLength();
+            for (int i = 0; i < lineCount; i++) {
+                BxLine line = new BxLine();
+                readObject(line);
+                int wordCount = readLength();
+                for (int j = 0; j < wordCount; j++) {
+                    BxWord word = new BxWord();
+                    readObject(word);
+                    for (BxChunk chunk : readChunks()) {
+                        word.addChunk(chunk);
+                    }
+                    line.addWord(word);
+                }
+                zone.addLine(line);
+            }
+            return zone;
+        }
+
+        private List<BxChunk> readChunks() throws IOException {
+            int chunkCount = readLength();
+            List<BxChunk> chunkList = new ArrayList<BxChunk>();
+            for (int i = 0; i < chunkCount; i++) {
+                int code = readVarInt();
+                if (code != BxDocumentToSnapshotWriter.NEW_CODE) {
+                    chunkList.add(chunks.get(code - BxDocumentToSnapshotWriter.FIRST_INDEX_CODE));
+                    continue;
+                }
+                BxBounds bounds = readBounds();
+                String id = readString();
+                String nextId = readString();
+                String text = readString();
+                BxFont font = readFont();
+                double fontSize = input.readDouble();
+                BxChunk chunk = new BxChunk(bounds, text, font, fontSize);
+                chunk.setId(id);
+                chunk.setNextId(nextId);
+                chunks.add(chunk);
+                chunkList.add(chunk);
+            }
+            return chunkList;
+        }
+
+        private void readObject(BxObject<?, ?> object) throws IOException {
+            object.setBounds(readBounds());
+            object.setId(readString());
+            object.setNextId(readString());
+        }
+
+        private BxBounds readBounds() throws IOException {
+            if (!input.readBoolean()) {
+                return null;
+            }
+            return new BxBounds(input.readDouble(), input.readDouble(), input.readDouble(), input.readDouble());
+        }
+
+        private String readString() throws IOException {
+            int code = readVarInt();
+            if (code == BxDocumentToSnapshotWriter.NULL_CODE) {
+                return null;
+            }
+            if (code != BxDocumentToSnapshotWriter.NEW_CODE) {
+                return strings.get(code - BxDocumentToSnapshotWriter.FIRST_INDEX_CODE);
+            }
+            byte[] bytes = new byte[readLength()];
+            input.readFully(bytes);
+            String string = new String(bytes, "UTF-8");
+            strings.add(string);
+            return string;
+        }
+
+        private BxFont readFont() throws IOException {
+            int code = readVarInt();
+            if (code == BxDocumentToSnapshotWriter.NULL_CODE) {
+                return null;
+            }
+            if (code != BxDocumentToSnapshotWriter.NEW_CODE) {
+                return fonts.get(code - BxDocumentToSnapshotWriter.FIRST_INDEX_CODE);
+            }
+            BxFont font = new BxFont(readString(), input.readBoolean(), input.readBoolean());
+            fonts.add(font);
+            return font;
+        }
+
+        private int readLength() throws IOException {
+            int length = readVarInt();
+            if (length > MAX_LENGTH) {
+                throw new IOException("Corrupted document snapshot: length " + length + " exceeds the limit");
+            }
+            return length;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = input.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value < 0) {
+                        throw new IOException("Corrupted document snapshot");
+                    }
+                    return value;
+                }
+            }
+            throw new IOException("Corrupted document snapshot");
+        }
+
+    }
+
+}
@@ -0,0 +1,105 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Message digest helpers used for computing the keys of the cached
+ * extraction results and document snapshots.
+ */
+public final class DigestUtils {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private DigestUtils() {}
+
+    /**
+     * Creates a message digest.
+     *
+     * @param algorithm digest algorithm, e.g. "SHA-1"
+     * @return message digest
+     * @throws IllegalStateException if the algorithm is not available
+     */
+    public static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(algorithm + " algorithm not available!", ex);
+        }
+    }
+
+    /**
+     * Updates the digest with a string, followed by a zero byte separating
+     * it from the subsequent data.
+     *
+     * @param digest message digest
+     * @param string string
+     */
+    public static void update(MessageDigest digest, String string) {
+        try {
+            digest.update(string.getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException("UTF-8 encoding not available!", ex);
+        }
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Updates the digest with the file's contents, reading the file in blocks.
+     *
+     * @param digest message digest
+     * @param file file
+     * @throws IOException if the file cannot be read
+     */
+    public static void update(MessageDigest digest, File file) throws IOException {
+        InputStream is = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = is.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Encodes the digest as a string of lowercase hexadecimal digits.
+     *
+     * @param digest digest
+     * @return hex-encoded digest
+     */
+    public static String toHex(byte[] digest) {
+        StringBuilder sb = new StringBuilder(2 * digest.length);
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+}
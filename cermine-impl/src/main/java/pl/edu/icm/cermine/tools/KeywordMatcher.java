@@ -0,0 +1,154 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton finding which of up to 64 keywords occur in a text.
+ * The text is scanned once, regardless of the number of keywords.
+ * Optionally the characters are compared case-insensitively
+ * (using Character.toLowerCase).
+ */
+public class KeywordMatcher {
+
+    public static final int MAX_KEYWORDS = 64;
+
+    private final List<Node> nodes = new ArrayList<Node>();
+
+    private final boolean ignoreCase;
+
+    /**
+     * @param keywords non-empty keywords; the keyword with index i corresponds
+     * to the bit i of the masks returned by {@link #match(CharSequence)}
+     * @param ignoreCase whether the case of the characters is ignored
+     */
+    public KeywordMatcher(List<String> keywords, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        if (keywords.size() > MAX_KEYWORDS) {
+            throw new IllegalArgumentException("Too many keywords: " + keywords.size());
+        }
+        nodes.add(new Node());
+        for (int i = 0; i < keywords.size(); i++) {
+            String keyword = keywords.get(i);
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword");
+            }
+            int node = 0;
+            for (int j = 0; j < keyword.length(); j++) {
+                char c = normalize(keyword.charAt(j));
+                int next = nodes.get(node).getChild(c);
+                if (next < 0) {
+                    next = nodes.size();
+                    nodes.add(new Node());
+                    nodes.get(node).addChild(c, next);
+                }
+                node = next;
+            }
+            nodes.get(node).output |= 1L << i;
+        }
+        buildFailureLinks();
+    }
+
+    private void buildFailureLinks() {
+        Queue<Integer> queue = new LinkedList<Integer>();
+        Node root = nodes.get(0);
+        for (int i = 0; i < root.size; i++) {
+            nodes.get(root.targets[i]).failure = 0;
+            queue.add(root.targets[i]);
+        }
+        while (!queue.isEmpty()) {
+            Node node = nodes.get(queue.poll());
+            for (int i = 0; i < node.size; i++) {
+                char label = node.labels[i];
+                Node child = nodes.get(node.targets[i]);
+                int failure = node.failure;
+                while (failure > 0 && nodes.get(failure).getChild(label) < 0) {
+                    failure = nodes.get(failure).failure;
+                }
+                int target = nodes.get(failure).getChild(label);
+                child.failure = target >= 0 ? target : 0;
+                child.output |= nodes.get(child.failure).output;
+                queue.add(node.targets[i]);
+            }
+        }
+    }
+
+    /**
+     * Finds the keywords occurring in the text.
+     *
+     * @param text text
+     * @return bit mask of the indices of the keywords found in the text
+     */
+    public long match(CharSequence text) {
+        long found = 0;
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i));
+            int next = nodes.get(node).getChild(c);
+            while (next < 0 && node > 0) {
+                node = nodes.get(node).failure;
+                next = nodes.get(node).getChild(c);
+            }
+            node = next < 0 ? 0 : next;
+            found |= nodes.get(node).output;
+        }
+        return found;
+    }
+
+    private char normalize(char c) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    private static class Node {
+
+        private char[] labels = new char[2];
+        private int[] targets = new int[2];
+        private int size;
+        private int failure;
+        private long output;
+
+        private int getChild(char label) {
+            for (int i = 0; i < size; i++) {
+                if (labels[i] == label) {
+                    return targets[i];
+                }
+            }
+            return -1;
+        }
+
+        private void addChild(char label, int target) {
+            if (size == labels.length) {
+                char[] newLabels = new char[2 * size];
+                System.arraycopy(labels, 0, newLabels, 0, size);
+                labels = newLabels;
+                int[] newTargets = new int[2 * size];
+                System.arraycopy(targets, 0, newTargets, 0, size);
+                targets = newTargets;
+            }
+            labels[size] = label;
+            targets[size] = target;
+            size++;
+        }
+    }
+
+}
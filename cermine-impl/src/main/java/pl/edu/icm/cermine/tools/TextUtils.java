@@ -0,0 +1,313 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools;
+
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled patterns and character class scanners used by the feature
+ * calculators, enhancers and extractors in place of String.matches(),
+ * String.split() and String.replaceAll(), which compile a new pattern on
+ * every call.
+ *
+ * The scanners follow the semantics of the regular expressions they replace:
+ * \d, \w and \p{Upper} denote ASCII characters only, \s denotes
+ * [ \t\n\x0B\f\r], and "." does not match line terminators, so a pattern
+ * such as ".*\d.*" matches only single-line texts.
+ */
+public final class TextUtils {
+
+    /** Single whitespace character, as in text.split("\\s") */
+    public static final Pattern WHITESPACE = Pattern.compile("\\s");
+
+    private TextUtils() {}
+
+    /**
+     * Checks whether the character is a line terminator, that is a character
+     * not matched by "." in a regular expression.
+     *
+     * @param c character
+     * @return true if the character is a line terminator
+     */
+    public static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Checks whether the character is matched by \s.
+     *
+     * @param c character
+     * @return true if the character is a whitespace
+     */
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    public static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public static boolean isUppercaseLetter(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    public static boolean isLowercaseLetter(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    public static boolean isLetter(char c) {
+        return isUppercaseLetter(c) || isLowercaseLetter(c);
+    }
+
+    /**
+     * Checks whether the character is matched by \w.
+     *
+     * @param c character
+     * @return true if the character is a word character
+     */
+    public static boolean isWordCharacter(char c) {
+        return isLetter(c) || isDigit(c) || c == '_';
+    }
+
+    /**
+     * Checks whether the text contains no line terminators, that is whether
+     * it can be matched by ".*".
+     *
+     * @param text text
+     * @return true if the text is a single line
+     */
+    public static boolean isSingleLine(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isLineTerminator(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivalent of text.matches("\\d").
+     *
+     * @param text text
+     * @return true if the text is a single digit
+     */
+    public static boolean isDigit(CharSequence text) {
+        return text.length() == 1 && isDigit(text.charAt(0));
+    }
+
+    /**
+     * Equivalent of text.matches("[A-Z]").
+     *
+     * @param text text
+     * @return true if the text is a single uppercase letter
+     */
+    public static boolean isUppercaseLetter(CharSequence text) {
+        return text.length() == 1 && isUppercaseLetter(text.charAt(0));
+    }
+
+    /**
+     * Equivalent of text.matches("[a-z]").
+     *
+     * @param text text
+     * @return true if the text is a single lowercase letter
+     */
+    public static boolean isLowercaseLetter(CharSequence text) {
+        return text.length() == 1 && isLowercaseLetter(text.charAt(0));
+    }
+
+    /**
+     * Equivalent of text.matches("\\d+").
+     *
+     * @param text text
+     * @return true if the text is a non-empty sequence of digits
+     */
+    public static boolean isNumber(CharSequence text) {
+        if (text.length() == 0) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!isDigit(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivalent of text.matches("\\s*").
+     *
+     * @param text text
+     * @return true if the text consists of whitespaces only
+     */
+    public static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the text contains a digit. Note that unlike
+     * text.matches(".*\\d.*") this does not check whether the text is
+     * a single line.
+     *
+     * @param text text
+     * @return true if the text contains a digit
+     */
+    public static boolean containsDigit(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isDigit(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the text contains an ASCII letter. Note that unlike
+     * text.matches(".*[a-zA-Z].*") this does not check whether the text is
+     * a single line.
+     *
+     * @param text text
+     * @return true if the text contains a letter
+     */
+    public static boolean containsLetter(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isLetter(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the text contains a character from the given range.
+     *
+     * @param text text
+     * @param first first character of the range
+     * @param last last character of the range, inclusive
+     * @return true if the text contains a character from the range
+     */
+    public static boolean containsCharacterInRange(CharSequence text, char first, char last) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= first && c <= last) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the text starts with an uppercase ASCII letter. Note that
+     * unlike text.matches("[A-Z].*") this does not check whether the text is
+     * a single line.
+     *
+     * @param text text
+     * @return true if the text starts with an uppercase letter
+     */
+    public static boolean startsWithUppercaseLetter(CharSequence text) {
+        return text.length() > 0 && isUppercaseLetter(text.charAt(0));
+    }
+
+    /**
+     * Equivalent of text.replaceAll("[^a-z]", "").
+     *
+     * @param text text
+     * @return lowercase ASCII letters of the text
+     */
+    public static String retainLowercaseLetters(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isLowercaseLetter(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Equivalent of text.replaceAll("[^0-9a-zA-Z]", "").
+     *
+     * @param text text
+     * @return ASCII letters and digits of the text
+     */
+    public static String retainLettersAndDigits(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isLetter(c) || isDigit(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Replaces the Latin ligatures U+FB00 - U+FB06 with their component
+     * letters.
+     *
+     * @param text text
+     * @return text without ligatures
+     */
+    public static String replaceLigatures(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = getLigatureReplacement(c);
+            if (replacement != null && sb == null) {
+                sb = new StringBuilder(text.length() + 8);
+                sb.append(text, 0, i);
+            }
+            if (sb != null) {
+                if (replacement == null) {
+                    sb.append(c);
+                } else {
+                    sb.append(replacement);
+                }
+            }
+        }
+        return sb == null ? text : sb.toString();
+    }
+
+    private static String getLigatureReplacement(char c) {
+        switch (c) {
+            case '\uFB00':
+                return "ff";
+            case '\uFB01':
+                return "fi";
+            case '\uFB02':
+                return "fl";
+            case '\uFB03':
+                return "ffi";
+            case '\uFB04':
+                return "ffl";
+            case '\uFB05':
+                return "ft";
+            case '\uFB06':
+                return "st";
+            default:
+                return null;
+        }
+    }
+
+}
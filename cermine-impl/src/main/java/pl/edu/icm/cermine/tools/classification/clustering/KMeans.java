@@ -0,0 +1,194 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.classification.clustering;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * K-means clustering of the rows of a dense matrix, using the Euclidean
+ * distance. The clusters' sums are updated incrementally, only for the rows
+ * that changed their clusters in a given iteration.
+ */
+public class KMeans {
+
+    private static final double CENTROID_CHANGE_THRESHOLD = 0.0001;
+
+    /**
+     * The maximum number of iterations.
+     */
+    private final int numberOfIterations;
+
+    /**
+     * Random generator used for placing the centroids of empty clusters.
+     */
+    private final Random random;
+
+    private double[][] centroids;
+
+    public KMeans() {
+        this(100);
+    }
+
+    public KMeans(int iterations) {
+        this(iterations, new Random(System.currentTimeMillis()));
+    }
+
+    public KMeans(int iterations, Random random) {
+        this.numberOfIterations = iterations;
+        this.random = random;
+    }
+
+    /**
+     * Clusters the rows of the matrix. The algorithm stops when the centroids
+     * no longer change or the maximum number of iterations is reached.
+     *
+     * @param data the instances, one row per instance
+     * @param initialCentroids the initial centroids, one row per cluster
+     * @return the cluster numbers of the instances
+     */
+    public int[] cluster(double[][] data, double[][] initialCentroids) {
+        if (data.length == 0) {
+            throw new IllegalArgumentException("The dataset should not be empty");
+        }
+        if (initialCentroids.length == 0) {
+            throw new IllegalArgumentException("There should be at least one cluster");
+        }
+        int clusterCount = initialCentroids.length;
+        int dimension = data[0].length;
+        centroids = new double[clusterCount][];
+        for (int c = 0; c < clusterCount; c++) {
+            centroids[c] = Arrays.copyOf(initialCentroids[c], dimension);
+        }
+
+        double[] min = Arrays.copyOf(data[0], dimension);
+        double[] max = Arrays.copyOf(data[0], dimension);
+        for (double[] instance : data) {
+            for (int j = 0; j < dimension; j++) {
+                min[j] = Math.min(min[j], instance[j]);
+                max[j] = Math.max(max[j], instance[j]);
+            }
+        }
+
+        int[] assignment = new int[data.length];
+        Arrays.fill(assignment, -1);
+        double[][] sums = new double[clusterCount][dimension];
+        int[] counts = new int[clusterCount];
+
+        int iterationCount = 0;
+        boolean centroidsChanged = true;
+        boolean randomCentroids = true;
+        while (randomCentroids || (iterationCount < numberOfIterations && centroidsChanged)) {
+            iterationCount++;
+            for (int i = 0; i < data.length; i++) {
+                int cluster = nearestCentroid(data[i]);
+                int previous = assignment[i];
+                if (cluster != previous) {
+                    if (previous >= 0) {
+                        counts[previous]--;
+                        if (counts[previous] == 0) {
+                            Arrays.fill(sums[previous], 0);
+                        } else {
+                            subtract(sums[previous], data[i]);
+                        }
+                    }
+                    add(sums[cluster], data[i]);
+                    counts[cluster]++;
+                    assignment[i] = cluster;
+                }
+            }
+
+            centroidsChanged = false;
+            randomCentroids = false;
+            for (int c = 0; c < clusterCount; c++) {
+                double[] centroid = new double[dimension];
+                if (counts[c] > 0) {
+                    for (int j = 0; j < dimension; j++) {
+                        centroid[j] = (float) sums[c][j] / counts[c];
+                    }
+                    double threshold = CENTROID_CHANGE_THRESHOLD * CENTROID_CHANGE_THRESHOLD;
+                    if (squaredDistance(centroid, centroids[c]) > threshold) {
+                        centroidsChanged = true;
+                        centroids[c] = centroid;
+                    }
+                } else {
+                    for (int j = 0; j < dimension; j++) {
+                        centroid[j] = (float) (min[j] + random.nextDouble() * Math.abs(max[j] - min[j]));
+                    }
+                    randomCentroids = true;
+                    centroids[c] = centroid;
+                }
+            }
+        }
+
+        for (int i = 0; i < data.length; i++) {
+            assignment[i] = nearestCentroid(data[i]);
+        }
+        return assignment;
+    }
+
+    /**
+     * @return the centroids computed by the most recent clustering
+     */
+    public double[][] getCentroids() {
+        return centroids;
+    }
+
+    private int nearestCentroid(double[] instance) {
+        int nearest = 0;
+        double minDistance = squaredDistance(centroids[0], instance);
+        for (int c = 1; c < centroids.length; c++) {
+            double distance = squaredDistance(centroids[c], instance);
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearest = c;
+            }
+        }
+        return nearest;
+    }
+
+    private static void add(double[] sum, double[] instance) {
+        for (int j = 0; j < sum.length; j++) {
+            sum[j] += instance[j];
+        }
+    }
+
+    private static void subtract(double[] sum, double[] instance) {
+        for (int j = 0; j < sum.length; j++) {
+            sum[j] -= instance[j];
+        }
+    }
+
+    /**
+     * Computes the square of the Euclidean distance between the vectors.
+     *
+     * @param vector1 vector
+     * @param vector2 vector
+     * @return squared distance
+     */
+    public static double squaredDistance(double[] vector1, double[] vector2) {
+        double sum = 0;
+        for (int i = 0; i < vector1.length; i++) {
+            double diff = vector1[i] - vector2[i];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+}
@@ -19,7 +19,9 @@
 package pl.edu.icm.cermine.tools.classification.features;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Feature vector builder (GoF factory pattern). The builder calculates feature
@@ -38,10 +40,41 @@ public class FeatureVectorBuilder<S, T> {
 	private List<FeatureCalculator<S, T>> featureCalculators = new ArrayList<FeatureCalculator<S, T>>();
 
 	public FeatureVector getFeatureVector(S object, T context) {
+		return getFeatureVector(object, context, null);
+	}
+
+	/**
+	 * Calculates the feature vector, skipping the features that are not
+	 * required. The value of a skipped feature is set to 0. A feature
+	 * calculator registered more than once is called only once.
+	 * 
+	 * @param object object
+	 * @param context context object
+	 * @param required flags of the features to calculate, indexed as the
+	 * feature calculators, or null if all features should be calculated
+	 * @return feature vector
+	 */
+	public FeatureVector getFeatureVector(S object, T context, boolean[] required) {
+		if (required != null && required.length != featureCalculators.size()) {
+			throw new IllegalArgumentException("Required features array has wrong size (got " 
+					+ required.length + ", expected " + featureCalculators.size() + ")");
+		}
 		FeatureVector featureVector = new FeatureVector();
-		for (FeatureCalculator<S, T> fc : featureCalculators) {
-			featureVector.addFeature(fc.getFeatureName(),
-					fc.calculateFeatureValue(object, context));
+		Map<String, Integer> calculated = new HashMap<String, Integer>();
+		for (int i = 0; i < featureCalculators.size(); i++) {
+			FeatureCalculator<S, T> fc = featureCalculators.get(i);
+			String name = fc.getFeatureName();
+			double value = 0;
+			if (required == null || required[i]) {
+				Integer previous = calculated.get(name);
+				if (previous != null && featureCalculators.get(previous).getClass() == fc.getClass()) {
+					value = featureVector.getValue(previous.intValue());
+				} else {
+					value = fc.calculateFeatureValue(object, context);
+					calculated.put(name, i);
+				}
+			}
+			featureVector.addFeature(name, value);
 		}
 		return featureVector;
 	}
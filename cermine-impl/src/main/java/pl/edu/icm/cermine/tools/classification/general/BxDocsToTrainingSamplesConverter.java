@@ -18,7 +18,9 @@
 
 package pl.edu.icm.cermine.tools.classification.general;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.metadata.zoneclassification.tools.ZoneClassificationUtils;
 import pl.edu.icm.cermine.structure.model.*;
@@ -38,40 +40,50 @@ public abstract class BxDocsToTrainingSamplesConverter {
         List<TrainingSample<BxZoneLabel>> trainingList = new ArrayList<TrainingSample<BxZoneLabel>>();
 
         while (documents.hasNext()) {
-            BxDocument doc  = documents.next();
-            if (labelMap != null) {
-                ZoneClassificationUtils.mapZoneLabels(doc, labelMap);
-            }
-
-            for (BxPage page : doc.getPages()) {
-                for (BxZone zone : page.getZones()) {
-                    FeatureVector featureVector = vectorBuilder.getFeatureVector(zone, page);
-                    TrainingSample<BxZoneLabel> element = new TrainingSample<BxZoneLabel>(featureVector, zone.getLabel());
-                    trainingList.add(element);
-                }
-            }
+            trainingList.addAll(getDocumentZoneSamples(documents.next(), vectorBuilder, labelMap));
         }
         return trainingList;
     }
     
-    public static List<TrainingSample<BxZoneLabel>> getZoneTrainingSamples(List<BxDocument> documents, 
-            FeatureVectorBuilder<BxZone, BxPage> vectorBuilder, Map<BxZoneLabel, BxZoneLabel> labelMap) throws AnalysisException {
-        List<TrainingSample<BxZoneLabel>> trainingList = new ArrayList<TrainingSample<BxZoneLabel>>(documents.size());
-        
-        for (BxDocument doc : documents) {
-            if (labelMap != null) {
-                ZoneClassificationUtils.mapZoneLabels(doc, labelMap);
-            }
+    /**
+     * Calculates zone training samples in parallel, document by document.
+     * Documents are read from the iterator in batches, so that only a limited
+     * number of them is kept in memory at the same time.
+     * 
+     * @param documents documents iterator
+     * @param vectorBuilder feature vector builder
+     * @param labelMap label map, can be null
+     * @param threadsNumber the number of threads used for calculation
+     * @param cache training samples cache, can be null
+     * @return training samples, in the order of the documents
+     * @throws AnalysisException 
+     */
+    public static List<TrainingSample<BxZoneLabel>> getZoneTrainingSamples(Iterator<BxDocument> documents, 
+            final FeatureVectorBuilder<BxZone, BxPage> vectorBuilder, final Map<BxZoneLabel, BxZoneLabel> labelMap,
+            int threadsNumber, final TrainingSamplesCache cache) throws AnalysisException {
+        return getTrainingSamples(documents, threadsNumber, new SamplesCalculator() {
 
-            for (BxPage page : doc.getPages()) {
-                for (BxZone zone : page.getZones()) {
-                    FeatureVector featureVector = vectorBuilder.getFeatureVector(zone, page);
-                    TrainingSample<BxZoneLabel> element = new TrainingSample<BxZoneLabel>(featureVector, zone.getLabel());
-                    trainingList.add(element);
-                }
+            @Override
+            public List<TrainingSample<BxZoneLabel>> calculate(BxDocument document) throws AnalysisException {
+                return getCachedSamples(ZONE_SAMPLES, document, vectorBuilder, labelMap, cache, this);
             }
-        }
-        return trainingList;
+            
+            @Override
+            public List<TrainingSample<BxZoneLabel>> calculateUncached(BxDocument document) throws AnalysisException {
+                return getDocumentZoneSamples(document, vectorBuilder, null);
+            }
+        });
+    }
+    
+    public static List<TrainingSample<BxZoneLabel>> getZoneTrainingSamples(List<BxDocument> documents, 
+            FeatureVectorBuilder<BxZone, BxPage> vectorBuilder, Map<BxZoneLabel, BxZoneLabel> labelMap) throws AnalysisException {
+        return getZoneTrainingSamples(documents.iterator(), vectorBuilder, labelMap);
+    }
+    
+    public static List<TrainingSample<BxZoneLabel>> getZoneTrainingSamples(List<BxDocument> documents, 
+            FeatureVectorBuilder<BxZone, BxPage> vectorBuilder, Map<BxZoneLabel, BxZoneLabel> labelMap,
+            int threadsNumber, TrainingSamplesCache cache) throws AnalysisException {
+        return getZoneTrainingSamples(documents.iterator(), vectorBuilder, labelMap, threadsNumber, cache);
     }
     
     public static List<TrainingSample<BxZoneLabel>> getZoneTrainingSamples(List<BxDocument> documents, 
@@ -94,23 +106,39 @@ public abstract class BxDocsToTrainingSamplesConverter {
         List<TrainingSample<BxZoneLabel>> trainingList = new ArrayList<TrainingSample<BxZoneLabel>>(documents.size());
        
         for (BxDocument doc : documents) {
-            if (labelMap != null) {
-                ZoneClassificationUtils.mapZoneLabels(doc, labelMap);
-            }
-
-            for (BxPage page : doc.getPages()) {
-                for (BxZone zone : page.getZones()) {
-                    for (BxLine line : zone.getLines()) {
-                        FeatureVector featureVector = vectorBuilder.getFeatureVector(line, page);
-                        TrainingSample<BxZoneLabel> element = new TrainingSample<BxZoneLabel>(featureVector, zone.getLabel());
-                        trainingList.add(element);
-                    }
-                }
-            }
+            trainingList.addAll(getDocumentLineSamples(doc, vectorBuilder, labelMap));
         }
         return trainingList;
     }
     
+    /**
+     * Calculates line training samples in parallel, document by document.
+     * 
+     * @param documents documents
+     * @param vectorBuilder feature vector builder
+     * @param labelMap label map, can be null
+     * @param threadsNumber the number of threads used for calculation
+     * @param cache training samples cache, can be null
+     * @return training samples, in the order of the documents
+     * @throws AnalysisException 
+     */
+    public static List<TrainingSample<BxZoneLabel>> getLineTrainingSamples(List<BxDocument> documents, 
+            final FeatureVectorBuilder<BxLine, BxPage> vectorBuilder, final Map<BxZoneLabel, BxZoneLabel> labelMap,
+            int threadsNumber, final TrainingSamplesCache cache) throws AnalysisException {
+        return getTrainingSamples(documents.iterator(), threadsNumber, new SamplesCalculator() {
+
+            @Override
+            public List<TrainingSample<BxZoneLabel>> calculate(BxDocument document) throws AnalysisException {
+                return getCachedSamples(LINE_SAMPLES, document, vectorBuilder, labelMap, cache, this);
+            }
+            
+            @Override
+            public List<TrainingSample<BxZoneLabel>> calculateUncached(BxDocument document) throws AnalysisException {
+                return getDocumentLineSamples(document, vectorBuilder, null);
+            }
+        });
+    }
+    
     public static List<TrainingSample<BxZoneLabel>> getLineTrainingSamples(List<BxDocument> documents, 
             FeatureVectorBuilder<BxLine, BxPage> vectorBuilder) throws AnalysisException {
         return getLineTrainingSamples(documents, vectorBuilder, null);
@@ -126,4 +154,110 @@ public abstract class BxDocsToTrainingSamplesConverter {
         return getLineTrainingSamples(Arrays.asList(document), vectorBuilder, null);
     }
     
+    private static final String ZONE_SAMPLES = "zone";
+    
+    private static final String LINE_SAMPLES = "line";
+    
+    private static final int DOCUMENTS_PER_THREAD = 4;
+    
+    private static List<TrainingSample<BxZoneLabel>> getDocumentZoneSamples(BxDocument doc, 
+            FeatureVectorBuilder<BxZone, BxPage> vectorBuilder, Map<BxZoneLabel, BxZoneLabel> labelMap) {
+        List<TrainingSample<BxZoneLabel>> trainingList = new ArrayList<TrainingSample<BxZoneLabel>>();
+        if (labelMap != null) {
+            ZoneClassificationUtils.mapZoneLabels(doc, labelMap);
+        }
+
+        for (BxPage page : doc.getPages()) {
+            for (BxZone zone : page.getZones()) {
+                FeatureVector featureVector = vectorBuilder.getFeatureVector(zone, page);
+                TrainingSample<BxZoneLabel> element = new TrainingSample<BxZoneLabel>(featureVector, zone.getLabel());
+                trainingList.add(element);
+            }
+        }
+        return trainingList;
+    }
+    
+    private static List<TrainingSample<BxZoneLabel>> getDocumentLineSamples(BxDocument doc, 
+            FeatureVectorBuilder<BxLine, BxPage> vectorBuilder, Map<BxZoneLabel, BxZoneLabel> labelMap) {
+        List<TrainingSample<BxZoneLabel>> trainingList = new ArrayList<TrainingSample<BxZoneLabel>>();
+        if (labelMap != null) {
+            ZoneClassificationUtils.mapZoneLabels(doc, labelMap);
+        }
+
+        for (BxPage page : doc.getPages()) {
+            for (BxZone zone : page.getZones()) {
+                for (BxLine line : zone.getLines()) {
+                    FeatureVector featureVector = vectorBuilder.getFeatureVector(line, page);
+                    TrainingSample<BxZoneLabel> element = new TrainingSample<BxZoneLabel>(featureVector, zone.getLabel());
+                    trainingList.add(element);
+                }
+            }
+        }
+        return trainingList;
+    }
+
+    private static <S> List<TrainingSample<BxZoneLabel>> getCachedSamples(String kind, BxDocument document,
+            FeatureVectorBuilder<S, BxPage> vectorBuilder, Map<BxZoneLabel, BxZoneLabel> labelMap,
+            TrainingSamplesCache cache, SamplesCalculator calculator) throws AnalysisException {
+        if (labelMap != null) {
+            ZoneClassificationUtils.mapZoneLabels(document, labelMap);
+        }
+        if (cache == null) {
+            return calculator.calculateUncached(document);
+        }
+        try {
+            List<TrainingSample<BxZoneLabel>> samples = cache.get(kind, document, vectorBuilder);
+            if (samples == null) {
+                samples = calculator.calculateUncached(document);
+                cache.put(kind, document, vectorBuilder, samples);
+            }
+            return samples;
+        } catch (IOException ex) {
+            throw new AnalysisException("Cannot access training samples cache!", ex);
+        }
+    }
+    
+    private static List<TrainingSample<BxZoneLabel>> getTrainingSamples(Iterator<BxDocument> documents, 
+            int threadsNumber, final SamplesCalculator calculator) throws AnalysisException {
+        List<TrainingSample<BxZoneLabel>> trainingList = new ArrayList<TrainingSample<BxZoneLabel>>();
+        
+        ExecutorService exec = Executors.newFixedThreadPool(threadsNumber);
+        try {
+            while (documents.hasNext()) {
+                List<Callable<List<TrainingSample<BxZoneLabel>>>> tasks = 
+                        new ArrayList<Callable<List<TrainingSample<BxZoneLabel>>>>();
+                while (documents.hasNext() && tasks.size() < threadsNumber * DOCUMENTS_PER_THREAD) {
+                    final BxDocument document = documents.next();
+                    if (document == null) {
+                        continue;
+                    }
+                    tasks.add(new Callable<List<TrainingSample<BxZoneLabel>>>() {
+
+                        @Override
+                        public List<TrainingSample<BxZoneLabel>> call() throws AnalysisException {
+                            return calculator.calculate(document);
+                        }
+                    });
+                }
+                for (Future<List<TrainingSample<BxZoneLabel>>> result : exec.invokeAll(tasks)) {
+                    trainingList.addAll(result.get());
+                }
+            }
+            return trainingList;
+        } catch (ExecutionException ex) {
+            throw new AnalysisException("Cannot calculate training samples!", ex);
+        } catch (InterruptedException ex) {
+            throw new AnalysisException("Cannot calculate training samples!", ex);
+        } finally {
+            exec.shutdown();
+        }
+    }
+    
+    private abstract static class SamplesCalculator {
+        
+        public abstract List<TrainingSample<BxZoneLabel>> calculate(BxDocument document) throws AnalysisException;
+        
+        public abstract List<TrainingSample<BxZoneLabel>> calculateUncached(BxDocument document) throws AnalysisException;
+    }
+    
 }
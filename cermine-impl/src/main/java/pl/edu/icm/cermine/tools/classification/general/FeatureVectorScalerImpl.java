@@ -91,6 +91,17 @@ public class FeatureVectorScalerImpl implements FeatureVectorScaler {
 		return limits;
 	}
 
+	/**
+	 * Checks whether the scaled value of the feature is constant, i.e.
+	 * it does not depend on the feature's value.
+	 * 
+	 * @param featureIdx feature index
+	 * @return true if the scaled value is constant
+	 */
+	public boolean isConstant(int featureIdx) {
+		return strategy instanceof LinearScaling && LinearScaling.isConstant(limits[featureIdx]);
+	}
+
     @Override
     public void saveRangeFile(String path) throws IOException {
         BufferedWriter fp_save = null;
@@ -22,10 +22,22 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureVector;
 
 public class LinearScaling implements ScalingStrategy {
 
+	private static final double EPS = 0.00001;
+
+	/**
+	 * Checks whether the feature has a constant range. The scaled value
+	 * of such a feature does not depend on the feature's value.
+	 * 
+	 * @param limits feature's limits
+	 * @return true if the range is constant
+	 */
+	public static boolean isConstant(FeatureLimits limits) {
+		return Math.abs(limits.getMax() - limits.getMin()) < EPS;
+	}
+
 	@Override
 	public FeatureVector scaleFeatureVector(double scaledLowerBound,
 			double scaledUpperBound, FeatureLimits[] limits, FeatureVector fv) {
-		final double EPS = 0.00001;
 		FeatureVector newVector = new FeatureVector();
 		
 		int featureIdx = 0;
@@ -33,7 +45,7 @@ public class LinearScaling implements ScalingStrategy {
 			//scaling function: y = a*x+b
 			// featureLower = a*v_min + b
 			// featureUpper = a*v_max + b
-			if(Math.abs(limits[featureIdx].getMax()-limits[featureIdx].getMin()) < EPS) {
+			if(isConstant(limits[featureIdx])) {
 				newVector.addFeature(name, 1.0);
 			} else {
 				Double featureValue = fv.getValue(name);
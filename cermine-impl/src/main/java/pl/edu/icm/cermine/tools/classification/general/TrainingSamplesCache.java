@@ -0,0 +1,256 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.classification.general;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
+import pl.edu.icm.cermine.tools.classification.features.FeatureVector;
+import pl.edu.icm.cermine.tools.classification.features.FeatureVectorBuilder;
+
+/**
+ * On-disk cache of training samples calculated for single documents.
+ *
+ * Samples are stored in a binary matrix file (one per document), placed in
+ * a subdirectory named after the feature vector builder's signature and named
+ * after the document's content hash. The file contains a small header,
+ * the labels' ordinals and the feature values as a dense row-major matrix
+ * of doubles, so it can be memory-mapped when read.
+ */
+public class TrainingSamplesCache {
+
+    private static final int MAGIC = 0x43464d31;
+
+    private static final String FILE_EXTENSION = ".fvm";
+
+    private static final int HEADER_SIZE = 12;
+
+    private static final int NO_LABEL = -1;
+
+    private final File directory;
+
+    public TrainingSamplesCache(File directory) {
+        this.directory = directory;
+    }
+
+    public TrainingSamplesCache(String directory) {
+        this(new File(directory));
+    }
+
+    /**
+     * Reads cached training samples.
+     *
+     * @param kind samples kind (e.g. "zone" or "line")
+     * @param document document
+     * @param vectorBuilder feature vector builder used to calculate the samples
+     * @return cached samples or null, if they are not present in the cache
+     * @throws IOException
+     */
+    public <S, T> List<TrainingSample<BxZoneLabel>> get(String kind, BxDocument document,
+            FeatureVectorBuilder<S, T> vectorBuilder) throws IOException {
+        File file = getFile(kind, document, vectorBuilder);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        List<String> names = vectorBuilder.getFeatureNames();
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            FileChannel channel = fis.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            int rows = buffer.getInt();
+            int cols = buffer.getInt();
+            if (cols != names.size()) {
+                return null;
+            }
+
+            IntBuffer labels = buffer.asIntBuffer();
+            buffer.position(HEADER_SIZE + rows * 4);
+            DoubleBuffer values = buffer.asDoubleBuffer();
+
+            BxZoneLabel[] allLabels = BxZoneLabel.values();
+            List<TrainingSample<BxZoneLabel>> samples = new ArrayList<TrainingSample<BxZoneLabel>>(rows);
+            for (int i = 0; i < rows; i++) {
+                FeatureVector vector = new FeatureVector();
+                for (int j = 0; j < cols; j++) {
+                    vector.addFeature(names.get(j), values.get(i * cols + j));
+                }
+                int label = labels.get(i);
+                samples.add(new TrainingSample<BxZoneLabel>(vector, label == NO_LABEL ? null : allLabels[label]));
+            }
+            return samples;
+        } finally {
+            fis.close();
+        }
+    }
+
+    /**
+     * Stores training samples calculated for a document.
+     *
+     * @param kind samples kind (e.g. "zone" or "line")
+     * @param document document
+     * @param vectorBuilder feature vector builder used to calculate the samples
+     * @param samples samples
+     * @throws IOException
+     */
+    public <S, T> void put(String kind, BxDocument document, FeatureVectorBuilder<S, T> vectorBuilder,
+            List<TrainingSample<BxZoneLabel>> samples) throws IOException {
+        File file = getFile(kind, document, vectorBuilder);
+        File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create cache directory: " + parent.getPath());
+        }
+
+        int rows = samples.size();
+        int cols = vectorBuilder.size();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + rows * 4 + rows * cols * 8);
+        buffer.putInt(MAGIC);
+        buffer.putInt(rows);
+        buffer.putInt(cols);
+        for (TrainingSample<BxZoneLabel> sample : samples) {
+            buffer.putInt(sample.getLabel() == null ? NO_LABEL : sample.getLabel().ordinal());
+        }
+        for (TrainingSample<BxZoneLabel> sample : samples) {
+            for (double value : sample.getFeatureVector().getValues()) {
+                buffer.putDouble(value);
+            }
+        }
+        buffer.flip();
+
+        File tmpFile = new File(parent, file.getName() + ".tmp" + Thread.currentThread().getId());
+        FileOutputStream fos = new FileOutputStream(tmpFile);
+        try {
+            FileChannel channel = fos.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            fos.close();
+        }
+        if (!tmpFile.renameTo(file)) {
+            file.delete();
+            if (!tmpFile.renameTo(file)) {
+                tmpFile.delete();
+                throw new IOException("Cannot store cache file: " + file.getPath());
+            }
+        }
+    }
+
+    private <S, T> File getFile(String kind, BxDocument document, FeatureVectorBuilder<S, T> vectorBuilder) {
+        File builderDir = new File(directory, getBuilderSignature(vectorBuilder));
+        return new File(builderDir, getDocumentHash(document) + "." + kind + FILE_EXTENSION);
+    }
+
+    /**
+     * Calculates the signature of a feature vector builder, based on the names
+     * and classes of its feature calculators.
+     *
+     * @param vectorBuilder feature vector builder
+     * @return hex-encoded signature
+     */
+    public static <S, T> String getBuilderSignature(FeatureVectorBuilder<S, T> vectorBuilder) {
+        MessageDigest digest = getDigest();
+        for (FeatureCalculator<S, T> calculator : vectorBuilder.getFeatureCalculators()) {
+            update(digest, calculator.getClass().getName());
+            update(digest, calculator.getFeatureName());
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Calculates the hash of a document's content, including the text, bounds
+     * and labels of all the zones.
+     *
+     * @param document document
+     * @return hex-encoded hash
+     */
+    public static String getDocumentHash(BxDocument document) {
+        MessageDigest digest = getDigest();
+        for (BxPage page : document.getPages()) {
+            update(digest, page.getBounds());
+            for (BxZone zone : page.getZones()) {
+                update(digest, zone.getLabel() == null ? "" : zone.getLabel().name());
+                update(digest, zone.getBounds());
+                for (BxLine line : zone.getLines()) {
+                    update(digest, line.getBounds());
+                    for (BxWord word : line.getWords()) {
+                        update(digest, word.getBounds());
+                        for (BxChunk chunk : word.getChunks()) {
+                            update(digest, chunk.getBounds());
+                            update(digest, chunk.toText());
+                        }
+                    }
+                }
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("MD5 algorithm not available!", ex);
+        }
+    }
+
+    private static void update(MessageDigest digest, String text) {
+        try {
+            digest.update(text == null ? new byte[0] : text.getBytes("UTF-8"));
+            digest.update((byte) 0);
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException("UTF-8 encoding not available!", ex);
+        }
+    }
+
+    private static void update(MessageDigest digest, BxBounds bounds) {
+        if (bounds == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        buffer.putDouble(bounds.getX());
+        buffer.putDouble(bounds.getY());
+        buffer.putDouble(bounds.getWidth());
+        buffer.putDouble(bounds.getHeight());
+        digest.update(buffer.array());
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+}
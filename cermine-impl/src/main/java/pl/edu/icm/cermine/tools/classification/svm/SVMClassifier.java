@@ -22,6 +22,7 @@ import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -74,6 +75,10 @@ public abstract class SVMClassifier<S, T, E extends Enum<E>> {
 	protected svm_problem problem;
 	protected svm_model model;
 	
+	/** flags of the features the model's predictions depend on */
+	protected boolean[] requiredFeatures;
+	protected boolean featurePruning = true;
+	
 	protected Class<E> enumClassObj;
 	
 	public SVMClassifier(FeatureVectorBuilder<S, T> featureVectorBuilder, Class<E> enumClassObj) {
@@ -92,7 +97,7 @@ public abstract class SVMClassifier<S, T, E extends Enum<E>> {
 		param = getDefaultParam();
 	}
 	
-	protected static svm_parameter clone(svm_parameter param) {
+	public static svm_parameter clone(svm_parameter param) {
 		svm_parameter ret = new svm_parameter();
 		// default values
 		ret.svm_type = param.svm_type;
@@ -118,10 +123,37 @@ public abstract class SVMClassifier<S, T, E extends Enum<E>> {
 	}
 	
 	public void buildClassifier(List<TrainingSample<E>> trainingElements) {
+		buildProblem(trainingElements);
+		train();
+	}
+	
+	/**
+	 * Calculates the scaling limits and the scaled training problem, without
+	 * training the model.
+	 * 
+	 * @param trainingElements training samples
+	 */
+	public void buildProblem(List<TrainingSample<E>> trainingElements) {
 		assert trainingElements.size() > 0;
 		scaler.calculateFeatureLimits(trainingElements);
 		problem = buildDatasetForTraining(trainingElements);
+	}
+	
+	/**
+	 * Reuses the scaler and the training problem of another classifier. 
+	 * The problem is only read during training, so it can be shared between
+	 * classifiers trained concurrently with different parameters.
+	 * 
+	 * @param classifier classifier with already built problem
+	 */
+	public void shareProblem(SVMClassifier<S, T, E> classifier) {
+		this.scaler = classifier.scaler;
+		this.problem = classifier.problem;
+	}
+	
+	public void train() {
 		model = libsvm.svm.svm_train(problem, param);
+		requiredFeatures = findRequiredFeatures();
 	}
 	
 	public E predictLabel(S object, T context) {
@@ -186,7 +218,60 @@ public abstract class SVMClassifier<S, T, E extends Enum<E>> {
 	}
 	
 	protected svm_node[] buildDatasetForClassification(S object, T context)	{
-		return buildDatasetForClassification(featureVectorBuilder.getFeatureVector(object, context));
+		boolean[] required = featurePruning ? requiredFeatures : null;
+		return buildDatasetForClassification(featureVectorBuilder.getFeatureVector(object, context, required));
+	}
+
+	/**
+	 * Finds the features the predictions of the model depend on. A feature
+	 * is not required if its scaled value is constant, or if the kernel is
+	 * based on the dot product and the feature's value is zero in all
+	 * support vectors.
+	 * 
+	 * @return flags of the required features
+	 */
+	protected boolean[] findRequiredFeatures() {
+		int size = featureVectorBuilder.size();
+		boolean[] required = new boolean[size];
+		int kernel = model.param.kernel_type;
+		boolean dotKernel = kernel == svm_parameter.LINEAR || kernel == svm_parameter.POLY
+				|| kernel == svm_parameter.SIGMOID;
+		if (dotKernel) {
+			for (svm_node[] vector : model.SV) {
+				for (svm_node node : vector) {
+					if (node.index >= 0 && node.index < size && node.value != 0) {
+						required[node.index] = true;
+					}
+				}
+			}
+		} else {
+			Arrays.fill(required, true);
+		}
+		if (scaler instanceof FeatureVectorScalerImpl) {
+			FeatureVectorScalerImpl lScaler = (FeatureVectorScalerImpl) scaler;
+			for (int i = 0; i < size; i++) {
+				if (lScaler.isConstant(i)) {
+					required[i] = false;
+				}
+			}
+		}
+		return required;
+	}
+
+	/**
+	 * Returns the flags of the features the predictions of the loaded model
+	 * depend on. The values of the remaining features are not calculated
+	 * during classification, unless the feature pruning is disabled.
+	 * 
+	 * @return flags of the required features, indexed as the feature
+	 * calculators
+	 */
+	public boolean[] getRequiredFeatures() {
+		return requiredFeatures == null ? null : requiredFeatures.clone();
+	}
+
+	public void setFeaturePruning(boolean featurePruning) {
+		this.featurePruning = featurePruning;
 	}
 
 	public double[] getWeights() {
@@ -229,6 +314,65 @@ public abstract class SVMClassifier<S, T, E extends Enum<E>> {
 		return weights;
 	}
 
+	/**
+	 * Restricts the classifier to the features listed in the file, such as
+	 * the ".features" file written by SVMFeatureAnalysis together with
+	 * a pruned model. The features are selected from the classifier's feature
+	 * vector builder, so the mask has to be loaded before the pruned model.
+	 * The names are matched with the feature calculators by position: a feature
+	 * registered more than once has to be listed once per kept copy.
+	 * 
+	 * @param featuresFile reader of the feature names, one per line
+	 * @throws IOException 
+	 */
+	public void loadFeatureMask(BufferedReader featuresFile) throws IOException {
+		List<String> names = featureVectorBuilder.getFeatureNames();
+		boolean[] kept = new boolean[names.size()];
+		int next = 0;
+		String line;
+		while ((line = featuresFile.readLine()) != null) {
+			String name = line.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			int index = findFeature(names, kept, name, next);
+			if (index < 0) {
+				throw new IllegalArgumentException("Supplied .features file contains unknown feature: " + name);
+			}
+			kept[index] = true;
+			next = index + 1;
+		}
+		featureVectorBuilder = SVMFeatureAnalysis.selectFeatures(featureVectorBuilder, kept);
+		featuresNames = featureVectorBuilder.getFeatureNames().toArray(new String[0]);
+		FeatureVectorScalerImpl lScaler = new FeatureVectorScalerImpl(featureVectorBuilder.size(), 0.0, 1.0);
+		lScaler.setStrategy(new LinearScaling());
+		scaler = lScaler;
+		requiredFeatures = null;
+	}
+
+	/**
+	 * Finds the first feature of the given name, which is not used yet,
+	 * starting at the given position.
+	 */
+	private static int findFeature(List<String> names, boolean[] used, String name, int from) {
+		for (int i = 0; i < names.size(); i++) {
+			int index = (from + i) % names.size();
+			if (!used[index] && names.get(index).equals(name)) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	public void loadFeatureMask(String featuresFilePath) throws IOException {
+		BufferedReader featuresFile = new BufferedReader(new InputStreamReader(new FileInputStream(featuresFilePath)));
+		try {
+			loadFeatureMask(featuresFile);
+		} finally {
+			featuresFile.close();
+		}
+	}
+
 	public void loadModelFromResources(String modelFilePath, String rangeFilePath) throws IOException {
 		InputStreamReader modelISR = new InputStreamReader(this.getClass().getResourceAsStream(modelFilePath));
 		BufferedReader modelFile = new BufferedReader(modelISR);
@@ -264,6 +408,7 @@ public abstract class SVMClassifier<S, T, E extends Enum<E>> {
 		}
 
 		this.model = svm.svm_load_model(modelFile);
+		this.requiredFeatures = findRequiredFeatures();
 	}
 
 	public void saveModel(String modelPath) throws IOException {
@@ -0,0 +1,320 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.classification.svm;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import libsvm.svm_parameter;
+import org.apache.commons.cli.*;
+import org.apache.commons.io.FileUtils;
+import pl.edu.icm.cermine.evaluation.tools.EvaluationUtils;
+import pl.edu.icm.cermine.evaluation.tools.PenaltyCalculator;
+import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.SVMInitialZoneClassifier;
+import pl.edu.icm.cermine.structure.SVMMetadataZoneClassifier;
+import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
+import pl.edu.icm.cermine.tools.classification.features.FeatureVector;
+import pl.edu.icm.cermine.tools.classification.features.FeatureVectorBuilder;
+import pl.edu.icm.cermine.tools.classification.general.BxDocsToTrainingSamplesConverter;
+import pl.edu.icm.cermine.tools.classification.general.ClassificationUtils;
+import pl.edu.icm.cermine.tools.classification.general.TrainingSample;
+
+/**
+ * Measures the calculation cost and the importance of the features of a zone
+ * classifier and estimates the accuracy change caused by removing
+ * the features that are expensive and contribute little to the model.
+ *
+ * The importance of a feature is the absolute weight of the feature
+ * in the loaded model. The features the model does not depend on at all
+ * (see {@link SVMClassifier#getRequiredFeatures()}) are not calculated during
+ * classification anyway. The pruned model is retrained on the first half
+ * of the documents and compared to the model with all the features trained
+ * on the same data, both evaluated on the second half.
+ *
+ * A pruned model saved with the "-output" option is loaded by a classifier
+ * with the full feature vector builder by calling
+ * {@link SVMClassifier#loadFeatureMask(String)} with the ".features" file
+ * before loading the model.
+ */
+public class SVMFeatureAnalysis {
+
+    private final FeatureVectorBuilder<BxZone, BxPage> vectorBuilder;
+    private final long[] costs;
+    private final double[] importances;
+    private final boolean[] required;
+    private int zoneCount;
+
+    public SVMFeatureAnalysis(SVMZoneClassifier classifier) {
+        this.vectorBuilder = classifier.featureVectorBuilder;
+        int size = vectorBuilder.size();
+        this.costs = new long[size];
+        this.importances = new double[size];
+        this.required = classifier.getRequiredFeatures();
+        double[] weights = classifier.getWeights();
+        for (int i = 0; i < size && i < weights.length; i++) {
+            importances[i] = Math.abs(weights[i]);
+        }
+    }
+
+    /**
+     * Calculates all the features of all the zones of the document
+     * and adds the calculation times to the features' costs.
+     *
+     * @param document document
+     */
+    public void measureCosts(BxDocument document) {
+        List<FeatureCalculator<BxZone, BxPage>> calculators = vectorBuilder.getFeatureCalculators();
+        for (BxZone zone : document.asZones()) {
+            for (int i = 0; i < calculators.size(); i++) {
+                long start = System.nanoTime();
+                calculators.get(i).calculateFeatureValue(zone, zone.getParent());
+                costs[i] += System.nanoTime() - start;
+            }
+            zoneCount++;
+        }
+    }
+
+    /**
+     * @param index feature index
+     * @return mean calculation time per zone in nanoseconds
+     */
+    public double getCost(int index) {
+        return zoneCount == 0 ? 0 : (double) costs[index] / zoneCount;
+    }
+
+    public double getImportance(int index) {
+        return importances[index];
+    }
+
+    public boolean isRequired(int index) {
+        return required == null || required[index];
+    }
+
+    /**
+     * Selects the features to remove: the features the model does not depend
+     * on and the given number of the required features with the lowest
+     * importance to cost ratio.
+     *
+     * @param count number of required features to remove
+     * @return flags of the features kept
+     */
+    public boolean[] selectFeatures(int count) {
+        int size = vectorBuilder.size();
+        boolean[] kept = new boolean[size];
+        List<Integer> candidates = new ArrayList<Integer>();
+        for (int i = 0; i < size; i++) {
+            kept[i] = isRequired(i);
+            if (kept[i]) {
+                candidates.add(i);
+            }
+        }
+        Collections.sort(candidates, new Comparator<Integer>() {
+
+            @Override
+            public int compare(Integer i1, Integer i2) {
+                return Double.compare(getImportance(i1) / (getCost(i1) + 1), getImportance(i2) / (getCost(i2) + 1));
+            }
+        });
+        for (int i = 0; i < count && i < candidates.size(); i++) {
+            kept[candidates.get(i)] = false;
+        }
+        return kept;
+    }
+
+    public void printFeatures() {
+        List<String> names = vectorBuilder.getFeatureNames();
+        System.out.println(String.format("%3s %-40s %12s %12s %s", "#", "feature", "cost [ns]", "importance", "required"));
+        for (int i = 0; i < names.size(); i++) {
+            System.out.println(String.format("%3d %-40s %12.1f %12.5f %s", i, names.get(i), getCost(i),
+                    getImportance(i), isRequired(i)));
+        }
+    }
+
+    /**
+     * Creates a feature vector builder using the selected features only.
+     *
+     * @param builder feature vector builder
+     * @param kept flags of the selected features
+     * @return feature vector builder
+     */
+    public static <S, T> FeatureVectorBuilder<S, T> selectFeatures(FeatureVectorBuilder<S, T> builder, boolean[] kept) {
+        List<FeatureCalculator<S, T>> calculators = new ArrayList<FeatureCalculator<S, T>>();
+        for (int i = 0; i < builder.size(); i++) {
+            if (kept[i]) {
+                calculators.add(builder.getFeatureCalculators().get(i));
+            }
+        }
+        FeatureVectorBuilder<S, T> selected = new FeatureVectorBuilder<S, T>();
+        selected.setFeatureCalculators(calculators);
+        return selected;
+    }
+
+    /**
+     * Creates training samples using the selected features only.
+     *
+     * @param samples training samples
+     * @param kept flags of the selected features
+     * @return training samples
+     */
+    public static <E> List<TrainingSample<E>> selectFeatures(List<TrainingSample<E>> samples, boolean[] kept) {
+        List<TrainingSample<E>> selected = new ArrayList<TrainingSample<E>>(samples.size());
+        for (TrainingSample<E> sample : samples) {
+            FeatureVector vector = sample.getFeatureVector();
+            FeatureVector selectedVector = new FeatureVector();
+            for (int i = 0; i < vector.size(); i++) {
+                if (kept[i]) {
+                    selectedVector.addFeature(vector.getFeatureNames().get(i), vector.getValue(i));
+                }
+            }
+            selected.add(new TrainingSample<E>(selectedVector, sample.getLabel()));
+        }
+        return selected;
+    }
+
+    private static SVMZoneClassifier train(FeatureVectorBuilder<BxZone, BxPage> builder,
+            List<TrainingSample<BxZoneLabel>> samples, svm_parameter modelParam, double C) {
+        PenaltyCalculator pc = new PenaltyCalculator(samples);
+        int[] intClasses = new int[pc.getClasses().size()];
+        double[] classesWeights = new double[pc.getClasses().size()];
+        int labelIdx = 0;
+        for (BxZoneLabel label : pc.getClasses()) {
+            intClasses[labelIdx] = label.ordinal();
+            classesWeights[labelIdx] = pc.getPenaltyWeigth(label);
+            ++labelIdx;
+        }
+
+        svm_parameter param = SVMZoneClassifier.getDefaultParam();
+        param.kernel_type = modelParam.kernel_type;
+        param.degree = modelParam.degree;
+        param.gamma = modelParam.gamma;
+        param.coef0 = modelParam.coef0;
+        param.C = C;
+        param.weight_label = intClasses;
+        param.weight = classesWeights;
+
+        SVMZoneClassifier classifier = new SVMZoneClassifier(builder);
+        classifier.setParameter(param);
+        classifier.buildClassifier(samples);
+        return classifier;
+    }
+
+    private static double getAccuracy(SVMZoneClassifier classifier, List<TrainingSample<BxZoneLabel>> samples) {
+        int correct = 0;
+        for (TrainingSample<BxZoneLabel> sample : samples) {
+            if (classifier.predictLabel(sample) == sample.getLabel()) {
+                correct++;
+            }
+        }
+        return samples.isEmpty() ? 0 : (double) correct / samples.size();
+    }
+
+    private static List<TrainingSample<BxZoneLabel>> getSamples(List<BxDocument> documents, boolean metadata,
+            FeatureVectorBuilder<BxZone, BxPage> builder) throws AnalysisException {
+        if (metadata) {
+            List<TrainingSample<BxZoneLabel>> samples = BxDocsToTrainingSamplesConverter.getZoneTrainingSamples(
+                    documents, builder, BxZoneLabel.getIdentityMap());
+            return ClassificationUtils.filterElements(samples, BxZoneLabelCategory.CAT_METADATA);
+        } else {
+            return BxDocsToTrainingSamplesConverter.getZoneTrainingSamples(
+                    documents, builder, BxZoneLabel.getLabelToGeneralMap());
+        }
+    }
+
+    public static void main(String[] args) throws ParseException, AnalysisException, IOException, TransformationException {
+        Options options = new Options();
+        options.addOption("input", true, "input directory with TrueViz documents");
+        options.addOption("metadata", false, "analyse the metadata zone classifier instead of the initial one");
+        options.addOption("model", true, "model path (the range file path is the model path followed by \".range\")");
+        options.addOption("prune", true, "number of required features to remove");
+        options.addOption("C", true, "C used for retraining");
+        options.addOption("output", true, "pruned model output path (the names of the kept features are saved "
+                + "to the model path followed by \".features\")");
+
+        CommandLineParser parser = new GnuParser();
+        CommandLine line = parser.parse(options, args);
+        if (!line.hasOption("input")) {
+            System.err.println("Usage: SVMFeatureAnalysis -input input_directory [-metadata] [-model model_file] "
+                    + "[-prune n [-C c] [-output output_model_file]]");
+            System.exit(1);
+        }
+        boolean metadata = line.hasOption("metadata");
+        String model = line.getOptionValue("model");
+
+        SVMZoneClassifier classifier;
+        if (metadata) {
+            classifier = model == null ? new SVMMetadataZoneClassifier() : new SVMMetadataZoneClassifier(model, model + ".range");
+        } else {
+            classifier = model == null ? new SVMInitialZoneClassifier() : new SVMInitialZoneClassifier(model, model + ".range");
+        }
+        FeatureVectorBuilder<BxZone, BxPage> builder = classifier.featureVectorBuilder;
+
+        List<BxDocument> documents = EvaluationUtils.getDocumentsFromPath(line.getOptionValue("input"));
+        SVMFeatureAnalysis analysis = new SVMFeatureAnalysis(classifier);
+        for (BxDocument document : documents) {
+            analysis.measureCosts(document);
+        }
+        analysis.printFeatures();
+
+        if (!line.hasOption("prune")) {
+            return;
+        }
+        boolean[] kept = analysis.selectFeatures(Integer.parseInt(line.getOptionValue("prune")));
+        double fullCost = 0;
+        double prunedCost = 0;
+        for (int i = 0; i < kept.length; i++) {
+            fullCost += analysis.getCost(i);
+            if (kept[i]) {
+                prunedCost += analysis.getCost(i);
+            } else {
+                System.out.println("Removed feature: " + builder.getFeatureNames().get(i));
+            }
+        }
+
+        List<BxDocument> trainingDocuments = documents.subList(0, documents.size() / 2);
+        List<BxDocument> testDocuments = documents.subList(documents.size() / 2, documents.size());
+        List<TrainingSample<BxZoneLabel>> trainingSamples = getSamples(trainingDocuments, metadata, builder);
+        List<TrainingSample<BxZoneLabel>> testSamples = getSamples(testDocuments, metadata, builder);
+        if (trainingSamples.isEmpty() || testSamples.isEmpty()) {
+            System.err.println("Not enough documents to retrain the model");
+            System.exit(1);
+        }
+
+        double C = line.hasOption("C") ? Double.parseDouble(line.getOptionValue("C")) : SVMZoneClassifier.getDefaultParam().C;
+        svm_parameter modelParam = classifier.model.param;
+        FeatureVectorBuilder<BxZone, BxPage> prunedBuilder = selectFeatures(builder, kept);
+        SVMZoneClassifier full = train(builder, trainingSamples, modelParam, C);
+        SVMZoneClassifier pruned = train(prunedBuilder, selectFeatures(trainingSamples, kept), modelParam, C);
+
+        double fullAccuracy = getAccuracy(full, testSamples);
+        double prunedAccuracy = getAccuracy(pruned, selectFeatures(testSamples, kept));
+        System.out.println(String.format("Features: %d -> %d", builder.size(), prunedBuilder.size()));
+        System.out.println(String.format("Feature cost per zone [ns]: %.1f -> %.1f", fullCost, prunedCost));
+        System.out.println(String.format("Accuracy: %.4f -> %.4f (delta %.4f)", fullAccuracy, prunedAccuracy,
+                prunedAccuracy - fullAccuracy));
+
+        if (line.hasOption("output")) {
+            pruned.saveModel(line.getOptionValue("output"));
+            FileUtils.writeLines(new File(line.getOptionValue("output") + ".features"), prunedBuilder.getFeatureNames());
+        }
+    }
+
+}
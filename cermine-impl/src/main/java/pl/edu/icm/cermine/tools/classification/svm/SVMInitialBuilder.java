@@ -33,6 +33,7 @@ import pl.edu.icm.cermine.structure.model.BxZoneLabel;
 import pl.edu.icm.cermine.tools.classification.features.FeatureVectorBuilder;
 import pl.edu.icm.cermine.tools.classification.general.BxDocsToTrainingSamplesConverter;
 import pl.edu.icm.cermine.tools.classification.general.TrainingSample;
+import pl.edu.icm.cermine.tools.classification.general.TrainingSamplesCache;
 
 public class SVMInitialBuilder {
 
@@ -79,11 +80,13 @@ public class SVMInitialBuilder {
         options.addOption("g", true, "gamma");
         options.addOption("C", true, "C");
         options.addOption("degree", true, "degree");
+        options.addOption("threads", true, "number of threads used for feature calculation");
+        options.addOption("cache", true, "training samples cache directory");
 
         CommandLineParser parser = new GnuParser();
         CommandLine line = parser.parse(options, args);
         if (!(line.hasOption("input") && line.hasOption("output") && line.hasOption("kernel") && line.hasOption("g") && line.hasOption("C") )) {
-            System.err.println("Usage: SVMInitialBuilder -input input_directory -output output_model_file -kernel K -gamma G -C c [-degree d]");
+            System.err.println("Usage: SVMInitialBuilder -input input_directory -output output_model_file -kernel K -gamma G -C c [-degree d] [-threads t] [-cache cache_directory]");
             System.exit(1);
         }
         Double C = Double.valueOf(line.getOptionValue("C"));
@@ -96,6 +99,14 @@ public class SVMInitialBuilder {
         if (degreeStr != null && !degreeStr.isEmpty()) {
         	degree = Integer.valueOf(degreeStr);
         }
+        int threadsNumber = Runtime.getRuntime().availableProcessors();
+        if (line.hasOption("threads")) {
+            threadsNumber = Integer.parseInt(line.getOptionValue("threads"));
+        }
+        TrainingSamplesCache cache = null;
+        if (line.hasOption("cache")) {
+            cache = new TrainingSamplesCache(line.getOptionValue("cache"));
+        }
         Integer kernelType;
         switch(Integer.valueOf(line.getOptionValue("kernel"))) {
         	case 0: kernelType = svm_parameter.LINEAR; break;
@@ -115,7 +126,7 @@ public class SVMInitialBuilder {
             FeatureVectorBuilder<BxZone, BxPage> featureVectorBuilder = SVMInitialZoneClassifier.getFeatureVectorBuilder();
             List<TrainingSample<BxZoneLabel>> trainingSamples =
                 BxDocsToTrainingSamplesConverter.getZoneTrainingSamples(it.iterator(), featureVectorBuilder,
-                    BxZoneLabel.getLabelToGeneralMap());
+                    BxZoneLabel.getLabelToGeneralMap(), threadsNumber, cache);
             SVMZoneClassifier classifier = getZoneClassifier(trainingSamples, kernelType, gamma, C, degree);
             classifier.saveModel(outFile);
         } else {
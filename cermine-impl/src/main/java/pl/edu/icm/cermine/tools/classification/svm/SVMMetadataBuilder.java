@@ -35,6 +35,7 @@ import pl.edu.icm.cermine.tools.classification.features.FeatureVectorBuilder;
 import pl.edu.icm.cermine.tools.classification.general.BxDocsToTrainingSamplesConverter;
 import pl.edu.icm.cermine.tools.classification.general.ClassificationUtils;
 import pl.edu.icm.cermine.tools.classification.general.TrainingSample;
+import pl.edu.icm.cermine.tools.classification.general.TrainingSamplesCache;
 
 
 public class SVMMetadataBuilder {
@@ -81,11 +82,13 @@ public class SVMMetadataBuilder {
         options.addOption("g", true, "gamma");
         options.addOption("C", true, "C");
         options.addOption("degree", true, "degree");
+        options.addOption("threads", true, "number of threads used for feature calculation");
+        options.addOption("cache", true, "training samples cache directory");
 
         CommandLineParser parser = new GnuParser();
         CommandLine line = parser.parse(options, args);
         if (!(line.hasOption("input") && line.hasOption("output") && line.hasOption("kernel") && line.hasOption("g") && line.hasOption("C") )) {
-            System.err.println("Usage: SVMMetadataBuilder -input input_directory -output output_model_file -kernel K -gamma G -C c [-degree d]");
+            System.err.println("Usage: SVMMetadataBuilder -input input_directory -output output_model_file -kernel K -gamma G -C c [-degree d] [-threads t] [-cache cache_directory]");
             System.exit(1);
         }
 
@@ -98,6 +101,14 @@ public class SVMMetadataBuilder {
         if (degreeStr != null && !degreeStr.isEmpty()) {
         	degree = Integer.valueOf(degreeStr);
         }
+        int threadsNumber = Runtime.getRuntime().availableProcessors();
+        if (line.hasOption("threads")) {
+            threadsNumber = Integer.parseInt(line.getOptionValue("threads"));
+        }
+        TrainingSamplesCache cache = null;
+        if (line.hasOption("cache")) {
+            cache = new TrainingSamplesCache(line.getOptionValue("cache"));
+        }
         Integer kernelType;
         switch(Integer.valueOf(line.getOptionValue("kernel"))) {
         	case 0: kernelType = svm_parameter.LINEAR; break;
@@ -118,7 +129,7 @@ public class SVMMetadataBuilder {
             DocumentsIterator it = new DocumentsIterator(inDir);
             FeatureVectorBuilder<BxZone, BxPage> featureVectorBuilder = SVMMetadataZoneClassifier.getFeatureVectorBuilder();
             trainingSamples = BxDocsToTrainingSamplesConverter.getZoneTrainingSamples(it.iterator(), featureVectorBuilder,
-                    BxZoneLabel.getIdentityMap());
+                    BxZoneLabel.getIdentityMap(), threadsNumber, cache);
         } else {
             trainingSamples = SVMZoneClassifier.loadProblem(inDir, SVMMetadataZoneClassifier.getFeatureVectorBuilder());
         }
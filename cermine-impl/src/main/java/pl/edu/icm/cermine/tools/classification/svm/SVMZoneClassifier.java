@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
 import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.metadata.zoneclassification.tools.ZoneTextStatistics;
 import pl.edu.icm.cermine.structure.ZoneClassifier;
 import pl.edu.icm.cermine.structure.model.BxDocument;
 import pl.edu.icm.cermine.structure.model.BxPage;
@@ -40,10 +41,14 @@ public class SVMZoneClassifier extends SVMClassifier<BxZone, BxPage, BxZoneLabel
 
 	@Override
 	public BxDocument classifyZones(BxDocument document) throws AnalysisException {
-    	for (BxZone zone: document.asZones()) {
-    		BxZoneLabel predicted = predictLabel(zone, zone.getParent());
-			zone.setLabel(predicted);
-		}
+        try {
+            for (BxZone zone: document.asZones()) {
+                BxZoneLabel predicted = predictLabel(zone, zone.getParent());
+                zone.setLabel(predicted);
+            }
+        } finally {
+            ZoneTextStatistics.clearCache();
+        }
 		return document;
 	}
 	
@@ -0,0 +1,225 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Collects the extraction pipeline's metrics: wall time, CPU time and
+ * allocated bytes of the processing stages, and the numbers of processed
+ * objects. Each metric is aggregated into a histogram.
+ *
+ * The collection is disabled by default (it can be enabled with
+ * the "cermine.metrics" system property) and then costs a single volatile
+ * read per stage.
+ */
+public final class ExtractionMetrics {
+
+    public static final String OBJECT_NAME = "pl.edu.icm.cermine:type=ExtractionMetrics";
+
+    private static volatile boolean enabled = Boolean.getBoolean("cermine.metrics");
+
+    private static final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    /** com.sun.management.ThreadMXBean.getThreadAllocatedBytes, if available */
+    private static final Method allocatedBytesMethod = getAllocatedBytesMethod();
+
+    private static final Stage DISABLED_STAGE = new Stage(null);
+
+    private ExtractionMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        ExtractionMetrics.enabled = enabled;
+    }
+
+    /**
+     * Starts measuring a processing stage in the current thread.
+     *
+     * @param name stage name
+     * @return the stage, which has to be stopped in the same thread
+     */
+    public static Stage startStage(String name) {
+        if (!enabled) {
+            return DISABLED_STAGE;
+        }
+        return new Stage(name);
+    }
+
+    /**
+     * Records the number of objects processed by a single extraction.
+     *
+     * @param name object type
+     * @param value number of objects
+     */
+    public static void count(String name, long value) {
+        if (enabled) {
+            getHistogram("count." + name).record(value);
+        }
+    }
+
+    /**
+     * Returns the snapshot of the collected metrics. For every histogram
+     * the number of the recorded values, their sum, mean, maximum
+     * and percentiles are given.
+     *
+     * @return metric name to value map, sorted by names
+     */
+    public static Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new TreeMap<String, Number>();
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            String name = entry.getKey();
+            Histogram histogram = entry.getValue();
+            metrics.put(name + ".count", histogram.getCount());
+            metrics.put(name + ".sum", histogram.getSum());
+            metrics.put(name + ".mean", histogram.getMean());
+            metrics.put(name + ".max", histogram.getMax());
+            metrics.put(name + ".p50", histogram.getPercentile(0.5));
+            metrics.put(name + ".p90", histogram.getPercentile(0.9));
+            metrics.put(name + ".p99", histogram.getPercentile(0.99));
+        }
+        return metrics;
+    }
+
+    public static Histogram getHistogram(String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            Histogram newHistogram = new Histogram();
+            histogram = histograms.putIfAbsent(name, newHistogram);
+            if (histogram == null) {
+                histogram = newHistogram;
+            }
+        }
+        return histogram;
+    }
+
+    public static void reset() {
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, unless they are
+     * already registered.
+     *
+     * @throws JMException
+     */
+    public static synchronized void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(new ExtractionMetricsBean(), name);
+        }
+    }
+
+    private static long getCpuTime() {
+        if (threadBean.isCurrentThreadCpuTimeSupported()) {
+            return threadBean.getCurrentThreadCpuTime();
+        }
+        return -1;
+    }
+
+    private static long getAllocatedBytes() {
+        if (allocatedBytesMethod == null) {
+            return -1;
+        }
+        try {
+            return (Long) allocatedBytesMethod.invoke(threadBean, Thread.currentThread().getId());
+        } catch (Exception ex) {
+            return -1;
+        }
+    }
+
+    private static Method getAllocatedBytesMethod() {
+        try {
+            Class<?> sunBean = Class.forName("com.sun.management.ThreadMXBean");
+            if (!sunBean.isInstance(threadBean)) {
+                return null;
+            }
+            Method method = sunBean.getMethod("getThreadAllocatedBytes", long.class);
+            method.setAccessible(true);
+            method.invoke(threadBean, Thread.currentThread().getId());
+            return method;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    /**
+     * A single measurement of a processing stage.
+     */
+    public static final class Stage {
+
+        private final String name;
+        private final long wallStart;
+        private final long cpuStart;
+        private final long allocatedStart;
+
+        private Stage(String name) {
+            this.name = name;
+            if (name == null) {
+                wallStart = cpuStart = allocatedStart = 0;
+            } else {
+                wallStart = System.nanoTime();
+                cpuStart = getCpuTime();
+                allocatedStart = getAllocatedBytes();
+            }
+        }
+
+        /**
+         * Stops the measurement and records the stage's wall time, CPU time
+         * (in microseconds) and allocated bytes.
+         */
+        public void stop() {
+            if (name == null) {
+                return;
+            }
+            getHistogram("stage." + name + ".wallMicros").record((System.nanoTime() - wallStart) / 1000);
+            if (cpuStart >= 0) {
+                long cpuEnd = getCpuTime();
+                if (cpuEnd >= 0) {
+                    getHistogram("stage." + name + ".cpuMicros").record((cpuEnd - cpuStart) / 1000);
+                }
+            }
+            if (allocatedStart >= 0) {
+                long allocatedEnd = getAllocatedBytes();
+                if (allocatedEnd >= 0) {
+                    getHistogram("stage." + name + ".allocatedBytes").record(allocatedEnd - allocatedStart);
+                }
+            }
+        }
+    }
+
+}
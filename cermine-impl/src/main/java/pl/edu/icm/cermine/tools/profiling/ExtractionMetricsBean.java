@@ -0,0 +1,112 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.profiling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.management.*;
+
+/**
+ * Dynamic MBean exposing every extraction metric as a read-only attribute.
+ * The "Enabled" attribute switches the collection on and off and
+ * the "reset" operation clears the collected values.
+ */
+public class ExtractionMetricsBean implements DynamicMBean {
+
+    private static final String ENABLED = "Enabled";
+    private static final String RESET = "reset";
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        if (ENABLED.equals(attribute)) {
+            return ExtractionMetrics.isEnabled();
+        }
+        Number value = ExtractionMetrics.getMetrics().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException, InvalidAttributeValueException {
+        if (!ENABLED.equals(attribute.getName())) {
+            throw new AttributeNotFoundException(attribute.getName());
+        }
+        if (!(attribute.getValue() instanceof Boolean)) {
+            throw new InvalidAttributeValueException(String.valueOf(attribute.getValue()));
+        }
+        ExtractionMetrics.setEnabled((Boolean) attribute.getValue());
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Number> metrics = ExtractionMetrics.getMetrics();
+        AttributeList list = new AttributeList();
+        for (String name : attributes) {
+            if (ENABLED.equals(name)) {
+                list.add(new Attribute(name, ExtractionMetrics.isEnabled()));
+            } else if (metrics.containsKey(name)) {
+                list.add(new Attribute(name, metrics.get(name)));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        AttributeList set = new AttributeList();
+        for (Object object : attributes) {
+            Attribute attribute = (Attribute) object;
+            try {
+                setAttribute(attribute);
+                set.add(attribute);
+            } catch (JMException ex) {
+            }
+        }
+        return set;
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if (RESET.equals(actionName)) {
+            ExtractionMetrics.reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+        attributes.add(new MBeanAttributeInfo(ENABLED, "boolean", "Whether the metrics are collected",
+                true, true, true));
+        for (Map.Entry<String, Number> metric : ExtractionMetrics.getMetrics().entrySet()) {
+            attributes.add(new MBeanAttributeInfo(metric.getKey(), metric.getValue().getClass().getName(),
+                    metric.getKey(), true, false, false));
+        }
+        MBeanOperationInfo reset = new MBeanOperationInfo(RESET, "Clears the collected metrics",
+                new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+        return new MBeanInfo(getClass().getName(), "CERMINE extraction metrics",
+                attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null,
+                new MBeanOperationInfo[]{reset}, null);
+    }
+
+}
@@ -18,21 +18,28 @@
 
 package pl.edu.icm.cermine;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import org.apache.commons.io.FileUtils;
 import org.custommonkey.xmlunit.Diff;
-import org.jdom.Document;
 import org.jdom.Element;
 import org.jdom.JDOMException;
 import org.jdom.input.SAXBuilder;
 import org.jdom.output.Format;
 import org.jdom.output.XMLOutputter;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
 import org.xml.sax.SAXException;
+import pl.edu.icm.cermine.article.model.Article;
+import pl.edu.icm.cermine.article.transformers.ArticleToJSONWriter;
+import pl.edu.icm.cermine.article.transformers.NLMElementToArticleConverter;
 import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.exception.TransformationException;
 
 /**
  *
@@ -41,6 +48,7 @@ import pl.edu.icm.cermine.exception.AnalysisException;
 public class PdfNLMContentExtractorTest {
     static final private String TEST_FILE = "/pl/edu/icm/cermine/test2.pdf";
     static final private String EXP_FILE = "/pl/edu/icm/cermine/test2-cont.xml";
+    static final private String[] TEST_FILES = {"/pl/edu/icm/cermine/test1.pdf", TEST_FILE};
     
     private DocumentContentExtractor<Element> extractor;
     
@@ -59,20 +67,106 @@ public class PdfNLMContentExtractorTest {
             testStream.close();
         }
         
+        Element expContent = readExpectedContent();
+        
+        XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
+        Diff diff = new Diff(outputter.outputString(expContent), outputter.outputString(testContent));
+        assertTrue(diff.similar());
+    }
+    
+    @Test
+    public void commandLineOutputTest() throws Exception {
+        File directory = File.createTempFile("nlm-output", "");
+        assertTrue(directory.delete());
+        assertTrue(directory.mkdir());
+        try {
+            for (String testFile : TEST_FILES) {
+                InputStream testStream = this.getClass().getResourceAsStream(testFile);
+                try {
+                    FileUtils.copyInputStreamToFile(testStream, new File(directory, new File(testFile).getName()));
+                } finally {
+                    testStream.close();
+                }
+            }
+            PdfNLMContentExtractor.main(new String[]{directory.getPath()});
+            
+            XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
+            for (String testFile : TEST_FILES) {
+                String name = new File(testFile).getName().replaceAll("pdf$", "cermxml");
+                String output = FileUtils.readFileToString(new File(directory, name));
+                assertEquals(outputter.outputString(extractContent(extractor, testFile)), output);
+            }
+            
+            String output = FileUtils.readFileToString(new File(directory, "test2.cermxml"));
+            Diff diff = new Diff(outputter.outputString(readExpectedContent()), output);
+            assertTrue(diff.similar());
+        } finally {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+    
+    @Test
+    public void articleExtractionTest() throws AnalysisException, IOException, TransformationException {
+        PdfNLMContentExtractor articleExtractor = new PdfNLMContentExtractor();
+        NLMElementToArticleConverter converter = new NLMElementToArticleConverter();
+        ArticleToJSONWriter jsonWriter = new ArticleToJSONWriter();
+        for (String testFile : TEST_FILES) {
+            InputStream testStream = this.getClass().getResourceAsStream(testFile);
+            Article article;
+            try {
+                article = articleExtractor.extractArticle(testStream);
+            } finally {
+                testStream.close();
+            }
+            Element testContent = extractContent(articleExtractor, testFile);
+            assertEquals(jsonWriter.write(converter.convert(testContent)), jsonWriter.write(article));
+        }
+    }
+    
+    @Test
+    public void metadataProfileTest() throws AnalysisException, IOException {
+        Element testContent = extractContent(new PdfNLMContentExtractor(ExtractionProfile.METADATA));
+        
+        assertEquals("Patient Experiences of Structured Heart Failure Programmes", 
+                testContent.getChild("front").getChild("article-meta").getChild("title-group")
+                        .getChildText("article-title"));
+        assertTrue(testContent.getChild("body").getChildren().isEmpty());
+        assertTrue(testContent.getChild("back").getChild("ref-list").getChildren().isEmpty());
+    }
+    
+    @Test
+    public void referencesProfileTest() throws AnalysisException, IOException {
+        Element testContent = extractContent(new PdfNLMContentExtractor(ExtractionProfile.REFERENCES));
+        
+        assertTrue(testContent.getChild("front").getChildren().isEmpty());
+        assertTrue(testContent.getChild("body").getChildren().isEmpty());
+        assertFalse(testContent.getChild("back").getChild("ref-list").getChildren().isEmpty());
+    }
+    
+    private Element extractContent(DocumentContentExtractor<Element> profileExtractor) 
+            throws AnalysisException, IOException {
+        return extractContent(profileExtractor, TEST_FILE);
+    }
+    
+    private Element extractContent(DocumentContentExtractor<Element> profileExtractor, String testFile) 
+            throws AnalysisException, IOException {
+        InputStream testStream = this.getClass().getResourceAsStream(testFile);
+        try {
+            return profileExtractor.extractContent(testStream);
+        } finally {
+            testStream.close();
+        }
+    }
+    
+    private Element readExpectedContent() throws JDOMException, IOException {
         InputStream expStream = this.getClass().getResourceAsStream(EXP_FILE);
         InputStreamReader expReader = new InputStreamReader(expStream);
         SAXBuilder saxBuilder = new SAXBuilder("org.apache.xerces.parsers.SAXParser");
-        Document dom;
         try {
-            dom = saxBuilder.build(expReader);
+            return saxBuilder.build(expReader).getRootElement();
         } finally {
             expStream.close();
             expReader.close();
         }
-        Element expContent = dom.getRootElement();
-        
-        XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
-        Diff diff = new Diff(outputter.outputString(expContent), outputter.outputString(testContent));
-        assertTrue(diff.similar());
     }
 }
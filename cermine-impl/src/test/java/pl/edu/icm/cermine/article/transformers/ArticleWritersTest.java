@@ -0,0 +1,145 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.custommonkey.xmlunit.Diff;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+import pl.edu.icm.cermine.StandardDataExamples;
+import pl.edu.icm.cermine.article.model.*;
+import pl.edu.icm.cermine.article.model.ArticleReference.Field;
+import pl.edu.icm.cermine.article.model.ArticleReference.FieldType;
+import pl.edu.icm.cermine.bibref.model.BibEntry;
+import pl.edu.icm.cermine.content.model.DocumentContentStructure;
+import pl.edu.icm.cermine.content.transformers.DocContentStructToHTMLWriter;
+import pl.edu.icm.cermine.content.transformers.HTMLToDocContentStructReader;
+import pl.edu.icm.cermine.exception.TransformationException;
+
+public class ArticleWritersTest {
+
+    private List<ArticleReference> references;
+    private List<Element> elements;
+
+    @Before
+    public void setUp() throws JDOMException, IOException, TransformationException {
+        references = new BibEntryToArticleReferenceConverter().convertAll(StandardDataExamples.getReferencesAsBibEntry());
+        elements = StandardDataExamples.getReferencesAsNLMElement();
+    }
+
+    @Test
+    public void testConvertReferences() {
+        NLMElementToArticleConverter converter = new NLMElementToArticleConverter();
+        assertEquals(elements.size(), references.size());
+        for (int i = 0; i < elements.size(); i++) {
+            assertSameReference(converter.convertReference(elements.get(i)), references.get(i));
+        }
+        ArticleReference reference = references.get(0);
+        assertEquals("Hoeffding", reference.getFields(FieldType.AUTHOR).get(0).getFirstPartValue(FieldType.SURNAME));
+        assertEquals("13", reference.getFirstFieldValue(FieldType.FIRST_PAGE));
+        assertEquals("30", reference.getFirstFieldValue(FieldType.LAST_PAGE));
+    }
+
+    @Test
+    public void testInvalidReference() throws TransformationException {
+        BibEntry entry = new BibEntry(BibEntry.TYPE_ARTICLE)
+                .setText("A. Author, Title")
+                .addField(BibEntry.FIELD_TITLE, "Title", 11, 16)
+                .addField(BibEntry.FIELD_YEAR, "Title", 12, 30);
+        ArticleReference reference = new BibEntryToArticleReferenceConverter().convert(entry);
+        assertEquals(1, reference.getFields().size());
+        assertEquals("Title", reference.getFirstFieldValue(FieldType.TITLE));
+
+        try {
+            new ArticleReference("abc", Arrays.asList(new Field(FieldType.TITLE, "abc", 1, 3),
+                    new Field(FieldType.YEAR, "abc", 0, 2)));
+            fail("Overlapping fields accepted");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    @Test
+    public void testJSONWriter() throws TransformationException {
+        ArticleFront front = new ArticleFront.Builder().setTitle("A \"title\"\n").setVolume("5").build();
+        List<ArticleSection> sections = Arrays.asList(
+                new ArticleSection("Intro", Arrays.asList("p\\1"), new ArrayList<ArticleSection>()));
+        List<ArticleReference> refs = Arrays.asList(
+                new ArticleReference("1963.", Arrays.asList(new Field(FieldType.YEAR, "1963.", 0, 4))));
+
+        String json = new ArticleToJSONWriter().write(new Article(front, sections, refs));
+        assertEquals("{\"front\":{\"articleIds\":[],\"title\":\"A \\\"title\\\"\\n\",\"contributors\":[],"
+                + "\"volume\":\"5\",\"historyDates\":[],\"keywords\":[]},"
+                + "\"sections\":[{\"title\":\"Intro\",\"paragraphs\":[\"p\\\\1\"],\"sections\":[]}],"
+                + "\"references\":[{\"text\":\"1963.\",\"fields\":[{\"type\":\"YEAR\",\"start\":0,\"end\":4,\"value\":\"1963\"}]}]}",
+                json);
+    }
+
+    @Test
+    public void testHTMLWriter() throws TransformationException, IOException, SAXException {
+        DocumentContentStructure structure = new HTMLToDocContentStructReader().read(new InputStreamReader(
+                this.getClass().getResourceAsStream("/pl/edu/icm/cermine/content/model/model.xml"), "UTF-8"));
+        String expectedHTML = new DocContentStructToHTMLWriter().write(structure);
+
+        List<ArticleSection> sections = new DocContentStructToArticleSectionsConverter().convert(structure);
+        String html = new ArticleToHTMLWriter().write(
+                new Article(new ArticleFront.Builder().build(), sections, new ArrayList<ArticleReference>()));
+
+        XMLUnit.setIgnoreWhitespace(true);
+        Diff diff = new Diff(expectedHTML, html);
+        assertTrue(diff.toString(), diff.similar());
+    }
+
+    @Test
+    public void testWriteAll() throws TransformationException {
+        Article first = new Article(new ArticleFront.Builder().setTitle("First").build(),
+                new ArrayList<ArticleSection>(), new ArrayList<ArticleReference>());
+        Article second = new Article(new ArticleFront.Builder().setTitle("Second").build(),
+                new ArrayList<ArticleSection>(), references);
+        ArticleToJSONWriter writer = new ArticleToJSONWriter();
+
+        String all = writer.writeAll(Arrays.asList(first, second));
+        assertEquals(writer.write(first) + "\n" + writer.write(second) + "\n", all);
+        assertEquals("", writer.writeAll(new ArrayList<Article>()));
+    }
+
+    private static void assertSameReference(ArticleReference expected, ArticleReference actual) {
+        assertEquals(expected.getText(), actual.getText());
+        assertSameFields(expected.getFields(), actual.getFields());
+    }
+
+    private static void assertSameFields(List<Field> expected, List<Field> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getType(), actual.get(i).getType());
+            assertEquals(expected.get(i).getStartIndex(), actual.get(i).getStartIndex());
+            assertEquals(expected.get(i).getEndIndex(), actual.get(i).getEndIndex());
+            assertSameFields(expected.get(i).getParts(), actual.get(i).getParts());
+        }
+    }
+
+}
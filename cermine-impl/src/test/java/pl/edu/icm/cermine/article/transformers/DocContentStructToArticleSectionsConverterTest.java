@@ -0,0 +1,89 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import pl.edu.icm.cermine.article.model.ArticleSection;
+import pl.edu.icm.cermine.content.model.DocumentContentStructure;
+import pl.edu.icm.cermine.content.model.DocumentHeader;
+import pl.edu.icm.cermine.content.model.DocumentParagraph;
+import pl.edu.icm.cermine.exception.TransformationException;
+
+public class DocContentStructToArticleSectionsConverterTest {
+
+    private DocContentStructToArticleSectionsConverter converter = new DocContentStructToArticleSectionsConverter();
+
+    @Test
+    public void testConvert() throws TransformationException {
+        DocumentContentStructure root = new DocumentContentStructure();
+        root.addParagraph(new DocumentParagraph("Preamble", root));
+
+        DocumentContentStructure intro = part(root, "1. Introduction ", "  Text\n");
+        part(intro, "1.1 Details", "More", "Even more");
+
+        DocumentContentStructure methods = part(root, "2. Methods", "Methods");
+        DocumentContentStructure unnamed = new DocumentContentStructure();
+        methods.addPart(unnamed);
+        part(unnamed, "Setup", "Machines");
+
+        List<ArticleSection> sections = converter.convert(root);
+        assertEquals(2, sections.size());
+
+        ArticleSection section = sections.get(0);
+        assertEquals("1. Introduction", section.getTitle());
+        assertEquals(Arrays.asList("Text"), section.getParagraphs());
+        assertEquals(1, section.getSections().size());
+        assertEquals("1.1 Details", section.getSections().get(0).getTitle());
+        assertEquals(Arrays.asList("More", "Even more"), section.getSections().get(0).getParagraphs());
+        assertTrue(section.getSections().get(0).getSections().isEmpty());
+
+        section = sections.get(1);
+        assertEquals("2. Methods", section.getTitle());
+        assertEquals(1, section.getSections().size());
+        assertEquals("Setup", section.getSections().get(0).getTitle());
+        assertEquals(Arrays.asList("Machines"), section.getSections().get(0).getParagraphs());
+    }
+
+    @Test
+    public void testConvertAll() throws TransformationException {
+        DocumentContentStructure first = new DocumentContentStructure();
+        part(first, "Introduction", "Text");
+        DocumentContentStructure empty = new DocumentContentStructure();
+
+        List<List<ArticleSection>> sections = converter.convertAll(Arrays.asList(first, empty));
+        assertEquals(2, sections.size());
+        assertEquals("Introduction", sections.get(0).get(0).getTitle());
+        assertTrue(sections.get(1).isEmpty());
+    }
+
+    private static DocumentContentStructure part(DocumentContentStructure parent, String header,
+            String... paragraphs) {
+        DocumentContentStructure part = new DocumentContentStructure();
+        part.setHeader(new DocumentHeader(1, header, part));
+        for (String paragraph : paragraphs) {
+            part.addParagraph(new DocumentParagraph(paragraph, part));
+        }
+        parent.addPart(part);
+        return part;
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.article.transformers;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.input.SAXBuilder;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import pl.edu.icm.cermine.article.model.*;
+
+public class NLMElementToArticleConverterTest {
+
+    private static final String FRONT =
+              "<front>"
+            + "<journal-meta>"
+            + "<journal-title-group><journal-title>Annals</journal-title></journal-title-group>"
+            + "<issn pub-type=\"epub\">1777-5310</issn>"
+            + "<issn pub-type=\"ppub\"> 0373-0956 </issn>"
+            + "<publisher><publisher-name>Publisher</publisher-name></publisher>"
+            + "</journal-meta>"
+            + "<article-meta>"
+            + "<article-id pub-id-type=\"doi\">10.1000/1</article-id>"
+            + "<title-group><article-title>Title</article-title></title-group>"
+            + "<contrib-group>"
+            + "<contrib contrib-type=\"author\"><name><surname>Smith</surname><given-names>John</given-names></name>"
+            + "<aff> Univ </aff><email>js@univ.edu</email></contrib>"
+            + "<contrib contrib-type=\"editor\"><string-name>A. Editor</string-name></contrib>"
+            + "<contrib contrib-type=\"editor\"><name><surname>Other</surname></name></contrib>"
+            + "</contrib-group>"
+            + "<pub-date><month>5</month><year>2007</year></pub-date>"
+            + "<volume>57</volume><issue>3</issue><fpage>703</fpage><lpage>718</lpage>"
+            + "<history>"
+            + "<date date-type=\"received\"><day>25</day><month>07</month><year>2005</year></date>"
+            + "<date date-type=\"accepted\"><day>20</day><month>02</month><year>2006</year></date>"
+            + "</history>"
+            + "<abstract><p>Some <italic>abstract</italic> text. </p></abstract>"
+            + "<kwd-group kwd-group-type=\"msc\"><kwd>32A99</kwd></kwd-group>"
+            + "<kwd-group><kwd> extension </kwd><kwd>denominators</kwd></kwd-group>"
+            + "</article-meta>"
+            + "</front>";
+
+    @Test
+    public void testConvertFront() throws JDOMException, IOException {
+        Element element = new SAXBuilder().build(new StringReader(FRONT)).getRootElement();
+        ArticleFront front = new NLMElementToArticleConverter().convertFront(element);
+
+        assertEquals("Annals", front.getJournalTitle());
+        assertEquals("0373-0956", front.getJournalIssn());
+        assertEquals("Publisher", front.getPublisher());
+        assertEquals("10.1000/1", front.getArticleId(ArticleId.TYPE_DOI));
+        assertNull(front.getArticleId(ArticleId.TYPE_URN));
+        assertEquals("Title", front.getTitle());
+        assertEquals("57", front.getVolume());
+        assertEquals("3", front.getIssue());
+        assertEquals("703", front.getFirstPage());
+        assertEquals("718", front.getLastPage());
+        assertEquals("Some abstract text.", front.getAbstractText());
+        assertEquals(Arrays.asList("32A99", "extension", "denominators"), front.getKeywords());
+
+        assertEquals(3, front.getContributors().size());
+        ArticleContributor author = front.getContributors(ArticleContributor.TYPE_AUTHOR).get(0);
+        assertNull(author.getName());
+        assertEquals("Smith", author.getSurname());
+        assertEquals("John", author.getGivenNames());
+        assertEquals(Arrays.asList("Univ"), author.getAffiliations());
+        assertEquals(Arrays.asList("js@univ.edu"), author.getEmails());
+        assertEquals(2, front.getContributors(ArticleContributor.TYPE_EDITOR).size());
+        ArticleContributor editor = front.getContributors(ArticleContributor.TYPE_EDITOR).get(0);
+        assertEquals("A. Editor", editor.getName());
+        assertTrue(editor.getAffiliations().isEmpty());
+        editor = front.getContributors(ArticleContributor.TYPE_EDITOR).get(1);
+        assertEquals("Other", editor.getSurname());
+        assertNull(editor.getGivenNames());
+
+        ArticleDate date = front.getPublicationDate();
+        assertNull(date.getType());
+        assertNull(date.getDay());
+        assertEquals("5", date.getMonth());
+        assertEquals("2007", date.getYear());
+        assertEquals(2, front.getHistoryDates().size());
+        date = front.getHistoryDate(ArticleDate.TYPE_RECEIVED);
+        assertEquals("25", date.getDay());
+        assertEquals("07", date.getMonth());
+        assertEquals("2005", date.getYear());
+        assertEquals("2006", front.getHistoryDate(ArticleDate.TYPE_ACCEPTED).getYear());
+        assertNull(front.getHistoryDate(ArticleDate.TYPE_REVISED));
+    }
+
+    @Test
+    public void testConvertEmptyFront() {
+        ArticleFront front = new NLMElementToArticleConverter().convertFront(null);
+        assertNull(front.getTitle());
+        assertNull(front.getPublicationDate());
+        assertTrue(front.getContributors().isEmpty());
+        assertTrue(front.getKeywords().isEmpty());
+    }
+
+}
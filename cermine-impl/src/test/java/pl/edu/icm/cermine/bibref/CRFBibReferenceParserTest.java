@@ -18,8 +18,11 @@
 
 package pl.edu.icm.cermine.bibref;
 
+import static org.junit.Assert.*;
 import org.junit.Before;
+import org.junit.Test;
 import pl.edu.icm.cermine.bibref.model.BibEntry;
+import pl.edu.icm.cermine.bibref.parsing.tools.CitationParseCache;
 import pl.edu.icm.cermine.exception.AnalysisException;
 
 /**
@@ -46,4 +49,36 @@ public class CRFBibReferenceParserTest extends AbstractBibReferenceParserTest {
     protected double getMinPercentage() {
         return minPercentage;
     }
+    
+    @Test
+    public void cachedParsingTest() throws AnalysisException {
+        String text = "[6]  W. Hoeffding, Probability inequalities for sums of bounded random variables, "
+                + "J. Amer. Statist. Assoc, 58 (1963) 13-30.";
+        String spacedText = " [6] W.\u00A0Hoeffding,\nProbability  inequalities for sums of bounded random variables, "
+                + "J. Amer.  Statist. Assoc, 58 (1963)\t13-30. ";
+        BibEntry expected = parser.parseBibReference(text);
+        BibEntry spacedExpected = parser.parseBibReference(spacedText);
+        
+        assertNotNull(parser.getModelId());
+        CitationParseCache cache = new CitationParseCache(100, parser.getModelId());
+        parser.setCache(cache);
+        try {
+            assertEquals(expected, parser.parseBibReference(text));
+            assertEquals(0, cache.getHitCount());
+            assertEquals(expected, parser.parseBibReference(text));
+            assertEquals(1, cache.getHitCount());
+            assertEquals(spacedExpected, parser.parseBibReference(spacedText));
+            assertEquals(2, cache.getHitCount());
+            assertEquals(1, cache.size());
+        } finally {
+            parser.setCache(null);
+        }
+        
+        try {
+            parser.setCache(new CitationParseCache(100, "other"));
+            fail("Cache of a different model should be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+        assertNull(parser.getCache());
+    }
 }
@@ -0,0 +1,135 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.bibref.parsing.tools;
+
+import java.io.File;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import pl.edu.icm.cermine.bibref.parsing.model.CitationTokenLabel;
+
+public class CitationParseCacheTest {
+
+    private static final CitationTokenLabel[] LABELS = {CitationTokenLabel.SURNAME_FIRST, CitationTokenLabel.TEXT,
+        CitationTokenLabel.YEAR};
+
+    @Test
+    public void testNormalize() {
+        String text = "  Smith J.\u00A0\u00A0(2001)\n\u2013 The \uFB01nal  \uFB03x\u2212 ";
+        String normalized = CitationParseCache.normalize(text);
+        assertEquals("Smith J. (2001) - The final ffix-", normalized);
+        assertEquals(CitationUtils.stringToCitation("Smith J. (2001)\n\u2013 The \uFB01nal  \uFB03x\u2212").getTokens().size(),
+                CitationUtils.stringToCitation(normalized).getTokens().size());
+        assertEquals(normalized, CitationParseCache.normalize(normalized));
+    }
+
+    @Test
+    public void testGetPut() {
+        CitationParseCache cache = new CitationParseCache();
+        assertNull(cache.get("a b", 3));
+        cache.put("a b", LABELS);
+        assertArrayEquals(LABELS, cache.get("a b", 3));
+        assertNull(cache.get("a b", 2));
+        cache.get("a b", 3)[0] = CitationTokenLabel.TEXT;
+        assertArrayEquals(LABELS, cache.get("a b", 3));
+
+        assertEquals(3, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0.6, cache.getHitRatio(), 0.0001);
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEviction() {
+        CitationParseCache cache = new CitationParseCache(32);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("citation " + i, LABELS);
+        }
+        assertTrue(cache.size() <= 32);
+        assertEquals(1000 - cache.size(), cache.getEvictionCount());
+        assertNotNull(cache.get("citation 999", 3));
+    }
+
+    @Test
+    public void testSaveLoad() throws Exception {
+        File file = File.createTempFile("citations", ".cache");
+        try {
+            CitationParseCache cache = new CitationParseCache();
+            for (int i = 0; i < 100; i++) {
+                cache.put("citation " + i, LABELS);
+            }
+            cache.save(file);
+
+            CitationParseCache loaded = new CitationParseCache();
+            assertEquals(100, loaded.load(file));
+            assertEquals(100, loaded.size());
+            assertArrayEquals(LABELS, loaded.get("citation 42", 3));
+        } finally {
+            file.delete();
+        }
+        assertEquals(0, new CitationParseCache().load(file));
+    }
+
+    @Test
+    public void testModelMismatch() throws Exception {
+        File file = File.createTempFile("citations", ".cache");
+        try {
+            CitationParseCache cache = new CitationParseCache(100, "model-1");
+            cache.put("citation", LABELS);
+            cache.save(file);
+
+            CitationParseCache other = new CitationParseCache(100, "model-2");
+            assertEquals(0, other.load(file));
+            assertEquals(0, other.size());
+
+            CitationParseCache same = new CitationParseCache(100, "model-1");
+            assertEquals(1, same.load(file));
+            assertArrayEquals(LABELS, same.get("citation", 3));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final CitationParseCache cache = new CitationParseCache(100);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        String key = "citation " + (i % 150);
+                        if (cache.get(key, 3) == null) {
+                            cache.put(key, LABELS);
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.size() <= 112);
+    }
+
+}
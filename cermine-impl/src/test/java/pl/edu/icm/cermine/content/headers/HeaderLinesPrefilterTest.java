@@ -0,0 +1,110 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.content.headers;
+
+import java.util.Arrays;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import pl.edu.icm.cermine.structure.model.*;
+
+public class HeaderLinesPrefilterTest {
+
+    private static final String CONTENT = "the results of the experiments are shown in the table below";
+
+    @Test
+    public void testIsContentLine() {
+        BxPage page = new BxPage();
+        BxZone heading = newZone(BxZoneLabel.BODY_HEADING,
+                newLine("2. Materials and methods", 0, 100, 12));
+        BxZone content = newZone(BxZoneLabel.BODY_CONTENT,
+                newLine(CONTENT, 0, 200, 10), newLine(CONTENT, 0, 200, 10),
+                newLine(CONTENT, 0, 200, 10), newLine("end of paragraph", 0, 60, 10));
+        page.addZone(heading);
+        page.addZone(content);
+        linkLines(page);
+
+        HeaderLinesPrefilter prefilter = new HeaderLinesPrefilter();
+        double meanWidth = HeaderLinesPrefilter.getMeanLineWidth(page);
+        assertEquals(152, meanWidth, 0.0001);
+        assertFalse(prefilter.isContentLine(heading.getLines().get(0), page, meanWidth));
+        assertTrue(prefilter.isContentLine(content.getLines().get(1), page, meanWidth));
+        assertTrue(prefilter.isContentLine(content.getLines().get(2), page, meanWidth));
+        assertFalse(prefilter.isContentLine(content.getLines().get(3), page, meanWidth));
+    }
+
+    @Test
+    public void testCalibrate() {
+        BxPage page = new BxPage();
+        BxZone heading = newZone(BxZoneLabel.BODY_HEADING,
+                newLine("results and discussion of the experiments", 0, 190, 10));
+        BxZone content = newZone(BxZoneLabel.BODY_CONTENT,
+                newLine(CONTENT, 0, 200, 10), newLine(CONTENT, 0, 200, 10), newLine(CONTENT, 0, 200, 10));
+        page.addZone(heading);
+        page.addZone(content);
+        linkLines(page);
+        BxDocument document = new BxDocument();
+        document.setPages(Arrays.asList(page));
+
+        HeaderLinesPrefilter prefilter = new HeaderLinesPrefilter();
+        double meanWidth = HeaderLinesPrefilter.getMeanLineWidth(page);
+        // an uncalibrated prefilter may drop headings, so it is not used by default
+        assertTrue(prefilter.isContentLine(heading.getLines().get(0), page, meanWidth));
+        assertNull(new SVMContentHeadersExtractor((SVMHeaderLinesClassifier) null).getPrefilter());
+
+        assertEquals(1.0, prefilter.calibrate(Arrays.asList(document), 1.0), 0.0001);
+        assertFalse(prefilter.isContentLine(heading.getLines().get(0), page, meanWidth));
+        for (BxLine line : content.getLines()) {
+            assertTrue(prefilter.isContentLine(line, page, meanWidth));
+        }
+    }
+
+    private static BxZone newZone(BxZoneLabel label, BxLine... lines) {
+        BxZone zone = new BxZone();
+        zone.setLabel(label);
+        for (BxLine line : lines) {
+            zone.addLine(line);
+        }
+        return zone;
+    }
+
+    private static BxLine newLine(String text, double x, double width, double height) {
+        BxLine line = new BxLine();
+        line.setBounds(new BxBounds(x, 0, width, height));
+        for (String word : text.split(" ")) {
+            BxWord bxWord = new BxWord();
+            bxWord.addChunk(new BxChunk(new BxBounds(), word));
+            line.addWord(bxWord);
+        }
+        return line;
+    }
+
+    private static void linkLines(BxPage page) {
+        BxLine prev = null;
+        for (BxZone zone : page.getZones()) {
+            for (BxLine line : zone.getLines()) {
+                if (prev != null) {
+                    prev.setNext(line);
+                    line.setPrev(prev);
+                }
+                prev = line;
+            }
+        }
+    }
+
+}
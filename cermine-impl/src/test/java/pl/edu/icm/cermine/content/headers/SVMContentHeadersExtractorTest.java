@@ -0,0 +1,112 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.content.headers;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import pl.edu.icm.cermine.content.model.BxDocContentStructure;
+import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.HierarchicalReadingOrderResolver;
+import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.structure.transformers.TrueVizToBxDocumentReader;
+
+public class SVMContentHeadersExtractorTest {
+
+    private static final String DIR = "/pl/edu/icm/cermine/content/";
+
+    private static final String TEST_ZIP = "test-small.zip";
+
+    private SVMHeaderLinesClassifier classifier;
+
+    private List<BxDocument> documents = new ArrayList<BxDocument>();
+
+    @Before
+    public void setUp() throws IOException, AnalysisException, TransformationException, URISyntaxException {
+        BufferedReader model = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream(DIR + "header.model")));
+        BufferedReader range = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream(DIR + "header.range")));
+        classifier = new SVMHeaderLinesClassifier(model, range);
+
+        ZipFile zipFile = new ZipFile(new File(getClass().getResource(DIR + TEST_ZIP).toURI()));
+        try {
+            List<String> names = new ArrayList<String>();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.matches("^.*/source/.*\\.xml$")) {
+                    names.add(name);
+                }
+            }
+            Collections.sort(names);
+            HierarchicalReadingOrderResolver resolver = new HierarchicalReadingOrderResolver();
+            TrueVizToBxDocumentReader reader = new TrueVizToBxDocumentReader();
+            for (String name : names) {
+                Reader source = new InputStreamReader(zipFile.getInputStream(zipFile.getEntry(name)), "UTF-8");
+                documents.add(resolver.resolve(new BxDocument().setPages(reader.read(source))));
+            }
+        } finally {
+            zipFile.close();
+        }
+        assertFalse(documents.isEmpty());
+    }
+
+    /**
+     * With the default configuration every body line is classified by the SVM,
+     * so the detected headers are the lines labelled as headings by the SVM.
+     */
+    @Test
+    public void testDefaultHeaders() throws AnalysisException {
+        SVMContentHeadersExtractor extractor = new SVMContentHeadersExtractor(classifier);
+        for (BxDocument document : documents) {
+            List<BxLine> expected = new ArrayList<BxLine>();
+            for (BxPage page : document.getPages()) {
+                for (BxZone zone : page.getZones()) {
+                    if (zone.getLabel().isOfCategoryOrGeneral(BxZoneLabelCategory.CAT_BODY)) {
+                        for (BxLine line : zone.getLines()) {
+                            if (BxZoneLabel.BODY_HEADING.equals(classifier.predictLabel(line, page))) {
+                                expected.add(line);
+                            }
+                        }
+                    }
+                }
+            }
+
+            BxDocContentStructure structure = extractor.extractHeaders(document);
+            List<BxLine> actual = new ArrayList<BxLine>();
+            for (BxLine line : structure.getFirstHeaderLines()) {
+                if (line.getParent() != null) {
+                    actual.add(line);
+                }
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+}
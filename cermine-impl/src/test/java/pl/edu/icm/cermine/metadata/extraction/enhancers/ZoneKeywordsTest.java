@@ -0,0 +1,92 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.metadata.extraction.enhancers;
+
+import java.io.File;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipFile;
+import org.jdom.output.XMLOutputter;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+import pl.edu.icm.cermine.metadata.EnhancerMetadataExtractor;
+import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.structure.transformers.TrueVizToBxDocumentReader;
+
+public class ZoneKeywordsTest {
+
+    private static final String[][] TEST_DOCUMENTS = {
+        {"/pl/edu/icm/cermine/test1-str.xml.zip", "test1-str.xml"},
+        {"/pl/edu/icm/cermine/structure/roa_test_small.zip", "1748717X.xml"}
+    };
+
+    @After
+    public void tearDown() {
+        ZoneKeywords.setFiltering(true);
+    }
+
+    @Test
+    public void testGetMask() {
+        assertTrue(ZoneKeywords.isKeyword("DOI"));
+        assertFalse(ZoneKeywords.isKeyword("volume"));
+        assertEquals(ZoneKeywords.getMask("doi") | ZoneKeywords.getMask("issn"),
+                ZoneKeywords.getMask("doi", "issn"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownKeyword() {
+        ZoneKeywords.getMask("volume");
+    }
+
+    /**
+     * The keyword filtering only skips the zones the enhancers' patterns
+     * cannot match, so the metadata extracted from the test documents must
+     * be the same as without the filtering.
+     */
+    @Test
+    public void testEnhancersOutputUnchanged() throws Exception {
+        XMLOutputter outputter = new XMLOutputter();
+        for (BxDocument document : readDocuments()) {
+            ZoneKeywords.setFiltering(true);
+            String filtered = outputter.outputString(new EnhancerMetadataExtractor().extractMetadata(document));
+            ZoneKeywords.setFiltering(false);
+            String unfiltered = outputter.outputString(new EnhancerMetadataExtractor().extractMetadata(document));
+            assertEquals(unfiltered, filtered);
+        }
+    }
+
+    private List<BxDocument> readDocuments() throws Exception {
+        List<BxDocument> documents = new ArrayList<BxDocument>();
+        TrueVizToBxDocumentReader reader = new TrueVizToBxDocumentReader();
+        for (String[] testDocument : TEST_DOCUMENTS) {
+            ZipFile zipFile = new ZipFile(new File(getClass().getResource(testDocument[0]).toURI()));
+            try {
+                InputStreamReader source = new InputStreamReader(
+                        zipFile.getInputStream(zipFile.getEntry(testDocument[1])), "UTF-8");
+                documents.add(new BxDocument().setPages(reader.read(source)));
+            } finally {
+                zipFile.close();
+            }
+        }
+        return documents;
+    }
+
+}
@@ -0,0 +1,143 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.metadata.zoneclassification.tools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import pl.edu.icm.cermine.metadata.zoneclassification.features.*;
+import pl.edu.icm.cermine.structure.model.*;
+
+public class ZoneTextStatisticsTest {
+
+    private static final double EPSILON = 0.00001;
+
+    @Test
+    public void testStatistics() {
+        BxPage page = new BxPage();
+        BxZone zone = newZone(new String[][]{{"Title", "and", "[1]", "Abc:"}, {"x@y.org,", "1.5", "De-f"}});
+        BxZone other = newZone(new String[][]{{"other", "zone"}});
+        page.addZone(zone);
+        page.addZone(other);
+
+        String text = zone.toText();
+        ZoneTextStatistics stats = ZoneTextStatistics.get(zone, page);
+        assertEquals(countChunkChars(zone), stats.getCharCount());
+        assertEquals(7, stats.getWordCount());
+        assertEquals(3, stats.getDigitCount());
+        assertEquals(3, stats.getUppercaseCount());
+        assertEquals(3, stats.getUppercaseWordCount());
+        assertEquals(2, stats.getDotCount());
+        assertEquals(1, stats.getCommaCount());
+        assertEquals(1, stats.getAtCount());
+        assertEquals(2, stats.getBracketCount());
+        assertEquals(6, stats.getWhitespaceCount());
+        assertEquals(text.length(), stats.getTextLength());
+        assertEquals(countChunkChars(zone) + countChunkChars(other), ZoneTextStatistics.getPageCharCount(page));
+
+        assertEquals(medianLength(text), stats.getSplitWordLengthMedian());
+        assertEquals(text.split("\\s").length, stats.getSplitWordCount());
+        assertEquals(2, stats.getSplitFullWordCount());
+
+        assertSame(stats, ZoneTextStatistics.get(zone, page));
+        ZoneTextStatistics.clearCache();
+        ZoneTextStatistics recomputed = ZoneTextStatistics.get(zone, page);
+        assertNotSame(stats, recomputed);
+        assertEquals(stats.getTextLength(), recomputed.getTextLength());
+        stats = recomputed;
+        zone.addLine(newLine(new String[]{"NEW"}));
+        assertNotSame(stats, ZoneTextStatistics.get(zone, page));
+    }
+
+    @Test
+    public void testSplitWords() {
+        BxPage page = new BxPage();
+        BxZone zone = newZone(new String[][]{{"ab", "", ""}, {""}});
+        page.addZone(zone);
+        String text = zone.toText();
+        ZoneTextStatistics stats = ZoneTextStatistics.get(zone, page);
+        assertEquals(text.split("\\s").length, stats.getSplitWordCount());
+        assertEquals(medianLength(text), stats.getSplitWordLengthMedian());
+
+        BxZone empty = newZone(new String[0][]);
+        page.addZone(empty);
+        assertEquals(1, ZoneTextStatistics.get(empty, page).getSplitWordCount());
+        assertEquals(0, ZoneTextStatistics.get(empty, page).getSplitWordLengthMedian());
+    }
+
+    @Test
+    public void testFeatures() {
+        BxPage page = new BxPage();
+        BxZone zone = newZone(new String[][]{{"Some", "Words", "and", "a1", "word"}, {"Line", "2,", "x."}});
+        page.addZone(zone);
+        page.addZone(newZone(new String[][]{{"other"}}));
+
+        int chars = countChunkChars(zone);
+        assertEquals(chars, new CharCountFeature().calculateFeatureValue(zone, page), EPSILON);
+        assertEquals((double) chars / (chars + 5), new CharCountRelativeFeature().calculateFeatureValue(zone, page), EPSILON);
+        assertEquals(2.0 / chars, new DigitRelativeCountFeature().calculateFeatureValue(zone, page), EPSILON);
+        assertEquals(5.0 / 8, new FullWordsRelativeFeature().calculateFeatureValue(zone, page), EPSILON);
+        assertEquals((double) chars / 8, new WordLengthMeanFeature().calculateFeatureValue(zone, page), EPSILON);
+        assertEquals(3.0, new UppercaseWordCountFeature().calculateFeatureValue(zone, page), EPSILON);
+        assertEquals(3.0 / 8, new UppercaseWordRelativeCountFeature().calculateFeatureValue(zone, page), EPSILON);
+        assertEquals(2.0 / zone.toText().length(), new PunctuationRelativeCountFeature().calculateFeatureValue(zone, page), EPSILON);
+    }
+
+    private static BxZone newZone(String[][] lines) {
+        BxZone zone = new BxZone();
+        for (String[] line : lines) {
+            zone.addLine(newLine(line));
+        }
+        return zone;
+    }
+
+    private static BxLine newLine(String[] words) {
+        BxLine line = new BxLine();
+        for (String word : words) {
+            BxWord bxWord = new BxWord();
+            for (int i = 0; i < word.length(); i++) {
+                bxWord.addChunk(new BxChunk(new BxBounds(i, 0, 1, 1), word.substring(i, i + 1)));
+            }
+            line.addWord(bxWord);
+        }
+        return line;
+    }
+
+    private static int countChunkChars(BxZone zone) {
+        int count = 0;
+        for (BxLine line : zone.getLines()) {
+            for (BxWord word : line.getWords()) {
+                count += word.toText().length();
+            }
+        }
+        return count;
+    }
+
+    private static int medianLength(String text) {
+        List<Integer> lengths = new ArrayList<Integer>();
+        for (String word : text.split("\\s")) {
+            lengths.add(word.length());
+        }
+        Collections.sort(lengths);
+        return lengths.get(lengths.size() / 2);
+    }
+
+}
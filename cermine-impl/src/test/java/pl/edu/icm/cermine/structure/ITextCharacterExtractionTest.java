@@ -18,13 +18,21 @@
 
 package pl.edu.icm.cermine.structure;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
-import static org.junit.Assert.assertTrue;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import static org.junit.Assert.*;
 import org.junit.Test;
 import pl.edu.icm.cermine.exception.AnalysisException;
 import pl.edu.icm.cermine.structure.model.BxBounds;
+import pl.edu.icm.cermine.structure.model.BxChunk;
 import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.structure.model.BxFont;
 import pl.edu.icm.cermine.structure.model.BxPage;
+import pl.edu.icm.cermine.structure.tools.BxModelUtils;
 
 /**
  *
@@ -33,6 +41,7 @@ import pl.edu.icm.cermine.structure.model.BxPage;
 public class ITextCharacterExtractionTest {
     static final private String INPUT_DIR = "/pl/edu/icm/cermine/structure/";
     static final private String[] INPUT_FILES = {"1.pdf", "2.pdf", "3.pdf", "4.pdf", "5.pdf", "6.pdf"};
+    static final private String ALT_FONTS_FILE = "7.pdf";
     
     private CharacterExtractor extractor = new ITextCharacterExtractor();
     
@@ -62,4 +71,107 @@ public class ITextCharacterExtractionTest {
             assertTrue(page.getChunks().get(7).getBounds().isSimilarTo(b7, 0.08));
         }
     }
+
+    @Test
+    public void alternativeFontNamesTest() throws AnalysisException, IOException {
+        BxDocument streamDocument = extractor.extractCharacters(
+                this.getClass().getResourceAsStream(INPUT_DIR + ALT_FONTS_FILE));
+
+        File file = File.createTempFile("alt-fonts", ".pdf");
+        try {
+            FileUtils.copyInputStreamToFile(this.getClass().getResourceAsStream(INPUT_DIR + ALT_FONTS_FILE), file);
+            BxDocument fileDocument = extractor.extractCharacters(file);
+
+            assertEquals(2, streamDocument.getPages().size());
+            assertEquals(streamDocument.getPages().size(), fileDocument.getPages().size());
+            for (int i = 0; i < streamDocument.getPages().size(); i++) {
+                BxPage streamPage = streamDocument.getPages().get(i);
+                BxPage filePage = fileDocument.getPages().get(i);
+                assertFalse(streamPage.getChunks().isEmpty());
+                assertEquals(streamPage.getChunks().size(), filePage.getChunks().size());
+                for (int j = 0; j < streamPage.getChunks().size(); j++) {
+                    BxChunk streamChunk = streamPage.getChunks().get(j);
+                    BxChunk fileChunk = filePage.getChunks().get(j);
+                    assertEquals(streamChunk.toText(), fileChunk.toText());
+                    assertTrue(streamChunk.getBounds().isSimilarTo(fileChunk.getBounds(), 0.001));
+                    if (!streamChunk.toText().trim().isEmpty()) {
+                        assertTrue(fileChunk.getWidth() > 0);
+                    }
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void fontNameTest() {
+        assertEquals("Times-Bold", ITextCharacterExtractor.getFontName("ABCDEF+Times-Bold"));
+        assertEquals("Times-Bold", ITextCharacterExtractor.getFontName("/ABCDEF+Times-Bold"));
+        assertEquals("Times-Bold", ITextCharacterExtractor.getFontName("Times-Bold"));
+        assertEquals("AbCDEF+Times-Bold", ITextCharacterExtractor.getFontName("AbCDEF+Times-Bold"));
+        assertEquals("ABCDE+Times-Bold", ITextCharacterExtractor.getFontName("ABCDE+Times-Bold"));
+        assertNull(ITextCharacterExtractor.getFontName(null));
+    }
+
+    @Test
+    public void fontStyleTest() {
+        BxFont font = ITextCharacterExtractor.createFont("ABCDEF+Times-Bold", 0);
+        assertEquals(new BxFont("Times-Bold", true, false), font);
+        
+        font = ITextCharacterExtractor.createFont("Helvetica-BoldOblique", 0);
+        assertTrue(font.isBold());
+        assertTrue(font.isItalic());
+
+        font = ITextCharacterExtractor.createFont("CMTI10", 0);
+        assertFalse(font.isBold());
+        assertTrue(font.isItalic());
+
+        font = ITextCharacterExtractor.createFont("CMBX12", 0);
+        assertTrue(font.isBold());
+        assertFalse(font.isItalic());
+
+        font = ITextCharacterExtractor.createFont("QWERTY+AdvPSTim", 0);
+        assertEquals(new BxFont("AdvPSTim", false, false), font);
+        font = ITextCharacterExtractor.createFont("QWERTY+AdvPSTim", -12);
+        assertEquals(new BxFont("AdvPSTim", false, true), font);
+    }
+
+    @Test
+    public void fontSizeTest() {
+        assertEquals(10.0, ITextCharacterExtractor.getFontSize(11.5f, 891, -259), 0.0001);
+        assertEquals(12.0, ITextCharacterExtractor.getFontSize(12f, 750, -250), 0.0001);
+        assertEquals(0.0, ITextCharacterExtractor.getFontSize(12f, 0, 0), 0.0001);
+    }
+
+    @Test
+    public void sharedFontsTest() throws AnalysisException {
+        BxDocument document = extractor.extractCharacters(
+                this.getClass().getResourceAsStream(INPUT_DIR + INPUT_FILES[0]));
+        Map<BxFont, BxFont> fonts = new HashMap<BxFont, BxFont>();
+        int chunks = 0;
+        for (BxPage page : document.getPages()) {
+            for (BxChunk chunk : page.getChunks()) {
+                BxFont font = chunk.getFont();
+                assertNotNull(font);
+                assertTrue(chunk.getFontSize() > 0);
+                if (fonts.containsKey(font)) {
+                    assertSame(fonts.get(font), font);
+                } else {
+                    fonts.put(font, font);
+                }
+                chunks++;
+            }
+        }
+        assertTrue(chunks > fonts.size());
+
+        for (BxPage page : document.getPages()) {
+            for (BxChunk chunk : page.getChunks()) {
+                BxChunk copiedChunk = BxModelUtils.deepClone(chunk);
+                assertNotSame(chunk, copiedChunk);
+                assertSame(chunk.getFont(), copiedChunk.getFont());
+                assertEquals(chunk.getFontSize(), copiedChunk.getFontSize(), 0.0001);
+            }
+        }
+    }
 }
@@ -0,0 +1,77 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.tools;
+
+import java.util.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import pl.edu.icm.cermine.structure.model.BxBounds;
+import pl.edu.icm.cermine.structure.model.BxChunk;
+
+public class BxChunkSpatialIndexTest {
+
+    @Test
+    public void testDuplicates() {
+        BxChunkSpatialIndex index = new BxChunkSpatialIndex();
+        assertTrue(index.add(new BxChunk(new BxBounds(10, 20, 5, 8), "a")));
+        assertFalse(index.add(new BxChunk(new BxBounds(10.5, 20.3, 5, 8), "a")));
+        assertTrue(index.add(new BxChunk(new BxBounds(10.5, 20.3, 5, 8), "b")));
+        assertTrue(index.add(new BxChunk(new BxBounds(11.5, 20, 5, 8), "a")));
+        assertTrue(index.add(new BxChunk(new BxBounds(10, 20, 7, 8), "a")));
+        assertEquals(4, index.size());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.add(new BxChunk(new BxBounds(10.5, 20.3, 5, 8), "a")));
+    }
+
+    @Test
+    public void testRandomChunks() {
+        Random random = new Random(42);
+        BxChunkSpatialIndex index = new BxChunkSpatialIndex();
+        List<BxChunk> kept = new ArrayList<BxChunk>();
+        for (int i = 0; i < 20000; i++) {
+            BxChunk chunk = new BxChunk(new BxBounds(random.nextInt(300) / 4.0, random.nextInt(300) / 4.0,
+                    1 + random.nextInt(3), 1 + random.nextInt(3)), String.valueOf((char) ('a' + random.nextInt(3))));
+            boolean duplicate = false;
+            for (BxChunk other : kept) {
+                if ((int) other.getX() >= (int) chunk.getX() - 1 && (int) other.getX() <= (int) chunk.getX() + 1
+                        && (int) other.getY() >= (int) chunk.getY() - 1 && (int) other.getY() <= (int) chunk.getY() + 1
+                        && other.toText().equals(chunk.toText()) && other.getBounds().isSimilarTo(chunk.getBounds(), 1)) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            assertEquals(!duplicate, index.add(chunk));
+            if (!duplicate) {
+                kept.add(chunk);
+            }
+        }
+        assertEquals(kept.size(), index.size());
+    }
+
+    @Test
+    public void testGlyphStrings() {
+        String a = GlyphStrings.get(new String("a"));
+        assertSame(a, GlyphStrings.get(new String("a")));
+        assertSame(a, GlyphStrings.get('a'));
+        assertEquals("ab", GlyphStrings.get("ab"));
+    }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.tools;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class IntDisjointSetsTest {
+
+    @Test
+    public void testUnion() {
+        IntDisjointSets sets = new IntDisjointSets(10);
+        assertEquals(10, sets.size());
+        assertEquals(10, sets.getSetCount());
+        assertFalse(sets.areTogether(0, 1));
+        assertTrue(sets.areTogether(2, 2));
+
+        assertTrue(sets.union(0, 8));
+        assertTrue(sets.union(0, 4));
+        assertFalse(sets.union(4, 8));
+        assertTrue(sets.areTogether(4, 8));
+
+        sets.union(1, 3);
+        sets.union(5, 7);
+        sets.union(3, 5);
+        assertTrue(sets.areTogether(1, 7));
+        assertFalse(sets.areTogether(0, 7));
+        sets.union(5, 4);
+        assertTrue(sets.areTogether(0, 7));
+        assertEquals(4, sets.getSetCount());
+    }
+
+    @Test
+    public void testGetSets() {
+        IntDisjointSets sets = new IntDisjointSets(8);
+        sets.union(7, 2);
+        sets.union(5, 1);
+        sets.union(2, 4);
+        int[][] groups = sets.getSets();
+        assertEquals(sets.getSetCount(), groups.length);
+        assertArrayEquals(new int[]{0}, groups[0]);
+        assertArrayEquals(new int[]{1, 5}, groups[1]);
+        assertArrayEquals(new int[]{2, 4, 7}, groups[2]);
+        assertArrayEquals(new int[]{3}, groups[3]);
+        assertArrayEquals(new int[]{6}, groups[4]);
+
+        assertEquals(0, new IntDisjointSets(0).getSets().length);
+    }
+
+}
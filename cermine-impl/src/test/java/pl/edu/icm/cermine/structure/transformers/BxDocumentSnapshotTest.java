@@ -0,0 +1,288 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.structure.transformers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.FileUtils;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.model.*;
+import pl.edu.icm.cermine.structure.tools.BxDocumentSnapshotStore;
+
+public class BxDocumentSnapshotTest {
+
+    @Test
+    public void testRoundTrip() throws TransformationException {
+        BxDocument document = newDocument(new Random(7));
+        byte[] snapshot = new BxDocumentToSnapshotWriter().write(document);
+        BxDocument read = new SnapshotToBxDocumentReader().read(snapshot);
+        assertDocumentsEqual(document, read);
+    }
+
+    @Test
+    public void testSharedChunks() throws TransformationException {
+        BxDocument document = newDocument(new Random(7));
+        BxDocument read = new SnapshotToBxDocumentReader().read(new BxDocumentToSnapshotWriter().write(document));
+        BxPage page = read.getPages().get(1);
+        int index = 0;
+        for (BxZone zone : page.getZones()) {
+            int zoneIndex = 0;
+            for (BxLine line : zone.getLines()) {
+                for (BxWord word : line.getWords()) {
+                    for (BxChunk chunk : word.getChunks()) {
+                        assertSame(chunk, page.getChunks().get(index++));
+                        assertSame(chunk, zone.getChunks().get(zoneIndex++));
+                    }
+                }
+            }
+        }
+        assertEquals(index, page.getChunks().size());
+    }
+
+    @Test
+    public void testEmptyDocument() throws TransformationException {
+        BxDocument read = new SnapshotToBxDocumentReader().read(new BxDocumentToSnapshotWriter().write(new BxDocument()));
+        assertNull(read.getFilename());
+        assertTrue(read.getPages().isEmpty());
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testNotSnapshot() throws TransformationException {
+        new SnapshotToBxDocumentReader().read("<Document></Document>".getBytes());
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testUnsupportedVersion() throws TransformationException {
+        byte[] snapshot = new BxDocumentToSnapshotWriter().write(new BxDocument());
+        snapshot[4]++;
+        new SnapshotToBxDocumentReader().read(snapshot);
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testTruncated() throws TransformationException {
+        byte[] snapshot = new BxDocumentToSnapshotWriter().write(newDocument(new Random(7)));
+        byte[] truncated = new byte[snapshot.length / 2];
+        System.arraycopy(snapshot, 0, truncated, 0, truncated.length);
+        new SnapshotToBxDocumentReader().read(truncated);
+    }
+
+    @Test(expected = TransformationException.class)
+    public void testCorruptedLength() throws Exception {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(snapshot);
+        header.writeInt(BxDocumentToSnapshotWriter.MAGIC);
+        header.writeByte(BxDocumentToSnapshotWriter.VERSION);
+        GZIPOutputStream content = new GZIPOutputStream(snapshot);
+        // a new file name string of 2^28 - 1 bytes
+        content.write(new byte[]{BxDocumentToSnapshotWriter.NEW_CODE, -1, -1, -1, 0x7F});
+        content.close();
+        new SnapshotToBxDocumentReader().read(snapshot.toByteArray());
+    }
+
+    @Test
+    public void testStore() throws Exception {
+        File directory = File.createTempFile("snapshots", "");
+        assertTrue(directory.delete());
+        try {
+            BxDocumentSnapshotStore store = new BxDocumentSnapshotStore(directory);
+            String key = BxDocumentSnapshotStore.getKey("pdf".getBytes(), "FRONT;2;0");
+            assertEquals(40, key.length());
+            assertFalse(key.equals(BxDocumentSnapshotStore.getKey("pdf".getBytes(), "FRONT_AND_BACK;3;3")));
+            File pdf = new File(directory.getPath() + ".pdf");
+            FileUtils.writeByteArrayToFile(pdf, "pdf".getBytes());
+            try {
+                assertEquals(key, BxDocumentSnapshotStore.getKey(pdf, "FRONT;2;0"));
+            } finally {
+                pdf.delete();
+            }
+            assertNull(store.load(key));
+
+            BxDocument document = newDocument(new Random(11));
+            store.store(key, document);
+            assertDocumentsEqual(document, store.load(key));
+            store.store(key, document);
+            assertDocumentsEqual(document, store.load(key));
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static BxDocument newDocument(Random random) {
+        BxDocument document = new BxDocument();
+        document.setFilename("test.pdf");
+        BxFont[] fonts = {null, new BxFont("Times-Roman", false, false), new BxFont("Times-Bold", true, false),
+            new BxFont(null, false, true)};
+        BxZoneLabel[] labels = BxZoneLabel.values();
+        for (int p = 0; p < 3; p++) {
+            BxPage page = new BxPage();
+            page.setBounds(new BxBounds(0, 0, 612, 792));
+            if (p == 2) {
+                page.addChunk(new BxChunk(new BxBounds(1, 2, 3, 4), "x"));
+            }
+            for (int z = 0; z < 4; z++) {
+                BxZone zone = new BxZone();
+                zone.setBounds(newBounds(random));
+                if (z > 0) {
+                    zone.setLabel(labels[random.nextInt(labels.length)]);
+                }
+                for (int l = 0; l < 3; l++) {
+                    BxLine line = new BxLine();
+                    line.setBounds(newBounds(random));
+                    for (int w = 0; w < 5; w++) {
+                        BxWord word = new BxWord();
+                        word.setBounds(w == 4 ? null : newBounds(random));
+                        for (int c = 0; c < 4; c++) {
+                            String text = String.valueOf((char) ('a' + random.nextInt(26)));
+                            if (c == 3) {
+                                text = "\u00e9\u0142\uD835\uDC00";
+                            }
+                            word.addChunk(new BxChunk(newBounds(random), text, fonts[random.nextInt(fonts.length)],
+                                    random.nextDouble() * 12));
+                        }
+                        line.addWord(word);
+                    }
+                    zone.addLine(line);
+                }
+                page.addZone(zone);
+            }
+            document.addPage(page);
+            if (p == 1) {
+                for (BxZone zone : page.getZones()) {
+                    for (BxLine line : zone.getLines()) {
+                        for (BxWord word : line.getWords()) {
+                            for (BxChunk chunk : word.getChunks()) {
+                                page.addChunk(chunk);
+                                zone.addChunk(chunk);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        link(document.asZones(), "z");
+        link(document.asLines(), "l");
+        link(document.asWords(), "w");
+        link(document.asChunks(), "c");
+        return document;
+    }
+
+    private static <A extends Indexable<A>> void link(List<A> list, String prefix) {
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i).setId(prefix + i);
+            if (i + 1 < list.size()) {
+                list.get(i).setNextId(prefix + (i + 1));
+                list.get(i).setNext(list.get(i + 1));
+                list.get(i + 1).setPrev(list.get(i));
+            } else {
+                list.get(i).setNextId("-1");
+            }
+        }
+    }
+
+    private static BxBounds newBounds(Random random) {
+        return new BxBounds(random.nextDouble() * 600, random.nextDouble() * 800, random.nextDouble() * 50,
+                random.nextDouble() * 20);
+    }
+
+    private static void assertDocumentsEqual(BxDocument expected, BxDocument actual) {
+        assertEquals(expected.getFilename(), actual.getFilename());
+        assertEquals(expected.getPages().size(), actual.getPages().size());
+        for (int p = 0; p < expected.getPages().size(); p++) {
+            BxPage expectedPage = expected.getPages().get(p);
+            BxPage actualPage = actual.getPages().get(p);
+            assertObjectsEqual(expectedPage, actualPage);
+            assertSame(actual, actualPage.getParent());
+            assertChunksEqual(expectedPage.getChunks(), actualPage.getChunks());
+            assertEquals(expectedPage.getZones().size(), actualPage.getZones().size());
+            for (int z = 0; z < expectedPage.getZones().size(); z++) {
+                BxZone expectedZone = expectedPage.getZones().get(z);
+                BxZone actualZone = actualPage.getZones().get(z);
+                assertObjectsEqual(expectedZone, actualZone);
+                assertEquals(expectedZone.getLabel(), actualZone.getLabel());
+                assertChunksEqual(expectedZone.getChunks(), actualZone.getChunks());
+                assertEquals(expectedZone.getLines().size(), actualZone.getLines().size());
+                for (int l = 0; l < expectedZone.getLines().size(); l++) {
+                    BxLine expectedLine = expectedZone.getLines().get(l);
+                    BxLine actualLine = actualZone.getLines().get(l);
+                    assertObjectsEqual(expectedLine, actualLine);
+                    assertEquals(expectedLine.getWords().size(), actualLine.getWords().size());
+                    for (int w = 0; w < expectedLine.getWords().size(); w++) {
+                        BxWord expectedWord = expectedLine.getWords().get(w);
+                        BxWord actualWord = actualLine.getWords().get(w);
+                        assertObjectsEqual(expectedWord, actualWord);
+                        assertChunksEqual(expectedWord.getChunks(), actualWord.getChunks());
+                    }
+                }
+            }
+            assertEquals(expectedPage.toText(), actualPage.toText());
+        }
+    }
+
+    private static void assertChunksEqual(List<BxChunk> expected, List<BxChunk> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertObjectsEqual(expected.get(i), actual.get(i));
+            assertEquals(expected.get(i).toText(), actual.get(i).toText());
+            assertEquals(expected.get(i).getFont(), actual.get(i).getFont());
+            assertEquals(expected.get(i).getFontSize(), actual.get(i).getFontSize(), 0);
+        }
+    }
+
+    private static void assertObjectsEqual(BxObject<?, ?> expected, BxObject<?, ?> actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getNextId(), actual.getNextId());
+        assertLinkEquals(expected.getNext(), actual.getNext());
+        assertLinkEquals(expected.getPrev(), actual.getPrev());
+        if (expected.getBounds() == null) {
+            assertNull(actual.getBounds());
+            return;
+        }
+        assertEquals(expected.getX(), actual.getX(), 0);
+        assertEquals(expected.getY(), actual.getY(), 0);
+        assertEquals(expected.getWidth(), actual.getWidth(), 0);
+        assertEquals(expected.getHeight(), actual.getHeight(), 0);
+    }
+
+    private static void assertLinkEquals(Object expected, Object actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(((BxObject<?, ?>) expected).getId(), ((BxObject<?, ?>) actual).getId());
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+}
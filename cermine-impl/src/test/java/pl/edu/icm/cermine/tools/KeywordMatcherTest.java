@@ -0,0 +1,53 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools;
+
+import java.util.Arrays;
+import java.util.Collections;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class KeywordMatcherTest {
+
+    @Test
+    public void testMatch() {
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("he", "she", "his", "hers"), false);
+        assertEquals(0L, matcher.match(""));
+        assertEquals(0L, matcher.match("abc"));
+        assertEquals(11L, matcher.match("ushers"));
+        assertEquals(3L, matcher.match("she"));
+        assertEquals(4L, matcher.match("this"));
+        assertEquals(0L, matcher.match("HERS"));
+    }
+
+    @Test
+    public void testIgnoreCase() {
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("doi", "article id", "pp", "-"), true);
+        assertEquals(1L, matcher.match("DOI: 10.1000/1"));
+        assertEquals(2L, matcher.match("Volume 1, Article ID 5"));
+        assertEquals(12L, matcher.match("Pp. 1-3"));
+        assertEquals(0L, matcher.match("article 1d"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyKeyword() {
+        new KeywordMatcher(Collections.singletonList(""), false);
+    }
+
+}
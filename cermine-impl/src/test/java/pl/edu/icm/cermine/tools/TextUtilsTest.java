@@ -0,0 +1,63 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class TextUtilsTest {
+
+    private static final String[] TEXTS = {
+        "", " ", "1", "12", "a", "A", "Ab", "AB", "1.", "[12]", "12a", "Title 2", "ab\ncd", "A\n", "\t \n",
+        "x@y.org", " ", " ", "Mc", "McD", "ﬁve", "aﬀﬆ", "_."
+    };
+
+    @Test
+    public void testMatchers() {
+        for (String text : TEXTS) {
+            assertEquals(text, text.matches("\\d"), TextUtils.isDigit(text));
+            assertEquals(text, text.matches("[A-Z]"), TextUtils.isUppercaseLetter(text));
+            assertEquals(text, text.matches("[a-z]"), TextUtils.isLowercaseLetter(text));
+            assertEquals(text, text.matches("\\d+"), TextUtils.isNumber(text));
+            assertEquals(text, text.matches("\\s*"), TextUtils.isBlank(text));
+            assertEquals(text, text.matches(".*"), TextUtils.isSingleLine(text));
+            assertEquals(text, text.matches(".*\\d.*"), TextUtils.isSingleLine(text) && TextUtils.containsDigit(text));
+            assertEquals(text, text.matches(".*[a-zA-Z].*"),
+                    TextUtils.isSingleLine(text) && TextUtils.containsLetter(text));
+            assertEquals(text, text.matches("[A-Z].*"),
+                    TextUtils.isSingleLine(text) && TextUtils.startsWithUppercaseLetter(text));
+            assertEquals(text, text.matches("\\w\\."),
+                    text.length() == 2 && TextUtils.isWordCharacter(text.charAt(0)) && text.charAt(1) == '.');
+        }
+    }
+
+    @Test
+    public void testReplacements() {
+        for (String text : TEXTS) {
+            assertEquals(text.replaceAll("[^a-z]", ""), TextUtils.retainLowercaseLetters(text));
+            assertEquals(text.replaceAll("[^0-9a-zA-Z]", ""), TextUtils.retainLettersAndDigits(text));
+            assertEquals(text.split("\\s").length, TextUtils.WHITESPACE.split(text).length);
+        }
+        assertEquals("five", TextUtils.replaceLigatures("ﬁve"));
+        assertEquals("affst", TextUtils.replaceLigatures("aﬀﬆ"));
+        String text = "no ligatures";
+        assertSame(text, TextUtils.replaceLigatures(text));
+    }
+
+}
@@ -0,0 +1,53 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.classification.clustering;
+
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class KMeansTest {
+
+    private static final double EPSILON = 0.0001;
+
+    @Test
+    public void testCluster() {
+        double[][] data = new double[][]{
+            {0, 0}, {10, 10}, {0.5, 0}, {10, 9}, {0, 1}, {9.5, 10}, {1, 1}
+        };
+        KMeans kMeans = new KMeans(100, new Random(1));
+        int[] clusters = kMeans.cluster(data, new double[][]{data[0], data[1]});
+        assertArrayEquals(new int[]{0, 1, 0, 1, 0, 1, 0}, clusters);
+        assertArrayEquals(new double[]{0.375, 0.5}, kMeans.getCentroids()[0], EPSILON);
+        assertArrayEquals(new double[]{9.8333, 9.6667}, kMeans.getCentroids()[1], EPSILON);
+    }
+
+    @Test
+    public void testReassignment() {
+        double[][] data = new double[][]{{0}, {1}, {2}, {9}, {10}};
+        int[] clusters = new KMeans(100, new Random(1)).cluster(data, new double[][]{{0}, {1}});
+        assertArrayEquals(new int[]{0, 0, 0, 1, 1}, clusters);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyData() {
+        new KMeans().cluster(new double[0][], new double[][]{{0}});
+    }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.classification.features;
+
+import java.util.Arrays;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class FeatureVectorBuilderTest {
+
+    @Test
+    public void testGetFeatureVector() {
+        LengthFeature length = new LengthFeature();
+        FeatureVectorBuilder<String, Object> builder = new FeatureVectorBuilder<String, Object>();
+        builder.setFeatureCalculators(Arrays.<FeatureCalculator<String, Object>>asList(
+                length, new SpacesFeature(), length));
+
+        FeatureVector vector = builder.getFeatureVector("a b c", null);
+        assertEquals(builder.getFeatureNames(), vector.getFeatureNames());
+        assertArrayEquals(new double[]{5, 2, 5}, vector.getValues(), 0.0001);
+        assertEquals(1, length.calls);
+
+        vector = builder.getFeatureVector("a b c", null, new boolean[]{false, true, true});
+        assertArrayEquals(new double[]{0, 2, 5}, vector.getValues(), 0.0001);
+        assertEquals(2, length.calls);
+
+        vector = builder.getFeatureVector("a b c", null, new boolean[]{false, true, false});
+        assertArrayEquals(new double[]{0, 2, 0}, vector.getValues(), 0.0001);
+        assertEquals(2, length.calls);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongRequiredSize() {
+        FeatureVectorBuilder<String, Object> builder = new FeatureVectorBuilder<String, Object>();
+        builder.setFeatureCalculators(Arrays.<FeatureCalculator<String, Object>>asList(new SpacesFeature()));
+        builder.getFeatureVector("a b", null, new boolean[2]);
+    }
+
+    private static class LengthFeature extends FeatureCalculator<String, Object> {
+
+        private int calls;
+
+        @Override
+        public double calculateFeatureValue(String object, Object context) {
+            calls++;
+            return object.length();
+        }
+    }
+
+    private static class SpacesFeature extends FeatureCalculator<String, Object> {
+
+        @Override
+        public double calculateFeatureValue(String object, Object context) {
+            return object.length() - object.replace(" ", "").length();
+        }
+    }
+
+}
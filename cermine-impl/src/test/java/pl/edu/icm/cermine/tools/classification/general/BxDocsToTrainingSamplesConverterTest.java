@@ -0,0 +1,98 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.classification.general;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.structure.SVMInitialZoneClassifier;
+import pl.edu.icm.cermine.structure.model.BxDocument;
+import pl.edu.icm.cermine.structure.model.BxPage;
+import pl.edu.icm.cermine.structure.model.BxZone;
+import pl.edu.icm.cermine.structure.model.BxZoneLabel;
+import pl.edu.icm.cermine.structure.transformers.TrueVizToBxDocumentReader;
+import pl.edu.icm.cermine.tools.classification.features.FeatureVectorBuilder;
+
+public class BxDocsToTrainingSamplesConverterTest {
+
+    private static final String[] TEST_FILES = {
+        "/pl/edu/icm/cermine/structure/001.xml",
+        "/pl/edu/icm/cermine/structure/006.xml"
+    };
+    
+    private File cacheDir;
+    
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = File.createTempFile("samples-cache", "");
+        cacheDir.delete();
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(cacheDir);
+    }
+    
+    @Test
+    public void testParallelCachedZoneSamples() throws TransformationException, AnalysisException {
+        FeatureVectorBuilder<BxZone, BxPage> builder = SVMInitialZoneClassifier.getFeatureVectorBuilder();
+        TrainingSamplesCache cache = new TrainingSamplesCache(cacheDir);
+        
+        List<TrainingSample<BxZoneLabel>> expected = 
+                BxDocsToTrainingSamplesConverter.getZoneTrainingSamples(readDocuments(), builder, null);
+        List<TrainingSample<BxZoneLabel>> computed = 
+                BxDocsToTrainingSamplesConverter.getZoneTrainingSamples(readDocuments(), builder, null, 2, cache);
+        List<TrainingSample<BxZoneLabel>> cached = 
+                BxDocsToTrainingSamplesConverter.getZoneTrainingSamples(readDocuments(), builder, null, 2, cache);
+        
+        assertSamplesEqual(expected, computed);
+        assertSamplesEqual(expected, cached);
+        assertEquals(TEST_FILES.length, cacheDir.listFiles()[0].list().length);
+    }
+    
+    private void assertSamplesEqual(List<TrainingSample<BxZoneLabel>> expected, List<TrainingSample<BxZoneLabel>> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getLabel(), actual.get(i).getLabel());
+            assertEquals(expected.get(i).getFeatureVector().getFeatureNames(), 
+                    actual.get(i).getFeatureVector().getFeatureNames());
+            assertArrayEquals(expected.get(i).getFeatureVector().getValues(), 
+                    actual.get(i).getFeatureVector().getValues(), 0);
+        }
+    }
+    
+    private List<BxDocument> readDocuments() throws TransformationException {
+        TrueVizToBxDocumentReader reader = new TrueVizToBxDocumentReader();
+        BxDocument[] documents = new BxDocument[TEST_FILES.length];
+        for (int i = 0; i < TEST_FILES.length; i++) {
+            documents[i] = new BxDocument().setPages(reader.read(
+                    new InputStreamReader(BxDocsToTrainingSamplesConverterTest.class.getResourceAsStream(TEST_FILES[i]))));
+        }
+        return Arrays.asList(documents);
+    }
+}
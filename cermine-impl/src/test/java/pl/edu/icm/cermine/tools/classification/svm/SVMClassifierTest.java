@@ -0,0 +1,238 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.classification.svm;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipFile;
+import libsvm.svm_parameter;
+import org.apache.commons.io.FileUtils;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import pl.edu.icm.cermine.structure.SVMInitialZoneClassifier;
+import pl.edu.icm.cermine.structure.model.BxBounds;
+import pl.edu.icm.cermine.structure.model.BxPage;
+import pl.edu.icm.cermine.structure.model.BxZone;
+import pl.edu.icm.cermine.structure.model.BxZoneLabel;
+import pl.edu.icm.cermine.structure.transformers.TrueVizToBxDocumentReader;
+import pl.edu.icm.cermine.tools.classification.features.FeatureCalculator;
+import pl.edu.icm.cermine.tools.classification.features.FeatureVectorBuilder;
+import pl.edu.icm.cermine.tools.classification.general.TrainingSample;
+
+public class SVMClassifierTest {
+
+    private static final String INITIAL_TEST_FILE = "/pl/edu/icm/cermine/test1-str.xml.zip";
+
+    private static final String INITIAL_TEST_ENTRY = "test1-str.xml";
+
+    private static final List<String> KEPT_INITIAL_FEATURES =
+            Arrays.asList("IsItemize", "Width", "Height", "LineCount", "IsFirstPage", "IsLastPage");
+
+    @Test
+    public void testFeatureMask() throws IOException {
+        FeatureVectorBuilder<BxZone, BxPage> builder = new FeatureVectorBuilder<BxZone, BxPage>();
+        builder.setFeatureCalculators(Arrays.<FeatureCalculator<BxZone, BxPage>>asList(
+                new XFeature(), new ConstantFeature(), new WidthFeature()));
+        boolean[] kept = {true, false, true};
+
+        List<BxZone> zones = new ArrayList<BxZone>();
+        List<TrainingSample<BxZoneLabel>> samples = new ArrayList<TrainingSample<BxZoneLabel>>();
+        for (int i = 0; i < 40; i++) {
+            BxZone zone = new BxZone();
+            zone.setBounds(new BxBounds(i < 20 ? 10 + 3 * i : 300 + 3 * i, 100, 50 + (i * 7) % 30, 20));
+            zones.add(zone);
+            samples.add(new TrainingSample<BxZoneLabel>(builder.getFeatureVector(zone, null),
+                    i < 20 ? BxZoneLabel.MET_TITLE : BxZoneLabel.MET_ABSTRACT));
+        }
+
+        SVMZoneClassifier full = new SVMZoneClassifier(builder);
+        full.setParameter(newParameter());
+        full.buildClassifier(samples);
+        assertFalse(full.getRequiredFeatures()[1]);
+
+        SVMZoneClassifier pruned = new SVMZoneClassifier(SVMFeatureAnalysis.selectFeatures(builder, kept));
+        pruned.setParameter(newParameter());
+        pruned.buildClassifier(SVMFeatureAnalysis.selectFeatures(samples, kept));
+
+        File modelFile = File.createTempFile("pruned", ".model");
+        File rangeFile = new File(modelFile.getPath() + ".range");
+        File featuresFile = new File(modelFile.getPath() + ".features");
+        try {
+            pruned.saveModel(modelFile.getPath());
+            FileUtils.writeLines(featuresFile, SVMFeatureAnalysis.selectFeatures(builder, kept).getFeatureNames());
+
+            SVMZoneClassifier loaded = new SVMZoneClassifier(builder);
+            loaded.loadFeatureMask(featuresFile.getPath());
+            loaded.loadModelFromFile(modelFile.getPath(), rangeFile.getPath());
+
+            for (BxZone zone : zones) {
+                assertEquals(full.predictLabel(zone, null), loaded.predictLabel(zone, null));
+            }
+            BxZone zone = new BxZone();
+            zone.setBounds(new BxBounds(15, 0, 60, 20));
+            assertEquals(BxZoneLabel.MET_TITLE, loaded.predictLabel(zone, null));
+            zone.setBounds(new BxBounds(400, 0, 60, 20));
+            assertEquals(BxZoneLabel.MET_ABSTRACT, loaded.predictLabel(zone, null));
+        } finally {
+            modelFile.delete();
+            rangeFile.delete();
+            featuresFile.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownFeatureInMask() throws IOException {
+        FeatureVectorBuilder<BxZone, BxPage> builder = new FeatureVectorBuilder<BxZone, BxPage>();
+        builder.setFeatureCalculators(Arrays.<FeatureCalculator<BxZone, BxPage>>asList(new XFeature()));
+        File featuresFile = File.createTempFile("pruned", ".features");
+        try {
+            FileUtils.writeLines(featuresFile, Arrays.asList(new XFeature().getFeatureName(), "Unknown"));
+            new SVMZoneClassifier(builder).loadFeatureMask(featuresFile.getPath());
+        } finally {
+            featuresFile.delete();
+        }
+    }
+
+    @Test
+    public void testDuplicateFeaturesInMask() throws IOException {
+        FeatureVectorBuilder<BxZone, BxPage> builder = new FeatureVectorBuilder<BxZone, BxPage>();
+        builder.setFeatureCalculators(Arrays.<FeatureCalculator<BxZone, BxPage>>asList(
+                new XFeature(), new ConstantFeature(), new XFeature(), new WidthFeature()));
+
+        String x = new XFeature().getFeatureName();
+        String constant = new ConstantFeature().getFeatureName();
+        String width = new WidthFeature().getFeatureName();
+
+        SVMZoneClassifier classifier = new SVMZoneClassifier(builder);
+        classifier.loadFeatureMask(newReader(x, x, width));
+        assertEquals(Arrays.asList(x, x, width), classifier.featureVectorBuilder.getFeatureNames());
+
+        classifier = new SVMZoneClassifier(builder);
+        classifier.loadFeatureMask(newReader(constant, x));
+        assertEquals(Arrays.asList(constant, x), classifier.featureVectorBuilder.getFeatureNames());
+
+        try {
+            new SVMZoneClassifier(builder).loadFeatureMask(newReader(x, x, x));
+            fail("Feature listed more times than registered");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    @Test
+    public void testPrunedInitialClassifier() throws Exception {
+        FeatureVectorBuilder<BxZone, BxPage> builder = SVMInitialZoneClassifier.getFeatureVectorBuilder();
+        List<String> names = builder.getFeatureNames();
+        boolean[] kept = new boolean[builder.size()];
+        for (int i = 0; i < kept.length; i++) {
+            kept[i] = KEPT_INITIAL_FEATURES.contains(names.get(i));
+        }
+        assertEquals(2, Collections.frequency(names, "IsItemize"));
+        FeatureVectorBuilder<BxZone, BxPage> prunedBuilder = SVMFeatureAnalysis.selectFeatures(builder, kept);
+
+        List<BxZone> zones = new ArrayList<BxZone>();
+        List<TrainingSample<BxZoneLabel>> samples = new ArrayList<TrainingSample<BxZoneLabel>>();
+        for (BxPage page : readPages(INITIAL_TEST_FILE, INITIAL_TEST_ENTRY)) {
+            for (BxZone zone : page.getZones()) {
+                zones.add(zone);
+                samples.add(new TrainingSample<BxZoneLabel>(prunedBuilder.getFeatureVector(zone, page),
+                        zone.getLabel().getGeneralLabel()));
+            }
+        }
+        SVMZoneClassifier pruned = new SVMZoneClassifier(prunedBuilder);
+        pruned.setParameter(newParameter());
+        pruned.buildClassifier(samples);
+
+        File modelFile = File.createTempFile("pruned-initial", ".model");
+        File rangeFile = new File(modelFile.getPath() + ".range");
+        File featuresFile = new File(modelFile.getPath() + ".features");
+        try {
+            pruned.saveModel(modelFile.getPath());
+            FileUtils.writeLines(featuresFile, prunedBuilder.getFeatureNames());
+
+            SVMInitialZoneClassifier loaded = new SVMInitialZoneClassifier();
+            loaded.loadFeatureMask(featuresFile.getPath());
+            loaded.loadModelFromFile(modelFile.getPath(), rangeFile.getPath());
+            assertEquals(prunedBuilder.getFeatureNames(), loaded.featureVectorBuilder.getFeatureNames());
+
+            for (BxZone zone : zones) {
+                assertEquals(pruned.predictLabel(zone, zone.getParent()), loaded.predictLabel(zone, zone.getParent()));
+            }
+        } finally {
+            modelFile.delete();
+            rangeFile.delete();
+            featuresFile.delete();
+        }
+    }
+
+    private static BufferedReader newReader(String... lines) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append("\n");
+        }
+        return new BufferedReader(new StringReader(sb.toString()));
+    }
+
+    private static List<BxPage> readPages(String zipPath, String entry) throws Exception {
+        ZipFile zipFile = new ZipFile(new File(SVMClassifierTest.class.getResource(zipPath).toURI()));
+        try {
+            InputStreamReader source = new InputStreamReader(zipFile.getInputStream(zipFile.getEntry(entry)), "UTF-8");
+            return new TrueVizToBxDocumentReader().read(source);
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private static svm_parameter newParameter() {
+        svm_parameter param = SVMZoneClassifier.getDefaultParam();
+        param.kernel_type = svm_parameter.LINEAR;
+        return param;
+    }
+
+    private static class XFeature extends FeatureCalculator<BxZone, BxPage> {
+
+        @Override
+        public double calculateFeatureValue(BxZone object, BxPage context) {
+            return object.getX();
+        }
+    }
+
+    private static class ConstantFeature extends FeatureCalculator<BxZone, BxPage> {
+
+        @Override
+        public double calculateFeatureValue(BxZone object, BxPage context) {
+            return 5;
+        }
+    }
+
+    private static class WidthFeature extends FeatureCalculator<BxZone, BxPage> {
+
+        @Override
+        public double calculateFeatureValue(BxZone object, BxPage context) {
+            return object.getWidth();
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.tools.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.ObjectName;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExtractionMetricsTest {
+
+    @Before
+    public void setUp() {
+        ExtractionMetrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        ExtractionMetrics.setEnabled(false);
+        ExtractionMetrics.reset();
+    }
+
+    @Test
+    public void testHistogram() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean(), 0.0001);
+        assertEquals(63, histogram.getPercentile(0.5));
+        assertEquals(100, histogram.getPercentile(0.99));
+        assertEquals(1, histogram.getPercentile(0.01));
+    }
+
+    @Test
+    public void testDisabled() {
+        ExtractionMetrics.setEnabled(false);
+        ExtractionMetrics.startStage("disabled").stop();
+        ExtractionMetrics.count("disabled", 5);
+        assertFalse(ExtractionMetrics.getMetrics().containsKey("stage.disabled.wallMicros.count"));
+        assertFalse(ExtractionMetrics.getMetrics().containsKey("count.disabled.count"));
+    }
+
+    @Test
+    public void testEnabled() throws Exception {
+        ExtractionMetrics.setEnabled(true);
+        for (int i = 0; i < 3; i++) {
+            ExtractionMetrics.Stage stage = ExtractionMetrics.startStage("test");
+            Thread.sleep(5);
+            stage.stop();
+        }
+        ExtractionMetrics.count("zones", 10);
+        ExtractionMetrics.count("zones", 20);
+
+        Map<String, Number> metrics = ExtractionMetrics.getMetrics();
+        assertEquals(3L, metrics.get("stage.test.wallMicros.count"));
+        assertTrue(metrics.get("stage.test.wallMicros.sum").longValue() >= 15000);
+        assertEquals(2L, metrics.get("count.zones.count"));
+        assertEquals(30L, metrics.get("count.zones.sum"));
+        assertEquals(20L, metrics.get("count.zones.max"));
+
+        ExtractionMetrics.registerMBean();
+        ExtractionMetrics.registerMBean();
+        ObjectName name = new ObjectName(ExtractionMetrics.OBJECT_NAME);
+        assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "count.zones.count"));
+        assertEquals(Boolean.TRUE, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Enabled"));
+    }
+
+}
@@ -21,6 +21,8 @@ package pl.edu.icm.cermine.pubmed;
 import java.io.*;
 import java.util.Map.Entry;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -35,8 +37,6 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import pl.edu.icm.cermine.PdfBxStructureExtractor;
-import pl.edu.icm.cermine.evaluation.tools.CosineDistance;
-import pl.edu.icm.cermine.evaluation.tools.SmithWatermanDistance;
 import pl.edu.icm.cermine.evaluation.tools.StringTools;
 import pl.edu.icm.cermine.evaluation.tools.XMLTools;
 import pl.edu.icm.cermine.exception.AnalysisException;
@@ -52,6 +52,8 @@ public class PubmedXMLGenerator {
         private BxZoneLabel label;
         private Double alignment;
         private List<String> entryTokens;
+        private Set<String> entryTokenSet;
+        private Set<String> normalizedEntryTokenSet;
         
         @Override
         public int hashCode() {
@@ -93,7 +95,30 @@ public class PubmedXMLGenerator {
             this.label = label;
             this.entryTokens = tokens;
         }
+        
+        public Set<String> getEntryTokenSet() {
+            if (entryTokenSet == null) {
+                entryTokenSet = new HashSet<String>(entryTokens);
+            }
+            return entryTokenSet;
+        }
+        
+        public Set<String> getNormalizedEntryTokenSet() {
+            if (normalizedEntryTokenSet == null) {
+                normalizedEntryTokenSet = new HashSet<String>();
+                for (String token : entryTokens) {
+                    normalizedEntryTokenSet.add(normalizeToken(token));
+                }
+            }
+            return normalizedEntryTokenSet;
+        }
     };
+    
+    private static final Pattern NON_TOKEN_CHARS = Pattern.compile("[^0-9a-zA-Z,;\\.!\\?]");
+    
+    private static String normalizeToken(String token) {
+        return NON_TOKEN_CHARS.matcher(token).replaceAll("");
+    }
 
 	private boolean verbose = false;
 
@@ -484,51 +509,45 @@ public class PubmedXMLGenerator {
 
         printlnVerbose("ref: " + refStrings.size() + " " + refStrings);
 
-        SmithWatermanDistance smith = new SmithWatermanDistance(.1, 0.1);
-        CosineDistance cos = new CosineDistance();
-
-        //index: (zone,entry)
-        List<List<LabelTrio>> swLabelSim = new ArrayList<List<LabelTrio>>(bxDocLen);
-        List<List<LabelTrio>> cosLabProb = new ArrayList<List<LabelTrio>>(bxDocLen);
-        for (Integer i = 0; i < bxDocLen; ++i) {
-            swLabelSim.add(new ArrayList<LabelTrio>());
-            cosLabProb.add(new ArrayList<LabelTrio>());
-        }
+        List<BxZone> zones = bxDoc.asZones();
+        ZoneAlignmentEngine aligner = new ZoneAlignmentEngine(.1, 0.1);
 
-        //iterate over entries
+        List<BxZoneLabel> entryLabels = new ArrayList<BxZoneLabel>(entries.size());
+        List<List<String>> entryTokenLists = new ArrayList<List<String>>(entries.size());
         for (Entry<String, BxZoneLabel> entry : entries.entrySet()) {
             List<String> entryTokens = StringTools.tokenize(entry.getKey());
-            printlnVerbose("--------------------");
-            printlnVerbose(entry.getValue() + " " + entry.getKey() + "\n");
-            //iterate over zones
-            for (Integer zoneIdx = 0; zoneIdx < bxDocLen; ++zoneIdx) {
-                BxZone curZone = bxDoc.asZones().get(zoneIdx);
+            entryLabels.add(entry.getValue());
+            entryTokenLists.add(entryTokens);
+            aligner.addEntry(entryTokens);
+        }
+
+        //index: (zone,entry)
+        List<List<LabelTrio>> swLabelSim = new ArrayList<List<LabelTrio>>(bxDocLen);
+        for (BxZone curZone : zones) {
+            double[] scores;
+            if (curZone.toText().contains("www.biomedcentral.com")) {
+                //ignore
+                scores = new double[entryTokenLists.size()];
+            } else {
                 List<String> zoneTokens = StringTools.tokenize(
                         StringTools.removeOrphantSpaces(
                         StringTools.cleanLigatures(
                         curZone.toText().toLowerCase())));
-                
-                Double smithSim;
-                Double cosSim;
-                if (curZone.toText().contains("www.biomedcentral.com")) {
-                    //ignore
-                    smithSim = 0.;
-                    cosSim = 0.;
-                } else {
-                    smithSim = smith.compare(entryTokens, zoneTokens);
-                    cosSim = cos.compare(entryTokens, zoneTokens);
-                }
-                printlnVerbose(smithSim + " " + bxDoc.asZones().get(zoneIdx).toText() + "\n\n");
-                swLabelSim.get(zoneIdx).add(new LabelTrio(entry.getValue(), entryTokens, smithSim));
-                cosLabProb.get(zoneIdx).add(new LabelTrio(entry.getValue(), entryTokens, cosSim));
+                scores = aligner.align(zoneTokens);
+            }
+            List<LabelTrio> zoneSims = new ArrayList<LabelTrio>(scores.length);
+            for (int entryIdx = 0; entryIdx < scores.length; entryIdx++) {
+                zoneSims.add(new LabelTrio(entryLabels.get(entryIdx), entryTokenLists.get(entryIdx), scores[entryIdx]));
             }
+            swLabelSim.add(zoneSims);
         }
 
         printlnVerbose("===========================");
+        int zoneIdx = -1;
         for (BxPage page: bxDoc.getPages()) {
         	for(BxZone zone: page.getZones()) {
-        		Integer zoneIdx = bxDoc.asZones().indexOf(zone);
-        		BxZone curZone = bxDoc.asZones().get(zoneIdx);
+        		++zoneIdx;
+        		BxZone curZone = zone;
         		String zoneText = StringTools.removeOrphantSpaces(curZone.toText().toLowerCase());
         		List<String> zoneTokens = StringTools.tokenize(zoneText);
         		Boolean valueSet = false;
@@ -632,7 +651,7 @@ public class PubmedXMLGenerator {
                 for (LabelTrio lt : l) {
                     int i = 0;
                     for (String zt : zoneTokens) {
-                        if (lt.entryTokens.contains(zt)) {
+                        if (lt.getEntryTokenSet().contains(zt)) {
                             i++;
                         }
                     }
@@ -645,14 +664,15 @@ public class PubmedXMLGenerator {
                     curZone.setLabel(best);
                     valueSet = true;
                 } else {
+                    List<String> normalizedZoneTokens = new ArrayList<String>(zoneTokens.size());
+                    for (String zt : zoneTokens) {
+                        normalizedZoneTokens.add(normalizeToken(zt));
+                    }
                     for (LabelTrio lt : l) {
                         int i = 0;
-                        for (String zt : zoneTokens) {
-                            for (String j: lt.entryTokens) {
-                                if (zt.replaceAll("[^0-9a-zA-Z,;\\.!\\?]", "").equals(j.replaceAll("[^0-9a-zA-Z,;\\.!\\?]", ""))) {
-                                    i++;
-                                    break;
-                                }
+                        for (String zt : normalizedZoneTokens) {
+                            if (lt.getNormalizedEntryTokenSet().contains(zt)) {
+                                i++;
                             }
                         }
                         if (i > bestScore && i > 1) {
@@ -722,77 +742,104 @@ public class PubmedXMLGenerator {
         unlabeledZones.removeAll(toBeRemoved);
     }
     
-    public static void main(String[] args) {
-        if (args.length != 1) {
-            System.err.println("Usage: <pubmed directory>");
+    private static String processFile(File pdfFile) throws Exception {
+        String pdfPath = pdfFile.getPath();
+        String nxmlPath = StringTools.getNLMPath(pdfPath);
+
+        InputStream pdfStream = new FileInputStream(pdfPath);
+        InputStream nxmlStream = new FileInputStream(nxmlPath);
+        BxDocument bxDoc;
+        try {
+            PubmedXMLGenerator datasetGenerator = new PubmedXMLGenerator();
+            datasetGenerator.setVerbose(false);
+            bxDoc = datasetGenerator.generateTrueViz(pdfStream, nxmlStream);
+        } finally {
+            pdfStream.close();
+            nxmlStream.close();
+        }
+
+        int keys = 0;
+        Set<BxZoneLabel> set = EnumSet.noneOf(BxZoneLabel.class);
+        int total = 0;
+        int known = 0;
+        for (BxZone z: bxDoc.asZones()) {
+            total++;
+            if (z.getLabel() != null) {
+                known++;
+                if (z.getLabel().isOfCategoryOrGeneral(BxZoneLabelCategory.CAT_METADATA)) {
+                    set.add(z.getLabel());
+                }
+                if (BxZoneLabel.REFERENCES.equals(z.getLabel())) {
+                    keys = 1;
+                }
+            }
+        }
+
+        if (set.contains(BxZoneLabel.MET_AFFILIATION)) {
+            keys++;
+        }
+        if (set.contains(BxZoneLabel.MET_AUTHOR)) {
+            keys++;
+        }
+        if (set.contains(BxZoneLabel.MET_BIB_INFO)) {
+            keys++;
+        }
+        if (set.contains(BxZoneLabel.MET_TITLE)) {
+            keys++;
+        }
+        int coverage = 0;
+        if (total > 0) {
+            coverage = known*100/total;
+        }
+
+        FileWriter fstream = new FileWriter(
+                StringTools.getTrueVizPath(nxmlPath).replace(".xml", "."+coverage+".cxml"));
+        BufferedWriter out = new BufferedWriter(fstream);
+        try {
+            BxDocumentToTrueVizWriter writer = new BxDocumentToTrueVizWriter();
+            out.write(writer.write(bxDoc.getPages()));
+        } finally {
+            out.close();
+        }
+
+        return pdfPath+" "+coverage+" "+set.size()+" "+keys+" done";
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 1 && args.length != 2) {
+            System.err.println("Usage: <pubmed directory> [<threads number>]");
             System.exit(1);
         }
+        int threadsNumber = Runtime.getRuntime().availableProcessors();
+        if (args.length == 2) {
+            threadsNumber = Integer.parseInt(args[1]);
+        }
 	
         File dir = new File(args[0]);
-        for (File pdfFile : FileUtils.listFiles(dir, new String[]{"pdf"}, true)) {
-            try { 
-                String pdfPath = pdfFile.getPath();
-                String nxmlPath = StringTools.getNLMPath(pdfPath);
-                
-                File xmlFile = new File(StringTools.getTrueVizPath(nxmlPath));
-                if (xmlFile.exists()) {
-                    continue;
-                }
-                
-                System.out.print(pdfPath+" ");
-
-                InputStream pdfStream = new FileInputStream(pdfPath);
-                InputStream nxmlStream = new FileInputStream(nxmlPath);
+        ExecutorService exec = Executors.newFixedThreadPool(threadsNumber);
+        CompletionService<String> completionService = new ExecutorCompletionService<String>(exec);
+        int submitted = 0;
+        for (final File pdfFile : FileUtils.listFiles(dir, new String[]{"pdf"}, true)) {
+            File xmlFile = new File(StringTools.getTrueVizPath(StringTools.getNLMPath(pdfFile.getPath())));
+            if (xmlFile.exists()) {
+                continue;
+            }
+            completionService.submit(new Callable<String>() {
 
-                PubmedXMLGenerator datasetGenerator = new PubmedXMLGenerator();
-                datasetGenerator.setVerbose(false);
-                BxDocument bxDoc = datasetGenerator.generateTrueViz(pdfStream, nxmlStream);
-                
-                int keys = 0;
-                Set<BxZoneLabel> set = EnumSet.noneOf(BxZoneLabel.class);
-                int total = 0;
-                int known = 0;
-                for (BxZone z: bxDoc.asZones()) {
-                    total++;
-                    if (z.getLabel() != null) {
-                        known++;
-                        if (z.getLabel().isOfCategoryOrGeneral(BxZoneLabelCategory.CAT_METADATA)) {
-                            set.add(z.getLabel());
-                        }
-                        if (BxZoneLabel.REFERENCES.equals(z.getLabel())) {
-                            keys = 1;
-                        }
-                    }
-                }
-                
-                if (set.contains(BxZoneLabel.MET_AFFILIATION)) {
-                    keys++;
+                @Override
+                public String call() throws Exception {
+                    return processFile(pdfFile);
                 }
-                if (set.contains(BxZoneLabel.MET_AUTHOR)) {
-                    keys++;
-                }
-                if (set.contains(BxZoneLabel.MET_BIB_INFO)) {
-                    keys++;
-                }
-                if (set.contains(BxZoneLabel.MET_TITLE)) {
-                    keys++;
-                }
-                int coverage = 0;
-                if (total > 0) {
-                    coverage = known*100/total;
-                }
-                System.out.print(coverage+" "+set.size()+" "+keys);
-
-                FileWriter fstream = new FileWriter(
-                        StringTools.getTrueVizPath(nxmlPath).replace(".xml", "."+coverage+".cxml"));
-                BufferedWriter out = new BufferedWriter(fstream);
-                BxDocumentToTrueVizWriter writer = new BxDocumentToTrueVizWriter();
-                out.write(writer.write(bxDoc.getPages()));
-                out.close();
-                
-                System.out.println(" done");
-            } catch (Exception e) {
-                e.printStackTrace();
+            });
+            submitted++;
+        }
+        exec.shutdown();
+        
+        for (int i = 0; i < submitted; i++) {
+            try {
+                System.out.println(completionService.take().get());
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
             }
         }
     }
@@ -0,0 +1,131 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.pubmed;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes Smith-Waterman token alignment scores between metadata entries
+ * and document zones.
+ *
+ * Tokens are interned to integer ids once. An inverted index from token ids
+ * to entries is used to find candidate pairs: an entry and a zone that do not
+ * share any token always have the alignment score of 0, so the alignment is
+ * computed only for pairs sharing at least one token. The scores are exactly
+ * the same as the ones computed by SmithWatermanDistance.
+ */
+public class ZoneAlignmentEngine {
+
+    private final double mu;
+
+    private final double delta;
+
+    private final Map<String, Integer> tokenIds = new HashMap<String, Integer>();
+
+    private final List<int[]> entries = new ArrayList<int[]>();
+
+    private final List<List<Integer>> invertedIndex = new ArrayList<List<Integer>>();
+
+    public ZoneAlignmentEngine(double mu, double delta) {
+        this.mu = mu;
+        this.delta = delta;
+    }
+
+    /**
+     * Adds an entry to the engine.
+     *
+     * @param tokens entry tokens
+     * @return entry index
+     */
+    public int addEntry(List<String> tokens) {
+        int entryIdx = entries.size();
+        int[] ids = intern(tokens);
+        entries.add(ids);
+        for (int id : ids) {
+            List<Integer> postings = invertedIndex.get(id);
+            if (postings.isEmpty() || postings.get(postings.size() - 1) != entryIdx) {
+                postings.add(entryIdx);
+            }
+        }
+        return entryIdx;
+    }
+
+    /**
+     * Computes the alignment scores of a zone and all the entries.
+     *
+     * @param zoneTokens zone tokens
+     * @return the array of scores, indexed by entry indices
+     */
+    public double[] align(List<String> zoneTokens) {
+        double[] scores = new double[entries.size()];
+        int[] zone = intern(zoneTokens);
+        boolean[] candidates = new boolean[entries.size()];
+        for (int id : zone) {
+            for (int entryIdx : invertedIndex.get(id)) {
+                candidates[entryIdx] = true;
+            }
+        }
+        for (int entryIdx = 0; entryIdx < entries.size(); entryIdx++) {
+            if (candidates[entryIdx]) {
+                scores[entryIdx] = smithWaterman(entries.get(entryIdx), zone);
+            }
+        }
+        return scores;
+    }
+
+    private int[] intern(List<String> tokens) {
+        int[] ids = new int[tokens.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Integer id = tokenIds.get(tokens.get(i));
+            if (id == null) {
+                id = tokenIds.size();
+                tokenIds.put(tokens.get(i), id);
+                invertedIndex.add(new ArrayList<Integer>());
+            }
+            ids[i] = id;
+        }
+        return ids;
+    }
+
+    private double smithWaterman(int[] s1, int[] s2) {
+        double[] prev = new double[s2.length + 1];
+        double[] cur = new double[s2.length + 1];
+        double max = 0.;
+        for (int i = 1; i <= s1.length; i++) {
+            for (int j = 1; j <= s2.length; j++) {
+                double score = prev[j - 1] + (s1[i - 1] == s2[j - 1] ? 1. : -mu);
+                score = Math.max(score, prev[j] - delta);
+                score = Math.max(score, cur[j - 1] - delta);
+                score = Math.max(score, 0.);
+                cur[j] = score;
+                if (score > max) {
+                    max = score;
+                }
+            }
+            double[] tmp = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return max;
+    }
+
+}
@@ -18,19 +18,23 @@
 
 package pl.edu.icm.cermine.service;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import org.jdom.Document;
-import org.jdom.Element;
-import org.jdom.JDOMException;
-import org.jdom.xpath.XPath;
 import org.slf4j.LoggerFactory;
+import pl.edu.icm.cermine.article.model.*;
+import pl.edu.icm.cermine.article.model.ArticleReference.FieldType;
+import pl.edu.icm.cermine.article.transformers.NLMElementToArticleConverter;
+import pl.edu.icm.cermine.exception.TransformationException;
 
 /**
  *
  * @author Aleksander Nowinski <a.nowinski@icm.edu.pl>
  */
-public class ArticleMeta {
+public class ArticleMeta implements Serializable {
+
+    private static final long serialVersionUID = -2307418316627346091L;
 
     static org.slf4j.Logger log = LoggerFactory.getLogger(ArticleMeta.class);
     private String title;
@@ -234,24 +238,22 @@ public class ArticleMeta {
         this.references = references;
     }
     
-    private static String extractXPathValue(Document nlm, String xpath) throws JDOMException {
-        XPath xPath = XPath.newInstance(xpath);
-        String res = xPath.valueOf(nlm);
-        if (res != null) {
-            res = res.trim();
-        }
-        return res;
+    private static String valueOf(String value) {
+        return value == null ? "" : value;
     }
     
-    private static String extractDateValue(Document nlm, String xpath) throws JDOMException {
-        String pubYear = extractXPathValue(nlm, xpath + "/year");
-        String pubMonth = extractXPathValue(nlm, xpath + "/month");
-        String pubDay = extractXPathValue(nlm, xpath + "/day");
+    private static String extractDateValue(ArticleDate date) {
+        if (date == null) {
+            return "";
+        }
+        String pubYear = valueOf(date.getYear());
+        String pubMonth = valueOf(date.getMonth());
+        String pubDay = valueOf(date.getDay());
         String pubDate = pubYear;
-        if (pubYear != null && !pubYear.isEmpty() && pubMonth != null && !pubMonth.isEmpty()) {
+        if (!pubYear.isEmpty() && !pubMonth.isEmpty()) {
             pubDate += "-";
             pubDate += pubMonth;
-            if (pubDay != null && !pubDay.isEmpty()) {
+            if (!pubDay.isEmpty()) {
                 pubDate += "-";
                 pubDate += pubDay;
             }
@@ -259,31 +261,24 @@ public class ArticleMeta {
         return pubDate;
     }
     
-    private static List<ContributorMeta> extractContributorMeta(Document nlm, String xpath) throws JDOMException {
-        XPath xPath = XPath.newInstance(xpath);
-        List<Element> nodes = xPath.selectNodes(nlm);
+    private static List<ContributorMeta> extractContributorMeta(ArticleFront front, String type) {
         List<ContributorMeta> authors = new ArrayList<ContributorMeta>();
-        for (Element node : nodes) {
-            Element nameEl = node.getChild("name");
-            String name;
-            if (nameEl != null) {
-                name = nameEl.getChildText("surname")+", "+nameEl.getChildText("given-names");
-            } else {
-                name = node.getChildText("string-name");
+        for (ArticleContributor contributor : front.getContributors(type)) {
+            String name = contributor.getName();
+            if (name == null) {
+                name = contributor.getSurname()+", "+contributor.getGivenNames();
             }
             log.debug("Got author name: " + name);
             ContributorMeta author = new ContributorMeta(name);
             
-            List<Element> affs = node.getChildren("aff");
-            for (Element aff : affs) {
+            for (String aff : contributor.getAffiliations()) {
                 log.debug("Got author affiliation: " + aff);
-                author.addAffiliations(aff.getText());
+                author.addAffiliations(aff);
             }
             
-            List<Element> emails = node.getChildren("email");
-            for (Element email : emails) {
+            for (String email : contributor.getEmails()) {
                 log.debug("Got author email: " + email);
-                author.addEmail(email.getText());
+                author.addEmail(email);
             }
             
             authors.add(author);
@@ -291,30 +286,27 @@ public class ArticleMeta {
         return authors;            
     }
     
-    private static List<ArticleMeta> extractReferences(Document nlm, String xpath) throws JDOMException {
-        XPath xPath = XPath.newInstance(xpath);
-        List<Element> nodes = xPath.selectNodes(nlm);
+    private static List<ArticleMeta> extractReferences(List<ArticleReference> nodes) {
         List<ArticleMeta> references = new ArrayList<ArticleMeta>();
-        for (Element node : nodes) {
+        for (ArticleReference node : nodes) {
             ArticleMeta reference = new ArticleMeta();
             
-            reference.setAbstractText(node.getValue());
-            reference.setTitle(node.getChildText("article-title"));
-            reference.setPublisher(node.getChildText("publisher-name"));
-            reference.setPublisherLoc(node.getChildText("publisher-loc"));
-            reference.setPubDate(node.getChildText("year"));
-            reference.setFpage(node.getChildText("fpage"));
-            reference.setLpage(node.getChildText("lpage"));
-            reference.setJournalTitle(node.getChildText("source"));
-            reference.setVolume(node.getChildText("volume"));
-            reference.setIssue(node.getChildText("issue"));
+            reference.setAbstractText(node.getText());
+            reference.setTitle(node.getFirstFieldValue(FieldType.TITLE));
+            reference.setPublisher(node.getFirstFieldValue(FieldType.PUBLISHER));
+            reference.setPublisherLoc(node.getFirstFieldValue(FieldType.LOCATION));
+            reference.setPubDate(node.getFirstFieldValue(FieldType.YEAR));
+            reference.setFpage(node.getFirstFieldValue(FieldType.FIRST_PAGE));
+            reference.setLpage(node.getFirstFieldValue(FieldType.LAST_PAGE));
+            reference.setJournalTitle(node.getFirstFieldValue(FieldType.SOURCE));
+            reference.setVolume(node.getFirstFieldValue(FieldType.VOLUME));
+            reference.setIssue(node.getFirstFieldValue(FieldType.ISSUE));
             
-            List<Element> authorNodes = node.getChildren("string-name");
             List<ContributorMeta> authors = new ArrayList<ContributorMeta>();
-            for (Element authorNode : authorNodes) {
+            for (ArticleReference.Field authorNode : node.getFields(FieldType.AUTHOR)) {
                 ContributorMeta author = new ContributorMeta();
-                author.setGivennames(authorNode.getChildText("given-names"));
-                author.setSurname(authorNode.getChildText("surname"));
+                author.setGivennames(authorNode.getFirstPartValue(FieldType.GIVEN_NAMES));
+                author.setSurname(authorNode.getFirstPartValue(FieldType.SURNAME));
                 authors.add(author);
             }
             reference.setAuthors(authors);
@@ -324,65 +316,73 @@ public class ArticleMeta {
         return references;
     }
 
-    public static ArticleMeta extractNLM(Document nlm) {
-        log.debug("Starting extraction from document...");
-        try {
-            ArticleMeta res = new ArticleMeta();
-            
-            res.setJournalTitle(extractXPathValue(nlm, "/article/front//journal-title"));
-            log.debug("Got journal title: " + res.getJournalTitle());
-            
-            res.setJournalISSN(extractXPathValue(nlm, "/article/front//journal-meta/issn[@pub-type='ppub']"));
-            log.debug("Got journal ISSN: " + res.getJournalISSN());
-            
-            res.setPublisher(extractXPathValue(nlm, "/article/front//publisher-name"));
-            log.debug("Got publisher name: " + res.getPublisher());
-            
-            res.setTitle(extractXPathValue(nlm, "/article/front//article-title"));
-            log.debug("Got title from xpath: " + res.getTitle());
-            
-            res.setDoi(extractXPathValue(nlm, "/article/front//article-id[@pub-id-type='doi']"));
-            log.debug("Got doi from xpath: " + res.getDoi());
-            
-            res.setUrn(extractXPathValue(nlm, "/article/front//article-id[@pub-id-type='urn']"));
-            log.debug("Got urn: " + res.getUrn());
+    /**
+     * Extracts the metadata from the article.
+     * 
+     * @param article article
+     * @return article's metadata
+     */
+    public static ArticleMeta extract(Article article) {
+        ArticleFront front = article.getFront();
+        ArticleMeta res = new ArticleMeta();
 
-            res.setAbstractText(extractXPathValue(nlm, "/article/front//abstract"));
-            log.debug("Got abstract: " + res.getAbstractText());
+        res.setJournalTitle(valueOf(front.getJournalTitle()));
+        log.debug("Got journal title: " + res.getJournalTitle());
 
-            //front and last page:
-            res.setFpage(extractXPathValue(nlm, "/article/front/article-meta/fpage"));
-            res.setLpage(extractXPathValue(nlm, "/article/front/article-meta/lpage"));
-            
-            res.setVolume(extractXPathValue(nlm, "/article/front/article-meta/volume"));
+        res.setJournalISSN(valueOf(front.getJournalIssn()));
+        log.debug("Got journal ISSN: " + res.getJournalISSN());
 
-            res.setIssue(extractXPathValue(nlm, "/article/front/article-meta/issue"));
-            
-            res.setAuthors(extractContributorMeta(nlm, "//contrib[@contrib-type='author']"));
-            res.setEditors(extractContributorMeta(nlm, "//contrib[@contrib-type='editor']"));
-            
-            res.setPubDate(extractDateValue(nlm, "//pub-date"));
-            res.setReceivedDate(extractDateValue(nlm, "//history/date[@date-type='received']"));
-            res.setRevisedDate(extractDateValue(nlm, "//history/date[@date-type='revised']"));
-            res.setAcceptedDate(extractDateValue(nlm, "//history/date[@date-type='accepted']"));
-
-            XPath xPath = XPath.newInstance("//kwd");
-            List<String> kwds = new ArrayList<String>();
-            for (Object e : xPath.selectNodes(nlm)) {
-                kwds.add(((Element) e).getTextTrim());
-            }
-            res.setKeywords(kwds);
-            
-            res.setReferences(extractReferences(nlm, "//ref/mixed-citation"));
-            
-            return res;
-        } catch (JDOMException ex) {
-            log.error("Unexpected exception while working with xpath", ex);
+        res.setPublisher(valueOf(front.getPublisher()));
+        log.debug("Got publisher name: " + res.getPublisher());
+
+        res.setTitle(valueOf(front.getTitle()));
+        log.debug("Got title: " + res.getTitle());
+
+        res.setDoi(valueOf(front.getArticleId(ArticleId.TYPE_DOI)));
+        log.debug("Got doi: " + res.getDoi());
+
+        res.setUrn(valueOf(front.getArticleId(ArticleId.TYPE_URN)));
+        log.debug("Got urn: " + res.getUrn());
+
+        res.setAbstractText(valueOf(front.getAbstractText()));
+        log.debug("Got abstract: " + res.getAbstractText());
+
+        //front and last page:
+        res.setFpage(valueOf(front.getFirstPage()));
+        res.setLpage(valueOf(front.getLastPage()));
+
+        res.setVolume(valueOf(front.getVolume()));
+
+        res.setIssue(valueOf(front.getIssue()));
+
+        res.setAuthors(extractContributorMeta(front, ArticleContributor.TYPE_AUTHOR));
+        res.setEditors(extractContributorMeta(front, ArticleContributor.TYPE_EDITOR));
+
+        res.setPubDate(extractDateValue(front.getPublicationDate()));
+        res.setReceivedDate(extractDateValue(front.getHistoryDate(ArticleDate.TYPE_RECEIVED)));
+        res.setRevisedDate(extractDateValue(front.getHistoryDate(ArticleDate.TYPE_REVISED)));
+        res.setAcceptedDate(extractDateValue(front.getHistoryDate(ArticleDate.TYPE_ACCEPTED)));
+
+        res.setKeywords(new ArrayList<String>(front.getKeywords()));
+
+        res.setReferences(extractReferences(article.getReferences()));
+
+        return res;
+    }
+
+    public static ArticleMeta extractNLM(Document nlm) {
+        log.debug("Starting extraction from document...");
+        try {
+            return extract(new NLMElementToArticleConverter().convert(nlm.getRootElement()));
+        } catch (TransformationException ex) {
+            log.error("Unexpected exception while reading the document", ex);
             throw new RuntimeException(ex);
         }
     }
     
-    public static class ContributorMeta {
+    public static class ContributorMeta implements Serializable {
+
+        private static final long serialVersionUID = 6027512829386411254L;
         private String name;
         private String givennames;
         private String surname;
@@ -0,0 +1,348 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.edu.icm.cermine.exception.TransformationException;
+
+/**
+ * Extraction of a batch of pdf files. The files are read from the source one
+ * by one and submitted to the extraction service. The results are written as
+ * newline-delimited JSON objects, one per file, in the order in which
+ * the extractions finish. The files are spooled to temporary files, removed
+ * as soon as their extractions finish, and at most maxPending files wait
+ * for their results at a time. A file whose result has not arrived within
+ * the service's extraction timeout (and a short grace period) is reported
+ * as failed.
+ *
+ * Each result object contains the file's index in the batch, its name and
+ * status, and the extracted article or the error message. The last object
+ * summarizes the batch.
+ */
+public class BatchExtraction {
+
+    public static enum Status {
+        OK, FAILED, REJECTED
+    }
+
+    /**
+     * Source of the batch's files.
+     */
+    public interface Source {
+
+        /**
+         * Moves to the next file.
+         *
+         * @return false if there are no more files
+         * @throws IOException
+         */
+        boolean next() throws IOException;
+
+        String getName();
+
+        /**
+         * @return the content of the current file
+         * @throws IOException
+         */
+        InputStream getContent() throws IOException;
+    }
+
+    private static final byte[] NEWLINE = {'\n'};
+    private static final String ARTICLE_MEMBER = ",\"article\":";
+    private static final long DEFAULT_TIMEOUT_GRACE = 5000;
+
+    private final CermineExtractorService service;
+    private final int maxPending;
+    private final BlockingQueue<Item> finished = new LinkedBlockingQueue<Item>();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Logger log = LoggerFactory.getLogger(BatchExtraction.class);
+    /** time (in milliseconds) the service is given to report a timed out extraction itself */
+    private long timeoutGrace = DEFAULT_TIMEOUT_GRACE;
+
+    private OutputStream output;
+    /** submitted items waiting for the results, in the order of submission */
+    private final Set<Item> pending = new LinkedHashSet<Item>();
+    private int itemCount;
+    private int succeededCount;
+
+    /**
+     * @param service extraction service
+     * @param maxPending maximum number of files submitted and waiting
+     * for results
+     */
+    public BatchExtraction(CermineExtractorService service, int maxPending) {
+        this.service = service;
+        this.maxPending = Math.max(1, maxPending);
+    }
+
+    /**
+     * Extracts the files from the source and writes the results.
+     * A source that cannot be read further ends the batch, the error is
+     * reported in the summary.
+     *
+     * @param source batch's files
+     * @param output result stream, flushed after every result
+     * @throws IOException if the results cannot be written
+     */
+    public void extract(Source source, OutputStream output) throws IOException {
+        this.output = output;
+        String sourceError = null;
+        while (true) {
+            String name;
+            File content;
+            try {
+                if (!source.next()) {
+                    break;
+                }
+                name = source.getName();
+                content = spool(source);
+            } catch (IOException ex) {
+                log.debug("Cannot read the batch", ex);
+                sourceError = ex.getMessage() == null ? ex.getClass().getName() : ex.getMessage();
+                break;
+            }
+            Item item = new Item(itemCount++, name);
+            if (content.length() == 0) {
+                content.delete();
+                item.reject(Status.FAILED, "An empty file.");
+                write(item);
+                continue;
+            }
+            submit(item, content);
+            while (pending.size() >= maxPending) {
+                write(takeFinished());
+            }
+            Item next;
+            while ((next = finished.poll()) != null) {
+                pending.remove(next);
+                write(next);
+            }
+        }
+        while (!pending.isEmpty()) {
+            write(takeFinished());
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<String, Object>();
+        summary.put("items", itemCount);
+        summary.put("succeeded", succeededCount);
+        summary.put("failed", itemCount - succeededCount);
+        if (sourceError != null) {
+            summary.put("error", sourceError);
+        }
+        writeLine(summary, null);
+    }
+
+    void setTimeoutGrace(long timeoutGrace) {
+        this.timeoutGrace = timeoutGrace;
+    }
+
+    private File spool(Source source) throws IOException {
+        InputStream content = source.getContent();
+        try {
+            return PdfFiles.spool(content);
+        } finally {
+            content.close();
+        }
+    }
+
+    private void submit(final Item item, final File content) throws IOException {
+        while (true) {
+            try {
+                long timeout = service.getExtractionTimeout();
+                item.deadline = timeout > 0 ? System.currentTimeMillis() + timeout + timeoutGrace : 0;
+                service.submitExtraction(content, new ExtractionListener() {
+                    @Override
+                    public void extractionFinished(ExtractionResult result) {
+                        content.delete();
+                        if (item.done.compareAndSet(false, true)) {
+                            item.result = result;
+                            finished.add(item);
+                        }
+                    }
+                });
+                pending.add(item);
+                return;
+            } catch (ServiceOverloadedException ex) {
+                if (pending.isEmpty()) {
+                    content.delete();
+                    item.reject(Status.REJECTED, ex.getMessage());
+                    write(item);
+                    return;
+                }
+                write(takeFinished());
+            } catch (ServiceException ex) {
+                content.delete();
+                item.reject(Status.FAILED, ex.getMessage());
+                write(item);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for the next finished item. If the oldest pending item's deadline
+     * passes first, that item is returned as failed instead, and its result,
+     * if it arrives later, is ignored.
+     */
+    private Item takeFinished() throws IOException {
+        try {
+            while (true) {
+                Iterator<Item> oldest = pending.iterator();
+                Item first = oldest.next();
+                Item item;
+                if (first.deadline > 0) {
+                    item = finished.poll(Math.max(first.deadline - System.currentTimeMillis(), 0),
+                            TimeUnit.MILLISECONDS);
+                } else {
+                    item = finished.take();
+                }
+                if (item != null) {
+                    pending.remove(item);
+                    return item;
+                }
+                if (first.done.compareAndSet(false, true)) {
+                    oldest.remove();
+                    log.warn("Batch file {} exceeded the extraction deadline", first.name);
+                    first.reject(Status.FAILED, "Extraction deadline exceeded.");
+                    return first;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the extraction results");
+        }
+    }
+
+    private void write(Item item) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<String, Object>();
+        ExtractionResult succeeded = null;
+        line.put("index", item.index);
+        line.put("name", item.name);
+        if (item.result == null) {
+            line.put("status", item.status.name());
+            line.put("error", item.error);
+        } else if (item.result.isSucceeded()) {
+            succeededCount++;
+            line.put("status", Status.OK.name());
+            line.put("processingTimeSec", item.result.getProcessingTimeSec());
+            succeeded = item.result;
+        } else {
+            line.put("status", Status.FAILED.name());
+            line.put("processingTimeSec", item.result.getProcessingTimeSec());
+            line.put("error", item.result.getErrorMessage());
+        }
+        writeLine(line, succeeded);
+    }
+
+    /**
+     * Writes the line's object. The article of the result, if any, is streamed
+     * as the last member of the object.
+     */
+    private void writeLine(Map<String, Object> line, ExtractionResult result) throws IOException {
+        String json = mapper.writeValueAsString(line);
+        if (result == null) {
+            output.write(json.getBytes("UTF-8"));
+        } else {
+            output.write(json.substring(0, json.length() - 1).getBytes("UTF-8"));
+            output.write(ARTICLE_MEMBER.getBytes("UTF-8"));
+            try {
+                ResultFormat.JSON.write(output, result);
+            } catch (TransformationException ex) {
+                throw new IOException(ex);
+            }
+            output.write('}');
+        }
+        output.write(NEWLINE);
+        output.flush();
+    }
+
+    /**
+     * Creates a source reading the files of a ZIP archive. Directories are
+     * skipped.
+     *
+     * @param input ZIP archive stream
+     * @return batch source
+     */
+    public static Source zipSource(InputStream input) {
+        final ZipInputStream zip = new ZipInputStream(input);
+        return new Source() {
+
+            private ZipEntry entry;
+
+            @Override
+            public boolean next() throws IOException {
+                do {
+                    entry = zip.getNextEntry();
+                } while (entry != null && entry.isDirectory());
+                return entry != null;
+            }
+
+            @Override
+            public String getName() {
+                return entry.getName();
+            }
+
+            @Override
+            public InputStream getContent() {
+                return new CloseShieldInputStream(zip);
+            }
+        };
+    }
+
+    private static class Item {
+
+        private final int index;
+        private final String name;
+        /** set by the first of: the result's arrival, the deadline's expiry */
+        private final AtomicBoolean done = new AtomicBoolean();
+        private long deadline;
+        private volatile ExtractionResult result;
+        private Status status;
+        private String error;
+
+        public Item(int index, String name) {
+            this.index = index;
+            this.name = name;
+        }
+
+        public void reject(Status status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+    }
+}
@@ -18,7 +18,9 @@
 
 package pl.edu.icm.cermine.service;
 
+import java.io.File;
 import java.io.InputStream;
+import java.util.Map;
 import pl.edu.icm.cermine.exception.AnalysisException;
 
 /**
@@ -40,5 +42,61 @@ public interface CermineExtractorService {
      */
     ExtractionResult extractNLM(InputStream ii) throws AnalysisException, ServiceException;
 
-    long initExtractionTask(byte[] pdf, String fileName);
+    /**
+     * Method to extract metadata from the given pdf file. The file is read
+     * directly by the extractor, without loading it into memory.
+     *
+     * @param pdf
+     * @return result of the extraction, including basic request stats.
+     * @throws AnalysisException
+     */
+    ExtractionResult extractNLM(File pdf) throws AnalysisException, ServiceException;
+
+    /**
+     * Registers an asynchronous extraction task. The task takes the ownership
+     * of the pdf file, which is removed when the task is processed
+     * or expires.
+     *
+     * @param pdf
+     * @param fileName
+     * @param owner id of the session submitting the task
+     * @return task id
+     * @throws ServiceOverloadedException if the service is saturated
+     */
+    long initExtractionTask(File pdf, String fileName, String owner) throws ServiceException;
+
+    /**
+     * Submits an extraction of the given pdf file to the bulk lane and returns
+     * without waiting for the result. The listener is notified when
+     * the extraction finishes. The file must not be removed before that.
+     *
+     * @param pdf
+     * @param listener
+     * @throws ServiceOverloadedException if the service is saturated
+     */
+    void submitExtraction(File pdf, ExtractionListener listener) throws ServiceException;
+
+    /**
+     * Returns the time budget (in milliseconds) of a single request,
+     * including the time spent in the queue.
+     *
+     * @return extraction timeout, or 0 if there is no deadline
+     */
+    long getExtractionTimeout();
+
+    /**
+     * Returns the request queue metrics: queue depths, wait and service
+     * times and request counters.
+     *
+     * @return metric name to value map
+     */
+    Map<String, Number> getQueueMetrics();
+
+    /**
+     * Returns the extraction metrics (processing stages' times and numbers
+     * of processed objects) together with the request queue metrics.
+     *
+     * @return metric name to value map
+     */
+    Map<String, Number> getMetrics();
 }
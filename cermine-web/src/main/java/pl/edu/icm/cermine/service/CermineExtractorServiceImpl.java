@@ -18,13 +18,20 @@
 
 package pl.edu.icm.cermine.service;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.*;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.management.JMException;
+import org.apache.commons.io.IOUtils;
 import org.jdom.Document;
 import org.jdom.Element;
 import org.jdom.output.Format;
@@ -32,10 +39,16 @@ import org.jdom.output.XMLOutputter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import pl.edu.icm.cermine.PdfNLMContentExtractor;
-import pl.edu.icm.cermine.content.transformers.NLMElementToHTMLWriter;
+import pl.edu.icm.cermine.PdfNLMReferencesExtractor;
+import pl.edu.icm.cermine.article.model.Article;
+import pl.edu.icm.cermine.article.transformers.NLMElementToArticleConverter;
+import pl.edu.icm.cermine.bibref.parsing.tools.CitationParseCache;
 import pl.edu.icm.cermine.exception.AnalysisException;
+import pl.edu.icm.cermine.exception.TransformationException;
+import pl.edu.icm.cermine.tools.profiling.ExtractionMetrics;
 
 /**
  *
@@ -46,10 +59,26 @@ public class CermineExtractorServiceImpl implements CermineExtractorService {
 
     int threadPoolSize = 4;
     int maxQueueForBatch = 0;
+    long maxQueueWait = 10 * 60 * 1000;
+    long extractionTimeout = 10 * 60 * 1000;
+    int interactiveMaxSize = 2 * 1024 * 1024;
+    @Value("${resultCache.size:67108864}")
+    long resultCacheSize = 64L * 1024 * 1024;
+    @Value("${resultCache.directory:}")
+    String resultCacheDirectory = null;
+    @Value("${resultCache.modelFingerprint:}")
+    String modelFingerprint = null;
+    @Value("${citationCache.size:100000}")
+    int citationCacheSize = CitationParseCache.DEFAULT_MAX_SIZE;
+    @Value("${citationCache.file:}")
+    String citationCacheFile = null;
+    @Value("${metrics.enabled:false}")
+    boolean metricsEnabled = false;
+    ExtractionResultCache resultCache;
+    CitationParseCache citationCache;
     Logger log = LoggerFactory.getLogger(CermineExtractorServiceImpl.class);
     List<PdfNLMContentExtractor> extractors;
-    ExecutorService processingExecutor;
-    ExecutorService batchProcessingExecutor;
+    ExtractionScheduler scheduler;
     @Autowired
     TaskManager taskManager;
 
@@ -59,17 +88,27 @@ public class CermineExtractorServiceImpl implements CermineExtractorService {
     @PostConstruct
     public void init() {
         try {
-            processingExecutor = Executors.newFixedThreadPool(threadPoolSize);
-            ArrayBlockingQueue<Runnable> q = null;
-            if (maxQueueForBatch > 0) {
-                q = new ArrayBlockingQueue<Runnable>(maxQueueForBatch);
-            } else {
-                q = new ArrayBlockingQueue<Runnable>(100000);
-            }
-            batchProcessingExecutor = new ThreadPoolExecutor(threadPoolSize, threadPoolSize, 1, TimeUnit.DAYS, q);
+            int maxQueueSize = maxQueueForBatch > 0 ? maxQueueForBatch : 1000;
+            scheduler = new ExtractionScheduler(threadPoolSize, maxQueueSize, maxQueueWait);
             extractors = new ArrayList<PdfNLMContentExtractor>();
             for (int i = 0; i < threadPoolSize; i++) {
-                extractors.add(new PdfNLMContentExtractor());
+                extractors.add(newExtractor());
+            }
+            if (resultCacheSize > 0) {
+                if (modelFingerprint == null || modelFingerprint.isEmpty()) {
+                    modelFingerprint = getDefaultModelFingerprint();
+                }
+                File cacheDir = resultCacheDirectory == null || resultCacheDirectory.isEmpty()
+                        ? null : new File(resultCacheDirectory);
+                resultCache = new ExtractionResultCache(resultCacheSize, cacheDir, modelFingerprint);
+            }
+            if (metricsEnabled) {
+                ExtractionMetrics.setEnabled(true);
+            }
+            try {
+                ExtractionMetrics.registerMBean();
+            } catch (JMException ex) {
+                log.warn("Cannot register extraction metrics MBean", ex);
             }
         } catch (Exception ex) {
             log.error("Failed to init content extractor", ex);
@@ -77,6 +116,20 @@ public class CermineExtractorServiceImpl implements CermineExtractorService {
         }
     }
 
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (citationCache != null && citationCacheFile != null && !citationCacheFile.isEmpty()) {
+            try {
+                citationCache.save(new File(citationCacheFile));
+            } catch (IOException ex) {
+                log.warn("Cannot save citation parse cache", ex);
+            }
+        }
+    }
+
     public int getThreadPoolSize() {
         return threadPoolSize;
     }
@@ -89,24 +142,196 @@ public class CermineExtractorServiceImpl implements CermineExtractorService {
         return maxQueueForBatch;
     }
 
+    /**
+     * Sets the hard limit of the queue size of each priority lane. Zero means
+     * the default limit.
+     *
+     * @param maxQueueForBatch
+     */
     public void setMaxQueueForBatch(int maxQueueForBatch) {
         this.maxQueueForBatch = maxQueueForBatch;
     }
 
+    public long getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    /**
+     * Sets the maximum expected queue wait time (in milliseconds), used
+     * together with the observed service time to limit the queue size.
+     * Zero disables the adaptive limit.
+     *
+     * @param maxQueueWait
+     */
+    public void setMaxQueueWait(long maxQueueWait) {
+        this.maxQueueWait = maxQueueWait;
+    }
+
+    @Override
+    public long getExtractionTimeout() {
+        return extractionTimeout;
+    }
+
+    /**
+     * Sets the time budget (in milliseconds) of a single request, including
+     * the time spent in the queue. Zero disables the deadline.
+     *
+     * @param extractionTimeout
+     */
+    public void setExtractionTimeout(long extractionTimeout) {
+        this.extractionTimeout = extractionTimeout;
+    }
+
+    public int getInteractiveMaxSize() {
+        return interactiveMaxSize;
+    }
+
+    /**
+     * Sets the maximum size of uploaded files processed in the interactive
+     * lane. Larger files are processed in the bulk lane.
+     *
+     * @param interactiveMaxSize
+     */
+    public void setInteractiveMaxSize(int interactiveMaxSize) {
+        this.interactiveMaxSize = interactiveMaxSize;
+    }
+
+    @Override
+    public Map<String, Number> getQueueMetrics() {
+        return scheduler.getMetrics();
+    }
+
+    @Override
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new LinkedHashMap<String, Number>();
+        for (Map.Entry<String, Number> entry : scheduler.getMetrics().entrySet()) {
+            metrics.put("scheduler." + entry.getKey(), entry.getValue());
+        }
+        metrics.putAll(ExtractionMetrics.getMetrics());
+        return metrics;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    /**
+     * Enables the collection of the extraction metrics. The metrics are
+     * available through JMX and the /metrics endpoint.
+     *
+     * @param metricsEnabled
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    public int getCitationCacheSize() {
+        return citationCacheSize;
+    }
+
+    /**
+     * Sets the maximum number of parsed citations cached and shared by all
+     * the extractors. Zero disables the citation parse cache.
+     *
+     * @param citationCacheSize
+     */
+    public void setCitationCacheSize(int citationCacheSize) {
+        this.citationCacheSize = citationCacheSize;
+    }
+
+    public String getCitationCacheFile() {
+        return citationCacheFile;
+    }
+
+    /**
+     * Sets the file the citation parse cache is loaded from on startup and
+     * saved to on shutdown. If not set, the cache is kept only in memory.
+     *
+     * @param citationCacheFile
+     */
+    public void setCitationCacheFile(String citationCacheFile) {
+        this.citationCacheFile = citationCacheFile;
+    }
+
+    public long getResultCacheSize() {
+        return resultCacheSize;
+    }
+
+    /**
+     * Sets the maximum size (in bytes) of the results kept in memory. Zero
+     * disables the result cache.
+     *
+     * @param resultCacheSize
+     */
+    public void setResultCacheSize(long resultCacheSize) {
+        this.resultCacheSize = resultCacheSize;
+    }
+
+    public String getResultCacheDirectory() {
+        return resultCacheDirectory;
+    }
+
+    /**
+     * Sets the directory of the on-disk result cache. If not set, the results
+     * are cached only in memory.
+     *
+     * @param resultCacheDirectory
+     */
+    public void setResultCacheDirectory(String resultCacheDirectory) {
+        this.resultCacheDirectory = resultCacheDirectory;
+    }
+
+    public String getModelFingerprint() {
+        return modelFingerprint;
+    }
+
+    /**
+     * Sets the fingerprint of the extraction models, which is a part of the
+     * result cache key. By default the version and build timestamp are used.
+     *
+     * @param modelFingerprint
+     */
+    public void setModelFingerprint(String modelFingerprint) {
+        this.modelFingerprint = modelFingerprint;
+    }
+
     @Override
     public ExtractionResult extractNLM(InputStream is) throws AnalysisException, ServiceException {
+        File pdf;
+        try {
+            pdf = PdfFiles.spool(is);
+        } catch (IOException ex) {
+            throw new AnalysisException("Cannot read PDF file", ex);
+        }
+        try {
+            return extractNLM(pdf);
+        } finally {
+            pdf.delete();
+        }
+    }
+
+    @Override
+    public ExtractionResult extractNLM(File pdf) throws AnalysisException, ServiceException {
         log.debug("Starting extractNLM task...");
         ExtractionResult res = new ExtractionResult();
         res.setSubmit(new Date());
         log.debug("submitting extractNLM task...");
+        long deadline = getDeadline();
+        Future<ExtractionResult> future = scheduler.submit(new SimpleExtractionCallable(pdf, res),
+                ExtractionScheduler.Lane.BULK, deadline);
         try {
-            Future<ExtractionResult> future = batchProcessingExecutor.submit(new SimpleExtractionCallable(is, res));
-
             Thread.yield();
             log.debug("waiting for extractNLM task...");
-            res = future.get();
-        } catch (RejectedExecutionException rje) {
-            throw new ServiceException("Queue size exceeded.", rje);
+            if (deadline > 0) {
+                res = future.get(Math.max(deadline - System.currentTimeMillis(), 1), TimeUnit.MILLISECONDS);
+            } else {
+                res = future.get();
+            }
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new ServiceException("Extraction deadline exceeded.", ex);
+        } catch (CancellationException ex) {
+            throw new ServiceException("Extraction deadline exceeded.", ex);
         } catch (Exception ex) {
             log.error("Exception while executing extraction task...", ex);
             throw new RuntimeException(ex);
@@ -116,20 +341,57 @@ public class CermineExtractorServiceImpl implements CermineExtractorService {
     }
 
     @Override
-    public long initExtractionTask(byte[] pdf, String fileName) {
+    public long initExtractionTask(File pdf, String fileName, String owner) throws ServiceException {
         ExtractionTask task = new ExtractionTask();
-        task.setPdf(pdf);
+        task.setPdfFile(pdf);
         task.setFileName(fileName);
+        task.setOwner(owner);
         task.setCreationDate(new Date());
         task.setStatus(ExtractionTask.TaskStatus.CREATED);
         long id = taskManager.registerTask(task);
         //now process the task...
         task.setStatus(ExtractionTask.TaskStatus.QUEUED);
-        processingExecutor.submit(new ExtractingTaskExecution(task));
+        taskManager.updateTask(task);
+        ExtractionScheduler.Lane lane = pdf.length() <= interactiveMaxSize
+                ? ExtractionScheduler.Lane.INTERACTIVE : ExtractionScheduler.Lane.BULK;
+        try {
+            scheduler.submit(Executors.callable(new ExtractingTaskExecution(task)), lane, getDeadline());
+        } catch (ServiceOverloadedException ex) {
+            ExtractionResult result = new ExtractionResult();
+            result.setSubmit(task.getCreationDate());
+            result.setProcessingStart(new Date());
+            result.setProcessingEnd(result.getProcessingStart());
+            result.setError(ex);
+            task.setResult(result);
+            task.setStatus(ExtractionTask.TaskStatus.FAILED);
+            task.deletePdf();
+            taskManager.updateTask(task);
+            throw ex;
+        }
 
         return id;
     }
 
+    @Override
+    public void submitExtraction(final File pdf, final ExtractionListener listener) throws ServiceException {
+        final ExtractionResult result = new ExtractionResult();
+        result.setSubmit(new Date());
+        scheduler.submit(new Callable<ExtractionResult>() {
+            @Override
+            public ExtractionResult call() {
+                try {
+                    return performExtraction(result, pdf);
+                } finally {
+                    listener.extractionFinished(result);
+                }
+            }
+        }, ExtractionScheduler.Lane.BULK, getDeadline());
+    }
+
+    private long getDeadline() {
+        return extractionTimeout > 0 ? System.currentTimeMillis() + extractionTimeout : 0;
+    }
+
     protected PdfNLMContentExtractor obtainExtractor() {
         log.debug("Obtaining extractor from the pool");
         PdfNLMContentExtractor res = null;
@@ -152,7 +414,7 @@ public class CermineExtractorServiceImpl implements CermineExtractorService {
         log.debug("Returning extractor to the pool...");
         synchronized (extractors) {
             try {
-                e = new PdfNLMContentExtractor();
+                e = newExtractor();
                 extractors.add(e);
             } catch (AnalysisException ex) {
                 throw new RuntimeException("Cannot create extractor!", ex);
@@ -161,42 +423,119 @@ public class CermineExtractorServiceImpl implements CermineExtractorService {
         }
     }
 
+    /**
+     * Creates a new extractor using the shared citation parse cache. The cache
+     * is created together with the first extractor, as it is bound to the
+     * model of the citation parser.
+     *
+     * @return extractor
+     * @throws AnalysisException
+     */
+    private PdfNLMContentExtractor newExtractor() throws AnalysisException {
+        PdfNLMContentExtractor extractor = new PdfNLMContentExtractor();
+        if (citationCacheSize > 0 && extractor.getReferencesExtractor() instanceof PdfNLMReferencesExtractor) {
+            PdfNLMReferencesExtractor referencesExtractor =
+                    (PdfNLMReferencesExtractor) extractor.getReferencesExtractor();
+            String modelId = referencesExtractor.getCitationParserModelId();
+            if (modelId != null) {
+                synchronized (this) {
+                    if (citationCache == null) {
+                        citationCache = new CitationParseCache(citationCacheSize, modelId);
+                        loadCitationCache();
+                    }
+                }
+                referencesExtractor.setCitationParseCache(citationCache);
+            }
+        }
+        return extractor;
+    }
+
+    private void loadCitationCache() {
+        if (citationCacheFile == null || citationCacheFile.isEmpty()) {
+            return;
+        }
+        File file = new File(citationCacheFile);
+        try {
+            int loaded = citationCache.load(file);
+            log.info("Loaded " + loaded + " parsed citations from " + file);
+        } catch (IOException ex) {
+            log.warn("Cannot load citation parse cache", ex);
+        }
+    }
+
     /**
      * Method to perform real extraction.
      *
      * @param result
-     * @param input
+     * @param pdf
      * @return
      */
-    private ExtractionResult performExtraction(ExtractionResult result, InputStream input) {
+    private ExtractionResult performExtraction(final ExtractionResult result, final File pdf) {
+        try {
+            ExtractionResultCache.Entry entry;
+            if (resultCache == null) {
+                entry = extract(result, pdf);
+            } else {
+                entry = resultCache.get(resultCache.getKey(pdf), new Callable<ExtractionResultCache.Entry>() {
+                    @Override
+                    public ExtractionResultCache.Entry call() throws Exception {
+                        return extract(result, pdf);
+                    }
+                });
+            }
+            result.setNlm(entry.getNlm());
+            result.setArticle(entry.getArticle());
+            result.setMeta(entry.getMeta());
+            result.setSucceeded(true);
+        } catch (Exception anal) {
+            log.debug("Exception from analysis: ", anal);
+            result.setError(anal);
+            result.setSucceeded(false);
+        } finally {
+            result.setProcessingEnd(new Date());
+            if (result.getProcessingStart() == null) {
+                result.setProcessingStart(result.getProcessingEnd());
+            }
+        }
+        return result;
+    }
+
+    private ExtractionResultCache.Entry extract(ExtractionResult result, File pdf)
+            throws AnalysisException, TransformationException {
         PdfNLMContentExtractor e = null;
         try {
             e = obtainExtractor();
             result.processingStart = new Date();
-            log.debug("Starting extraction on the input stream...");
-            Element resEl = e.extractContent(input);
+            log.debug("Starting extraction of the file...");
+            Element resEl = e.extractContent(pdf);
             log.debug("Extraction ok..");
+            Article article = new NLMElementToArticleConverter().convert(resEl);
             XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
-            Document doc = new Document(resEl);
-            String res = outputter.outputString(doc);
-            result.setNlm(res);
-            String html = new NLMElementToHTMLWriter().write(resEl);
-            result.setHtml(html);
+            String nlm = outputter.outputString(new Document(resEl));
             log.debug("Article meta extraction start:");
-            result.setMeta(ArticleMeta.extractNLM(doc));
+            ArticleMeta meta = ArticleMeta.extract(article);
             log.debug("Article meta extraction succeeded");
-            result.setSucceeded(true);
-        } catch (Exception anal) {
-            log.debug("Exception from analysis: ", anal);
-            result.setError(anal);
-            result.setSucceeded(false);
+            return new ExtractionResultCache.Entry(nlm, article, meta);
         } finally {
             if (e != null) {
                 returnExtractor(e);
             }
-            result.setProcessingEnd(new Date());
         }
-        return result;
+    }
+
+    private static String getDefaultModelFingerprint() {
+        Properties properties = new Properties();
+        InputStream is = CermineExtractorServiceImpl.class.getResourceAsStream("/cermine-web.version.properties");
+        if (is != null) {
+            try {
+                properties.load(is);
+            } catch (IOException ex) {
+            } finally {
+                IOUtils.closeQuietly(is);
+            }
+        }
+        return properties.getProperty("cermine-web.version", "unknown") + "/"
+                + properties.getProperty("cermine-web.build.timestamp", "unknown");
     }
 
     private class ExtractingTaskExecution implements Runnable {
@@ -211,12 +550,13 @@ public class CermineExtractorServiceImpl implements CermineExtractorService {
         public void run() {
             log.debug("Starting processing task: " + task.getId());
             task.setStatus(ExtractionTask.TaskStatus.PROCESSING);
+            taskManager.updateTask(task);
 
             ExtractionResult result = new ExtractionResult();
             result.setProcessingStart(new Date());
             result.setSubmit(task.getCreationDate());
             log.debug("Running extraction: " + task.getId());
-            performExtraction(result, new ByteArrayInputStream(task.getPdf()));
+            performExtraction(result, task.getPdfFile());
             task.setResult(result);
             log.debug("Processing finished: " + task.getId());
             if (result.isSucceeded()) {
@@ -224,23 +564,24 @@ public class CermineExtractorServiceImpl implements CermineExtractorService {
             } else {
                 task.setStatus(ExtractionTask.TaskStatus.FAILED);
             }
-            task.setPdf(null);//clean up memory, we will overflow after few request without it...
+            task.deletePdf();//clean up memory, we will overflow after few request without it...
+            taskManager.updateTask(task);
             log.debug("finishing task: " + task.getId());
         }
     }
 
     private class SimpleExtractionCallable implements Callable<ExtractionResult> {
 
-        public SimpleExtractionCallable(InputStream input, ExtractionResult result) {
-            this.input = input;
+        public SimpleExtractionCallable(File pdf, ExtractionResult result) {
+            this.pdf = pdf;
             this.result = result;
         }
-        InputStream input;
+        File pdf;
         ExtractionResult result;
 
         @Override
         public ExtractionResult call() {
-            return performExtraction(result, input);
+            return performExtraction(result, pdf);
         }
     }
 }
@@ -18,23 +18,26 @@
 
 package pl.edu.icm.cermine.service;
 
+import java.io.Serializable;
 import java.util.Date;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.edu.icm.cermine.article.model.Article;
 
 /**
  *
  * @author Aleksander Nowinski <a.nowinski@icm.edu.pl>
  */
-public class ExtractionResult {
+public class ExtractionResult implements Serializable {
 
-    Logger log = LoggerFactory.getLogger(ExtractionResult.class);
+    private static final long serialVersionUID = 7532194802317694236L;
+    static Logger log = LoggerFactory.getLogger(ExtractionResult.class);
     String requestMD5;
     Date submit, processingStart, processingEnd;
     String nlm;
+    Article article;
     String dublinCore;
     ArticleMeta meta;
-    String html;
     boolean succeeded;
     Throwable error;
 
@@ -81,6 +84,14 @@ public class ExtractionResult {
         this.nlm = nlm;
     }
 
+    public Article getArticle() {
+        return article;
+    }
+
+    public void setArticle(Article article) {
+        this.article = article;
+    }
+
     public String getDublinCore() {
         return dublinCore;
     }
@@ -97,14 +108,6 @@ public class ExtractionResult {
         this.meta = meta;
     }
 
-    public String getHtml() {
-        return html;
-    }
-
-    public void setHtml(String html) {
-        this.html = html;
-    }
-
     public boolean isSucceeded() {
         return succeeded;
     }
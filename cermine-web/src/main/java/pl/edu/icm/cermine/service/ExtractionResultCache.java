@@ -0,0 +1,362 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.service;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.edu.icm.cermine.article.model.*;
+import pl.edu.icm.cermine.tools.DigestUtils;
+
+/**
+ * Cache of extraction results, keyed by the SHA-256 hash of the PDF content
+ * and the fingerprint of the extraction models and version.
+ *
+ * Results are kept in an in-memory LRU tier limited by the estimated size
+ * of the entries, and optionally in a disk tier of gzipped files. Concurrent
+ * requests for the same key are coalesced: only one extraction is performed
+ * and the other requests wait for its result.
+ */
+public class ExtractionResultCache {
+
+    private static final String FILE_EXTENSION = ".gz";
+
+    Logger log = LoggerFactory.getLogger(ExtractionResultCache.class);
+
+    private final long maxMemorySize;
+    private final File directory;
+    private final byte[] fingerprint;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long memorySize = 0;
+
+    private final ConcurrentMap<String, FutureTask<Entry>> inFlight =
+            new ConcurrentHashMap<String, FutureTask<Entry>>();
+
+    /**
+     * @param maxMemorySize maximum estimated size (in bytes) of the entries
+     * kept in memory
+     * @param directory directory of the disk tier, or null if the results
+     * should not be stored on the disk
+     * @param fingerprint the fingerprint of the extraction models and version
+     */
+    public ExtractionResultCache(long maxMemorySize, File directory, String fingerprint) {
+        this.maxMemorySize = maxMemorySize;
+        this.directory = directory;
+        try {
+            this.fingerprint = fingerprint.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException("UTF-8 encoding not available!", ex);
+        }
+    }
+
+    /**
+     * Calculates the cache key of a PDF file.
+     *
+     * @param pdf PDF file content
+     * @return hex-encoded key
+     */
+    public String getKey(byte[] pdf) {
+        MessageDigest digest = newDigest();
+        digest.update(pdf);
+        return DigestUtils.toHex(digest.digest());
+    }
+
+    /**
+     * Calculates the cache key of a PDF file, reading the file in blocks.
+     *
+     * @param pdf PDF file
+     * @return hex-encoded key
+     * @throws IOException
+     */
+    public String getKey(File pdf) throws IOException {
+        MessageDigest digest = newDigest();
+        DigestUtils.update(digest, pdf);
+        return DigestUtils.toHex(digest.digest());
+    }
+
+    private MessageDigest newDigest() {
+        MessageDigest digest = DigestUtils.newDigest("SHA-256");
+        digest.update(fingerprint);
+        digest.update((byte) 0);
+        return digest;
+    }
+
+    /**
+     * Returns the cached result, or performs the extraction if the result is
+     * not cached. If the extraction for the same key is already in progress,
+     * waits for its result instead.
+     *
+     * @param key cache key
+     * @param extraction extraction to perform on cache miss
+     * @return extraction result
+     * @throws Exception thrown by the extraction
+     */
+    public Entry get(String key, Callable<Entry> extraction) throws Exception {
+        Entry entry = get(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        FutureTask<Entry> task = new FutureTask<Entry>(extraction);
+        FutureTask<Entry> running = inFlight.putIfAbsent(key, task);
+        if (running != null) {
+            log.debug("Waiting for the extraction in progress: {}", key);
+            return getResult(running);
+        }
+        try {
+            entry = get(key);
+            if (entry != null) {
+                return entry;
+            }
+            task.run();
+            entry = getResult(task);
+            put(key, entry);
+            return entry;
+        } finally {
+            inFlight.remove(key, task);
+        }
+    }
+
+    /**
+     * Returns the cached result.
+     *
+     * @param key cache key
+     * @return the result or null, if the result is not cached
+     */
+    public Entry get(String key) {
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                log.debug("Memory cache hit: {}", key);
+                return entry;
+            }
+        }
+        Entry entry = readFromDisk(key);
+        if (entry != null) {
+            log.debug("Disk cache hit: {}", key);
+            putInMemory(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the result in the cache.
+     *
+     * @param key cache key
+     * @param entry extraction result
+     */
+    public void put(String key, Entry entry) {
+        putInMemory(key, entry);
+        writeToDisk(key, entry);
+    }
+
+    public long getMemorySize() {
+        synchronized (memory) {
+            return memorySize;
+        }
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        if (entry.getSize() > maxMemorySize) {
+            return;
+        }
+        synchronized (memory) {
+            Entry previous = memory.put(key, entry);
+            if (previous != null) {
+                memorySize -= previous.getSize();
+            }
+            memorySize += entry.getSize();
+            Iterator<Map.Entry<String, Entry>> it = memory.entrySet().iterator();
+            while (memorySize > maxMemorySize && it.hasNext()) {
+                Map.Entry<String, Entry> eldest = it.next();
+                memorySize -= eldest.getValue().getSize();
+                it.remove();
+            }
+        }
+    }
+
+    private Entry readFromDisk(String key) {
+        if (directory == null) {
+            return null;
+        }
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        ObjectInputStream ois = null;
+        try {
+            ois = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))));
+            return (Entry) ois.readObject();
+        } catch (Exception ex) {
+            log.warn("Cannot read cached result, removing it: " + file.getPath(), ex);
+            file.delete();
+            return null;
+        } finally {
+            closeQuietly(ois);
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (directory == null) {
+            return;
+        }
+        File file = getFile(key);
+        File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            log.warn("Cannot create cache directory: {}", parent.getPath());
+            return;
+        }
+        File tmpFile = new File(parent, file.getName() + ".tmp" + Thread.currentThread().getId());
+        ObjectOutputStream oos = null;
+        try {
+            oos = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile))));
+            oos.writeObject(entry);
+            oos.close();
+            oos = null;
+            if (!tmpFile.renameTo(file)) {
+                file.delete();
+                if (!tmpFile.renameTo(file)) {
+                    log.warn("Cannot store cached result: {}", file.getPath());
+                    tmpFile.delete();
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Cannot store cached result: " + file.getPath(), ex);
+            closeQuietly(oos);
+            tmpFile.delete();
+        }
+    }
+
+    private File getFile(String key) {
+        return new File(new File(directory, key.substring(0, 2)), key + FILE_EXTENSION);
+    }
+
+    private static Entry getResult(FutureTask<Entry> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ex) {
+            }
+        }
+    }
+
+    /**
+     * Cached extraction result.
+     */
+    public static class Entry implements Serializable {
+
+        private static final long serialVersionUID = 2906285914781635480L;
+
+        private final String nlm;
+        private final Article article;
+        private final ArticleMeta meta;
+
+        public Entry(String nlm, Article article, ArticleMeta meta) {
+            this.nlm = nlm;
+            this.article = article;
+            this.meta = meta;
+        }
+
+        /**
+         * @return the extracted NLM, as sent to the client
+         */
+        public String getNlm() {
+            return nlm;
+        }
+
+        public Article getArticle() {
+            return article;
+        }
+
+        public ArticleMeta getMeta() {
+            return meta;
+        }
+
+        /**
+         * Estimates the memory size of the entry. Strings take two bytes per
+         * character, the metadata roughly duplicates the article's text.
+         *
+         * @return estimated size in bytes
+         */
+        public long getSize() {
+            long size = 2L * length(nlm);
+            if (article == null) {
+                return size;
+            }
+            ArticleFront front = article.getFront();
+            long length = length(front.getTitle()) + length(front.getAbstractText())
+                    + length(front.getJournalTitle()) + length(front.getPublisher());
+            for (ArticleContributor contributor : front.getContributors()) {
+                length += length(contributor.getName()) + length(contributor.getSurname())
+                        + length(contributor.getGivenNames()) + length(contributor.getAffiliations());
+            }
+            length += length(front.getKeywords()) + sectionsLength(article.getSections());
+            for (ArticleReference reference : article.getReferences()) {
+                length += length(reference.getText());
+            }
+            return size + 4L * length;
+        }
+
+        private static long length(String string) {
+            return string == null ? 0 : string.length();
+        }
+
+        private static long length(List<String> strings) {
+            long length = 0;
+            for (String string : strings) {
+                length += string.length();
+            }
+            return length;
+        }
+
+        private static long sectionsLength(List<ArticleSection> sections) {
+            long length = 0;
+            for (ArticleSection section : sections) {
+                length += length(section.getTitle()) + length(section.getParagraphs())
+                        + sectionsLength(section.getSections());
+            }
+            return length;
+        }
+    }
+
+}
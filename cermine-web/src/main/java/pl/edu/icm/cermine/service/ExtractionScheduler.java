@@ -0,0 +1,269 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for extraction requests.
+ *
+ * Requests are executed by a fixed thread pool, taking the interactive lane
+ * before the bulk lane and in the submission order within a lane. Each lane's
+ * queue is bounded: the limit is derived from the observed service time, so
+ * that the expected wait does not exceed the configured maximum, and it never
+ * exceeds the hard limit. Requests that do not fit are rejected with
+ * ServiceOverloadedException. A request running past its deadline is
+ * interrupted.
+ */
+public class ExtractionScheduler {
+
+    public static enum Lane {
+        INTERACTIVE, BULK
+    }
+
+    private static final double SMOOTHING = 0.1;
+
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 30;
+
+    private final int threads;
+    private final int maxQueueSize;
+    private final long maxQueueWaitMillis;
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService watchdog;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger[] queued = new AtomicInteger[Lane.values().length];
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    private double avgServiceMillis = 0;
+    private final double[] avgWaitMillis = new double[Lane.values().length];
+    private long maxWaitMillis = 0;
+
+    /**
+     * @param threads number of extraction threads
+     * @param maxQueueSize hard limit of the queue size in each lane
+     * @param maxQueueWaitMillis maximum expected wait in the queue, used to
+     * derive the queue limit from the observed service time; 0 disables
+     * the adaptive limit
+     */
+    public ExtractionScheduler(int threads, int maxQueueSize, long maxQueueWaitMillis) {
+        this.threads = threads;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitMillis = maxQueueWaitMillis;
+        for (int i = 0; i < queued.length; i++) {
+            queued[i] = new AtomicInteger();
+        }
+        executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.DAYS, new PriorityBlockingQueue<Runnable>());
+        watchdog = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Submits a request for execution.
+     *
+     * @param <T> result type
+     * @param callable request
+     * @param lane priority lane
+     * @param deadline the time (in milliseconds) after which the request is
+     * interrupted, or 0 if there is no deadline
+     * @return the request's future
+     * @throws ServiceOverloadedException if the lane's queue is full
+     */
+    public <T> Future<T> submit(Callable<T> callable, Lane lane, long deadline) throws ServiceOverloadedException {
+        AtomicInteger laneQueued = queued[lane.ordinal()];
+        if (laneQueued.incrementAndGet() > getQueueLimit()) {
+            laneQueued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new ServiceOverloadedException("Queue size exceeded.", getRetryAfterSeconds());
+        }
+        ScheduledTask<T> task = new ScheduledTask<T>(callable, lane, deadline);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            laneQueued.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new ServiceOverloadedException("Service is shutting down.", getRetryAfterSeconds());
+        }
+        return task;
+    }
+
+    /**
+     * Returns the current queue limit, derived from the observed service time
+     * and bounded by the hard limit.
+     *
+     * @return queue limit
+     */
+    public synchronized int getQueueLimit() {
+        if (maxQueueWaitMillis <= 0 || avgServiceMillis <= 0) {
+            return maxQueueSize;
+        }
+        long limit = (long) (threads * maxQueueWaitMillis / avgServiceMillis);
+        return (int) Math.max(threads, Math.min(maxQueueSize, limit));
+    }
+
+    /**
+     * Estimates the time after which a rejected request is likely to be
+     * admitted.
+     *
+     * @return the time in seconds
+     */
+    public synchronized long getRetryAfterSeconds() {
+        if (avgServiceMillis <= 0) {
+            return DEFAULT_RETRY_AFTER_SECONDS;
+        }
+        int waiting = 0;
+        for (AtomicInteger q : queued) {
+            waiting += q.get();
+        }
+        double millis = (waiting / (double) threads + 1) * avgServiceMillis;
+        return Math.max(1, (long) Math.ceil(millis / 1000));
+    }
+
+    public int getQueueDepth(Lane lane) {
+        return queued[lane.ordinal()].get();
+    }
+
+    /**
+     * Returns the scheduler's metrics: queue depths, wait and service times
+     * and request counters.
+     *
+     * @return metric name to value map
+     */
+    public Map<String, Number> getMetrics() {
+        Map<String, Number> metrics = new LinkedHashMap<String, Number>();
+        for (Lane lane : Lane.values()) {
+            metrics.put("queue." + lane.name().toLowerCase(Locale.ENGLISH) + ".depth", getQueueDepth(lane));
+        }
+        metrics.put("queue.limit", getQueueLimit());
+        metrics.put("running", running.get());
+        metrics.put("completed", completed.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("timedOut", timedOut.get());
+        synchronized (this) {
+            for (Lane lane : Lane.values()) {
+                metrics.put("wait." + lane.name().toLowerCase(Locale.ENGLISH) + ".avgMillis",
+                        Math.round(avgWaitMillis[lane.ordinal()]));
+            }
+            metrics.put("wait.maxMillis", maxWaitMillis);
+            metrics.put("service.avgMillis", Math.round(avgServiceMillis));
+        }
+        return metrics;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    private synchronized void recordWait(Lane lane, long millis) {
+        avgWaitMillis[lane.ordinal()] = smooth(avgWaitMillis[lane.ordinal()], millis);
+        maxWaitMillis = Math.max(maxWaitMillis, millis);
+    }
+
+    private synchronized void recordService(long millis) {
+        avgServiceMillis = smooth(avgServiceMillis, millis);
+    }
+
+    private static double smooth(double average, long value) {
+        return average == 0 ? value : (1 - SMOOTHING) * average + SMOOTHING * value;
+    }
+
+    private class ScheduledTask<T> extends FutureTask<T> implements Comparable<ScheduledTask<?>> {
+
+        private final Lane lane;
+        private final long seq;
+        private final long deadline;
+        private final long submitTime;
+        private Thread runner;
+
+        public ScheduledTask(Callable<T> callable, Lane lane, long deadline) {
+            super(callable);
+            this.lane = lane;
+            this.deadline = deadline;
+            this.seq = sequence.getAndIncrement();
+            this.submitTime = System.currentTimeMillis();
+        }
+
+        @Override
+        public void run() {
+            queued[lane.ordinal()].decrementAndGet();
+            long start = System.currentTimeMillis();
+            recordWait(lane, start - submitTime);
+            if (isDone()) {
+                return;
+            }
+
+            running.incrementAndGet();
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            ScheduledFuture<?> timeout = null;
+            if (deadline > 0) {
+                if (start >= deadline) {
+                    interruptRunner();
+                } else {
+                    timeout = watchdog.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            interruptRunner();
+                        }
+                    }, deadline - start, TimeUnit.MILLISECONDS);
+                }
+            }
+            try {
+                super.run();
+            } finally {
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+                synchronized (this) {
+                    runner = null;
+                    Thread.interrupted();
+                }
+                running.decrementAndGet();
+                completed.incrementAndGet();
+                recordService(System.currentTimeMillis() - start);
+            }
+        }
+
+        private synchronized void interruptRunner() {
+            if (runner != null) {
+                timedOut.incrementAndGet();
+                runner.interrupt();
+            }
+        }
+
+        @Override
+        public int compareTo(ScheduledTask<?> other) {
+            if (lane != other.lane) {
+                return lane.compareTo(other.lane);
+            }
+            return seq < other.seq ? -1 : (seq == other.seq ? 0 : 1);
+        }
+    }
+
+}
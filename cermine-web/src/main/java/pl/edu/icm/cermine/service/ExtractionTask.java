@@ -18,13 +18,20 @@
 
 package pl.edu.icm.cermine.service;
 
+import java.io.*;
+import java.lang.ref.SoftReference;
 import java.util.Date;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.FileUtils;
 
 /**
  *
  * @author Aleksander Nowinski <a.nowinski@icm.edu.pl>
  */
-public class ExtractionTask {
+public class ExtractionTask implements Serializable {
+
+    private static final long serialVersionUID = -4517625094521083419L;
 
     public static enum TaskStatus {
 
@@ -63,13 +70,16 @@ public class ExtractionTask {
         
     }
     private long id;
-    byte[] pdf;
+    transient byte[] pdf;
+    File pdfFile;
     String fileName;
     String md5Sum;
-    private TaskStatus status;
+    private volatile TaskStatus status;
     private Date creationDate;
     private String clientAddress;
-    private ExtractionResult result;
+    private String owner;
+    private volatile byte[] compressedResult;
+    private transient volatile SoftReference<ExtractionResult> resultRef;
 
     public long getId() {
         return id;
@@ -87,6 +97,50 @@ public class ExtractionTask {
         this.pdf = pdf;
     }
 
+    /**
+     * Removes the pdf content, both kept in memory and stored in the file.
+     */
+    public void deletePdf() {
+        pdf = null;
+        if (pdfFile != null) {
+            pdfFile.delete();
+            pdfFile = null;
+        }
+    }
+
+    public File getPdfFile() {
+        return pdfFile;
+    }
+
+    /**
+     * Sets the file containing the pdf. The task takes the ownership of
+     * the file, which is removed by deletePdf().
+     *
+     * @param pdfFile
+     */
+    public void setPdfFile(File pdfFile) {
+        this.pdf = null;
+        this.pdfFile = pdfFile;
+    }
+
+    /**
+     * Moves the pdf content to a file, so that it is not kept in memory.
+     * If the content is already stored in another file, the file is moved.
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void spillPdf(File file) throws IOException {
+        if (pdf != null) {
+            FileUtils.writeByteArrayToFile(file, pdf);
+            pdfFile = file;
+            pdf = null;
+        } else if (pdfFile != null && !pdfFile.equals(file)) {
+            FileUtils.moveFile(pdfFile, file);
+            pdfFile = file;
+        }
+    }
+
     public String getMd5Sum() {
         return md5Sum;
     }
@@ -119,12 +173,80 @@ public class ExtractionTask {
         this.clientAddress = clientAddress;
     }
 
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Sets the owner of the task, i.e. the id of the session that submitted
+     * it. Only the owner can see the task in the task list and view its
+     * result.
+     *
+     * @param owner
+     */
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Returns the task's result. The result is kept compressed, the
+     * decompressed object is cached as long as there is enough memory.
+     *
+     * @return the result
+     */
     public ExtractionResult getResult() {
+        SoftReference<ExtractionResult> ref = resultRef;
+        ExtractionResult result = ref == null ? null : ref.get();
+        if (result == null && compressedResult != null) {
+            result = decompress(compressedResult);
+            resultRef = new SoftReference<ExtractionResult>(result);
+        }
         return result;
     }
 
     public void setResult(ExtractionResult result) {
-        this.result = result;
+        if (result == null) {
+            compressedResult = null;
+            resultRef = null;
+            return;
+        }
+        try {
+            compressedResult = compress(result);
+        } catch (NotSerializableException ex) {
+            result.setError(new ServiceException(result.getErrorMessage()));
+            try {
+                compressedResult = compress(result);
+            } catch (IOException ex2) {
+                throw new IllegalStateException("Cannot store task's result!", ex2);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot store task's result!", ex);
+        }
+        resultRef = new SoftReference<ExtractionResult>(result);
+    }
+
+    private static byte[] compress(ExtractionResult result) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(bos));
+        oos.writeObject(result);
+        oos.close();
+        return bos.toByteArray();
+    }
+
+    private static ExtractionResult decompress(byte[] compressed) {
+        try {
+            ObjectInputStream ois = new ObjectInputStream(
+                    new GZIPInputStream(new ByteArrayInputStream(compressed)));
+            try {
+                return (ExtractionResult) ois.readObject();
+            } finally {
+                ois.close();
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot read task's result!", ex);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalStateException("Cannot read task's result!", ex);
+        }
     }
 
     public String getFileName() {
@@ -0,0 +1,66 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Temporary files holding the uploaded pdf files, so that the uploads are
+ * not kept in memory.
+ */
+public final class PdfFiles {
+
+    private static final String PREFIX = "cermine";
+    private static final String SUFFIX = ".pdf";
+
+    private PdfFiles() {
+    }
+
+    public static File createTempFile() throws IOException {
+        return File.createTempFile(PREFIX, SUFFIX);
+    }
+
+    /**
+     * Copies the stream to a new temporary file. The stream is not closed.
+     *
+     * @param input
+     * @return the temporary file
+     * @throws IOException
+     */
+    public static File spool(InputStream input) throws IOException {
+        File file = createTempFile();
+        OutputStream output = null;
+        try {
+            output = FileUtils.openOutputStream(file);
+            IOUtils.copyLarge(input, output);
+            output.close();
+            output = null;
+        } catch (IOException ex) {
+            IOUtils.closeQuietly(output);
+            file.delete();
+            throw ex;
+        }
+        return file;
+    }
+}
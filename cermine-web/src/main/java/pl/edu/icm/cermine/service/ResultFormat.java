@@ -0,0 +1,101 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import pl.edu.icm.cermine.article.transformers.AbstractArticleWriter;
+import pl.edu.icm.cermine.article.transformers.ArticleToHTMLWriter;
+import pl.edu.icm.cermine.article.transformers.ArticleToJSONWriter;
+import pl.edu.icm.cermine.exception.TransformationException;
+
+/**
+ * Formats, in which the extraction result can be sent to the client.
+ * The result is written directly to the response stream. NLM is sent
+ * exactly as produced by the extractor, the other formats are written
+ * from the article model.
+ */
+public enum ResultFormat {
+
+    NLM("application/xml", null) {
+        @Override
+        public void write(OutputStream stream, ExtractionResult result) throws TransformationException {
+            try {
+                stream.write(result.getNlm().getBytes("UTF-8"));
+                stream.flush();
+            } catch (IOException ex) {
+                throw new TransformationException("Cannot write article!", ex);
+            }
+        }
+
+        @Override
+        public String write(ExtractionResult result) {
+            return result.getNlm();
+        }
+    },
+    HTML("text/html", new ArticleToHTMLWriter()),
+    JSON("application/json", new ArticleToJSONWriter());
+
+    private final String contentType;
+    private final AbstractArticleWriter writer;
+
+    private ResultFormat(String contentType, AbstractArticleWriter writer) {
+        this.contentType = contentType;
+        this.writer = writer;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Writes the result in UTF-8 to the stream. The stream is flushed,
+     * but not closed.
+     *
+     * @param stream output stream
+     * @param result extraction result
+     * @throws TransformationException
+     */
+    public void write(OutputStream stream, ExtractionResult result) throws TransformationException {
+        writer.write(stream, result.getArticle());
+    }
+
+    /**
+     * @param result extraction result
+     * @return the result in this format
+     * @throws TransformationException
+     */
+    public String write(ExtractionResult result) throws TransformationException {
+        return writer.write(result.getArticle());
+    }
+
+    /**
+     * @param name format name, case insensitive
+     * @return format, or null if there is no such format
+     */
+    public static ResultFormat forName(String name) {
+        for (ResultFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+}
@@ -28,10 +28,37 @@ public interface TaskManager {
 
     ExtractionTask getTask(long id) throws NoSuchTaskException;
 
+    /**
+     * Returns the task, if it belongs to the given owner.
+     *
+     * @param id
+     * @param owner
+     * @return the task
+     * @throws NoSuchTaskException if there is no such task or it belongs
+     * to another owner
+     */
+    ExtractionTask getTask(long id, String owner) throws NoSuchTaskException;
+
     long registerTask(ExtractionTask task);
+
+    /**
+     * Notifies the manager that the state of a registered task has changed,
+     * so that it can be persisted.
+     *
+     * @param task
+     */
+    void updateTask(ExtractionTask task);
     
     List<ExtractionTask> taskList();
 
+    /**
+     * Returns the tasks of the given owner, in the order of their creation.
+     *
+     * @param owner
+     * @return the owner's tasks
+     */
+    List<ExtractionTask> taskList(String owner);
+
     String getProperFilename(String filename);
     
 }
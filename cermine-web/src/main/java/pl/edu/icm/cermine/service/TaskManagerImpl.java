@@ -18,24 +18,102 @@
 
 package pl.edu.icm.cermine.service;
 
+import java.io.*;
 import java.util.*;
-import org.springframework.context.annotation.Scope;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
+ * Thread-safe task store. The number of tasks and their lifetime are limited,
+ * the oldest finished tasks are evicted first. Tasks that have not succeeded
+ * (queued, processing or failed ones) are evicted earlier, after a shorter
+ * time. If the directory is set,
+ * the tasks are persisted there (one gzipped file per task) and restored
+ * on startup, and the uploaded pdf files are kept on the disk instead of
+ * the memory.
  *
  * @author Aleksander Nowinski <a.nowinski@icm.edu.pl>
  */
 @Service
-@Scope(value = "session")
 public class TaskManagerImpl implements TaskManager {
 
     private static final Random random = new Random();
-    Map<Long, ExtractionTask> tasks = new HashMap<Long, ExtractionTask>();
+    private static final String TASK_FILE_EXTENSION = ".task";
+    private static final String PDF_FILE_EXTENSION = ".pdf";
+
+    Logger log = LoggerFactory.getLogger(TaskManagerImpl.class);
+
+    @Value("${taskStore.directory:}")
+    String directory;
+    @Value("${taskStore.maxTasks:1000}")
+    int maxTasks = 1000;
+    @Value("${taskStore.ttlHours:48}")
+    int ttlHours = 48;
+    @Value("${taskStore.unsucceededTtlHours:2}")
+    int unsucceededTtlHours = 2;
+
+    ConcurrentMap<Long, ExtractionTask> tasks = new ConcurrentHashMap<Long, ExtractionTask>();
+    Queue<Long> registrationOrder = new ConcurrentLinkedQueue<Long>();
+    final Map<String, Integer> fileNames = new HashMap<String, Integer>();
+    final Map<String, Integer> fileNameSuffixes = new HashMap<String, Integer>();
+
+    @PostConstruct
+    public void init() {
+        File dir = getStoreDirectory();
+        if (dir == null) {
+            return;
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            log.error("Cannot create task store directory: {}", dir.getPath());
+            directory = null;
+            return;
+        }
+
+        List<ExtractionTask> restored = new ArrayList<ExtractionTask>();
+        File[] files = dir.listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            if (file.getName().endsWith(TASK_FILE_EXTENSION)) {
+                ExtractionTask task = readTask(file);
+                if (task != null) {
+                    restored.add(task);
+                }
+            }
+        }
+        Collections.sort(restored, new Comparator<ExtractionTask>() {
+            @Override
+            public int compare(ExtractionTask t, ExtractionTask t1) {
+                return t.getCreationDate().compareTo(t1.getCreationDate());
+            }
+        });
+        for (ExtractionTask task : restored) {
+            if (!task.isFinished()) {
+                ExtractionResult result = new ExtractionResult();
+                result.setSubmit(task.getCreationDate());
+                result.setProcessingStart(new Date());
+                result.setProcessingEnd(result.getProcessingStart());
+                result.setError(new ServiceException("Task was interrupted by a service restart."));
+                task.setResult(result);
+                task.setStatus(ExtractionTask.TaskStatus.FAILED);
+                task.deletePdf();
+            }
+            addTask(task);
+            writeTask(task);
+        }
+        log.info("Restored {} tasks", restored.size());
+        evict();
+    }
 
     protected long newId() {
         long id = random.nextLong();
-        while (id < 0 || tasks.containsKey(id)) {
+        while (id <= 0 || tasks.containsKey(id)) {
             id = random.nextLong();
         }
         return id;
@@ -45,15 +123,44 @@ public class TaskManagerImpl implements TaskManager {
     public long registerTask(ExtractionTask task) {
         if (task.getId() == 0) {
             task.setId(newId());
+            while (tasks.putIfAbsent(task.getId(), task) != null) {
+                task.setId(newId());
+            }
         }
-        tasks.put(task.getId(), task);
+        File dir = getStoreDirectory();
+        if (dir != null) {
+            try {
+                task.spillPdf(new File(dir, task.getId() + PDF_FILE_EXTENSION));
+            } catch (IOException ex) {
+                log.warn("Cannot store pdf file, keeping it in memory", ex);
+            }
+        }
+        addTask(task);
+        writeTask(task);
+        evict();
         return task.getId();
     }
 
+    @Override
+    public void updateTask(ExtractionTask task) {
+        if (tasks.get(task.getId()) == task) {
+            writeTask(task);
+        }
+    }
+
     @Override
     public ExtractionTask getTask(long id) throws NoSuchTaskException {
         ExtractionTask t = tasks.get(id);
-        if (t == null) {
+        if (t == null || isExpired(t, System.currentTimeMillis())) {
+            throw new NoSuchTaskException(id);
+        }
+        return t;
+    }
+
+    @Override
+    public ExtractionTask getTask(long id, String owner) throws NoSuchTaskException {
+        ExtractionTask t = getTask(id);
+        if (!isOwner(t, owner)) {
             throw new NoSuchTaskException(id);
         }
         return t;
@@ -61,9 +168,21 @@ public class TaskManagerImpl implements TaskManager {
 
     @Override
     public List<ExtractionTask> taskList() {
+        return taskList(null, false);
+    }
+
+    @Override
+    public List<ExtractionTask> taskList(String owner) {
+        return taskList(owner, true);
+    }
+
+    private List<ExtractionTask> taskList(String owner, boolean filter) {
+        evict();
         List<ExtractionTask> res = new ArrayList<ExtractionTask>();
-        for (Map.Entry<Long, ExtractionTask> entries : tasks.entrySet()) {
-            res.add(entries.getValue());
+        for (ExtractionTask task : tasks.values()) {
+            if (!filter || isOwner(task, owner)) {
+                res.add(task);
+            }
         }
         Collections.sort(res, new Comparator<ExtractionTask>() {
             @Override
@@ -75,17 +194,12 @@ public class TaskManagerImpl implements TaskManager {
     }
 
     public void deleteFinishedBefore(Date before) {
-        List<Long> toRemove = new ArrayList<Long>();
-
-        for (Map.Entry<Long, ExtractionTask> entry : tasks.entrySet()) {
-            if (entry.getValue().getStatus() == ExtractionTask.TaskStatus.FINISHED
-                    && entry.getValue().getResult().getProcessingEnd().before(before)) {
-                toRemove.add(entry.getKey());
+        for (ExtractionTask task : tasks.values()) {
+            if (task.getStatus() == ExtractionTask.TaskStatus.FINISHED
+                    && task.getResult().getProcessingEnd().before(before)) {
+                removeTask(task.getId());
             }
         }
-        for (Long id : toRemove) {
-            tasks.remove(id);
-        }
     }
 
     @Override
@@ -94,26 +208,179 @@ public class TaskManagerImpl implements TaskManager {
         if (fbase == null || fbase.isEmpty()) {
             fbase = "input.pdf";
         }
-        boolean ok = true;
-        for (Map.Entry<Long, ExtractionTask> entry : tasks.entrySet()) {
-            if (fbase.equals(entry.getValue().getFileName())) {
-                ok = false;
-                break;
-            }
-        }
-        int suffix = 1;
-        String fname = fbase;
-        while (!ok) {
-            ok = true;
-            fname = fbase + "#" + suffix;
-            for (Map.Entry<Long, ExtractionTask> entry : tasks.entrySet()) {
-                if (fname.equals(entry.getValue().getFileName())) {
-                    ok = false;
-                    break;
+        synchronized (fileNames) {
+            if (!fileNames.containsKey(fbase)) {
+                return fbase;
+            }
+            Integer suffix = fileNameSuffixes.get(fbase);
+            if (suffix == null) {
+                suffix = 1;
+            }
+            String fname = fbase + "#" + suffix;
+            while (fileNames.containsKey(fname)) {
+                suffix++;
+                fname = fbase + "#" + suffix;
+            }
+            fileNameSuffixes.put(fbase, suffix + 1);
+            return fname;
+        }
+    }
+
+    private void addTask(ExtractionTask task) {
+        tasks.put(task.getId(), task);
+        registrationOrder.add(task.getId());
+        if (task.getFileName() != null) {
+            synchronized (fileNames) {
+                Integer count = fileNames.get(task.getFileName());
+                fileNames.put(task.getFileName(), count == null ? 1 : count + 1);
+            }
+        }
+    }
+
+    private void removeTask(long id) {
+        ExtractionTask task = tasks.remove(id);
+        if (task == null) {
+            return;
+        }
+        if (task.getFileName() != null) {
+            synchronized (fileNames) {
+                Integer count = fileNames.get(task.getFileName());
+                if (count != null && count > 1) {
+                    fileNames.put(task.getFileName(), count - 1);
+                } else {
+                    fileNames.remove(task.getFileName());
+                }
+            }
+        }
+        task.deletePdf();
+        File dir = getStoreDirectory();
+        if (dir != null) {
+            new File(dir, id + TASK_FILE_EXTENSION).delete();
+        }
+    }
+
+    private static boolean isOwner(ExtractionTask task, String owner) {
+        return owner == null ? task.getOwner() == null : owner.equals(task.getOwner());
+    }
+
+    /**
+     * Removes expired tasks and, if the capacity is exceeded, the oldest
+     * finished tasks. Tasks are visited in the registration order.
+     */
+    private synchronized void evict() {
+        long now = System.currentTimeMillis();
+        Iterator<Long> it = registrationOrder.iterator();
+        while (it.hasNext()) {
+            Long id = it.next();
+            ExtractionTask task = tasks.get(id);
+            if (task == null) {
+                it.remove();
+            } else if (isExpired(task, now) || (tasks.size() > maxTasks && task.isFinished())) {
+                it.remove();
+                removeTask(id);
+            }
+        }
+    }
+
+    private boolean isExpired(ExtractionTask task, long now) {
+        if (task.getCreationDate() == null) {
+            return false;
+        }
+        long age = now - task.getCreationDate().getTime();
+        if (unsucceededTtlHours > 0 && !task.isSucceeded() && age > unsucceededTtlHours * 3600000L) {
+            return true;
+        }
+        return ttlHours > 0 && age > ttlHours * 3600000L;
+    }
+
+    private ExtractionTask readTask(File file) {
+        ObjectInputStream ois = null;
+        try {
+            ois = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))));
+            return (ExtractionTask) ois.readObject();
+        } catch (Exception ex) {
+            log.warn("Cannot read task file, removing it: " + file.getPath(), ex);
+            file.delete();
+            return null;
+        } finally {
+            if (ois != null) {
+                try {
+                    ois.close();
+                } catch (IOException ex) {
+                }
+            }
+        }
+    }
+
+    private void writeTask(ExtractionTask task) {
+        File dir = getStoreDirectory();
+        if (dir == null) {
+            return;
+        }
+        File file = new File(dir, task.getId() + TASK_FILE_EXTENSION);
+        File tmpFile = new File(dir, task.getId() + TASK_FILE_EXTENSION + ".tmp");
+        synchronized (task) {
+            try {
+                ObjectOutputStream oos = new ObjectOutputStream(
+                        new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile))));
+                try {
+                    oos.writeObject(task);
+                } finally {
+                    oos.close();
+                }
+                if (!tmpFile.renameTo(file)) {
+                    file.delete();
+                    if (!tmpFile.renameTo(file)) {
+                        throw new IOException("Cannot rename " + tmpFile.getPath());
+                    }
                 }
+            } catch (IOException ex) {
+                log.warn("Cannot store task " + task.getId(), ex);
+                tmpFile.delete();
             }
-            suffix++;
         }
-        return fname;
+    }
+
+    private File getStoreDirectory() {
+        return directory == null || directory.isEmpty() ? null : new File(directory);
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getMaxTasks() {
+        return maxTasks;
+    }
+
+    public void setMaxTasks(int maxTasks) {
+        this.maxTasks = maxTasks;
+    }
+
+    public int getTtlHours() {
+        return ttlHours;
+    }
+
+    public void setTtlHours(int ttlHours) {
+        this.ttlHours = ttlHours;
+    }
+
+    public int getUnsucceededTtlHours() {
+        return unsucceededTtlHours;
+    }
+
+    /**
+     * Sets the lifetime (in hours) of the tasks that have not succeeded, that
+     * is the queued, processing and failed ones. Zero disables the limit,
+     * so that such tasks live as long as the finished ones.
+     *
+     * @param unsucceededTtlHours
+     */
+    public void setUnsucceededTtlHours(int unsucceededTtlHours) {
+        this.unsucceededTtlHours = unsucceededTtlHours;
     }
 }
@@ -18,10 +18,11 @@
 
 package pl.edu.icm.cermine.web.controller;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import static java.util.Collections.singletonList;
 import java.util.HashMap;
 import java.util.List;
@@ -29,11 +30,12 @@ import java.util.Map;
 import java.util.logging.Level;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import org.apache.commons.io.IOUtils;
+import javax.servlet.http.HttpSession;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -41,7 +43,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
 import org.springframework.web.servlet.ModelAndView;
+import pl.edu.icm.cermine.exception.TransformationException;
 import pl.edu.icm.cermine.service.*;
 
 /**
@@ -52,10 +56,14 @@ import pl.edu.icm.cermine.service.*;
 @org.springframework.stereotype.Controller
 public class CermineController {
 
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
     @Autowired
     CermineExtractorService extractorService;
     @Autowired
     TaskManager taskManager;
+    @Value("${batch.maxPendingFiles:8}")
+    int maxPendingBatchFiles = 8;
     Logger logger = LoggerFactory.getLogger(CermineController.class);
 
     @RequestMapping(value = "/index.html")
@@ -69,17 +77,19 @@ public class CermineController {
     }
 
     @RequestMapping(value = "/download.html")
-    public ResponseEntity<String> downloadXML(@RequestParam("task") long taskId,
-            @RequestParam("type") String resultType, Model model) throws NoSuchTaskException {
-        ExtractionTask task = taskManager.getTask(taskId);
-        if ("nlm".equals(resultType)) {
-            String nlm = task.getResult().getNlm();
-            HttpHeaders responseHeaders = new HttpHeaders();
-            responseHeaders.setContentType(MediaType.APPLICATION_XML);
-            return new ResponseEntity<String>(nlm, responseHeaders, HttpStatus.OK);
-        } else {
+    public void downloadXML(@RequestParam("task") long taskId,
+            @RequestParam("type") String resultType, HttpSession session, HttpServletResponse response)
+            throws NoSuchTaskException, IOException, TransformationException {
+        ExtractionTask task = taskManager.getTask(taskId, session.getId());
+        ResultFormat format = ResultFormat.forName(resultType);
+        if (format == null) {
             throw new RuntimeException("Unknown request type: " + resultType);
         }
+        ExtractionResult result = task.getResult();
+        if (result == null || !result.isSucceeded()) {
+            throw new RuntimeException("No extraction result for task: " + taskId);
+        }
+        writeResult(response, format, result);
     }
     
     @RequestMapping(value = "/examplepdf.html", method = RequestMethod.GET)
@@ -119,7 +129,8 @@ public class CermineController {
     } 
 
     @RequestMapping(value = "/uploadexample.do", method = RequestMethod.GET)
-    public String uploadExampleFileStream(@RequestParam("file") String filename, HttpServletRequest request, Model model) {
+    public String uploadExampleFileStream(@RequestParam("file") String filename, HttpServletRequest request, Model model)
+            throws ServiceOverloadedException {
         if (!filename.matches("^example\\d+\\.pdf$")) {
             throw new RuntimeException("No such example file!");
         }
@@ -130,61 +141,153 @@ public class CermineController {
                 throw new RuntimeException("No such example file!");
             }
         
-            byte[] content = IOUtils.toByteArray(in);
-            if (content.length == 0) {
+            File content;
+            try {
+                content = PdfFiles.spool(in);
+            } finally {
+                in.close();
+            }
+            if (content.length() == 0) {
+                content.delete();
                 model.addAttribute("warning", "An empty or no file sent.");
                 return "home";
             }
             logger.debug("Original filename is: " + filename);
             filename = taskManager.getProperFilename(filename);
             logger.debug("Created filename: " + filename);
-            long taskId = extractorService.initExtractionTask(content, filename);
+            long taskId = extractorService.initExtractionTask(content, filename, request.getSession().getId());
             logger.debug("Task manager is: " + taskManager);
             return "redirect:/task.html?task=" + taskId;
 
+        } catch (ServiceOverloadedException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
     }
     
     @RequestMapping(value = "/upload.do", method = RequestMethod.POST)
-    public String uploadFileStream(@RequestParam("files") MultipartFile file, HttpServletRequest request, Model model) {
+    public String uploadFileStream(@RequestParam("files") MultipartFile file, HttpServletRequest request, Model model)
+            throws ServiceOverloadedException {
         logger.info("Got an upload request.");
         try {
-            byte[] content = file.getBytes();
-            if (content.length == 0) {
+            if (file.isEmpty()) {
                 model.addAttribute("warning", "An empty or no file sent.");
                 return "home";
             }
+            File content = PdfFiles.createTempFile();
+            file.transferTo(content);
             String filename = file.getOriginalFilename();
             logger.debug("Original filename is: " + filename);
             filename = taskManager.getProperFilename(filename);
             logger.debug("Created filename: " + filename);
-            long taskId = extractorService.initExtractionTask(content, filename);
+            long taskId = extractorService.initExtractionTask(content, filename, request.getSession().getId());
             logger.debug("Task manager is: " + taskManager);
             return "redirect:/task.html?task=" + taskId;
 
+        } catch (ServiceOverloadedException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
     }
 
+    /**
+     * Extracts the content of the pdf file sent in the request body. The result
+     * is streamed in the requested format, NLM by default.
+     */
     @RequestMapping(value = "/extract.do", method = RequestMethod.POST)
-    public ResponseEntity<String> extractSync(@RequestBody byte[] content,
-            HttpServletRequest request,
-            Model model) {
+    public void extractSync(HttpServletRequest request, HttpServletResponse response,
+            @RequestParam(value = "format", required = false) String formatName)
+            throws ServiceOverloadedException, IOException {
+        ResultFormat format = formatName == null ? ResultFormat.NLM : ResultFormat.forName(formatName);
+        if (format == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown format: " + formatName);
+            return;
+        }
+        File content = null;
         try {
-            logger.debug("content length: {}", content.length);
+            content = PdfFiles.spool(request.getInputStream());
+            logger.debug("content length: {}", content.length());
             
-            HttpHeaders responseHeaders = new HttpHeaders();
-            responseHeaders.setContentType(MediaType.APPLICATION_XML);
-            ExtractionResult result = extractorService.extractNLM(new ByteArrayInputStream(content));
-            String nlm = result.getNlm();
-            return new ResponseEntity<String>(nlm, responseHeaders, HttpStatus.OK);
+            ExtractionResult result = extractorService.extractNLM(content);
+            if (!result.isSucceeded()) {
+                writeError(response, result.getErrorMessage());
+                return;
+            }
+            writeResult(response, format, result);
+        } catch (ServiceOverloadedException ex) {
+            throw ex;
         } catch (Exception ex) {
             java.util.logging.Logger.getLogger(CermineController.class.getName()).log(Level.SEVERE, null, ex);
-            return new ResponseEntity<String>("Exception: " + ex.getMessage(), null, HttpStatus.INTERNAL_SERVER_ERROR);
+            writeError(response, ex.getMessage());
+        } finally {
+            if (content != null) {
+                content.delete();
+            }
+        }
+    }
+
+    private static void writeResult(HttpServletResponse response, ResultFormat format, ExtractionResult result)
+            throws IOException, TransformationException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        format.write(response.getOutputStream(), result);
+    }
+
+    private static void writeError(HttpServletResponse response, String message) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.reset();
+        response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        response.setContentType("text/plain");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("Exception: " + message);
+    }
+
+    /**
+     * Extracts metadata from a batch of pdf files, sent either as a ZIP archive
+     * in the request body or as a multipart request. The results are streamed
+     * as newline-delimited JSON objects, one per file, as soon as they are
+     * ready.
+     */
+    @RequestMapping(value = "/extractBatch.do", method = RequestMethod.POST)
+    public void extractBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        BatchExtraction.Source source;
+        if (request instanceof MultipartHttpServletRequest) {
+            List<MultipartFile> files = new ArrayList<MultipartFile>();
+            for (List<MultipartFile> parameterFiles
+                    : ((MultipartHttpServletRequest) request).getMultiFileMap().values()) {
+                files.addAll(parameterFiles);
+            }
+            source = multipartSource(files);
+        } else {
+            source = BatchExtraction.zipSource(request.getInputStream());
         }
+        logger.info("Got a batch extraction request.");
+        new BatchExtraction(extractorService, maxPendingBatchFiles).extract(source, response.getOutputStream());
+    }
+
+    @RequestMapping(value = "/queue.json", method = RequestMethod.GET)
+    @ResponseBody
+    public Map<String, Number> showQueueMetrics() {
+        return extractorService.getQueueMetrics();
+    }
+
+    @RequestMapping(value = "/metrics", method = RequestMethod.GET)
+    @ResponseBody
+    public Map<String, Number> showMetrics() {
+        return extractorService.getMetrics();
+    }
+
+    @ExceptionHandler(value = ServiceOverloadedException.class)
+    public void overloadedHandler(ServiceOverloadedException soe, HttpServletResponse response) throws IOException {
+        logger.info("Request rejected: {}", soe.getMessage());
+        response.setHeader("Retry-After", String.valueOf(soe.getRetryAfterSeconds()));
+        response.sendError(SC_TOO_MANY_REQUESTS, soe.getMessage());
     }
 
     @ExceptionHandler(value = NoSuchTaskException.class)
@@ -193,24 +296,53 @@ public class CermineController {
     }
 
     @RequestMapping(value = "/task.html", method = RequestMethod.GET)
-    public ModelAndView showTask(@RequestParam("task") long id) throws NoSuchTaskException {
-        ExtractionTask task = taskManager.getTask(id);
+    public ModelAndView showTask(@RequestParam("task") long id, HttpSession session) throws NoSuchTaskException {
+        ExtractionTask task = taskManager.getTask(id, session.getId());
 
         HashMap<String, Object> model = new HashMap<String, Object>();
         model.put("task", task);
         if (task.isFinished()) {
-            model.put("result", task.getResult());
-            String nlmHtml = StringEscapeUtils.escapeHtml(task.getResult().getNlm());
-            model.put("nlm", nlmHtml);
-            model.put("meta", task.getResult().getMeta());
-            model.put("html", task.getResult().getHtml());
+            ExtractionResult result = task.getResult();
+            model.put("result", result);
+            model.put("meta", result.getMeta());
+            if (result.isSucceeded()) {
+                try {
+                    String nlmHtml = StringEscapeUtils.escapeHtml(ResultFormat.NLM.write(result));
+                    model.put("nlm", nlmHtml);
+                    model.put("html", ResultFormat.HTML.write(result));
+                } catch (TransformationException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
         }
         return new ModelAndView("task", model);
     }
 
     @RequestMapping(value = "/tasks.html")
-    public ModelAndView showTasks() {
-        return new ModelAndView("tasks", "tasks", taskManager.taskList());
+    public ModelAndView showTasks(HttpSession session) {
+        return new ModelAndView("tasks", "tasks", taskManager.taskList(session.getId()));
+    }
+
+    private static BatchExtraction.Source multipartSource(final List<MultipartFile> files) {
+        return new BatchExtraction.Source() {
+
+            private int next = 0;
+
+            @Override
+            public boolean next() {
+                return next++ < files.size();
+            }
+
+            @Override
+            public String getName() {
+                return files.get(next - 1).getOriginalFilename();
+            }
+
+            @Override
+            public InputStream getContent() throws IOException {
+                return files.get(next - 1).getInputStream();
+            }
+        };
     }
 
     private static ResponseEntity<List<Map<String, Object>>> wrapResponse(Map<String, Object> rBody) {
@@ -234,6 +366,20 @@ public class CermineController {
         this.extractorService = extractorService;
     }
 
+    public int getMaxPendingBatchFiles() {
+        return maxPendingBatchFiles;
+    }
+
+    /**
+     * Sets the maximum number of files of a batch request submitted
+     * for extraction and waiting for results at a time.
+     *
+     * @param maxPendingBatchFiles
+     */
+    public void setMaxPendingBatchFiles(int maxPendingBatchFiles) {
+        this.maxPendingBatchFiles = maxPendingBatchFiles;
+    }
+
     public TaskManager getTaskManager() {
         return taskManager;
     }
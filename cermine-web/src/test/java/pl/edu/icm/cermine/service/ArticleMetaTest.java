@@ -18,11 +18,18 @@
 
 package pl.edu.icm.cermine.service;
 
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.JDOMException;
 import org.jdom.input.SAXBuilder;
+import org.jdom.xpath.XPath;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import org.junit.*;
+import pl.edu.icm.cermine.service.ArticleMeta.ContributorMeta;
 
 /**
  *
@@ -30,6 +37,24 @@ import org.junit.*;
  */
 public class ArticleMetaTest {
 
+    private static final String REFERENCES_NLM =
+              "<article><front><article-meta>"
+            + "<article-id pub-id-type=\"urn\">urn:test:1</article-id>"
+            + "<title-group><article-title>Title</article-title></title-group>"
+            + "<contrib-group><contrib contrib-type=\"editor\"><string-name>A. Editor</string-name>"
+            + "<aff>Univ</aff><email>editor@univ.edu</email></contrib></contrib-group>"
+            + "<history><date date-type=\"revised\"><month>3</month><year>2010</year></date></history>"
+            + "</article-meta></front>"
+            + "<back><ref-list>"
+            + "<ref><mixed-citation><string-name><surname>Hoeffding</surname>, <given-names>W.</given-names>"
+            + "</string-name>, <article-title>Probability inequalities</article-title>, "
+            + "<source>J. Amer. Statist. Assoc</source>, <volume>58</volume> (<year>1963</year>) "
+            + "<fpage>13</fpage>-<lpage>30</lpage>.</mixed-citation></ref>"
+            + "<ref><mixed-citation><publisher-name>Springer</publisher-name>, "
+            + "<publisher-loc>Berlin</publisher-loc></mixed-citation></ref>"
+            + "<ref><mixed-citation>Plain text</mixed-citation></ref>"
+            + "</ref-list></back></article>";
+
     public ArticleMetaTest() {
     }
 
@@ -80,4 +105,164 @@ public class ArticleMetaTest {
         assertTrue(result.getKeywords().contains("denominators"));
         assertEquals(8, result.getKeywords().size());
     }
+
+    /**
+     * Tests that the metadata read from the article model are the same
+     * as the metadata selected from the NLM document by the XPath expressions.
+     */
+    @Test
+    public void testExtractLikeXPath() throws Exception {
+        SAXBuilder builder = new SAXBuilder();
+        Document nlm = builder.build(this.getClass().getResourceAsStream("/sampleNlm.xml"));
+        assertSameMeta(extractXPath(nlm), ArticleMeta.extractNLM(nlm));
+
+        nlm = builder.build(new StringReader(REFERENCES_NLM));
+        ArticleMeta expected = extractXPath(nlm);
+        assertEquals(3, expected.getReferences().size());
+        assertSameMeta(expected, ArticleMeta.extractNLM(nlm));
+    }
+
+    private static void assertSameMeta(ArticleMeta expected, ArticleMeta actual) {
+        assertEquals(expected.getJournalTitle(), actual.getJournalTitle());
+        assertEquals(expected.getJournalISSN(), actual.getJournalISSN());
+        assertEquals(expected.getPublisher(), actual.getPublisher());
+        assertEquals(expected.getPublisherLoc(), actual.getPublisherLoc());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDoi(), actual.getDoi());
+        assertEquals(expected.getUrn(), actual.getUrn());
+        assertEquals(expected.getAbstractText(), actual.getAbstractText());
+        assertEquals(expected.getFpage(), actual.getFpage());
+        assertEquals(expected.getLpage(), actual.getLpage());
+        assertEquals(expected.getVolume(), actual.getVolume());
+        assertEquals(expected.getIssue(), actual.getIssue());
+        assertEquals(expected.getPubDate(), actual.getPubDate());
+        assertEquals(expected.getReceivedDate(), actual.getReceivedDate());
+        assertEquals(expected.getRevisedDate(), actual.getRevisedDate());
+        assertEquals(expected.getAcceptedDate(), actual.getAcceptedDate());
+        assertEquals(expected.getKeywords(), actual.getKeywords());
+        assertSameContributors(expected.getAuthors(), actual.getAuthors());
+        assertSameContributors(expected.getEditors(), actual.getEditors());
+        if (expected.getReferences() == null) {
+            assertTrue(actual.getReferences() == null || actual.getReferences().isEmpty());
+            return;
+        }
+        assertEquals(expected.getReferences().size(), actual.getReferences().size());
+        for (int i = 0; i < expected.getReferences().size(); i++) {
+            assertSameMeta(expected.getReferences().get(i), actual.getReferences().get(i));
+        }
+    }
+
+    private static void assertSameContributors(List<ContributorMeta> expected, List<ContributorMeta> actual) {
+        if (expected == null) {
+            assertTrue(actual == null || actual.isEmpty());
+            return;
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getSurname(), actual.get(i).getSurname());
+            assertEquals(expected.get(i).getGivennames(), actual.get(i).getGivennames());
+            assertEquals(expected.get(i).getAffiliations(), actual.get(i).getAffiliations());
+            assertEquals(expected.get(i).getEmails(), actual.get(i).getEmails());
+        }
+    }
+
+    /**
+     * Selects the metadata from the NLM document with the XPath expressions
+     * used by ArticleMeta before it was read from the article model.
+     */
+    private static ArticleMeta extractXPath(Document nlm) throws JDOMException {
+        ArticleMeta res = new ArticleMeta();
+        res.setJournalTitle(xPathValue(nlm, "/article/front//journal-title"));
+        res.setJournalISSN(xPathValue(nlm, "/article/front//journal-meta/issn[@pub-type='ppub']"));
+        res.setPublisher(xPathValue(nlm, "/article/front//publisher-name"));
+        res.setTitle(xPathValue(nlm, "/article/front//article-title"));
+        res.setDoi(xPathValue(nlm, "/article/front//article-id[@pub-id-type='doi']"));
+        res.setUrn(xPathValue(nlm, "/article/front//article-id[@pub-id-type='urn']"));
+        res.setAbstractText(xPathValue(nlm, "/article/front//abstract"));
+        res.setFpage(xPathValue(nlm, "/article/front/article-meta/fpage"));
+        res.setLpage(xPathValue(nlm, "/article/front/article-meta/lpage"));
+        res.setVolume(xPathValue(nlm, "/article/front/article-meta/volume"));
+        res.setIssue(xPathValue(nlm, "/article/front/article-meta/issue"));
+        res.setAuthors(xPathContributors(nlm, "//contrib[@contrib-type='author']"));
+        res.setEditors(xPathContributors(nlm, "//contrib[@contrib-type='editor']"));
+        res.setPubDate(xPathDate(nlm, "//pub-date"));
+        res.setReceivedDate(xPathDate(nlm, "//history/date[@date-type='received']"));
+        res.setRevisedDate(xPathDate(nlm, "//history/date[@date-type='revised']"));
+        res.setAcceptedDate(xPathDate(nlm, "//history/date[@date-type='accepted']"));
+        List<String> keywords = new ArrayList<String>();
+        for (Object kwd : XPath.newInstance("//kwd").selectNodes(nlm)) {
+            keywords.add(((Element) kwd).getTextTrim());
+        }
+        res.setKeywords(keywords);
+
+        List<ArticleMeta> references = new ArrayList<ArticleMeta>();
+        for (Object node : XPath.newInstance("//ref/mixed-citation").selectNodes(nlm)) {
+            Element citation = (Element) node;
+            ArticleMeta reference = new ArticleMeta();
+            reference.setAbstractText(citation.getValue());
+            reference.setTitle(citation.getChildText("article-title"));
+            reference.setPublisher(citation.getChildText("publisher-name"));
+            reference.setPublisherLoc(citation.getChildText("publisher-loc"));
+            reference.setPubDate(citation.getChildText("year"));
+            reference.setFpage(citation.getChildText("fpage"));
+            reference.setLpage(citation.getChildText("lpage"));
+            reference.setJournalTitle(citation.getChildText("source"));
+            reference.setVolume(citation.getChildText("volume"));
+            reference.setIssue(citation.getChildText("issue"));
+            List<ContributorMeta> authors = new ArrayList<ContributorMeta>();
+            for (Object authorNode : citation.getChildren("string-name")) {
+                ContributorMeta author = new ContributorMeta();
+                author.setGivennames(((Element) authorNode).getChildText("given-names"));
+                author.setSurname(((Element) authorNode).getChildText("surname"));
+                authors.add(author);
+            }
+            reference.setAuthors(authors);
+            references.add(reference);
+        }
+        res.setReferences(references);
+        return res;
+    }
+
+    private static String xPathValue(Document nlm, String xpath) throws JDOMException {
+        String res = XPath.newInstance(xpath).valueOf(nlm);
+        return res == null ? null : res.trim();
+    }
+
+    private static String xPathDate(Document nlm, String xpath) throws JDOMException {
+        String year = xPathValue(nlm, xpath + "/year");
+        String month = xPathValue(nlm, xpath + "/month");
+        String day = xPathValue(nlm, xpath + "/day");
+        String date = year;
+        if (year != null && !year.isEmpty() && month != null && !month.isEmpty()) {
+            date += "-" + month;
+            if (day != null && !day.isEmpty()) {
+                date += "-" + day;
+            }
+        }
+        return date;
+    }
+
+    private static List<ContributorMeta> xPathContributors(Document nlm, String xpath) throws JDOMException {
+        List<ContributorMeta> contributors = new ArrayList<ContributorMeta>();
+        for (Object node : XPath.newInstance(xpath).selectNodes(nlm)) {
+            Element contrib = (Element) node;
+            Element nameElement = contrib.getChild("name");
+            String name;
+            if (nameElement != null) {
+                name = nameElement.getChildText("surname") + ", " + nameElement.getChildText("given-names");
+            } else {
+                name = contrib.getChildText("string-name");
+            }
+            ContributorMeta contributor = new ContributorMeta(name);
+            for (Object aff : contrib.getChildren("aff")) {
+                contributor.addAffiliations(((Element) aff).getText());
+            }
+            for (Object email : contrib.getChildren("email")) {
+                contributor.addEmail(((Element) email).getText());
+            }
+            contributors.add(contributor);
+        }
+        return contributors;
+    }
 }
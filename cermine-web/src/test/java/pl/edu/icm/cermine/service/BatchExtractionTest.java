@@ -0,0 +1,249 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.codehaus.jackson.map.ObjectMapper;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.edu.icm.cermine.article.model.*;
+
+public class BatchExtractionTest {
+
+    ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testExtractZip() throws Exception {
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        ZipOutputStream zos = new ZipOutputStream(zip);
+        zos.putNextEntry(new ZipEntry("dir/"));
+        zos.closeEntry();
+        String[] names = {"dir/a.pdf", "b.pdf", "empty.pdf", "fail.pdf", "c.pdf"};
+        String[] contents = {"a", "b", "", "fail", "c"};
+        for (int i = 0; i < names.length; i++) {
+            zos.putNextEntry(new ZipEntry(names[i]));
+            zos.write(contents[i].getBytes("UTF-8"));
+            zos.closeEntry();
+        }
+        zos.close();
+
+        FakeService service = new FakeService();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BatchExtraction(service, 2).extract(
+                BatchExtraction.zipSource(new ByteArrayInputStream(zip.toByteArray())), output);
+
+        List<Map<String, Object>> lines = parse(output);
+        assertEquals(6, lines.size());
+        assertTrue(service.maxPending <= 2);
+        assertEquals(4, service.files.size());
+        for (File file : service.files) {
+            assertFalse(file.exists());
+        }
+        Map<String, Map<String, Object>> byName = new HashMap<String, Map<String, Object>>();
+        for (Map<String, Object> line : lines.subList(0, 5)) {
+            byName.put((String) line.get("name"), line);
+        }
+        for (String name : new String[]{"dir/a.pdf", "b.pdf", "c.pdf"}) {
+            assertEquals("OK", byName.get(name).get("status"));
+        }
+        Map<String, Object> article = (Map<String, Object>) byName.get("dir/a.pdf").get("article");
+        assertEquals("a", ((Map<String, Object>) article.get("front")).get("title"));
+        assertEquals(new ArrayList<Object>(), article.get("references"));
+        assertEquals(1, byName.get("b.pdf").get("index"));
+        assertEquals("FAILED", byName.get("empty.pdf").get("status"));
+        assertEquals("FAILED", byName.get("fail.pdf").get("status"));
+        assertEquals("Broken pdf", byName.get("fail.pdf").get("error"));
+
+        Map<String, Object> summary = lines.get(5);
+        assertEquals(5, summary.get("items"));
+        assertEquals(3, summary.get("succeeded"));
+        assertEquals(2, summary.get("failed"));
+        assertFalse(summary.containsKey("error"));
+    }
+
+    @Test
+    public void testOverloaded() throws Exception {
+        FakeService service = new FakeService();
+        service.overloaded = true;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new BatchExtraction(service, 2).extract(source("a.pdf", "b.pdf"), output);
+
+        List<Map<String, Object>> lines = parse(output);
+        assertEquals(3, lines.size());
+        assertEquals("REJECTED", lines.get(0).get("status"));
+        assertEquals("REJECTED", lines.get(1).get("status"));
+        assertEquals(0, lines.get(2).get("succeeded"));
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        FakeService service = new FakeService();
+        service.timeout = 50;
+        BatchExtraction batch = new BatchExtraction(service, 2);
+        batch.setTimeoutGrace(50);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        batch.extract(source("a.pdf", "hang.pdf", "b.pdf"), output);
+
+        List<Map<String, Object>> lines = parse(output);
+        assertEquals(4, lines.size());
+        Map<String, Map<String, Object>> byName = new HashMap<String, Map<String, Object>>();
+        for (Map<String, Object> line : lines.subList(0, 3)) {
+            byName.put((String) line.get("name"), line);
+        }
+        assertEquals("OK", byName.get("a.pdf").get("status"));
+        assertEquals("OK", byName.get("b.pdf").get("status"));
+        assertEquals("FAILED", byName.get("hang.pdf").get("status"));
+        assertEquals("Extraction deadline exceeded.", byName.get("hang.pdf").get("error"));
+        assertEquals(2, lines.get(3).get("succeeded"));
+        assertEquals(1, lines.get(3).get("failed"));
+    }
+
+    private List<Map<String, Object>> parse(ByteArrayOutputStream output) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        List<Map<String, Object>> lines = new ArrayList<Map<String, Object>>();
+        for (String line : output.toString("UTF-8").split("\n")) {
+            lines.add(mapper.readValue(line, Map.class));
+        }
+        return lines;
+    }
+
+    private static BatchExtraction.Source source(final String... names) {
+        return new BatchExtraction.Source() {
+
+            private int next = 0;
+
+            @Override
+            public boolean next() {
+                return next++ < names.length;
+            }
+
+            @Override
+            public String getName() {
+                return names[next - 1];
+            }
+
+            @Override
+            public InputStream getContent() throws IOException {
+                String content = names[next - 1].startsWith("hang") ? "hang" : "x";
+                return new ByteArrayInputStream(content.getBytes("UTF-8"));
+            }
+        };
+    }
+
+    private class FakeService implements CermineExtractorService {
+
+        boolean overloaded = false;
+        long timeout = 0;
+        int pending = 0;
+        int maxPending = 0;
+        List<File> files = new ArrayList<File>();
+
+        @Override
+        public synchronized void submitExtraction(final File pdf, final ExtractionListener listener)
+                throws ServiceException {
+            if (overloaded) {
+                throw new ServiceOverloadedException("Queue size exceeded.", 1);
+            }
+            files.add(pdf);
+            pending++;
+            maxPending = Math.max(maxPending, pending);
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    ExtractionResult result = new ExtractionResult();
+                    result.setSubmit(new Date());
+                    result.setProcessingStart(new Date());
+                    String text;
+                    try {
+                        text = FileUtils.readFileToString(pdf, "UTF-8");
+                    } catch (IOException ex) {
+                        text = "fail";
+                    }
+                    if (text.equals("hang")) {
+                        return;
+                    }
+                    if (text.equals("fail")) {
+                        result.setError(new Exception("Broken pdf"));
+                    } else {
+                        result.setArticle(new Article(new ArticleFront.Builder().setTitle(text).build(),
+                                new ArrayList<ArticleSection>(), new ArrayList<ArticleReference>()));
+                        result.setSucceeded(true);
+                    }
+                    result.setProcessingEnd(new Date());
+                    synchronized (FakeService.this) {
+                        pending--;
+                    }
+                    listener.extractionFinished(result);
+                }
+            });
+        }
+
+        @Override
+        public long getExtractionTimeout() {
+            return timeout;
+        }
+
+        @Override
+        public ExtractionResult extractNLM(InputStream ii) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ExtractionResult extractNLM(File pdf) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long initExtractionTask(File pdf, String fileName, String owner) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, Number> getQueueMetrics() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public Map<String, Number> getMetrics() {
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.edu.icm.cermine.article.model.*;
+
+public class ExtractionResultCacheTest {
+
+    File cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = File.createTempFile("result-cache", "");
+        cacheDir.delete();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(cacheDir);
+    }
+
+    @Test
+    public void testKey() {
+        ExtractionResultCache cache = new ExtractionResultCache(1000, null, "v1");
+        ExtractionResultCache otherCache = new ExtractionResultCache(1000, null, "v2");
+        byte[] pdf = {1, 2, 3};
+        assertEquals(64, cache.getKey(pdf).length());
+        assertEquals(cache.getKey(pdf), cache.getKey(new byte[]{1, 2, 3}));
+        assertFalse(cache.getKey(pdf).equals(cache.getKey(new byte[]{1, 2, 4})));
+        assertFalse(cache.getKey(pdf).equals(otherCache.getKey(pdf)));
+    }
+
+    @Test
+    public void testEviction() {
+        ExtractionResultCache.Entry entry = newEntry("0123456789");
+        assertEquals(40, entry.getSize());
+        assertEquals(76, new ExtractionResultCache.Entry("<title/>0123456789", entry.getArticle(), null).getSize());
+        ExtractionResultCache cache = new ExtractionResultCache(100, null, "v1");
+        cache.put("a", newEntry("0123456789"));
+        cache.put("b", newEntry("0123456789"));
+        assertNotNull(cache.get("a"));
+        cache.put("c", newEntry("0123456789"));
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(80, cache.getMemorySize());
+    }
+
+    @Test
+    public void testDiskTier() {
+        ArticleMeta meta = new ArticleMeta();
+        meta.setTitle("Title");
+        ExtractionResultCache cache = new ExtractionResultCache(1000, cacheDir, "v1");
+        cache.put("abcd", new ExtractionResultCache.Entry("<article/>",
+                newEntry("Title").getArticle(), meta));
+
+        ExtractionResultCache otherCache = new ExtractionResultCache(1000, cacheDir, "v1");
+        ExtractionResultCache.Entry entry = otherCache.get("abcd");
+        assertNotNull(entry);
+        assertEquals("<article/>", entry.getNlm());
+        assertEquals("Title", entry.getArticle().getFront().getTitle());
+        assertEquals("Title", entry.getMeta().getTitle());
+    }
+
+    @Test
+    public void testCoalescing() throws Exception {
+        final ExtractionResultCache cache = new ExtractionResultCache(1000, null, "v1");
+        final AtomicInteger extractions = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Callable<ExtractionResultCache.Entry> extraction = new Callable<ExtractionResultCache.Entry>() {
+            @Override
+            public ExtractionResultCache.Entry call() throws Exception {
+                extractions.incrementAndGet();
+                started.countDown();
+                release.await();
+                return newEntry("title");
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ExtractionResultCache.Entry> first = executor.submit(new Callable<ExtractionResultCache.Entry>() {
+                @Override
+                public ExtractionResultCache.Entry call() throws Exception {
+                    return cache.get("key", extraction);
+                }
+            });
+            started.await();
+            final CountDownLatch secondStarted = new CountDownLatch(1);
+            final Thread[] secondThread = new Thread[1];
+            Future<ExtractionResultCache.Entry> second = executor.submit(new Callable<ExtractionResultCache.Entry>() {
+                @Override
+                public ExtractionResultCache.Entry call() throws Exception {
+                    secondThread[0] = Thread.currentThread();
+                    secondStarted.countDown();
+                    return cache.get("key", extraction);
+                }
+            });
+            secondStarted.await();
+            // the second request blocks waiting for the result of the first one
+            while (secondThread[0].getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            release.countDown();
+            assertSame(first.get(), second.get());
+            assertEquals(1, extractions.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ExtractionResultCache.Entry newEntry(String title) {
+        ArticleFront front = new ArticleFront.Builder().setTitle(title).build();
+        return new ExtractionResultCache.Entry(null, new Article(front, new ArrayList<ArticleSection>(),
+                new ArrayList<ArticleReference>()), null);
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.service;
+
+import java.util.List;
+import java.util.concurrent.*;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExtractionSchedulerTest {
+
+    ExtractionScheduler scheduler;
+    CountDownLatch release;
+
+    @Before
+    public void setUp() {
+        scheduler = new ExtractionScheduler(1, 2, 0);
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testPriorityAndRejection() throws Exception {
+        final List<String> order = new CopyOnWriteArrayList<String>();
+        Future<String> blocking = scheduler.submit(new BlockingCallable("blocking", order),
+                ExtractionScheduler.Lane.BULK, 0);
+        while (scheduler.getQueueDepth(ExtractionScheduler.Lane.BULK) > 0) {
+            Thread.sleep(10);
+        }
+        scheduler.submit(new BlockingCallable("bulk1", order), ExtractionScheduler.Lane.BULK, 0);
+        scheduler.submit(new BlockingCallable("bulk2", order), ExtractionScheduler.Lane.BULK, 0);
+        try {
+            scheduler.submit(new BlockingCallable("bulk3", order), ExtractionScheduler.Lane.BULK, 0);
+            fail("Request should be rejected");
+        } catch (ServiceOverloadedException ex) {
+            assertTrue(ex.getRetryAfterSeconds() > 0);
+        }
+        Future<String> interactive = scheduler.submit(new BlockingCallable("interactive", order),
+                ExtractionScheduler.Lane.INTERACTIVE, 0);
+
+        release.countDown();
+        assertEquals("blocking", blocking.get());
+        assertEquals("interactive", interactive.get());
+        while (order.size() < 4) {
+            Thread.sleep(10);
+        }
+        assertEquals("blocking", order.get(0));
+        assertEquals("interactive", order.get(1));
+        assertEquals("bulk1", order.get(2));
+        assertEquals(1L, scheduler.getMetrics().get("rejected"));
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        Future<String> future = scheduler.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                release.await();
+                return "finished";
+            }
+        }, ExtractionScheduler.Lane.BULK, System.currentTimeMillis() + 100);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Request should be interrupted");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof InterruptedException);
+        }
+        assertEquals(1L, scheduler.getMetrics().get("timedOut"));
+    }
+
+    private class BlockingCallable implements Callable<String> {
+
+        String name;
+        List<String> order;
+
+        public BlockingCallable(String name, List<String> order) {
+            this.name = name;
+            this.order = order;
+        }
+
+        @Override
+        public String call() throws Exception {
+            order.add(name);
+            release.await();
+            return name;
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+/**
+ * This file is part of CERMINE project.
+ * Copyright (c) 2011-2013 ICM-UW
+ *
+ * CERMINE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * CERMINE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with CERMINE. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.edu.icm.cermine.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import org.apache.commons.io.FileUtils;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.edu.icm.cermine.article.model.*;
+
+public class TaskManagerImplTest {
+
+    File storeDir;
+
+    @Before
+    public void setUp() throws IOException {
+        storeDir = File.createTempFile("task-store", "");
+        storeDir.delete();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(storeDir);
+    }
+
+    @Test
+    public void testProperFilename() {
+        TaskManagerImpl instance = new TaskManagerImpl();
+        instance.init();
+        assertEquals("input.pdf", instance.getProperFilename(null));
+        assertEquals("a.pdf", instance.getProperFilename("a.pdf"));
+        instance.registerTask(newTask("a.pdf"));
+        assertEquals("a.pdf#1", instance.getProperFilename("a.pdf"));
+        instance.registerTask(newTask("a.pdf#1"));
+        assertEquals("a.pdf#2", instance.getProperFilename("a.pdf"));
+    }
+
+    @Test
+    public void testCapacity() throws Exception {
+        TaskManagerImpl instance = new TaskManagerImpl();
+        instance.setMaxTasks(2);
+        instance.init();
+        ExtractionTask first = newTask("1.pdf");
+        first.setStatus(ExtractionTask.TaskStatus.FINISHED);
+        instance.registerTask(first);
+        ExtractionTask second = newTask("2.pdf");
+        instance.registerTask(second);
+        ExtractionTask third = newTask("3.pdf");
+        instance.registerTask(third);
+
+        assertEquals(2, instance.taskList().size());
+        try {
+            instance.getTask(first.getId());
+            fail("Evicted task should not be available");
+        } catch (NoSuchTaskException ex) {
+        }
+        assertSame(second, instance.getTask(second.getId()));
+        assertEquals("1.pdf", instance.getProperFilename("1.pdf"));
+    }
+
+    @Test
+    public void testOwners() throws Exception {
+        TaskManagerImpl instance = new TaskManagerImpl();
+        instance.init();
+        ExtractionTask mine = newTask("mine.pdf");
+        mine.setOwner("session1");
+        instance.registerTask(mine);
+        ExtractionTask other = newTask("other.pdf");
+        other.setOwner("session2");
+        instance.registerTask(other);
+
+        assertEquals(Arrays.asList(mine), instance.taskList("session1"));
+        assertEquals(Arrays.asList(other), instance.taskList("session2"));
+        assertTrue(instance.taskList("session3").isEmpty());
+        assertEquals(2, instance.taskList().size());
+        assertSame(mine, instance.getTask(mine.getId(), "session1"));
+        try {
+            instance.getTask(other.getId(), "session1");
+            fail("Other session's task should not be available");
+        } catch (NoSuchTaskException ex) {
+        }
+    }
+
+    @Test
+    public void testUnsucceededTtl() throws Exception {
+        TaskManagerImpl instance = new TaskManagerImpl();
+        instance.setUnsucceededTtlHours(1);
+        instance.init();
+        Date old = new Date(System.currentTimeMillis() - 2 * 3600000L);
+        ExtractionTask finished = newTask("finished.pdf");
+        finished.setCreationDate(old);
+        finished.setStatus(ExtractionTask.TaskStatus.FINISHED);
+        instance.registerTask(finished);
+        ExtractionTask queued = newTask("queued.pdf");
+        queued.setCreationDate(old);
+        instance.registerTask(queued);
+        ExtractionTask failed = newTask("failed.pdf");
+        failed.setCreationDate(old);
+        failed.setStatus(ExtractionTask.TaskStatus.FAILED);
+        instance.registerTask(failed);
+        ExtractionTask recent = newTask("recent.pdf");
+        instance.registerTask(recent);
+
+        assertEquals(Arrays.asList(finished, recent), instance.taskList());
+        try {
+            instance.getTask(queued.getId());
+            fail("Stale queued task should not be available");
+        } catch (NoSuchTaskException ex) {
+        }
+    }
+
+    @Test
+    public void testPersistence() throws Exception {
+        TaskManagerImpl instance = new TaskManagerImpl();
+        instance.setDirectory(storeDir.getPath());
+        instance.init();
+
+        ExtractionTask finished = newTask("finished.pdf");
+        long finishedId = instance.registerTask(finished);
+        assertNotNull(finished.getPdfFile());
+        assertTrue(Arrays.equals(new byte[]{1, 2, 3}, FileUtils.readFileToByteArray(finished.getPdfFile())));
+        ExtractionResult result = new ExtractionResult();
+        result.setSubmit(new Date());
+        result.setProcessingStart(new Date());
+        result.setProcessingEnd(new Date());
+        result.setNlm("<article/>");
+        result.setArticle(new Article(new ArticleFront.Builder().setTitle("Title").build(),
+                new ArrayList<ArticleSection>(), new ArrayList<ArticleReference>()));
+        result.setSucceeded(true);
+        finished.setResult(result);
+        finished.setStatus(ExtractionTask.TaskStatus.FINISHED);
+        finished.deletePdf();
+        instance.updateTask(finished);
+
+        long queuedId = instance.registerTask(newTask("queued.pdf"));
+
+        TaskManagerImpl restarted = new TaskManagerImpl();
+        restarted.setDirectory(storeDir.getPath());
+        restarted.init();
+        assertEquals(2, restarted.taskList().size());
+        ExtractionTask restored = restarted.getTask(finishedId);
+        assertEquals(ExtractionTask.TaskStatus.FINISHED, restored.getStatus());
+        assertEquals("<article/>", restored.getResult().getNlm());
+        assertEquals("Title", restored.getResult().getArticle().getFront().getTitle());
+        assertEquals(ExtractionTask.TaskStatus.FAILED, restarted.getTask(queuedId).getStatus());
+        assertEquals("finished.pdf#1", restarted.getProperFilename("finished.pdf"));
+    }
+
+    @Test
+    public void testUploadedFile() throws Exception {
+        TaskManagerImpl instance = new TaskManagerImpl();
+        instance.setDirectory(storeDir.getPath());
+        instance.init();
+
+        File upload = PdfFiles.spool(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+        ExtractionTask task = newTask("uploaded.pdf");
+        task.setPdfFile(upload);
+        instance.registerTask(task);
+        assertFalse(upload.exists());
+        assertEquals(storeDir, task.getPdfFile().getParentFile());
+        assertTrue(Arrays.equals(new byte[]{1, 2, 3}, FileUtils.readFileToByteArray(task.getPdfFile())));
+
+        File stored = task.getPdfFile();
+        task.deletePdf();
+        assertFalse(stored.exists());
+        assertNull(task.getPdfFile());
+    }
+
+    private static ExtractionTask newTask(String fileName) {
+        ExtractionTask task = new ExtractionTask();
+        task.setPdf(new byte[]{1, 2, 3});
+        task.setFileName(fileName);
+        task.setCreationDate(new Date());
+        task.setStatus(ExtractionTask.TaskStatus.QUEUED);
+        return task;
+    }
+
+}